@@ -0,0 +1,67 @@
+package com.lyq.benchmark;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.lyq.model.CommandResult;
+import com.lyq.service.SSHConnectionService;
+import com.lyq.util.SSHUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSHConnectionService.executeCommandWithLog 大输出吞吐量基准测试
+ * 模拟tar -v、日志查看等产生大量输出的命令，结果中的megabytes即MB/s
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 5)
+public class CommandOutputBenchmark {
+
+    @Param({"65536", "1048576", "16777216"})
+    public long outputBytes;
+
+    private EmbeddedSshServer server;
+    private Session session;
+    private SSHConnectionService sshService;
+    private String command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JSchException {
+        server = EmbeddedSshServer.startDefault();
+        session = SSHUtil.createSession(server.getHost(), server.getPort(),
+                EmbeddedSshServer.USERNAME, EmbeddedSshServer.PASSWORD);
+        session.connect();
+        sshService = new SSHConnectionService();
+        command = "hads-generate " + outputBytes;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SSHUtil.closeSession(session);
+        server.close();
+    }
+
+    @Benchmark
+    public CommandResult executeCommandWithLog(TransferCounters counters) {
+        CommandResult result = sshService.executeCommandWithLog(session, command, null);
+        counters.add(result.getOutput().length());
+        return result;
+    }
+}
@@ -0,0 +1,243 @@
+package com.lyq.benchmark;
+
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.SourceType;
+import com.lyq.service.DeploymentService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 端到端部署吞吐量基准测试
+ * 针对不同规模的模拟集群运行完整的 DeploymentService.deploy，
+ * 输出总耗时、各阶段耗时和堆内存峰值，用于绘制扩展曲线
+ *
+ * 运行方式：
+ * mvn -Pbenchmark test-compile exec:exec@deploy-benchmark -Ddeploy.args="--nodes=3,10,50,200 --latency-ms=1"
+ *
+ * 参数：
+ * --nodes             节点数量列表，逗号分隔（默认 3,10,50,200）
+ * --latency-ms        单向网络延迟（默认 1）
+ * --bandwidth-mbps    每个节点的带宽（Mbit/s，默认 1000，0表示不限速）
+ * --command-delay-ms  每条远程命令的模拟执行耗时（默认 0）
+ * --failure-rate      远程命令随机失败概率（默认 0）
+ * --dead-nodes        每轮中模拟宕机的节点数（默认 0）
+ * --artifact-mb       JDK/Hadoop安装包大小（MB），0表示使用预设版本不上传（默认 0）
+ * --output            CSV结果文件（默认 target/deploy-benchmark.csv）
+ */
+public class DeploymentBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+
+        List<Integer> nodeCounts = new ArrayList<>();
+        for (String count : options.getOrDefault("nodes", "3,10,50,200").split(",")) {
+            nodeCounts.add(Integer.parseInt(count.trim()));
+        }
+        long latencyMillis = Long.parseLong(options.getOrDefault("latency-ms", "1"));
+        long bytesPerSecond = Long.parseLong(options.getOrDefault("bandwidth-mbps", "1000")) * 1000 * 1000 / 8;
+        long commandDelayMillis = Long.parseLong(options.getOrDefault("command-delay-ms", "0"));
+        double failureRate = Double.parseDouble(options.getOrDefault("failure-rate", "0"));
+        int deadNodes = Integer.parseInt(options.getOrDefault("dead-nodes", "0"));
+        int artifactMb = Integer.parseInt(options.getOrDefault("artifact-mb", "0"));
+        File output = new File(options.getOrDefault("output", "target/deploy-benchmark.csv"));
+
+        File jdkArtifact = null;
+        File hadoopArtifact = null;
+        if (artifactMb > 0) {
+            jdkArtifact = FileTransferBenchmark.createRandomFile(artifactMb);
+            hadoopArtifact = FileTransferBenchmark.createRandomFile(artifactMb);
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        try {
+            for (int nodeCount : nodeCounts) {
+                try (SimulatedCluster cluster = SimulatedCluster.start(nodeCount, latencyMillis,
+                        bytesPerSecond, commandDelayMillis, failureRate, deadNodes)) {
+                    DeploymentConfig config = cluster.toDeploymentConfig();
+                    if (artifactMb > 0) {
+                        config.getJdkConfig().setSourceType(SourceType.LOCAL_FILE);
+                        config.getJdkConfig().setLocalFilePath(jdkArtifact.getAbsolutePath());
+                        config.getHadoopConfig().setSourceType(SourceType.LOCAL_FILE);
+                        config.getHadoopConfig().setLocalFilePath(hadoopArtifact.getAbsolutePath());
+                    }
+
+                    RunResult result = runDeployment(nodeCount, config);
+                    results.add(result);
+                    System.out.println(result.summary());
+                }
+            }
+        } finally {
+            if (jdkArtifact != null) {
+                Files.deleteIfExists(jdkArtifact.toPath());
+                Files.deleteIfExists(hadoopArtifact.toPath());
+            }
+        }
+
+        writeCsv(output, results);
+        System.out.println("结果已写入: " + output.getAbsolutePath());
+    }
+
+    /**
+     * 执行一次完整部署并记录耗时和内存
+     */
+    private static RunResult runDeployment(int nodeCount, DeploymentConfig config) {
+        PhaseRecorder recorder = new PhaseRecorder();
+
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+
+        long startTime = System.nanoTime();
+        new DeploymentService().deploy(config, recorder);
+        long wallMillis = (System.nanoTime() - startTime) / 1_000_000;
+        recorder.finish();
+
+        // 各堆内存池峰值之和（略高于真实的同时刻峰值）
+        long peakHeapBytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return new RunResult(nodeCount, wallMillis, peakHeapBytes, recorder.phaseMillis,
+                recorder.errorCount.get(), recorder.completed);
+    }
+
+    private static void writeCsv(File output, List<RunResult> results) throws IOException {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+
+        Set<String> phases = new LinkedHashSet<>();
+        for (RunResult result : results) {
+            phases.addAll(result.phaseMillis.keySet());
+        }
+
+        try (PrintWriter writer = new PrintWriter(output, StandardCharsets.UTF_8.name())) {
+            StringBuilder header = new StringBuilder("nodes,wall_ms,peak_heap_mb,errors,completed");
+            for (String phase : phases) {
+                header.append(',').append(phase).append("_ms");
+            }
+            writer.println(header);
+
+            for (RunResult result : results) {
+                StringBuilder line = new StringBuilder()
+                        .append(result.nodeCount).append(',')
+                        .append(result.wallMillis).append(',')
+                        .append(result.peakHeapBytes / (1024 * 1024)).append(',')
+                        .append(result.errorCount).append(',')
+                        .append(result.completed);
+                for (String phase : phases) {
+                    line.append(',').append(result.phaseMillis.getOrDefault(phase, 0L));
+                }
+                writer.println(line);
+            }
+        }
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int index = arg.indexOf('=');
+                options.put(arg.substring(2, index), arg.substring(index + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * 部署进度记录器
+     * 通过步骤切换的时间点计算各阶段耗时
+     */
+    private static class PhaseRecorder implements DeploymentService.DeploymentProgressListener {
+        private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private String currentPhase;
+        private long phaseStart;
+        private boolean completed;
+
+        @Override
+        public synchronized void onStepChange(String step) {
+            closePhase();
+            currentPhase = step;
+            phaseStart = System.nanoTime();
+        }
+
+        @Override
+        public void onProgressChange(int current, int total) {
+        }
+
+        @Override
+        public void onLog(String log) {
+        }
+
+        @Override
+        public void onError(String error) {
+            errorCount.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            completed = true;
+        }
+
+        synchronized void finish() {
+            closePhase();
+            currentPhase = null;
+        }
+
+        private void closePhase() {
+            if (currentPhase != null) {
+                phaseMillis.merge(currentPhase, (System.nanoTime() - phaseStart) / 1_000_000, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * 单次部署的结果
+     */
+    private static class RunResult {
+        final int nodeCount;
+        final long wallMillis;
+        final long peakHeapBytes;
+        final Map<String, Long> phaseMillis;
+        final int errorCount;
+        final boolean completed;
+
+        RunResult(int nodeCount, long wallMillis, long peakHeapBytes, Map<String, Long> phaseMillis,
+                  int errorCount, boolean completed) {
+            this.nodeCount = nodeCount;
+            this.wallMillis = wallMillis;
+            this.peakHeapBytes = peakHeapBytes;
+            this.phaseMillis = phaseMillis;
+            this.errorCount = errorCount;
+            this.completed = completed;
+        }
+
+        String summary() {
+            return String.format("节点数=%d 总耗时=%dms 堆峰值=%dMB 错误=%d 完成=%s 阶段=%s",
+                    nodeCount, wallMillis, peakHeapBytes / (1024 * 1024), errorCount, completed, phaseMillis);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.lyq.benchmark;
+
+import com.lyq.model.VMConnectionConfig;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.command.CommandFactory;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * 内嵌SSH/SFTP服务器
+ * 基于Apache MINA SSHD模拟一台可通过SSH登录的虚拟机，
+ * SFTP根目录映射到临时目录，命令由 {@link SimulatedCommandFactory} 模拟执行
+ */
+public class EmbeddedSshServer implements Closeable {
+
+    public static final String USERNAME = "hads";
+    public static final String PASSWORD = "hads";
+
+    private final SshServer server;
+    private final Path rootDir;
+
+    /**
+     * 构造函数
+     *
+     * @param host           监听地址
+     * @param commandFactory 命令工厂
+     * @throws IOException 创建临时目录失败时抛出异常
+     */
+    public EmbeddedSshServer(String host, CommandFactory commandFactory) throws IOException {
+        this.rootDir = Files.createTempDirectory("hads-sshd-");
+
+        this.server = SshServer.setUpDefaultServer();
+        server.setHost(host);
+        server.setPort(0);
+        server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        server.setPasswordAuthenticator((username, password, session) ->
+                USERNAME.equals(username) && PASSWORD.equals(password));
+        server.setCommandFactory(commandFactory);
+        server.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        server.setFileSystemFactory(new VirtualFileSystemFactory(rootDir));
+    }
+
+    /**
+     * 在本地回环地址上启动一台使用模拟命令的服务器
+     *
+     * @return 已启动的服务器
+     * @throws IOException 启动失败时抛出异常
+     */
+    public static EmbeddedSshServer startDefault() throws IOException {
+        EmbeddedSshServer server = new EmbeddedSshServer("127.0.0.1", new SimulatedCommandFactory());
+        server.start();
+        return server;
+    }
+
+    public void start() throws IOException {
+        server.start();
+    }
+
+    public String getHost() {
+        return server.getHost();
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    public Path getRootDir() {
+        return rootDir;
+    }
+
+    /**
+     * 生成连接到本服务器的虚拟机连接配置
+     *
+     * @param index 虚拟机编号
+     * @return 连接配置
+     */
+    public VMConnectionConfig toConnectionConfig(int index) {
+        return new VMConnectionConfig(index, getHost(), "hadoop" + (100 + index),
+                USERNAME, PASSWORD, getPort(), 30000);
+    }
+
+    /**
+     * 停止服务器并删除临时目录
+     */
+    @Override
+    public void close() throws IOException {
+        server.stop(true);
+
+        try (Stream<Path> paths = Files.walk(rootDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.lyq.benchmark;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.lyq.service.FileTransferService;
+import com.lyq.util.SSHUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileTransferService.uploadFile 上传速率基准测试
+ * 使用随机内容的本地文件（不可压缩），结果中的megabytes即MB/s
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class FileTransferBenchmark {
+
+    @Param({"1", "16", "128"})
+    public int fileSizeMb;
+
+    private EmbeddedSshServer server;
+    private Session session;
+    private FileTransferService fileTransferService;
+    private File localFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JSchException {
+        server = EmbeddedSshServer.startDefault();
+        session = SSHUtil.createSession(server.getHost(), server.getPort(),
+                EmbeddedSshServer.USERNAME, EmbeddedSshServer.PASSWORD);
+        session.connect();
+        fileTransferService = new FileTransferService();
+        localFile = createRandomFile(fileSizeMb);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SSHUtil.closeSession(session);
+        server.close();
+        Files.deleteIfExists(localFile.toPath());
+    }
+
+    @Benchmark
+    public boolean uploadFile(TransferCounters counters) {
+        boolean success = fileTransferService.uploadFile(session, localFile.getAbsolutePath(),
+                "/opt/software", null);
+        if (success) {
+            counters.add(localFile.length());
+        }
+        return success;
+    }
+
+    /**
+     * 创建指定大小的随机内容文件
+     *
+     * @param sizeMb 文件大小（MB）
+     * @return 临时文件
+     * @throws IOException 写入失败时抛出异常
+     */
+    static File createRandomFile(int sizeMb) throws IOException {
+        File file = File.createTempFile("hads-bench-", ".bin");
+        byte[] buffer = new byte[1024 * 1024];
+        Random random = new Random(42);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            for (int i = 0; i < sizeMb; i++) {
+                random.nextBytes(buffer);
+                raf.write(buffer);
+            }
+        }
+        return file;
+    }
+}
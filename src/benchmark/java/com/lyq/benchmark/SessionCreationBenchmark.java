@@ -0,0 +1,57 @@
+package com.lyq.benchmark;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.lyq.util.SSHUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSH会话创建开销基准测试
+ * 测量一次完整的 创建会话 + 密钥交换 + 密码认证 + 断开 的耗时
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class SessionCreationBenchmark {
+
+    private EmbeddedSshServer server;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = EmbeddedSshServer.startDefault();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public boolean createSession() throws JSchException {
+        Session session = SSHUtil.createSession(server.getHost(), server.getPort(),
+                EmbeddedSshServer.USERNAME, EmbeddedSshServer.PASSWORD);
+        try {
+            session.connect();
+            return session.isConnected();
+        } finally {
+            SSHUtil.closeSession(session);
+        }
+    }
+}
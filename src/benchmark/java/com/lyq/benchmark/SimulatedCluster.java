@@ -0,0 +1,149 @@
+package com.lyq.benchmark;
+
+import com.google.gson.JsonObject;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.VMConnectionConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模拟集群
+ * 在本机启动N个内嵌SSH/SFTP节点，每个节点前置一个限速代理。
+ * 由于SSH会话按IP缓存，每个节点的代理监听在不同的127.x.y.z回环地址上（需Linux）
+ *
+ * 前三个节点（一键部署模式下的主节点）同时在NameNode、SecondaryNameNode和
+ * ResourceManager的Web端口上提供模拟的 /jmx 接口，报告所有存活节点已注册
+ */
+public class SimulatedCluster implements Closeable {
+
+    private final List<EmbeddedSshServer> servers = new ArrayList<>();
+    private final List<ThrottledProxy> proxies = new ArrayList<>();
+    private final List<SimulatedJmxServer> jmxServers = new ArrayList<>();
+
+    /**
+     * 主节点数量（一键部署模式）
+     */
+    private static final int MASTER_NODES = 3;
+
+    /**
+     * NameNode、SecondaryNameNode、ResourceManager的Web端口
+     */
+    private static final int[] MASTER_WEB_PORTS = {9870, 9868, 8088};
+
+    /**
+     * 启动模拟集群
+     *
+     * @param nodeCount          节点数量
+     * @param latencyMillis      单向网络延迟（毫秒）
+     * @param bytesPerSecond     每个节点每个方向的带宽（字节/秒），0表示不限速
+     * @param commandDelayMillis 每条远程命令的模拟执行耗时（毫秒）
+     * @param failureRate        远程命令随机失败的概率（0-1）
+     * @param deadNodes          模拟宕机（拒绝连接）的节点数量
+     * @return 已启动的模拟集群
+     * @throws IOException 启动失败时抛出异常
+     */
+    public static SimulatedCluster start(int nodeCount, long latencyMillis, long bytesPerSecond,
+                                         long commandDelayMillis, double failureRate,
+                                         int deadNodes) throws IOException {
+        SimulatedCluster cluster = new SimulatedCluster();
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                EmbeddedSshServer server = new EmbeddedSshServer("127.0.0.1",
+                        new SimulatedCommandFactory(commandDelayMillis, failureRate));
+                server.start();
+                cluster.servers.add(server);
+
+                ThrottledProxy proxy = new ThrottledProxy(loopbackAddress(i),
+                        server.getHost(), server.getPort(), latencyMillis, bytesPerSecond);
+                boolean dead = i >= nodeCount - deadNodes;
+                proxy.setRefuseConnections(dead);
+                proxy.start();
+                cluster.proxies.add(proxy);
+
+                if (i < MASTER_NODES && !dead) {
+                    SimulatedJmxServer jmx = new SimulatedJmxServer(loopbackAddress(i), MASTER_WEB_PORTS);
+                    cluster.jmxServers.add(jmx);
+                    addMasterBeans(jmx, nodeCount - deadNodes);
+                }
+            }
+        } catch (IOException e) {
+            cluster.close();
+            throw e;
+        }
+        return cluster;
+    }
+
+    /**
+     * 主节点上的JMX Bean：服务处于active状态，存活节点全部注册
+     */
+    private static void addMasterBeans(SimulatedJmxServer jmx, int liveNodes) {
+        JsonObject nameNodeStatus = new JsonObject();
+        nameNodeStatus.addProperty("State", "active");
+        jmx.putBean("Hadoop:service=NameNode,name=NameNodeStatus", nameNodeStatus);
+
+        JsonObject fsState = new JsonObject();
+        fsState.addProperty("NumLiveDataNodes", liveNodes);
+        fsState.addProperty("NumDeadDataNodes", 0);
+        jmx.putBean("Hadoop:service=NameNode,name=FSNamesystemState", fsState);
+
+        jmx.putBean("Hadoop:service=SecondaryNameNode,name=SecondaryNameNodeInfo", new JsonObject());
+
+        JsonObject clusterMetrics = new JsonObject();
+        clusterMetrics.addProperty("NumActiveNMs", liveNodes);
+        jmx.putBean("Hadoop:service=ResourceManager,name=ClusterMetrics", clusterMetrics);
+    }
+
+    /**
+     * 第i个节点的回环地址：127.1.(i/250).(i%250+1)
+     */
+    private static String loopbackAddress(int i) {
+        return "127.1." + (i / 250) + "." + (i % 250 + 1);
+    }
+
+    public int size() {
+        return servers.size();
+    }
+
+    /**
+     * 生成指向模拟集群的部署配置
+     *
+     * @return 部署配置（JDK/Hadoop默认使用预设版本，可由调用方修改）
+     */
+    public DeploymentConfig toDeploymentConfig() {
+        DeploymentConfig config = new DeploymentConfig();
+        List<VMConnectionConfig> vmConfigs = new ArrayList<>();
+        String[] hostnames = new String[proxies.size()];
+
+        for (int i = 0; i < proxies.size(); i++) {
+            ThrottledProxy proxy = proxies.get(i);
+            hostnames[i] = "hadoop" + (101 + i);
+            vmConfigs.add(new VMConnectionConfig(i + 1, proxy.getHost(), hostnames[i],
+                    EmbeddedSshServer.USERNAME, EmbeddedSshServer.PASSWORD, proxy.getPort(), 30000));
+        }
+
+        config.setVmConfigs(vmConfigs);
+        config.setHostnames(hostnames);
+        // 模拟集群没有真实的HDFS，跳过性能验证
+        config.setVerifyPerformance(false);
+        return config;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SimulatedJmxServer jmx : jmxServers) {
+            jmx.close();
+        }
+        jmxServers.clear();
+        for (ThrottledProxy proxy : proxies) {
+            proxy.close();
+        }
+        for (EmbeddedSshServer server : servers) {
+            server.close();
+        }
+        proxies.clear();
+        servers.clear();
+    }
+}
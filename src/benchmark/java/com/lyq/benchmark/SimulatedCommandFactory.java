@@ -0,0 +1,193 @@
+package com.lyq.benchmark;
+
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.command.CommandFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 模拟命令工厂
+ * 不在宿主机上真正执行命令，只按约定返回输出，避免基准测试修改本机环境
+ *
+ * 支持的命令：
+ * - echo &lt;文本&gt;：原样输出文本
+ * - hads-generate &lt;字节数&gt;：输出指定字节数的文本行，用于测量大输出吞吐量
+ * - 参数中包含单独的 "-"（如 tar -xzf -）：读取并丢弃标准输入直到EOF，用于测量流式上传
+ * - 其他命令：无输出，退出码为0
+ *
+ * 可选注入命令执行耗时和随机失败，用于模拟真实节点上解压、格式化等操作
+ */
+public class SimulatedCommandFactory implements CommandFactory {
+
+    /**
+     * 生成输出时每行的内容（含换行共100字节）
+     */
+    private static final byte[] LINE = buildLine();
+
+    /**
+     * 从标准输入读取数据的命令（参数中包含单独的 "-"）
+     */
+    private static final Pattern READS_STDIN = Pattern.compile("(^|.*\\s)-(\\s.*|$)");
+
+    /**
+     * 每条命令的模拟执行耗时（毫秒）
+     */
+    private final long commandDelayMillis;
+
+    /**
+     * 命令随机失败的概率（0-1）
+     */
+    private final double failureRate;
+
+    /**
+     * 默认构造函数：命令立即完成且不会失败
+     */
+    public SimulatedCommandFactory() {
+        this(0, 0);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param commandDelayMillis 每条命令的模拟执行耗时（毫秒）
+     * @param failureRate        命令随机失败的概率（0-1）
+     */
+    public SimulatedCommandFactory(long commandDelayMillis, double failureRate) {
+        this.commandDelayMillis = commandDelayMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public Command createCommand(ChannelSession channel, String command) {
+        boolean fail = failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+        return new SimulatedCommand(command, commandDelayMillis, fail);
+    }
+
+    private static byte[] buildLine() {
+        byte[] line = new byte[100];
+        Arrays.fill(line, (byte) 'x');
+        line[line.length - 1] = '\n';
+        return line;
+    }
+
+    /**
+     * 模拟命令
+     * 在独立线程中产生输出，然后通过退出回调结束通道
+     */
+    private static class SimulatedCommand implements Command, Runnable {
+        private final String command;
+        private final long delayMillis;
+        private final boolean fail;
+        private InputStream in;
+        private OutputStream out;
+        private OutputStream err;
+        private ExitCallback callback;
+        private Thread worker;
+
+        SimulatedCommand(String command, long delayMillis, boolean fail) {
+            this.command = command == null ? "" : command.trim();
+            this.delayMillis = delayMillis;
+            this.fail = fail;
+        }
+
+        @Override
+        public void setInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void setOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void setErrorStream(OutputStream err) {
+            this.err = err;
+        }
+
+        @Override
+        public void setExitCallback(ExitCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void start(ChannelSession channel, Environment env) {
+            worker = new Thread(this, "simulated-command");
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        @Override
+        public void destroy(ChannelSession channel) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            int exitCode = 0;
+            try {
+                if (READS_STDIN.matcher(command).matches()) {
+                    drain();
+                }
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                if (fail) {
+                    throw new IOException("injected failure");
+                }
+                if (command.startsWith("echo ")) {
+                    String text = command.substring(5).replace("'", "").replace("\"", "");
+                    out.write((text + "\n").getBytes(StandardCharsets.UTF_8));
+                } else if (command.startsWith("hads-generate ")) {
+                    generate(Long.parseLong(command.substring(14).trim()));
+                }
+                out.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | NumberFormatException e) {
+                exitCode = 1;
+                try {
+                    err.write(("simulated command failed: " + e.getMessage() + "\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                    err.flush();
+                } catch (IOException ignored) {
+                    // 通道已关闭
+                }
+            }
+            callback.onExit(exitCode);
+        }
+
+        private void drain() throws IOException {
+            byte[] buffer = new byte[32 * 1024];
+            while (in.read(buffer) != -1) {
+                // 丢弃数据
+            }
+        }
+
+        private void generate(long totalBytes) throws IOException {
+            byte[] chunk = new byte[LINE.length * 640];
+            for (int i = 0; i < chunk.length; i += LINE.length) {
+                System.arraycopy(LINE, 0, chunk, i, LINE.length);
+            }
+
+            long remaining = totalBytes;
+            while (remaining > 0) {
+                int len = (int) Math.min(chunk.length, remaining);
+                out.write(chunk, 0, len);
+                remaining -= len;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.lyq.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模拟Hadoop守护进程的 /jmx 接口
+ * 在指定地址的多个端口上返回预设的JMX Bean，用于就绪检查和监控轮询
+ */
+public class SimulatedJmxServer implements Closeable {
+
+    private final Map<String, JsonObject> beans = new ConcurrentHashMap<>();
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    /**
+     * 在指定地址的多个端口上启动
+     *
+     * @param host  监听地址
+     * @param ports 监听端口
+     * @throws IOException 端口被占用时抛出异常
+     */
+    public SimulatedJmxServer(String host, int... ports) throws IOException {
+        try {
+            for (int port : ports) {
+                HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 50);
+                server.createContext("/jmx", this::handle);
+                server.start();
+                servers.add(server);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 设置Bean内容（name属性自动填充）
+     *
+     * @param name Bean名称
+     * @param bean Bean属性
+     */
+    public void putBean(String name, JsonObject bean) {
+        bean.addProperty("name", name);
+        beans.put(name, bean);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String qry = "*";
+        if (query != null && query.startsWith("qry=")) {
+            qry = URLDecoder.decode(query.substring(4), StandardCharsets.UTF_8.name());
+        }
+
+        JsonArray result = new JsonArray();
+        for (Map.Entry<String, JsonObject> entry : beans.entrySet()) {
+            if (matches(qry, entry.getKey())) {
+                result.add(entry.getValue());
+            }
+        }
+
+        JsonObject root = new JsonObject();
+        root.add("beans", result);
+        byte[] body = root.toString().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 支持完整名称和以 * 结尾的前缀查询
+     */
+    private static boolean matches(String query, String name) {
+        if (query.endsWith("*")) {
+            return name.startsWith(query.substring(0, query.length() - 1));
+        }
+        return query.equals(name);
+    }
+
+    @Override
+    public void close() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+        servers.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.lyq.benchmark;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.lyq.util.SSHUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSHUtil.executeCommand 延迟基准测试
+ * 在已建立的会话上反复执行短命令，测量单条命令的往返延迟分布
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class SshCommandBenchmark {
+
+    private EmbeddedSshServer server;
+    private Session session;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JSchException {
+        server = EmbeddedSshServer.startDefault();
+        session = SSHUtil.createSession(server.getHost(), server.getPort(),
+                EmbeddedSshServer.USERNAME, EmbeddedSshServer.PASSWORD);
+        session.connect();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SSHUtil.closeSession(session);
+        server.close();
+    }
+
+    @Benchmark
+    public String executeCommand() throws JSchException, IOException {
+        return SSHUtil.executeCommand(session, "echo connection_test");
+    }
+}
@@ -0,0 +1,241 @@
+package com.lyq.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 限速TCP代理
+ * 位于客户端与内嵌SSH服务器之间，为每个方向注入单向延迟和带宽上限，
+ * 并可模拟节点宕机（接受连接后立即关闭）
+ */
+public class ThrottledProxy implements Closeable {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * 数据流结束标记
+     */
+    private static final Chunk EOF = new Chunk(new byte[0], 0, 0);
+
+    private final ServerSocket serverSocket;
+    private final String targetHost;
+    private final int targetPort;
+    private final long latencyMillis;
+    private final long bytesPerSecond;
+    private final ExecutorService executor;
+
+    private volatile boolean refuseConnections;
+    private volatile boolean closed;
+
+    /**
+     * 构造函数
+     *
+     * @param listenHost     代理监听地址
+     * @param targetHost     目标服务器地址
+     * @param targetPort     目标服务器端口
+     * @param latencyMillis  单向延迟（毫秒），0表示不注入
+     * @param bytesPerSecond 每个方向的带宽上限（字节/秒），0表示不限速
+     * @throws IOException 监听失败时抛出异常
+     */
+    public ThrottledProxy(String listenHost, String targetHost, int targetPort,
+                          long latencyMillis, long bytesPerSecond) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getByName(listenHost));
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.latencyMillis = latencyMillis;
+        this.bytesPerSecond = bytesPerSecond;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "throttled-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 开始接受连接
+     */
+    public void start() {
+        executor.submit(this::acceptLoop);
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 设置是否拒绝连接（模拟节点宕机）
+     *
+     * @param refuseConnections true表示接受连接后立即关闭
+     */
+    public void setRefuseConnections(boolean refuseConnections) {
+        this.refuseConnections = refuseConnections;
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket client = serverSocket.accept();
+                if (refuseConnections) {
+                    client.close();
+                    continue;
+                }
+                connect(client);
+            } catch (IOException e) {
+                if (!closed) {
+                    // 单个连接失败不影响后续连接
+                    continue;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 连接目标服务器并建立双向转发，连接失败时关闭已接受的客户端连接
+     */
+    private void connect(Socket client) throws IOException {
+        Socket upstream;
+        try {
+            upstream = new Socket(targetHost, targetPort);
+            client.setTcpNoDelay(true);
+            upstream.setTcpNoDelay(true);
+        } catch (IOException e) {
+            closeQuietly(client);
+            throw e;
+        }
+        AtomicInteger openDirections = new AtomicInteger(2);
+        pipe(client, upstream, openDirections);
+        pipe(upstream, client, openDirections);
+    }
+
+    /**
+     * 建立单向转发：读取线程给数据块打上到期时间，写入线程按延迟和带宽发送
+     */
+    private void pipe(Socket from, Socket to, AtomicInteger openDirections) {
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>(256);
+
+        executor.submit(() -> {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            try {
+                // 不能关闭输入流，否则会关闭整个Socket影响反方向传输
+                InputStream in = from.getInputStream();
+                int len;
+                while ((len = in.read(buffer)) != -1) {
+                    byte[] data = new byte[len];
+                    System.arraycopy(buffer, 0, data, 0, len);
+                    queue.put(new Chunk(data, len, System.currentTimeMillis() + latencyMillis));
+                }
+            } catch (IOException e) {
+                // 连接被关闭
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                putEof(queue, to);
+            }
+        });
+
+        executor.submit(() -> {
+            long nextSendTime = 0;
+            try {
+                OutputStream out = to.getOutputStream();
+                while (true) {
+                    Chunk chunk = queue.take();
+                    if (chunk == EOF) {
+                        break;
+                    }
+
+                    sleepUntil(chunk.dueTime);
+                    if (bytesPerSecond > 0) {
+                        // 按带宽计算本数据块最早的发送完成时间，空闲时间不累积额度
+                        nextSendTime = Math.max(nextSendTime, System.currentTimeMillis())
+                                + chunk.length * 1000L / bytesPerSecond;
+                        sleepUntil(nextSendTime);
+                    }
+
+                    out.write(chunk.data, 0, chunk.length);
+                    out.flush();
+                }
+                to.shutdownOutput();
+                if (openDirections.decrementAndGet() > 0) {
+                    // 另一方向仍在传输，由其负责关闭连接
+                    return;
+                }
+            } catch (IOException e) {
+                // 连接被关闭
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeQuietly(from);
+            closeQuietly(to);
+        });
+    }
+
+    /**
+     * 放入结束标记，队列满时阻塞等待写入线程取走数据；
+     * 写入线程因异常退出时会关闭目标连接，不再有人取数据，此时放弃等待
+     */
+    private static void putEof(BlockingQueue<Chunk> queue, Socket to) {
+        try {
+            while (!queue.offer(EOF, 100, TimeUnit.MILLISECONDS)) {
+                if (to.isClosed()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // 代理关闭
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepUntil(long time) throws InterruptedException {
+        long wait = time - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 忽略关闭异常
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 带到期时间的数据块
+     */
+    private static class Chunk {
+        final byte[] data;
+        final int length;
+        final long dueTime;
+
+        Chunk(byte[] data, int length, long dueTime) {
+            this.data = data;
+            this.length = length;
+            this.dueTime = dueTime;
+        }
+    }
+}
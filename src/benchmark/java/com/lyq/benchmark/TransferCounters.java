@@ -0,0 +1,32 @@
+package com.lyq.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 传输量辅助计数器
+ * 在Throughput模式下JMH会将megabytes按时间归一化，直接输出MB/s
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class TransferCounters {
+
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+
+    /**
+     * 累加传输的字节数
+     *
+     * @param bytes 字节数
+     */
+    public void add(long bytes) {
+        megabytes += bytes / (1024.0 * 1024.0);
+    }
+}
@@ -75,10 +75,8 @@ public class ClusterConfigController {
     @FXML
     private Button startDeployBtn;
 
-    // 连接信息存储
-    private String[] vmIps = new String[3];
-    private String[] vmUsernames = new String[3];
-    private String[] vmPasswords = new String[3];
+    // 连接信息存储（节点清单，数量不限）
+    private List<VMConnectionConfig> vmConfigs = new ArrayList<>();
 
     @FXML
     public void initialize() {
@@ -133,24 +131,28 @@ public class ClusterConfigController {
         }
     }
 
-    public void setVmConnectionInfo(String vm1Ip, String vm2Ip, String vm3Ip,
-            String vm1User, String vm2User, String vm3User,
-            String vm1Pass, String vm2Pass, String vm3Pass) {
-        vm1IpField.setText(vm1Ip);
-        vm2IpField.setText(vm2Ip);
-        vm3IpField.setText(vm3Ip);
-
-        vmIps[0] = vm1Ip;
-        vmIps[1] = vm2Ip;
-        vmIps[2] = vm3Ip;
-        vmUsernames[0] = vm1User;
-        vmUsernames[1] = vm2User;
-        vmUsernames[2] = vm3User;
-        vmPasswords[0] = vm1Pass;
-        vmPasswords[1] = vm2Pass;
-        vmPasswords[2] = vm3Pass;
-
-        logger.info("已设置虚拟机连接信息");
+    /**
+     * 设置节点连接信息
+     * 界面只展示前3个节点，其余节点的主机名使用连接配置中的主机名
+     *
+     * @param configs 节点连接配置列表
+     */
+    public void setVmConnectionInfo(List<VMConnectionConfig> configs) {
+        TextField[] ipFields = {vm1IpField, vm2IpField, vm3IpField};
+        TextField[] hostnameFields = {vm1HostnameField, vm2HostnameField, vm3HostnameField};
+        for (int i = 0; i < ipFields.length; i++) {
+            boolean present = i < configs.size();
+            ipFields[i].setText(present ? configs.get(i).getIp() : "");
+            ipFields[i].setDisable(!present);
+            hostnameFields[i].setDisable(!present);
+            if (present && configs.get(i).getHostname() != null && !configs.get(i).getHostname().isEmpty()) {
+                hostnameFields[i].setText(configs.get(i).getHostname());
+            }
+        }
+
+        vmConfigs = new ArrayList<>(configs);
+
+        logger.info("已设置{}个节点的连接信息", configs.size());
     }
 
     @FXML
@@ -238,23 +240,15 @@ public class ClusterConfigController {
         DeploymentConfig config = new DeploymentConfig();
 
         // 构建VM配置
-        List<VMConnectionConfig> vmConfigs = new ArrayList<>();
-        for (int i = 0; i < 3; i++) {
-            VMConnectionConfig vmConfig = new VMConnectionConfig();
-            vmConfig.setIndex(i + 1);
-            vmConfig.setIp(vmIps[i]);
-            vmConfig.setUsername(vmUsernames[i]);
-            vmConfig.setPassword(vmPasswords[i]);
-            vmConfigs.add(vmConfig);
-        }
-        config.setVmConfigs(vmConfigs);
+        config.setVmConfigs(new ArrayList<>(vmConfigs));
 
-        // 设置主机名
-        config.setHostnames(new String[] {
-                vm1HostnameField.getText(),
-                vm2HostnameField.getText(),
-                vm3HostnameField.getText()
-        });
+        // 设置主机名：前3个节点取界面输入，其余沿用连接配置中的主机名
+        TextField[] hostnameFields = {vm1HostnameField, vm2HostnameField, vm3HostnameField};
+        String[] hostnames = new String[vmConfigs.size()];
+        for (int i = 0; i < hostnames.length; i++) {
+            hostnames[i] = i < hostnameFields.length ? hostnameFields[i].getText() : vmConfigs.get(i).getHostname();
+        }
+        config.setHostnames(hostnames);
 
         // JDK配置
         JDKConfig jdkConfig = new JDKConfig();
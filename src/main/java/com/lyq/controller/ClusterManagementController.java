@@ -1,10 +1,50 @@
 package com.lyq.controller;
 
+import com.lyq.model.BenchmarkReport;
+import com.lyq.model.BenchmarkResult;
+import com.lyq.model.ClusterStatus;
+import com.lyq.model.CommandResult;
+import com.lyq.model.DaemonStatus;
+import com.lyq.model.DeployMode;
+import com.lyq.model.DeployModeConfig;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.HdfsLoadResult;
+import com.lyq.model.LinkResult;
+import com.lyq.model.NetworkMatrix;
+import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.service.ClusterMonitorService;
+import com.lyq.service.ClusterOperationService;
+import com.lyq.service.ConfigService;
+import com.lyq.service.HdfsBenchmarkService;
+import com.lyq.service.HadoopUpgradeService;
+import com.lyq.service.HdfsLoaderService;
+import com.lyq.service.LogCallback;
+import com.lyq.service.NetworkTestService;
+import com.lyq.service.SSHConnectionService;
+import com.lyq.service.YarnBenchmarkService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.geometry.Pos;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
 /**
  * 集群管理界面控制器
  */
@@ -12,63 +52,673 @@ public class ClusterManagementController {
 
     private static final Logger logger = LogManager.getLogger(ClusterManagementController.class);
 
+    /**
+     * 状态轮询间隔（毫秒）
+     */
+    private static final long MONITOR_INTERVAL_MS = 5000;
+
+    /**
+     * 性能测试参数：每个DataNode对应的测试文件数、单个文件大小（MB）、每个线程每种元数据操作的次数、
+     * 每个NodeManager对应的测试容器数、等待容器完成的超时时间（毫秒）
+     */
+    private static final int BENCHMARK_FILES_PER_DATANODE = 4;
+    private static final int BENCHMARK_FILE_SIZE_MB = 128;
+    private static final int BENCHMARK_METADATA_OPS_PER_THREAD = 200;
+    private static final int BENCHMARK_CONTAINERS_PER_NODEMANAGER = 8;
+    private static final long BENCHMARK_CONTAINER_TIMEOUT_MS = 300000;
+
+    /**
+     * 导入数据时的并发写入线程数
+     */
+    private static final int IMPORT_THREADS = 8;
+
+    /**
+     * 节点状态列表，每个虚拟机一行
+     */
+    @FXML
+    private ListView<VMConnectionConfig> nodeStatusList;
+
     @FXML
-    private Label vm1StatusLabel;
+    private Label capacityLabel;
 
     @FXML
-    private Label vm2StatusLabel;
+    private Label dataNodesLabel;
 
     @FXML
-    private Label vm3StatusLabel;
+    private Label rpcQueueLabel;
+
+    @FXML
+    private Label heapLabel;
+
+    @FXML
+    private Label nodeManagersLabel;
+
+    @FXML
+    private Label containersLabel;
+
+    @FXML
+    private Label updateTimeLabel;
+
+    private final ConfigService configService = new ConfigService();
+
+    private final SSHConnectionService sshService = new SSHConnectionService();
+
+    private final AtomicBoolean operationRunning = new AtomicBoolean(false);
+
+    private DeploymentConfig deploymentConfig;
+
+    /**
+     * 最近一次轮询得到的各节点守护进程状态（虚拟机编号 -> 守护进程状态），只在界面线程中访问
+     */
+    private final Map<Integer, List<DaemonStatus>> nodeDaemons = new HashMap<>();
+
+    private ClusterMonitorService monitorService;
+
+    private ClusterOperationService operationService;
+
+    private NetworkTestService networkTestService;
+
+    private final HdfsBenchmarkService benchmarkService = new HdfsBenchmarkService();
+
+    private final YarnBenchmarkService yarnBenchmarkService = new YarnBenchmarkService();
+
+    private final HdfsLoaderService loaderService = new HdfsLoaderService();
+
+    private final HadoopUpgradeService upgradeService = new HadoopUpgradeService(sshService);
 
     @FXML
     public void initialize() {
         logger.info("初始化集群管理界面");
+
+        nodeStatusList.setCellFactory(list -> new NodeStatusCell());
+
+        deploymentConfig = loadDeploymentConfig();
+        if (deploymentConfig == null) {
+            updateTimeLabel.setText("未找到虚拟机配置，无法获取集群状态");
+            return;
+        }
+        nodeStatusList.getItems().setAll(deploymentConfig.getVmConfigs());
+        operationService = new ClusterOperationService(sshService);
+        networkTestService = new NetworkTestService(sshService);
+
+        // 轮询在后台线程进行，界面只读取缓存的快照
+        monitorService = new ClusterMonitorService(deploymentConfig);
+        monitorService.start(MONITOR_INTERVAL_MS, status -> Platform.runLater(() -> showStatus(status)));
+    }
+
+    /**
+     * 由已保存的虚拟机连接配置和部署模式配置构建部署配置
+     *
+     * @return 部署配置，虚拟机配置不存在或加载失败时返回null
+     */
+    private DeploymentConfig loadDeploymentConfig() {
+        if (!configService.configExists()) {
+            logger.warn("虚拟机连接配置不存在，跳过集群监控");
+            return null;
+        }
+
+        try {
+            List<VMConnectionConfig> vmConfigs = configService.loadConfig();
+            DeployModeConfig deployModeConfig = configService.loadDeployModeConfig();
+            if (deployModeConfig.getMode() == DeployMode.QUICK && deployModeConfig.getNodeCount() != vmConfigs.size()) {
+                // 一键部署的角色按当前节点清单重新生成
+                deployModeConfig = new DeployModeConfig(vmConfigs.size());
+            }
+
+            DeploymentConfig config = new DeploymentConfig();
+            config.setVmConfigs(vmConfigs);
+            config.setDeployMode(deployModeConfig.getMode());
+
+            // 优先使用部署时按硬件放置的实际角色，没有部署记录时才使用部署模式配置中的分配
+            Map<Integer, List<NodeRole>> deployedRoles = configService.loadDeployedRoles(vmConfigs);
+            config.setRoleAssignments(deployedRoles != null ? deployedRoles : deployModeConfig.getRoleAssignments());
+            return config;
+        } catch (java.io.IOException e) {
+            logger.error("加载集群配置失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 刷新界面上的节点状态和集群指标
+     *
+     * @param status 集群状态快照
+     */
+    private void showStatus(ClusterStatus status) {
+        for (VMConnectionConfig vmConfig : deploymentConfig.getVmConfigs()) {
+            nodeDaemons.put(vmConfig.getIndex(), status.getDaemons(vmConfig.getIndex()));
+        }
+        nodeStatusList.refresh();
+
+        long used = status.getCapacityUsed();
+        long total = status.getCapacityTotal();
+        capacityLabel.setText(formatBytes(used) + " / " + formatBytes(total)
+                + (total > 0 ? String.format(" (%.1f%%)", used * 100.0 / total) : ""));
+        dataNodesLabel.setText("存活 " + status.getLiveDataNodes() + " / 失效 " + status.getDeadDataNodes()
+                + (status.getUnderReplicatedBlocks() > 0 ? "，副本不足块 " + status.getUnderReplicatedBlocks() : ""));
+        rpcQueueLabel.setText(String.format("%.2f ms", status.getRpcQueueTimeAvgMs()));
+        heapLabel.setText(String.format("%.0f MB / %.0f MB", status.getNameNodeHeapUsedMb(), status.getNameNodeHeapMaxMb()));
+        nodeManagersLabel.setText("活跃 " + status.getActiveNodeManagers() + " / 失联 " + status.getLostNodeManagers());
+        containersLabel.setText("运行 " + status.getRunningContainers() + " / 已分配 " + status.getAllocatedContainers()
+                + " / 等待 " + status.getPendingContainers());
+        updateTimeLabel.setText("更新时间: " + new SimpleDateFormat("HH:mm:ss").format(new Date(status.getUpdateTime())));
+    }
+
+    /**
+     * 节点状态列表的单元格：节点名称、IP、角色和守护进程运行状态
+     */
+    private final class NodeStatusCell extends ListCell<VMConnectionConfig> {
+        private final Label titleLabel = new Label();
+        private final Label ipLabel = new Label();
+        private final Label rolesLabel = new Label();
+        private final Label statusLabel = new Label();
+        private final HBox row = new HBox(15, titleLabel, ipLabel, rolesLabel, statusLabel);
+
+        NodeStatusCell() {
+            titleLabel.getStyleClass().add("node-title");
+            ipLabel.getStyleClass().add("node-info");
+            rolesLabel.getStyleClass().add("node-info");
+            row.setAlignment(Pos.CENTER_LEFT);
+        }
+
+        @Override
+        protected void updateItem(VMConnectionConfig vmConfig, boolean empty) {
+            super.updateItem(vmConfig, empty);
+            if (empty || vmConfig == null) {
+                setGraphic(null);
+                return;
+            }
+
+            titleLabel.setText("虚拟机" + vmConfig.getIndex() + " ("
+                    + deploymentConfig.getHostname(vmConfig.getIndex()) + ")");
+            ipLabel.setText("IP: " + vmConfig.getIp());
+            List<String> roles = new ArrayList<>();
+            for (NodeRole role : deploymentConfig.getRoleAssignments()
+                    .getOrDefault(vmConfig.getIndex(), Collections.emptyList())) {
+                roles.add(role.getDisplayName());
+            }
+            rolesLabel.setText("角色: " + String.join(", ", roles));
+            statusLabel.setText("状态: 检测中");
+            statusLabel.getStyleClass().setAll("status-running");
+            showNodeStatus(statusLabel, nodeDaemons.getOrDefault(vmConfig.getIndex(), Collections.emptyList()));
+            setGraphic(row);
+        }
+    }
+
+    private void showNodeStatus(Label label, List<DaemonStatus> daemons) {
+        if (label == null || daemons.isEmpty()) {
+            return;
+        }
+
+        int running = 0;
+        for (DaemonStatus daemon : daemons) {
+            if (daemon.isRunning()) {
+                running++;
+            }
+        }
+
+        if (running == daemons.size()) {
+            label.setText("状态: 运行中");
+        } else if (running == 0) {
+            label.setText("状态: 已停止");
+        } else {
+            label.setText("状态: 部分运行 (" + running + "/" + daemons.size() + ")");
+        }
+        label.getStyleClass().removeAll("status-running", "status-stopped");
+        label.getStyleClass().add(running == daemons.size() ? "status-running" : "status-stopped");
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024L * 1024L * 1024L) {
+            return String.format("%.1f MB", bytes / 1024.0 / 1024.0);
+        }
+        return String.format("%.2f GB", bytes / 1024.0 / 1024.0 / 1024.0);
     }
 
     @FXML
     private void handleStartCluster() {
         logger.info("启动集群");
-        showAlert(Alert.AlertType.INFORMATION, "启动集群",
-                "正在启动Hadoop集群...\n\n" +
-                        "• 启动HDFS服务\n" +
-                        "• 启动YARN服务\n" +
-                        "• 启动历史服务器\n\n" +
-                        "集群启动成功！");
+        runClusterOperation("启动集群", callback -> operationService.startCluster(deploymentConfig, callback));
     }
 
     @FXML
     private void handleStopCluster() {
         logger.info("停止集群");
-        showAlert(Alert.AlertType.INFORMATION, "停止集群",
-                "正在停止Hadoop集群...\n\n" +
-                        "• 停止历史服务器\n" +
-                        "• 停止YARN服务\n" +
-                        "• 停止HDFS服务\n\n" +
-                        "集群已停止！");
+        if (confirm("停止集群", "确定要停止所有节点上的Hadoop服务吗？")) {
+            runClusterOperation("停止集群", callback -> operationService.stopCluster(deploymentConfig, callback));
+        }
     }
 
     @FXML
     private void handleRestartCluster() {
         logger.info("重启集群");
-        showAlert(Alert.AlertType.INFORMATION, "重启集群",
-                "正在重启Hadoop集群...\n\n" +
-                        "集群重启成功！");
+        if (confirm("重启集群", "将依次重启主服务并等待就绪，再分批滚动重启工作节点，每批等待HDFS恢复后再继续，确定继续吗？")) {
+            runClusterOperation("重启集群", callback -> operationService.restartCluster(deploymentConfig, callback));
+        }
+    }
+
+    @FXML
+    private void handleRollingRestart() {
+        logger.info("滚动重启工作节点");
+        if (confirm("滚动重启", "将分批重启DataNode和NodeManager，每批等待HDFS副本恢复后再继续，确定继续吗？")) {
+            runClusterOperation("滚动重启", callback -> operationService.rollingRestartWorkers(deploymentConfig, callback));
+        }
+    }
+
+    @FXML
+    private void handleNetworkTest() {
+        logger.info("测试节点间网络");
+        if (networkTestService == null) {
+            showAlert(Alert.AlertType.WARNING, "网络测试", "未找到虚拟机配置，无法执行网络测试");
+            return;
+        }
+        if (!confirm("网络测试", "将在所有节点之间两两测试吞吐量和延迟，测试期间网络负载较高，确定继续吗？")) {
+            return;
+        }
+        if (!operationRunning.compareAndSet(false, true)) {
+            showAlert(Alert.AlertType.WARNING, "网络测试", "已有集群操作正在执行，请稍后再试");
+            return;
+        }
+
+        updateTimeLabel.setText("网络测试中...");
+        Thread thread = new Thread(() -> {
+            try {
+                NetworkMatrix matrix = networkTestService.runMatrix(deploymentConfig, new LogCallback() {
+                    @Override
+                    public void onLog(String log) {
+                        Platform.runLater(() -> updateTimeLabel.setText("网络测试: " + log));
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        logger.warn("网络测试: {}", error);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+                Platform.runLater(() -> showNetworkMatrix(matrix));
+            } catch (Exception e) {
+                logger.error("网络测试失败", e);
+                Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "网络测试", "网络测试失败: " + e.getMessage()));
+            } finally {
+                operationRunning.set(false);
+            }
+        }, "network-test");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 以矩阵形式显示网络测试结果：行为发送端，列为接收端，单元格为 吞吐量Mbps/往返延迟ms
+     *
+     * @param matrix 网络测试矩阵
+     */
+    private void showNetworkMatrix(NetworkMatrix matrix) {
+        StringBuilder table = new StringBuilder(String.format("%-12s", "发送\\接收"));
+        for (String hostname : matrix.getNodes().values()) {
+            table.append(String.format("%16s", hostname));
+        }
+        table.append("\n");
+        for (Map.Entry<Integer, String> source : matrix.getNodes().entrySet()) {
+            table.append(String.format("%-12s", source.getValue()));
+            for (Integer target : matrix.getNodes().keySet()) {
+                LinkResult link = matrix.getLink(source.getKey(), target);
+                String cell = source.getKey().equals(target) ? "-"
+                        : link == null || !link.isSuccess() ? "失败"
+                        : String.format("%.0f/%.2f", link.getThroughputMbps(), link.getRttMs());
+                table.append(String.format("%16s", cell));
+            }
+            table.append("\n");
+        }
+        table.append("\n单元格: 吞吐量Mbps/往返延迟ms，耗时").append(matrix.getDurationMs() / 1000).append("秒\n");
+        if (matrix.getWarnings().isEmpty()) {
+            table.append("\n未发现异常链路");
+        } else {
+            table.append("\n发现").append(matrix.getWarnings().size()).append("个问题:\n");
+            for (String warning : matrix.getWarnings()) {
+                table.append("  ").append(warning).append("\n");
+            }
+        }
+        updateTimeLabel.setText("网络测试完成");
+
+        TextArea textArea = new TextArea(table.toString());
+        textArea.setEditable(false);
+        textArea.setStyle("-fx-font-family: monospace;");
+        textArea.setPrefSize(700, 400);
+
+        Alert alert = new Alert(matrix.getWarnings().isEmpty() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+        alert.setTitle("网络测试");
+        alert.setHeaderText(null);
+        alert.getDialogPane().setContent(textArea);
+        alert.setResizable(true);
+        alert.showAndWait();
+    }
+
+    /**
+     * 性能测试：按用户指定的并发线程数执行DFSIO读写测试和NameNode元数据操作测试，
+     * 再执行YARN容器启动测试，保存并显示测试报告
+     */
+    @FXML
+    private void handlePerformanceTest() {
+        logger.info("执行性能测试");
+        if (deploymentConfig == null) {
+            showAlert(Alert.AlertType.WARNING, "性能测试", "未找到虚拟机配置，无法执行性能测试");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog("16");
+        dialog.setTitle("性能测试");
+        dialog.setHeaderText("将在HDFS中读写测试文件、执行大量元数据操作并提交一批YARN测试容器，测试数据结束后自动删除");
+        dialog.setContentText("并发线程数:");
+        Optional<String> input = dialog.showAndWait();
+        if (!input.isPresent()) {
+            return;
+        }
+        int threads;
+        try {
+            threads = Integer.parseInt(input.get().trim());
+        } catch (NumberFormatException e) {
+            threads = 0;
+        }
+        if (threads < 1 || threads > 256) {
+            showAlert(Alert.AlertType.WARNING, "性能测试", "并发线程数应为1-256之间的整数");
+            return;
+        }
+        if (!operationRunning.compareAndSet(false, true)) {
+            showAlert(Alert.AlertType.WARNING, "性能测试", "已有集群操作正在执行，请稍后再试");
+            return;
+        }
+
+        int threadCount = threads;
+        int fileCount = Math.max(1, deploymentConfig.getVmConfigsWithRole(NodeRole.DATANODE).size())
+                * BENCHMARK_FILES_PER_DATANODE;
+        int containerCount = Math.max(1, deploymentConfig.getVmConfigsWithRole(NodeRole.NODEMANAGER).size())
+                * BENCHMARK_CONTAINERS_PER_NODEMANAGER;
+        updateTimeLabel.setText("性能测试中...");
+        Thread thread = new Thread(() -> {
+            LogCallback callback = new LogCallback() {
+                @Override
+                public void onLog(String log) {
+                    Platform.runLater(() -> updateTimeLabel.setText("性能测试: " + log));
+                }
+
+                @Override
+                public void onError(String error) {
+                    logger.warn("性能测试: {}", error);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            };
+
+            try {
+                List<BenchmarkReport> reports = new ArrayList<>();
+                reports.add(benchmarkService.runDfsIo(deploymentConfig, fileCount, BENCHMARK_FILE_SIZE_MB,
+                        Math.min(fileCount, threadCount), callback));
+                reports.add(benchmarkService.runNnBench(deploymentConfig, BENCHMARK_METADATA_OPS_PER_THREAD,
+                        threadCount, callback));
+                reports.add(yarnBenchmarkService.runContainerLaunch(deploymentConfig, containerCount,
+                        BENCHMARK_CONTAINER_TIMEOUT_MS, callback));
+
+                StringBuilder text = new StringBuilder();
+                for (BenchmarkReport report : reports) {
+                    text.append(formatReport(report))
+                            .append("报告文件: ").append(configService.saveBenchmarkReport(report)).append("\n\n");
+                }
+                boolean hasWarnings = reports.stream().anyMatch(report -> !report.getWarnings().isEmpty());
+                Platform.runLater(() -> showBenchmarkText(text.toString(), hasWarnings));
+            } catch (Exception e) {
+                logger.error("性能测试失败", e);
+                Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "性能测试", "性能测试失败: " + e.getMessage()));
+            } finally {
+                operationRunning.set(false);
+            }
+        }, "performance-test");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 将测试报告格式化为文本：每项操作一行统计和一行延迟分布，最后列出发现的问题
+     *
+     * @param report 测试报告
+     * @return 报告文本
+     */
+    private String formatReport(BenchmarkReport report) {
+        StringBuilder text = new StringBuilder("[").append(report.getType()).append("] ")
+                .append(report.getTarget()).append(" ").append(report.getParameters()).append("\n");
+        for (BenchmarkResult result : report.getResults()) {
+            text.append("  ").append(HdfsBenchmarkService.describe(result)).append("\n")
+                    .append("    延迟分布: ").append(result.getLatencyHistogram()).append("\n");
+        }
+        for (String warning : report.getWarnings()) {
+            text.append("  ! ").append(warning).append("\n");
+        }
+        return text.toString();
+    }
+
+    private void showBenchmarkText(String text, boolean hasWarnings) {
+        updateTimeLabel.setText("性能测试完成");
+
+        TextArea textArea = new TextArea(text);
+        textArea.setEditable(false);
+        textArea.setStyle("-fx-font-family: monospace;");
+        textArea.setPrefSize(700, 400);
+
+        Alert alert = new Alert(hasWarnings ? Alert.AlertType.WARNING : Alert.AlertType.INFORMATION);
+        alert.setTitle("性能测试");
+        alert.setHeaderText(null);
+        alert.getDialogPane().setContent(textArea);
+        alert.setResizable(true);
+        alert.showAndWait();
+    }
+
+    /**
+     * 导入数据：选择本地目录，多线程并发写入HDFS指定目录，已存在的文件不覆盖
+     */
+    @FXML
+    private void handleImportData() {
+        logger.info("导入数据到HDFS");
+        if (deploymentConfig == null) {
+            showAlert(Alert.AlertType.WARNING, "导入数据", "未找到虚拟机配置，无法导入数据");
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("选择要导入HDFS的本地目录");
+        File dir = chooser.showDialog(updateTimeLabel.getScene().getWindow());
+        if (dir == null) {
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog("/data/" + dir.getName());
+        dialog.setTitle("导入数据");
+        dialog.setHeaderText("将 " + dir.getAbsolutePath() + " 下的所有文件导入HDFS，已存在的文件不会覆盖");
+        dialog.setContentText("HDFS目标目录:");
+        Optional<String> target = dialog.showAndWait();
+        if (!target.isPresent() || target.get().trim().isEmpty()) {
+            return;
+        }
+        if (!operationRunning.compareAndSet(false, true)) {
+            showAlert(Alert.AlertType.WARNING, "导入数据", "已有集群操作正在执行，请稍后再试");
+            return;
+        }
+
+        updateTimeLabel.setText("导入数据中...");
+        Thread thread = new Thread(() -> {
+            try {
+                HdfsLoadResult result = loaderService.load(deploymentConfig, dir.toPath(), target.get().trim(),
+                        IMPORT_THREADS, false, new LogCallback() {
+                            @Override
+                            public void onLog(String log) {
+                                Platform.runLater(() -> updateTimeLabel.setText("导入数据: " + log));
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                logger.warn("导入数据: {}", error);
+                            }
+
+                            @Override
+                            public void onComplete() {
+                            }
+                        });
+                Platform.runLater(() -> showLoadResult(result));
+            } catch (Exception e) {
+                logger.error("导入数据失败", e);
+                Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "导入数据", "导入数据失败: " + e.getMessage()));
+            } finally {
+                operationRunning.set(false);
+            }
+        }, "hdfs-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void showLoadResult(HdfsLoadResult result) {
+        updateTimeLabel.setText("导入数据完成");
+        StringBuilder content = new StringBuilder(String.format("已导入%d个文件（%.1fMB）到 %s，平均 %.1f MB/s，耗时%d秒",
+                result.getFileCount(), result.getBytes() / (1024.0 * 1024.0), result.getTargetPath(),
+                result.getThroughputMBps(), result.getDurationMs() / 1000));
+        if (!result.isSuccess()) {
+            content.append("\n\n").append(result.getFailedFiles().size()).append("个文件导入失败:");
+            for (String failed : result.getFailedFiles().subList(0, Math.min(10, result.getFailedFiles().size()))) {
+                content.append("\n").append(failed);
+            }
+        }
+        showAlert(result.isSuccess() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING, "导入数据",
+                content.toString());
+    }
+
+    @FXML
+    private void handleUpgradeHadoop() {
+        logger.info("升级Hadoop");
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("选择新版本Hadoop安装包");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Hadoop安装包", "*.tar.gz", "*.tgz"));
+        File tarball = chooser.showOpenDialog(updateTimeLabel.getScene().getWindow());
+        if (tarball == null) {
+            return;
+        }
+        if (confirm("升级Hadoop", "将只上传与当前版本不同的文件和数据块，在各节点准备好新版本目录后停止集群、"
+                + "切换安装目录并重新启动，配置文件和数据目录保持不变，确定继续吗？")) {
+            runClusterOperation("升级Hadoop", callback -> upgradeService.upgrade(deploymentConfig,
+                    tarball.getAbsolutePath(), callback));
+        }
+    }
+
+    /**
+     * 在后台线程执行集群操作，完成后汇总各节点结果
+     * 同一时间只允许执行一个操作
+     *
+     * @param name      操作名称
+     * @param operation 集群操作，返回各节点的执行结果（与虚拟机配置顺序一致）
+     */
+    private void runClusterOperation(String name, Function<LogCallback, List<CommandResult>> operation) {
+        if (operationService == null) {
+            showAlert(Alert.AlertType.WARNING, name, "未找到虚拟机配置，无法执行集群操作");
+            return;
+        }
+        if (!operationRunning.compareAndSet(false, true)) {
+            showAlert(Alert.AlertType.WARNING, name, "已有集群操作正在执行，请稍后再试");
+            return;
+        }
+
+        updateTimeLabel.setText(name + "中...");
+        Thread thread = new Thread(() -> {
+            String summary;
+            boolean success;
+            try {
+                List<CommandResult> results = operation.apply(new LogCallback() {
+                    @Override
+                    public void onLog(String log) {
+                        Platform.runLater(() -> updateTimeLabel.setText(name + ": " + log));
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        logger.warn("{}: {}", name, error);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+
+                StringBuilder failures = new StringBuilder();
+                List<VMConnectionConfig> vmConfigs = deploymentConfig.getVmConfigs();
+                for (int i = 0; i < results.size(); i++) {
+                    if (!results.get(i).isSuccess()) {
+                        failures.append("虚拟机").append(vmConfigs.get(i).getIndex()).append(" (")
+                                .append(vmConfigs.get(i).getIp()).append("): ")
+                                .append(results.get(i).getError()).append("\n");
+                    }
+                }
+                success = failures.length() == 0;
+                summary = success ? name + "完成" : name + "完成，以下节点执行失败:\n\n" + failures;
+            } catch (Exception e) {
+                logger.error("{}失败", name, e);
+                success = false;
+                summary = name + "失败: " + e.getMessage();
+            } finally {
+                operationRunning.set(false);
+            }
+
+            boolean allSucceeded = success;
+            String content = summary;
+            Platform.runLater(() -> showAlert(allSucceeded ? Alert.AlertType.INFORMATION : Alert.AlertType.ERROR,
+                    name, content));
+        }, "cluster-operation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private boolean confirm(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        return alert.showAndWait().filter(response -> response == ButtonType.OK).isPresent();
     }
 
     @FXML
     private void handleCheckStatus() {
         logger.info("查看集群状态");
-        showAlert(Alert.AlertType.INFORMATION, "集群状态",
-                "虚拟机1 (hadoop101):\n" +
-                        "  NameNode: 运行中\n" +
-                        "  DataNode: 运行中\n\n" +
-                        "虚拟机2 (hadoop102):\n" +
-                        "  ResourceManager: 运行中\n" +
-                        "  DataNode: 运行中\n\n" +
-                        "虚拟机3 (hadoop103):\n" +
-                        "  SecondaryNameNode: 运行中\n" +
-                        "  DataNode: 运行中");
+        if (monitorService == null) {
+            showAlert(Alert.AlertType.WARNING, "集群状态", "未找到虚拟机配置，无法获取集群状态");
+            return;
+        }
+
+        // 直接展示缓存的快照，不在界面线程上发起请求
+        ClusterStatus status = monitorService.getSnapshot();
+        if (status.getDaemons().isEmpty()) {
+            showAlert(Alert.AlertType.INFORMATION, "集群状态", "正在获取集群状态，请稍后再试");
+            return;
+        }
+
+        StringBuilder content = new StringBuilder();
+        int currentVm = -1;
+        for (DaemonStatus daemon : status.getDaemons()) {
+            if (daemon.getVmIndex() != currentVm) {
+                currentVm = daemon.getVmIndex();
+                if (content.length() > 0) {
+                    content.append("\n");
+                }
+                content.append("虚拟机").append(currentVm).append(" (").append(daemon.getHostname()).append("):\n");
+            }
+            content.append("  ").append(daemon.getRole().getDisplayName()).append(": ")
+                    .append(daemon.isRunning() ? "运行中" : "未运行");
+            if (daemon.isRunning() && daemon.getMetrics().containsKey("MemHeapUsedM")) {
+                content.append(String.format("（堆内存 %.0f/%.0f MB）",
+                        daemon.getMetric("MemHeapUsedM", 0), daemon.getMetric("MemHeapMaxM", 0)));
+            }
+            content.append("\n");
+        }
+
+        showAlert(Alert.AlertType.INFORMATION, "集群状态", content.toString());
     }
 
     @FXML
@@ -118,6 +768,10 @@ public class ClusterManagementController {
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
                 logger.info("用户确认退出");
+                if (monitorService != null) {
+                    monitorService.stop();
+                }
+                sshService.closeAllSessions();
                 System.exit(0);
             }
         });
@@ -3,8 +3,10 @@ package com.lyq.controller;
 import com.lyq.exception.ValidationException;
 import com.lyq.model.ConnectionResult;
 import com.lyq.model.ConnectionStatus;
+import com.lyq.model.NodeInventory;
 import com.lyq.model.VMConnectionConfig;
 import com.lyq.service.ConfigService;
+import com.lyq.service.InventoryService;
 import com.lyq.service.SSHConnectionService;
 import com.lyq.service.ValidationService;
 import javafx.application.Platform;
@@ -12,12 +14,16 @@ import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 连接配置界面控制器
@@ -97,6 +103,9 @@ public class ConnectionController {
     private Label vm3ErrorLabel;
 
     // 操作按钮
+    @FXML
+    private Button importHostsBtn;
+
     @FXML
     private Button testConnectionBtn;
 
@@ -112,6 +121,13 @@ public class ConnectionController {
     private final ValidationService validationService;
     private final ConfigService configService;
     private final SSHConnectionService sshConnectionService;
+    private final InventoryService inventoryService;
+
+    /**
+     * 批量导入的节点清单（未导入时为null，只使用界面上的3台虚拟机）
+     * 界面只展示前3个节点，其余节点沿用导入时的主机名和统一凭据
+     */
+    private List<VMConnectionConfig> importedNodes;
 
     // ========== 状态变量 ==========
 
@@ -132,6 +148,7 @@ public class ConnectionController {
         this.validationService = new ValidationService();
         this.configService = new ConfigService();
         this.sshConnectionService = new SSHConnectionService();
+        this.inventoryService = new InventoryService();
 
         logger.info("ConnectionController 初始化");
     }
@@ -195,7 +212,11 @@ public class ConnectionController {
                 }
             }
 
-            logger.info("配置加载成功，已填充到界面");
+            if (configs.size() > 3) {
+                importedNodes = configs;
+            }
+
+            logger.info("配置加载成功，共{}个节点，已填充到界面", configs.size());
 
         } catch (IOException e) {
             logger.error("加载配置失败", e);
@@ -574,6 +595,11 @@ public class ConnectionController {
         boolean vm2Success = vm2TestBtn.getStyleClass().contains("success");
         boolean vm3Success = vm3TestBtn.getStyleClass().contains("success");
 
+        if (importedNodes != null && importedNodes.size() > 3) {
+            logger.debug("节点清单包含{}个节点，需要通过测试所有连接验证", importedNodes.size());
+            return;
+        }
+
         if (vm1Success && vm2Success && vm3Success) {
             logger.info("所有虚拟机连接测试成功");
 
@@ -598,7 +624,7 @@ public class ConnectionController {
         logger.info("用户点击测试连接按钮");
 
         // 验证输入
-        if (!validateInputs()) {
+        if (importedNodes != null ? !validateImportedNodes() : !validateInputs()) {
             return;
         }
 
@@ -654,11 +680,23 @@ public class ConnectionController {
                     showAlert(Alert.AlertType.INFORMATION, "连接测试成功",
                             "所有虚拟机连接测试成功！\n配置已自动保存，可以进行下一步操作。");
                 } else {
-                    logger.warn("部分虚拟机连接测试失败");
-
-                    // 显示失败提示
+                    long successCount = results.stream()
+                            .filter(r -> r.getStatus() == ConnectionStatus.SUCCESS)
+                            .count();
+                    logger.warn("部分虚拟机连接测试失败，成功: {}/{}", successCount, results.size());
+
+                    // 显示失败提示（界面之外的节点只在提示中列出）
+                    StringBuilder failed = new StringBuilder();
+                    int listed = 0;
+                    for (ConnectionResult result : results) {
+                        if (result.getStatus() != ConnectionStatus.SUCCESS && result.getVmIndex() > 3 && listed++ < 10) {
+                            failed.append("\n").append(result.getVmIp()).append(": ")
+                                    .append(result.getStatus().getDescription());
+                        }
+                    }
                     showAlert(Alert.AlertType.WARNING, "连接测试失败",
-                            "部分虚拟机连接测试失败，请检查失败项并修正后重试。");
+                            "连接成功 " + successCount + "/" + results.size()
+                                    + "，请检查失败项并修正后重试。" + failed);
                 }
 
                 // 恢复按钮状态
@@ -688,6 +726,171 @@ public class ConnectionController {
         testThread.start();
     }
 
+    /**
+     * 处理批量导入按钮点击
+     * 从hosts文件、IP网段或网段扫描结果导入节点，所有节点使用虚拟机1的用户名和密码
+     */
+    @FXML
+    private void handleImportHosts() {
+        logger.info("用户点击批量导入按钮");
+
+        String username = vm1UsernameField.getText().trim();
+        String password = getPassword(1);
+        try {
+            validationService.validateUsername(username);
+            validationService.validatePassword(password);
+        } catch (ValidationException e) {
+            showAlert(Alert.AlertType.ERROR, "输入验证失败",
+                    "批量导入的节点使用虚拟机1的用户名和密码，请先填写: " + e.getMessage());
+            return;
+        }
+
+        String hostsOption = "hosts文件";
+        String cidrOption = "IP网段（CIDR）";
+        String scanOption = "扫描网段中的SSH主机";
+        ChoiceDialog<String> choiceDialog = new ChoiceDialog<>(scanOption,
+                Arrays.asList(scanOption, hostsOption, cidrOption));
+        choiceDialog.setTitle("批量导入节点");
+        choiceDialog.setHeaderText(null);
+        choiceDialog.setContentText("导入方式:");
+        Optional<String> choice = choiceDialog.showAndWait();
+        if (!choice.isPresent()) {
+            return;
+        }
+
+        if (scanOption.equals(choice.get())) {
+            askCidr().ifPresent(cidr -> discoverNodes(cidr, username, password));
+            return;
+        }
+
+        try {
+            NodeInventory inventory;
+            if (hostsOption.equals(choice.get())) {
+                FileChooser fileChooser = new FileChooser();
+                fileChooser.setTitle("选择hosts文件");
+                File file = fileChooser.showOpenDialog(importHostsBtn.getScene().getWindow());
+                if (file == null) {
+                    return;
+                }
+                inventory = inventoryService.importHostsFile(file.toPath(), username, password);
+            } else {
+                Optional<String> cidr = askCidr();
+                if (!cidr.isPresent()) {
+                    return;
+                }
+                inventory = inventoryService.importCidr(cidr.get(), username, password);
+            }
+
+            applyInventory(inventory.getNodes());
+            showAlert(Alert.AlertType.INFORMATION, "导入成功",
+                    "已导入" + inventory.size() + "个节点，界面显示前3个节点。\n请点击\"测试所有连接\"验证全部节点。");
+        } catch (ValidationException | IOException e) {
+            logger.error("批量导入节点失败", e);
+            showAlert(Alert.AlertType.ERROR, "导入失败", e.getMessage());
+        }
+    }
+
+    /**
+     * 弹出对话框输入IP网段
+     *
+     * @return 用户输入的网段，取消时为空
+     */
+    private Optional<String> askCidr() {
+        TextInputDialog cidrDialog = new TextInputDialog("192.168.10.0/24");
+        cidrDialog.setTitle("批量导入节点");
+        cidrDialog.setHeaderText(null);
+        cidrDialog.setContentText("IP网段:");
+        return cidrDialog.showAndWait();
+    }
+
+    /**
+     * 在后台线程扫描网段中SSH端口开放的主机，并导入扫描到的节点
+     *
+     * @param cidr     网段
+     * @param username 节点统一用户名
+     * @param password 节点统一密码
+     */
+    private void discoverNodes(String cidr, String username, String password) {
+        importHostsBtn.setDisable(true);
+        testConnectionBtn.setDisable(true);
+        loadingIndicator.setVisible(true);
+        loadingIndicator.setManaged(true);
+
+        Task<NodeInventory> scanTask = new Task<NodeInventory>() {
+            @Override
+            protected NodeInventory call() throws Exception {
+                return inventoryService.discoverCidr(cidr, 22, username, password);
+            }
+
+            @Override
+            protected void succeeded() {
+                NodeInventory inventory = getValue();
+                restoreButtons();
+                applyInventory(inventory.getNodes());
+                showAlert(Alert.AlertType.INFORMATION, "扫描完成",
+                        "在" + cidr + "中发现" + inventory.size() + "个SSH主机，界面显示前3个节点。\n"
+                                + "请点击\"测试所有连接\"验证全部节点。");
+            }
+
+            @Override
+            protected void failed() {
+                logger.error("扫描网段失败", getException());
+                restoreButtons();
+                showAlert(Alert.AlertType.ERROR, "扫描失败", getException().getMessage());
+            }
+
+            private void restoreButtons() {
+                importHostsBtn.setDisable(false);
+                testConnectionBtn.setDisable(false);
+                loadingIndicator.setVisible(false);
+                loadingIndicator.setManaged(false);
+            }
+        };
+
+        Thread scanThread = new Thread(scanTask);
+        scanThread.setDaemon(true);
+        scanThread.start();
+    }
+
+    /**
+     * 使用导入的节点清单填充界面，前3个节点显示在表单中
+     *
+     * @param nodes 节点连接配置列表
+     */
+    private void applyInventory(List<VMConnectionConfig> nodes) {
+        importedNodes = new ArrayList<>(nodes);
+
+        TextField[] ipFields = {vm1IpField, vm2IpField, vm3IpField};
+        TextField[] usernameFields = {vm1UsernameField, vm2UsernameField, vm3UsernameField};
+        PasswordField[] passwordFields = {vm1PasswordField, vm2PasswordField, vm3PasswordField};
+        for (int i = 0; i < ipFields.length; i++) {
+            boolean present = i < nodes.size();
+            ipFields[i].setText(present ? nodes.get(i).getIp() : "");
+            usernameFields[i].setText(present ? nodes.get(i).getUsername() : "");
+            passwordFields[i].setText(present ? nodes.get(i).getPassword() : "");
+        }
+
+        nextBtn.setDisable(true);
+        logger.info("已导入{}个节点", nodes.size());
+    }
+
+    /**
+     * 验证导入的节点清单
+     *
+     * @return true表示验证通过，false表示验证失败
+     */
+    private boolean validateImportedNodes() {
+        for (VMConnectionConfig config : buildConfigList()) {
+            try {
+                validationService.validateConfig(config);
+            } catch (ValidationException e) {
+                showAlert(Alert.AlertType.ERROR, "虚拟机" + config.getIndex() + "输入验证失败", e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 验证用户输入
      * 
@@ -780,6 +983,22 @@ public class ConnectionController {
     private List<VMConnectionConfig> buildConfigList() {
         List<VMConnectionConfig> configs = new ArrayList<>();
 
+        // 批量导入时，前3个节点以界面上的输入为准，其余节点沿用导入结果
+        if (importedNodes != null) {
+            TextField[] ipFields = {vm1IpField, vm2IpField, vm3IpField};
+            TextField[] usernameFields = {vm1UsernameField, vm2UsernameField, vm3UsernameField};
+            for (VMConnectionConfig node : importedNodes) {
+                int row = node.getIndex() - 1;
+                if (row < ipFields.length) {
+                    node.setIp(ipFields[row].getText().trim());
+                    node.setUsername(usernameFields[row].getText().trim());
+                    node.setPassword(getPassword(node.getIndex()));
+                }
+                configs.add(node);
+            }
+            return configs;
+        }
+
         // 虚拟机1
         VMConnectionConfig config1 = new VMConnectionConfig();
         config1.setIndex(1);
@@ -883,7 +1102,8 @@ public class ConnectionController {
                 testBtn = vm3TestBtn;
                 break;
             default:
-                logger.warn("未知的虚拟机编号: {}", result.getVmIndex());
+                // 界面之外的节点只在汇总提示中显示
+                logger.debug("虚拟机{}不在界面中显示", result.getVmIndex());
                 return;
         }
 
@@ -932,7 +1152,8 @@ public class ConnectionController {
                 errorLabel = vm3ErrorLabel;
                 break;
             default:
-                logger.warn("未知的虚拟机编号: {}", result.getVmIndex());
+                // 界面之外的节点只在汇总提示中显示
+                logger.debug("虚拟机{}不在界面中显示", result.getVmIndex());
                 return;
         }
 
@@ -4,6 +4,7 @@ import com.lyq.exception.ValidationException;
 import com.lyq.model.DeployMode;
 import com.lyq.model.DeployModeConfig;
 import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
 import com.lyq.service.ConfigService;
 import com.lyq.service.ValidationService;
 import javafx.fxml.FXML;
@@ -13,6 +14,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -102,11 +104,28 @@ public class DeployModeController {
     public DeployModeController() {
         this.configService = new ConfigService();
         this.validationService = new ValidationService();
-        this.deployModeConfig = new DeployModeConfig();
+        this.deployModeConfig = new DeployModeConfig(loadNodeCount());
 
         logger.info("DeployModeController 初始化");
     }
 
+    /**
+     * 读取已保存连接配置中的节点数量
+     *
+     * @return 节点数量，读取失败时返回3
+     */
+    private int loadNodeCount() {
+        try {
+            List<VMConnectionConfig> configs = configService.loadConfig();
+            if (configs != null && !configs.isEmpty()) {
+                return configs.size();
+            }
+        } catch (IOException e) {
+            logger.warn("读取连接配置失败，按3个节点初始化: {}", e.getMessage());
+        }
+        return 3;
+    }
+
     /**
      * 初始化方法
      * 在FXML加载完成后自动调用
@@ -192,6 +211,13 @@ public class DeployModeController {
             if (configService.deployModeConfigExists()) {
                 deployModeConfig = configService.loadDeployModeConfig();
 
+                // 节点清单变化后，一键部署的角色分配按新的节点数量重新生成
+                int nodeCount = loadNodeCount();
+                if (deployModeConfig.getMode() == DeployMode.QUICK && deployModeConfig.getNodeCount() != nodeCount) {
+                    deployModeConfig.setNodeCount(nodeCount);
+                    deployModeConfig.setMode(DeployMode.QUICK);
+                }
+
                 // 根据配置更新界面
                 if (deployModeConfig.getMode() == DeployMode.QUICK) {
                     quickModeRadio.setSelected(true);
@@ -395,12 +421,9 @@ public class DeployModeController {
             // 从ConfigService读取连接信息
             try {
                 java.util.List<com.lyq.model.VMConnectionConfig> configs = configService.loadConfig();
-                if (configs != null && configs.size() >= 3) {
-                    controller.setVmConnectionInfo(
-                            configs.get(0).getIp(), configs.get(1).getIp(), configs.get(2).getIp(),
-                            configs.get(0).getUsername(), configs.get(1).getUsername(), configs.get(2).getUsername(),
-                            configs.get(0).getPassword(), configs.get(1).getPassword(), configs.get(2).getPassword());
-                    logger.info("已传递连接信息到集群配置界面");
+                if (configs != null && !configs.isEmpty()) {
+                    controller.setVmConnectionInfo(configs);
+                    logger.info("已传递{}个节点的连接信息到集群配置界面", configs.size());
                 }
             } catch (Exception e) {
                 logger.warn("读取连接信息失败: {}", e.getMessage());
@@ -0,0 +1,156 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试报告模型
+ * 汇总一次基准测试的参数、各操作结果和发现的问题，保存在部署配置目录下
+ */
+public class BenchmarkReport {
+    /**
+     * 测试类型（如 DFSIO）
+     */
+    private String type;
+
+    /**
+     * 测试开始时间（yyyy-MM-dd HH:mm:ss）
+     */
+    private String startTime;
+
+    /**
+     * 测试目标（如 hdfs://192.168.1.101:9000）
+     */
+    private String target;
+
+    /**
+     * 测试参数
+     */
+    private Map<String, String> parameters;
+
+    /**
+     * 各操作的测试结果
+     */
+    private List<BenchmarkResult> results;
+
+    /**
+     * 发现的问题说明
+     */
+    private List<String> warnings;
+
+    /**
+     * 测试总耗时（毫秒）
+     */
+    private long durationMs;
+
+    /**
+     * 默认构造函数
+     */
+    public BenchmarkReport() {
+        this.parameters = new LinkedHashMap<>();
+        this.results = new ArrayList<>();
+        this.warnings = new ArrayList<>();
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param type 测试类型
+     */
+    public BenchmarkReport(String type) {
+        this();
+        this.type = type;
+    }
+
+    /**
+     * 按操作名称获取测试结果
+     *
+     * @param operation 操作名称
+     * @return 测试结果，不存在时返回null
+     */
+    public BenchmarkResult getResult(String operation) {
+        for (BenchmarkResult result : results) {
+            if (result.getOperation().equals(operation)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    // Getter和Setter方法
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, String> parameters) {
+        this.parameters = parameters;
+    }
+
+    public List<BenchmarkResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BenchmarkResult> results) {
+        this.results = results;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public void setWarnings(List<String> warnings) {
+        this.warnings = warnings;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 测试报告的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "BenchmarkReport{" +
+                "type='" + type + '\'' +
+                ", startTime='" + startTime + '\'' +
+                ", target='" + target + '\'' +
+                ", results=" + results +
+                ", warnings=" + warnings +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+}
@@ -0,0 +1,220 @@
+package com.lyq.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基准测试结果模型
+ * 保存一类操作（如HDFS写入、读取）的吞吐量和延迟统计
+ */
+public class BenchmarkResult {
+    /**
+     * 操作名称
+     */
+    private String operation;
+
+    /**
+     * 成功的操作次数
+     */
+    private long operations;
+
+    /**
+     * 失败的操作次数
+     */
+    private long failures;
+
+    /**
+     * 读写的数据量（字节），元数据操作为0
+     */
+    private long bytes;
+
+    /**
+     * 测试耗时（毫秒）
+     */
+    private long durationMs;
+
+    /**
+     * 吞吐量（MB/s）
+     */
+    private double throughputMBps;
+
+    /**
+     * 每秒操作次数
+     */
+    private double opsPerSecond;
+
+    /**
+     * 平均延迟（毫秒）
+     */
+    private double meanLatencyMs;
+
+    /**
+     * 中位数延迟（毫秒）
+     */
+    private double p50LatencyMs;
+
+    /**
+     * 99分位延迟（毫秒）
+     */
+    private double p99LatencyMs;
+
+    /**
+     * 最大延迟（毫秒）
+     */
+    private double maxLatencyMs;
+
+    /**
+     * 延迟分布（桶名称 -> 操作次数）
+     */
+    private Map<String, Long> latencyHistogram;
+
+    /**
+     * 附加指标（如各DataNode的数据量、倾斜度）
+     */
+    private Map<String, Double> details;
+
+    /**
+     * 默认构造函数
+     */
+    public BenchmarkResult() {
+        this.latencyHistogram = new LinkedHashMap<>();
+        this.details = new LinkedHashMap<>();
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param operation 操作名称
+     */
+    public BenchmarkResult(String operation) {
+        this();
+        this.operation = operation;
+    }
+
+    // Getter和Setter方法
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public void setOperations(long operations) {
+        this.operations = operations;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getThroughputMBps() {
+        return throughputMBps;
+    }
+
+    public void setThroughputMBps(double throughputMBps) {
+        this.throughputMBps = throughputMBps;
+    }
+
+    public double getOpsPerSecond() {
+        return opsPerSecond;
+    }
+
+    public void setOpsPerSecond(double opsPerSecond) {
+        this.opsPerSecond = opsPerSecond;
+    }
+
+    public double getMeanLatencyMs() {
+        return meanLatencyMs;
+    }
+
+    public void setMeanLatencyMs(double meanLatencyMs) {
+        this.meanLatencyMs = meanLatencyMs;
+    }
+
+    public double getP50LatencyMs() {
+        return p50LatencyMs;
+    }
+
+    public void setP50LatencyMs(double p50LatencyMs) {
+        this.p50LatencyMs = p50LatencyMs;
+    }
+
+    public double getP99LatencyMs() {
+        return p99LatencyMs;
+    }
+
+    public void setP99LatencyMs(double p99LatencyMs) {
+        this.p99LatencyMs = p99LatencyMs;
+    }
+
+    public double getMaxLatencyMs() {
+        return maxLatencyMs;
+    }
+
+    public void setMaxLatencyMs(double maxLatencyMs) {
+        this.maxLatencyMs = maxLatencyMs;
+    }
+
+    public Map<String, Long> getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public void setLatencyHistogram(Map<String, Long> latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    public Map<String, Double> getDetails() {
+        return details;
+    }
+
+    public void setDetails(Map<String, Double> details) {
+        this.details = details;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 测试结果的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "BenchmarkResult{" +
+                "operation='" + operation + '\'' +
+                ", operations=" + operations +
+                ", failures=" + failures +
+                ", bytes=" + bytes +
+                ", durationMs=" + durationMs +
+                ", throughputMBps=" + throughputMBps +
+                ", opsPerSecond=" + opsPerSecond +
+                ", p50LatencyMs=" + p50LatencyMs +
+                ", p99LatencyMs=" + p99LatencyMs +
+                ", maxLatencyMs=" + maxLatencyMs +
+                '}';
+    }
+}
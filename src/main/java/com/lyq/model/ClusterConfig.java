@@ -1,7 +1,10 @@
 package com.lyq.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 集群配置模型
@@ -48,6 +51,21 @@ public class ClusterConfig {
      */
     private int resourceManagerWebPort;
 
+    /**
+     * DataNode Web端口
+     */
+    private int dataNodeHttpPort;
+
+    /**
+     * NodeManager Web端口
+     */
+    private int nodeManagerWebPort;
+
+    /**
+     * NodeManager容器管理端口（固定端口，便于工作站直接启动容器）
+     */
+    private int nodeManagerPort;
+
     /**
      * DataNode主机名列表
      */
@@ -73,6 +91,20 @@ public class ClusterConfig {
      */
     private String hdfsTempDir;
 
+    /**
+     * 各节点的DataNode数据目录（多磁盘JBOD布局）
+     * Key: 主机名
+     * Value: 数据目录列表，未配置的节点使用hdfsDataDir
+     */
+    private Map<String, List<String>> dataDirsByHost;
+
+    /**
+     * 各节点的NodeManager本地目录
+     * Key: 主机名
+     * Value: 本地目录列表，未配置的节点使用Hadoop默认值
+     */
+    private Map<String, List<String>> localDirsByHost;
+
     /**
      * 默认构造函数
      */
@@ -82,11 +114,16 @@ public class ClusterConfig {
         this.secondaryNameNodeHttpPort = 9868;
         this.resourceManagerPort = 8032;
         this.resourceManagerWebPort = 8088;
+        this.dataNodeHttpPort = 9864;
+        this.nodeManagerWebPort = 8042;
+        this.nodeManagerPort = 8041;
         this.dataNodeHosts = new ArrayList<>();
         this.nodeManagerHosts = new ArrayList<>();
         this.hdfsDataDir = "/opt/module/hadoop/data";
         this.hdfsNameDir = "/opt/module/hadoop/name";
         this.hdfsTempDir = "/opt/module/hadoop/tmp";
+        this.dataDirsByHost = new HashMap<>();
+        this.localDirsByHost = new HashMap<>();
     }
 
     // Getter和Setter方法
@@ -155,6 +192,30 @@ public class ClusterConfig {
         this.resourceManagerWebPort = resourceManagerWebPort;
     }
 
+    public int getDataNodeHttpPort() {
+        return dataNodeHttpPort;
+    }
+
+    public void setDataNodeHttpPort(int dataNodeHttpPort) {
+        this.dataNodeHttpPort = dataNodeHttpPort;
+    }
+
+    public int getNodeManagerWebPort() {
+        return nodeManagerWebPort;
+    }
+
+    public void setNodeManagerWebPort(int nodeManagerWebPort) {
+        this.nodeManagerWebPort = nodeManagerWebPort;
+    }
+
+    public int getNodeManagerPort() {
+        return nodeManagerPort;
+    }
+
+    public void setNodeManagerPort(int nodeManagerPort) {
+        this.nodeManagerPort = nodeManagerPort;
+    }
+
     public List<String> getDataNodeHosts() {
         return dataNodeHosts;
     }
@@ -195,6 +256,44 @@ public class ClusterConfig {
         this.hdfsTempDir = hdfsTempDir;
     }
 
+    public Map<String, List<String>> getDataDirsByHost() {
+        return dataDirsByHost;
+    }
+
+    public void setDataDirsByHost(Map<String, List<String>> dataDirsByHost) {
+        this.dataDirsByHost = dataDirsByHost;
+    }
+
+    public Map<String, List<String>> getLocalDirsByHost() {
+        return localDirsByHost;
+    }
+
+    public void setLocalDirsByHost(Map<String, List<String>> localDirsByHost) {
+        this.localDirsByHost = localDirsByHost;
+    }
+
+    /**
+     * 获取指定节点的DataNode数据目录
+     *
+     * @param host 主机名
+     * @return 数据目录列表，未单独配置时返回hdfsDataDir
+     */
+    public List<String> getDataDirs(String host) {
+        List<String> dirs = dataDirsByHost.get(host);
+        return dirs == null || dirs.isEmpty() ? Collections.singletonList(hdfsDataDir) : dirs;
+    }
+
+    /**
+     * 获取指定节点的NodeManager本地目录
+     *
+     * @param host 主机名
+     * @return 本地目录列表，未单独配置时返回空列表
+     */
+    public List<String> getLocalDirs(String host) {
+        List<String> dirs = localDirsByHost.get(host);
+        return dirs == null ? Collections.emptyList() : dirs;
+    }
+
     /**
      * 重写toString方法
      * 
@@ -211,11 +310,16 @@ public class ClusterConfig {
                 ", resourceManagerHost='" + resourceManagerHost + '\'' +
                 ", resourceManagerPort=" + resourceManagerPort +
                 ", resourceManagerWebPort=" + resourceManagerWebPort +
+                ", dataNodeHttpPort=" + dataNodeHttpPort +
+                ", nodeManagerWebPort=" + nodeManagerWebPort +
+                ", nodeManagerPort=" + nodeManagerPort +
                 ", dataNodeHosts=" + dataNodeHosts +
                 ", nodeManagerHosts=" + nodeManagerHosts +
                 ", hdfsDataDir='" + hdfsDataDir + '\'' +
                 ", hdfsNameDir='" + hdfsNameDir + '\'' +
                 ", hdfsTempDir='" + hdfsTempDir + '\'' +
+                ", dataDirsByHost=" + dataDirsByHost +
+                ", localDirsByHost=" + localDirsByHost +
                 '}';
     }
 }
@@ -0,0 +1,265 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 集群状态快照模型
+ * 汇总各守护进程最近一次JMX轮询的结果和集群级指标
+ */
+public class ClusterStatus {
+    /**
+     * 各守护进程状态（按虚拟机编号和启动顺序排列）
+     */
+    private List<DaemonStatus> daemons;
+
+    /**
+     * HDFS总容量（字节）
+     */
+    private long capacityTotal;
+
+    /**
+     * HDFS已用容量（字节）
+     */
+    private long capacityUsed;
+
+    /**
+     * HDFS剩余容量（字节）
+     */
+    private long capacityRemaining;
+
+    /**
+     * 存活DataNode数量
+     */
+    private int liveDataNodes;
+
+    /**
+     * 失效DataNode数量
+     */
+    private int deadDataNodes;
+
+    /**
+     * 副本不足的块数量
+     */
+    private long underReplicatedBlocks;
+
+    /**
+     * NameNode RPC平均排队时间（毫秒）
+     */
+    private double rpcQueueTimeAvgMs;
+
+    /**
+     * NameNode已用堆内存（MB）
+     */
+    private double nameNodeHeapUsedMb;
+
+    /**
+     * NameNode最大堆内存（MB）
+     */
+    private double nameNodeHeapMaxMb;
+
+    /**
+     * 活跃NodeManager数量
+     */
+    private int activeNodeManagers;
+
+    /**
+     * 失联NodeManager数量
+     */
+    private int lostNodeManagers;
+
+    /**
+     * 已分配容器数量（ResourceManager统计）
+     */
+    private long allocatedContainers;
+
+    /**
+     * 等待分配的容器数量
+     */
+    private long pendingContainers;
+
+    /**
+     * 各NodeManager上运行中的容器总数
+     */
+    private long runningContainers;
+
+    /**
+     * 快照生成时间（毫秒时间戳）
+     */
+    private long updateTime;
+
+    /**
+     * 默认构造函数
+     */
+    public ClusterStatus() {
+        this.daemons = new ArrayList<>();
+    }
+
+    /**
+     * 获取指定虚拟机上的守护进程状态
+     *
+     * @param vmIndex 虚拟机编号
+     * @return 守护进程状态列表
+     */
+    public List<DaemonStatus> getDaemons(int vmIndex) {
+        List<DaemonStatus> result = new ArrayList<>();
+        for (DaemonStatus daemon : daemons) {
+            if (daemon.getVmIndex() == vmIndex) {
+                result.add(daemon);
+            }
+        }
+        return result;
+    }
+
+    // Getter和Setter方法
+
+    public List<DaemonStatus> getDaemons() {
+        return daemons;
+    }
+
+    public void setDaemons(List<DaemonStatus> daemons) {
+        this.daemons = daemons;
+    }
+
+    public long getCapacityTotal() {
+        return capacityTotal;
+    }
+
+    public void setCapacityTotal(long capacityTotal) {
+        this.capacityTotal = capacityTotal;
+    }
+
+    public long getCapacityUsed() {
+        return capacityUsed;
+    }
+
+    public void setCapacityUsed(long capacityUsed) {
+        this.capacityUsed = capacityUsed;
+    }
+
+    public long getCapacityRemaining() {
+        return capacityRemaining;
+    }
+
+    public void setCapacityRemaining(long capacityRemaining) {
+        this.capacityRemaining = capacityRemaining;
+    }
+
+    public int getLiveDataNodes() {
+        return liveDataNodes;
+    }
+
+    public void setLiveDataNodes(int liveDataNodes) {
+        this.liveDataNodes = liveDataNodes;
+    }
+
+    public int getDeadDataNodes() {
+        return deadDataNodes;
+    }
+
+    public void setDeadDataNodes(int deadDataNodes) {
+        this.deadDataNodes = deadDataNodes;
+    }
+
+    public long getUnderReplicatedBlocks() {
+        return underReplicatedBlocks;
+    }
+
+    public void setUnderReplicatedBlocks(long underReplicatedBlocks) {
+        this.underReplicatedBlocks = underReplicatedBlocks;
+    }
+
+    public double getRpcQueueTimeAvgMs() {
+        return rpcQueueTimeAvgMs;
+    }
+
+    public void setRpcQueueTimeAvgMs(double rpcQueueTimeAvgMs) {
+        this.rpcQueueTimeAvgMs = rpcQueueTimeAvgMs;
+    }
+
+    public double getNameNodeHeapUsedMb() {
+        return nameNodeHeapUsedMb;
+    }
+
+    public void setNameNodeHeapUsedMb(double nameNodeHeapUsedMb) {
+        this.nameNodeHeapUsedMb = nameNodeHeapUsedMb;
+    }
+
+    public double getNameNodeHeapMaxMb() {
+        return nameNodeHeapMaxMb;
+    }
+
+    public void setNameNodeHeapMaxMb(double nameNodeHeapMaxMb) {
+        this.nameNodeHeapMaxMb = nameNodeHeapMaxMb;
+    }
+
+    public int getActiveNodeManagers() {
+        return activeNodeManagers;
+    }
+
+    public void setActiveNodeManagers(int activeNodeManagers) {
+        this.activeNodeManagers = activeNodeManagers;
+    }
+
+    public int getLostNodeManagers() {
+        return lostNodeManagers;
+    }
+
+    public void setLostNodeManagers(int lostNodeManagers) {
+        this.lostNodeManagers = lostNodeManagers;
+    }
+
+    public long getAllocatedContainers() {
+        return allocatedContainers;
+    }
+
+    public void setAllocatedContainers(long allocatedContainers) {
+        this.allocatedContainers = allocatedContainers;
+    }
+
+    public long getPendingContainers() {
+        return pendingContainers;
+    }
+
+    public void setPendingContainers(long pendingContainers) {
+        this.pendingContainers = pendingContainers;
+    }
+
+    public long getRunningContainers() {
+        return runningContainers;
+    }
+
+    public void setRunningContainers(long runningContainers) {
+        this.runningContainers = runningContainers;
+    }
+
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(long updateTime) {
+        this.updateTime = updateTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterStatus{" +
+                "daemons=" + daemons.size() +
+                ", capacityTotal=" + capacityTotal +
+                ", capacityUsed=" + capacityUsed +
+                ", capacityRemaining=" + capacityRemaining +
+                ", liveDataNodes=" + liveDataNodes +
+                ", deadDataNodes=" + deadDataNodes +
+                ", underReplicatedBlocks=" + underReplicatedBlocks +
+                ", rpcQueueTimeAvgMs=" + rpcQueueTimeAvgMs +
+                ", nameNodeHeapUsedMb=" + nameNodeHeapUsedMb +
+                ", nameNodeHeapMaxMb=" + nameNodeHeapMaxMb +
+                ", activeNodeManagers=" + activeNodeManagers +
+                ", lostNodeManagers=" + lostNodeManagers +
+                ", allocatedContainers=" + allocatedContainers +
+                ", pendingContainers=" + pendingContainers +
+                ", runningContainers=" + runningContainers +
+                ", updateTime=" + updateTime +
+                '}';
+    }
+}
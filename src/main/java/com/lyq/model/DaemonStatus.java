@@ -0,0 +1,151 @@
+package com.lyq.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 守护进程状态模型
+ * 封装单个Hadoop守护进程最近一次JMX轮询的结果
+ */
+public class DaemonStatus {
+    /**
+     * 虚拟机编号
+     */
+    private int vmIndex;
+
+    /**
+     * 主机名
+     */
+    private String hostname;
+
+    /**
+     * 轮询使用的地址
+     */
+    private String ip;
+
+    /**
+     * 守护进程角色
+     */
+    private NodeRole role;
+
+    /**
+     * 是否运行中（JMX接口可访问）
+     */
+    private boolean running;
+
+    /**
+     * JMX指标
+     * Key: JMX属性名（如 CapacityUsed、MemHeapUsedM）
+     * Value: 属性值
+     */
+    private Map<String, Double> metrics;
+
+    /**
+     * 错误信息（无法访问时）
+     */
+    private String errorMessage;
+
+    /**
+     * 更新时间（毫秒时间戳）
+     */
+    private long updateTime;
+
+    /**
+     * 默认构造函数
+     */
+    public DaemonStatus() {
+        this.metrics = new LinkedHashMap<>();
+    }
+
+    /**
+     * 读取指标值
+     *
+     * @param name         JMX属性名
+     * @param defaultValue 指标不存在时的默认值
+     * @return 指标值
+     */
+    public double getMetric(String name, double defaultValue) {
+        Double value = metrics.get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    // Getter和Setter方法
+
+    public int getVmIndex() {
+        return vmIndex;
+    }
+
+    public void setVmIndex(int vmIndex) {
+        this.vmIndex = vmIndex;
+    }
+
+    public String getHostname() {
+        return hostname;
+    }
+
+    public void setHostname(String hostname) {
+        this.hostname = hostname;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public void setIp(String ip) {
+        this.ip = ip;
+    }
+
+    public NodeRole getRole() {
+        return role;
+    }
+
+    public void setRole(NodeRole role) {
+        this.role = role;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public Map<String, Double> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Map<String, Double> metrics) {
+        this.metrics = metrics;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public long getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(long updateTime) {
+        this.updateTime = updateTime;
+    }
+
+    @Override
+    public String toString() {
+        return "DaemonStatus{" +
+                "vmIndex=" + vmIndex +
+                ", hostname='" + hostname + '\'' +
+                ", ip='" + ip + '\'' +
+                ", role=" + role +
+                ", running=" + running +
+                ", metrics=" + metrics +
+                ", errorMessage='" + errorMessage + '\'' +
+                ", updateTime=" + updateTime +
+                '}';
+    }
+}
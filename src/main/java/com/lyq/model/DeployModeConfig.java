@@ -15,33 +15,58 @@ public class DeployModeConfig {
 
     /**
      * 节点角色分配
-     * Key: 虚拟机编号（1-3）
+     * Key: 虚拟机编号（从1开始）
      * Value: 该虚拟机分配的角色列表
      */
     private Map<Integer, List<NodeRole>> roleAssignments;
 
+    /**
+     * 节点数量
+     */
+    private int nodeCount;
+
     /**
      * 默认构造函数
-     * 初始化为一键部署模式
+     * 初始化为3节点的一键部署模式
      */
     public DeployModeConfig() {
+        this(3);
+    }
+
+    /**
+     * 构造函数
+     * 初始化为指定节点数量的一键部署模式
+     *
+     * @param nodeCount 节点数量
+     */
+    public DeployModeConfig(int nodeCount) {
         this.mode = DeployMode.QUICK;
+        this.nodeCount = Math.max(1, nodeCount);
         this.roleAssignments = new HashMap<>();
         initializeQuickDeployMode();
     }
 
     /**
      * 初始化一键部署模式的默认角色分配
+     * 虚拟机1: NameNode，虚拟机2: ResourceManager，虚拟机3: SecondaryNameNode（节点不足时依次复用），
+     * 所有虚拟机都承担DataNode和NodeManager
+     * 根据硬件的自动放置见 {@link com.lyq.service.PlacementService}
      */
     private void initializeQuickDeployMode() {
-        // 虚拟机1: NameNode + DataNode + NodeManager
-        roleAssignments.put(1, Arrays.asList(NodeRole.NAMENODE, NodeRole.DATANODE, NodeRole.NODEMANAGER));
-
-        // 虚拟机2: ResourceManager + DataNode + NodeManager
-        roleAssignments.put(2, Arrays.asList(NodeRole.RESOURCEMANAGER, NodeRole.DATANODE, NodeRole.NODEMANAGER));
-
-        // 虚拟机3: SecondaryNameNode + DataNode + NodeManager
-        roleAssignments.put(3, Arrays.asList(NodeRole.SECONDARYNAMENODE, NodeRole.DATANODE, NodeRole.NODEMANAGER));
+        roleAssignments.clear();
+        NodeRole[] masters = {NodeRole.NAMENODE, NodeRole.RESOURCEMANAGER, NodeRole.SECONDARYNAMENODE};
+        for (int i = 1; i <= nodeCount; i++) {
+            roleAssignments.put(i, new ArrayList<>());
+        }
+        for (int i = 0; i < masters.length; i++) {
+            // 只有两台节点时SecondaryNameNode放在虚拟机2，与NameNode分开
+            int vmIndex = nodeCount == 2 && i == 2 ? 2 : i % nodeCount + 1;
+            roleAssignments.get(vmIndex).add(masters[i]);
+        }
+        for (int i = 1; i <= nodeCount; i++) {
+            roleAssignments.get(i).add(NodeRole.DATANODE);
+            roleAssignments.get(i).add(NodeRole.NODEMANAGER);
+        }
     }
 
     /**
@@ -50,7 +75,7 @@ public class DeployModeConfig {
      */
     public void initializeCustomDeployMode() {
         roleAssignments.clear();
-        for (int i = 1; i <= 3; i++) {
+        for (int i = 1; i <= nodeCount; i++) {
             roleAssignments.put(i, new ArrayList<>(Arrays.asList(NodeRole.DATANODE, NodeRole.NODEMANAGER)));
         }
     }
@@ -58,7 +83,7 @@ public class DeployModeConfig {
     /**
      * 为指定虚拟机添加角色
      * 
-     * @param vmIndex 虚拟机编号（1-3）
+     * @param vmIndex 虚拟机编号（从1开始）
      * @param role    要添加的角色
      */
     public void addRole(int vmIndex, NodeRole role) {
@@ -72,7 +97,7 @@ public class DeployModeConfig {
      * 从指定虚拟机移除角色
      * 注意：DataNode角色不能被移除
      * 
-     * @param vmIndex 虚拟机编号（1-3）
+     * @param vmIndex 虚拟机编号（从1开始）
      * @param role    要移除的角色
      */
     public void removeRole(int vmIndex, NodeRole role) {
@@ -90,7 +115,7 @@ public class DeployModeConfig {
     /**
      * 获取指定虚拟机的角色列表
      * 
-     * @param vmIndex 虚拟机编号（1-3）
+     * @param vmIndex 虚拟机编号（从1开始）
      * @return 角色列表
      */
     public List<NodeRole> getRoles(int vmIndex) {
@@ -100,7 +125,7 @@ public class DeployModeConfig {
     /**
      * 检查指定虚拟机是否包含某个角色
      * 
-     * @param vmIndex 虚拟机编号（1-3）
+     * @param vmIndex 虚拟机编号（从1开始）
      * @param role    要检查的角色
      * @return true表示包含该角色
      */
@@ -124,6 +149,14 @@ public class DeployModeConfig {
         }
     }
 
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = Math.max(1, nodeCount);
+    }
+
     public Map<Integer, List<NodeRole>> getRoleAssignments() {
         return roleAssignments;
     }
@@ -136,6 +169,7 @@ public class DeployModeConfig {
     public String toString() {
         return "DeployModeConfig{" +
                 "mode=" + mode +
+                ", nodeCount=" + nodeCount +
                 ", roleAssignments=" + roleAssignments +
                 '}';
     }
@@ -47,6 +47,36 @@ public class DeploymentConfig {
      */
     private Map<Integer, List<NodeRole>> roleAssignments;
 
+    /**
+     * 性能调优参数（根据硬件探测结果推导，为null时使用默认配置）
+     */
+    private TuningProfile tuningProfile;
+
+    /**
+     * 部署完成后是否执行性能基准测试作为部署验证
+     */
+    private boolean verifyPerformance;
+
+    /**
+     * 上传安装包的总带宽上限（Mbit/s），0表示不限速
+     */
+    private int transferRateLimitMbps;
+
+    /**
+     * 是否在工作站预先构建JDK和Hadoop的安装目录，作为单个数据流发送到各节点（仅本地安装包）
+     */
+    private boolean prebuiltInstall;
+
+    /**
+     * 解压安装包时是否检测节点上的pigz/zstd并使用更快的解压方式
+     */
+    private boolean parallelDecompression;
+
+    /**
+     * 所有节点都有zstd时，是否在工作站把安装包转换为zstd格式再上传（转换结果缓存）
+     */
+    private boolean zstdRepackage;
+
     /**
      * 默认构造函数
      */
@@ -57,6 +87,9 @@ public class DeploymentConfig {
         this.hadoopConfig = new HadoopConfig();
         this.clusterConfig = new ClusterConfig();
         this.roleAssignments = new HashMap<>();
+        this.verifyPerformance = true;
+        this.parallelDecompression = true;
+        this.zstdRepackage = true;
     }
 
     // Getter和Setter方法
@@ -117,6 +150,120 @@ public class DeploymentConfig {
         this.roleAssignments = roleAssignments;
     }
 
+    public TuningProfile getTuningProfile() {
+        return tuningProfile;
+    }
+
+    public void setTuningProfile(TuningProfile tuningProfile) {
+        this.tuningProfile = tuningProfile;
+    }
+
+    /**
+     * 获取指定虚拟机的主机名
+     * 优先使用hostnames中的配置，未配置时回退到连接配置中的主机名或IP
+     *
+     * @param vmIndex 虚拟机编号（从1开始）
+     * @return 主机名，找不到虚拟机时返回null
+     */
+    public String getHostname(int vmIndex) {
+        if (hostnames != null && vmIndex >= 1 && vmIndex <= hostnames.length) {
+            String hostname = hostnames[vmIndex - 1];
+            if (hostname != null && !hostname.trim().isEmpty()) {
+                return hostname.trim();
+            }
+        }
+
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            if (vmConfig.getIndex() == vmIndex) {
+                String hostname = vmConfig.getHostname();
+                return hostname != null && !hostname.trim().isEmpty() ? hostname.trim() : vmConfig.getIp();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取承担指定角色的虚拟机主机名列表
+     *
+     * @param role 节点角色
+     * @return 主机名列表（按虚拟机编号排序）
+     */
+    public List<String> getHostnamesWithRole(NodeRole role) {
+        List<Integer> vmIndexes = new ArrayList<>();
+        for (Map.Entry<Integer, List<NodeRole>> entry : roleAssignments.entrySet()) {
+            if (entry.getValue() != null && entry.getValue().contains(role)) {
+                vmIndexes.add(entry.getKey());
+            }
+        }
+        java.util.Collections.sort(vmIndexes);
+
+        List<String> result = new ArrayList<>();
+        for (int vmIndex : vmIndexes) {
+            String hostname = getHostname(vmIndex);
+            if (hostname != null) {
+                result.add(hostname);
+            }
+        }
+        return result;
+    }
+
+    public boolean isVerifyPerformance() {
+        return verifyPerformance;
+    }
+
+    public void setVerifyPerformance(boolean verifyPerformance) {
+        this.verifyPerformance = verifyPerformance;
+    }
+
+    public int getTransferRateLimitMbps() {
+        return transferRateLimitMbps;
+    }
+
+    public void setTransferRateLimitMbps(int transferRateLimitMbps) {
+        this.transferRateLimitMbps = transferRateLimitMbps;
+    }
+
+    public boolean isPrebuiltInstall() {
+        return prebuiltInstall;
+    }
+
+    public void setPrebuiltInstall(boolean prebuiltInstall) {
+        this.prebuiltInstall = prebuiltInstall;
+    }
+
+    public boolean isParallelDecompression() {
+        return parallelDecompression;
+    }
+
+    public void setParallelDecompression(boolean parallelDecompression) {
+        this.parallelDecompression = parallelDecompression;
+    }
+
+    public boolean isZstdRepackage() {
+        return zstdRepackage;
+    }
+
+    public void setZstdRepackage(boolean zstdRepackage) {
+        this.zstdRepackage = zstdRepackage;
+    }
+
+    /**
+     * 获取承担指定角色的虚拟机连接配置列表
+     *
+     * @param role 节点角色
+     * @return 连接配置列表（按虚拟机配置顺序）
+     */
+    public List<VMConnectionConfig> getVmConfigsWithRole(NodeRole role) {
+        List<VMConnectionConfig> result = new ArrayList<>();
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            List<NodeRole> roles = roleAssignments.get(vmConfig.getIndex());
+            if (roles != null && roles.contains(role)) {
+                result.add(vmConfig);
+            }
+        }
+        return result;
+    }
+
     /**
      * 重写toString方法
      * 
@@ -132,6 +279,12 @@ public class DeploymentConfig {
                 ", clusterConfig=" + clusterConfig +
                 ", deployMode=" + deployMode +
                 ", roleAssignments=" + roleAssignments +
+                ", tuningProfile=" + tuningProfile +
+                ", verifyPerformance=" + verifyPerformance +
+                ", transferRateLimitMbps=" + transferRateLimitMbps +
+                ", prebuiltInstall=" + prebuiltInstall +
+                ", parallelDecompression=" + parallelDecompression +
+                ", zstdRepackage=" + zstdRepackage +
                 '}';
     }
 }
@@ -0,0 +1,146 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HDFS数据导入结果模型
+ * 汇总一次从工作站批量导入HDFS的文件数、数据量、速率和失败的文件
+ */
+public class HdfsLoadResult {
+    /**
+     * 本地源路径（文件或目录）
+     */
+    private String localPath;
+
+    /**
+     * HDFS目标目录
+     */
+    private String targetPath;
+
+    /**
+     * 成功导入的文件数
+     */
+    private int fileCount;
+
+    /**
+     * 成功导入的数据量（字节）
+     */
+    private long bytes;
+
+    /**
+     * 导入失败的文件及原因
+     */
+    private List<String> failedFiles;
+
+    /**
+     * 并发写入线程数
+     */
+    private int threads;
+
+    /**
+     * 导入耗时（毫秒）
+     */
+    private long durationMs;
+
+    /**
+     * 默认构造函数
+     */
+    public HdfsLoadResult() {
+        this.failedFiles = new ArrayList<>();
+    }
+
+    /**
+     * 平均导入速率
+     *
+     * @return 速率（MB/s）
+     */
+    public double getThroughputMBps() {
+        return bytes / (1024.0 * 1024.0) / (Math.max(1, durationMs) / 1000.0);
+    }
+
+    /**
+     * 是否所有文件都导入成功
+     *
+     * @return 没有失败文件返回true
+     */
+    public boolean isSuccess() {
+        return failedFiles.isEmpty();
+    }
+
+    // Getter和Setter方法
+
+    public String getLocalPath() {
+        return localPath;
+    }
+
+    public void setLocalPath(String localPath) {
+        this.localPath = localPath;
+    }
+
+    public String getTargetPath() {
+        return targetPath;
+    }
+
+    public void setTargetPath(String targetPath) {
+        this.targetPath = targetPath;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public void setFileCount(int fileCount) {
+        this.fileCount = fileCount;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public List<String> getFailedFiles() {
+        return failedFiles;
+    }
+
+    public void setFailedFiles(List<String> failedFiles) {
+        this.failedFiles = failedFiles;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 导入结果的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "HdfsLoadResult{" +
+                "localPath='" + localPath + '\'' +
+                ", targetPath='" + targetPath + '\'' +
+                ", fileCount=" + fileCount +
+                ", bytes=" + bytes +
+                ", failedFiles=" + failedFiles.size() +
+                ", threads=" + threads +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+}
@@ -0,0 +1,116 @@
+package com.lyq.model;
+
+/**
+ * 节点间链路测试结果模型
+ * 封装一个方向（源节点发送到目标节点）的吞吐量和往返延迟
+ */
+public class LinkResult {
+    /**
+     * 源虚拟机编号（发送端）
+     */
+    private int sourceIndex;
+
+    /**
+     * 目标虚拟机编号（接收端）
+     */
+    private int targetIndex;
+
+    /**
+     * 吞吐量（Mbps）
+     */
+    private double throughputMbps;
+
+    /**
+     * 往返延迟中位数（毫秒）
+     */
+    private double rttMs;
+
+    /**
+     * 是否测试成功
+     */
+    private boolean success;
+
+    /**
+     * 错误信息（测试失败时）
+     */
+    private String errorMessage;
+
+    /**
+     * 默认构造函数
+     */
+    public LinkResult() {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param sourceIndex 源虚拟机编号
+     * @param targetIndex 目标虚拟机编号
+     */
+    public LinkResult(int sourceIndex, int targetIndex) {
+        this.sourceIndex = sourceIndex;
+        this.targetIndex = targetIndex;
+    }
+
+    // Getter和Setter方法
+
+    public int getSourceIndex() {
+        return sourceIndex;
+    }
+
+    public void setSourceIndex(int sourceIndex) {
+        this.sourceIndex = sourceIndex;
+    }
+
+    public int getTargetIndex() {
+        return targetIndex;
+    }
+
+    public void setTargetIndex(int targetIndex) {
+        this.targetIndex = targetIndex;
+    }
+
+    public double getThroughputMbps() {
+        return throughputMbps;
+    }
+
+    public void setThroughputMbps(double throughputMbps) {
+        this.throughputMbps = throughputMbps;
+    }
+
+    public double getRttMs() {
+        return rttMs;
+    }
+
+    public void setRttMs(double rttMs) {
+        this.rttMs = rttMs;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkResult{" +
+                "sourceIndex=" + sourceIndex +
+                ", targetIndex=" + targetIndex +
+                ", throughputMbps=" + throughputMbps +
+                ", rttMs=" + rttMs +
+                ", success=" + success +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
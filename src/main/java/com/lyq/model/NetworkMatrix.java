@@ -0,0 +1,101 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节点间网络测试矩阵模型
+ * 保存所有节点两两之间、两个方向的链路测试结果，以及分析出的异常链路
+ */
+public class NetworkMatrix {
+    /**
+     * 参与测试的节点（虚拟机编号 -> 主机名，按编号排列）
+     */
+    private Map<Integer, String> nodes;
+
+    /**
+     * 链路测试结果
+     */
+    private List<LinkResult> links;
+
+    /**
+     * 异常链路和网卡的说明
+     */
+    private List<String> warnings;
+
+    /**
+     * 测试耗时（毫秒）
+     */
+    private long durationMs;
+
+    /**
+     * 默认构造函数
+     */
+    public NetworkMatrix() {
+        this.nodes = new LinkedHashMap<>();
+        this.links = new ArrayList<>();
+        this.warnings = new ArrayList<>();
+    }
+
+    /**
+     * 获取指定方向的链路结果
+     *
+     * @param sourceIndex 源虚拟机编号
+     * @param targetIndex 目标虚拟机编号
+     * @return 链路结果，未测试时返回null
+     */
+    public LinkResult getLink(int sourceIndex, int targetIndex) {
+        for (LinkResult link : links) {
+            if (link.getSourceIndex() == sourceIndex && link.getTargetIndex() == targetIndex) {
+                return link;
+            }
+        }
+        return null;
+    }
+
+    // Getter和Setter方法
+
+    public Map<Integer, String> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(Map<Integer, String> nodes) {
+        this.nodes = nodes;
+    }
+
+    public List<LinkResult> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<LinkResult> links) {
+        this.links = links;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public void setWarnings(List<String> warnings) {
+        this.warnings = warnings;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkMatrix{" +
+                "nodes=" + nodes.size() +
+                ", links=" + links.size() +
+                ", warnings=" + warnings.size() +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+}
@@ -0,0 +1,177 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 节点硬件信息模型
+ * 封装通过SSH探测到的单个节点的CPU、内存、磁盘和网卡信息
+ */
+public class NodeHardwareInfo {
+    /**
+     * 虚拟机编号
+     */
+    private int vmIndex;
+
+    /**
+     * 主机名
+     */
+    private String hostname;
+
+    /**
+     * CPU核数
+     */
+    private int cpuCores;
+
+    /**
+     * 物理内存（MB）
+     */
+    private long memoryMb;
+
+    /**
+     * 物理磁盘数量
+     */
+    private int diskCount;
+
+    /**
+     * 网卡速率（Mbit/s），0表示未知
+     */
+    private int nicSpeedMbps;
+
+    /**
+     * 数据盘挂载点（不含系统目录，每个挂载点对应独立的块设备）
+     */
+    private List<String> dataMounts;
+
+    /**
+     * 探测是否成功
+     */
+    private boolean probed;
+
+    /**
+     * 错误信息（失败时）
+     */
+    private String errorMessage;
+
+    /**
+     * 默认构造函数
+     */
+    public NodeHardwareInfo() {
+        this.dataMounts = new ArrayList<>();
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param vmIndex  虚拟机编号
+     * @param hostname 主机名
+     */
+    public NodeHardwareInfo(int vmIndex, String hostname) {
+        this();
+        this.vmIndex = vmIndex;
+        this.hostname = hostname;
+    }
+
+    /**
+     * 创建探测失败的硬件信息
+     */
+    public static NodeHardwareInfo failure(int vmIndex, String hostname, String errorMessage) {
+        NodeHardwareInfo info = new NodeHardwareInfo(vmIndex, hostname);
+        info.setErrorMessage(errorMessage);
+        return info;
+    }
+
+    // Getter和Setter方法
+
+    public int getVmIndex() {
+        return vmIndex;
+    }
+
+    public void setVmIndex(int vmIndex) {
+        this.vmIndex = vmIndex;
+    }
+
+    public String getHostname() {
+        return hostname;
+    }
+
+    public void setHostname(String hostname) {
+        this.hostname = hostname;
+    }
+
+    public int getCpuCores() {
+        return cpuCores;
+    }
+
+    public void setCpuCores(int cpuCores) {
+        this.cpuCores = cpuCores;
+    }
+
+    public long getMemoryMb() {
+        return memoryMb;
+    }
+
+    public void setMemoryMb(long memoryMb) {
+        this.memoryMb = memoryMb;
+    }
+
+    public int getDiskCount() {
+        return diskCount;
+    }
+
+    public void setDiskCount(int diskCount) {
+        this.diskCount = diskCount;
+    }
+
+    public int getNicSpeedMbps() {
+        return nicSpeedMbps;
+    }
+
+    public void setNicSpeedMbps(int nicSpeedMbps) {
+        this.nicSpeedMbps = nicSpeedMbps;
+    }
+
+    public List<String> getDataMounts() {
+        return dataMounts;
+    }
+
+    public void setDataMounts(List<String> dataMounts) {
+        this.dataMounts = dataMounts;
+    }
+
+    public boolean isProbed() {
+        return probed;
+    }
+
+    public void setProbed(boolean probed) {
+        this.probed = probed;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 硬件信息的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "NodeHardwareInfo{" +
+                "vmIndex=" + vmIndex +
+                ", hostname='" + hostname + '\'' +
+                ", cpuCores=" + cpuCores +
+                ", memoryMb=" + memoryMb +
+                ", diskCount=" + diskCount +
+                ", nicSpeedMbps=" + nicSpeedMbps +
+                ", dataMounts=" + dataMounts +
+                ", probed=" + probed +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
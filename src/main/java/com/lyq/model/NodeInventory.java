@@ -0,0 +1,178 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 节点清单模型
+ * 保存任意数量的集群节点，新增节点使用统一的登录凭据和SSH参数
+ */
+public class NodeInventory {
+    /**
+     * 节点连接配置列表（编号从1开始连续递增）
+     */
+    private List<VMConnectionConfig> nodes;
+
+    /**
+     * 默认用户名
+     */
+    private String username;
+
+    /**
+     * 默认密码
+     */
+    private String password;
+
+    /**
+     * 默认SSH端口
+     */
+    private int sshPort;
+
+    /**
+     * 默认连接超时时间（毫秒）
+     */
+    private int timeout;
+
+    /**
+     * 未指定主机名时使用的前缀，主机名为 前缀 + (100 + 编号)，如 hadoop101
+     */
+    private String hostnamePrefix;
+
+    /**
+     * 默认构造函数
+     */
+    public NodeInventory() {
+        this.nodes = new ArrayList<>();
+        this.sshPort = 22;
+        this.timeout = 30000;
+        this.hostnamePrefix = "hadoop";
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param username 默认用户名
+     * @param password 默认密码
+     */
+    public NodeInventory(String username, String password) {
+        this();
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * 添加节点，IP已存在时忽略
+     *
+     * @param ip       IP地址
+     * @param hostname 主机名，为空时按前缀生成
+     * @return 新增的节点配置，IP重复时返回null
+     */
+    public VMConnectionConfig addNode(String ip, String hostname) {
+        if (findByIp(ip) != null) {
+            return null;
+        }
+
+        int index = nodes.size() + 1;
+        VMConnectionConfig config = new VMConnectionConfig();
+        config.setIndex(index);
+        config.setIp(ip);
+        config.setHostname(hostname != null && !hostname.trim().isEmpty()
+                ? hostname.trim() : hostnamePrefix + (100 + index));
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setSshPort(sshPort);
+        config.setTimeout(timeout);
+        nodes.add(config);
+        return config;
+    }
+
+    /**
+     * 按IP查找节点
+     *
+     * @param ip IP地址
+     * @return 节点配置，不存在时返回null
+     */
+    public VMConnectionConfig findByIp(String ip) {
+        for (VMConnectionConfig config : nodes) {
+            if (config.getIp().equals(ip)) {
+                return config;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 节点数量
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    // Getter和Setter方法
+
+    public List<VMConnectionConfig> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(List<VMConnectionConfig> nodes) {
+        this.nodes = nodes;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getSshPort() {
+        return sshPort;
+    }
+
+    public void setSshPort(int sshPort) {
+        this.sshPort = sshPort;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    public String getHostnamePrefix() {
+        return hostnamePrefix;
+    }
+
+    public void setHostnamePrefix(String hostnamePrefix) {
+        this.hostnamePrefix = hostnamePrefix;
+    }
+
+    /**
+     * 重写toString方法（不输出密码）
+     *
+     * @return 清单信息的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "NodeInventory{" +
+                "nodes=" + nodes.size() +
+                ", username='" + username + '\'' +
+                ", sshPort=" + sshPort +
+                ", timeout=" + timeout +
+                ", hostnamePrefix='" + hostnamePrefix + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,140 @@
+package com.lyq.model;
+
+/**
+ * 预构建安装包模型
+ * 工作站上预先解压合并的JDK和Hadoop安装目录，以及根据链路测量结果选定的传输格式
+ */
+public class PrebuiltPackage {
+    /**
+     * 要发送到节点的本地文件路径（tar或tar.gz）
+     */
+    private String localFilePath;
+
+    /**
+     * 是否以gzip压缩格式发送（节点边接收边解压）
+     */
+    private boolean compressed;
+
+    /**
+     * JDK安装目录名（安装包内的顶层目录）
+     */
+    private String jdkDirName;
+
+    /**
+     * Hadoop安装目录名（安装包内的顶层目录）
+     */
+    private String hadoopDirName;
+
+    /**
+     * 未压缩的安装目录归档大小（字节）
+     */
+    private long installTreeBytes;
+
+    /**
+     * 实际发送的文件大小（字节）
+     */
+    private long transferBytes;
+
+    /**
+     * 按测量结果估算的未压缩传输耗时（秒），未测量时为-1
+     */
+    private double estimatedRawSeconds;
+
+    /**
+     * 按测量结果估算的压缩传输并解压耗时（秒），未测量时为-1
+     */
+    private double estimatedCompressedSeconds;
+
+    /**
+     * 默认构造函数
+     */
+    public PrebuiltPackage() {
+        this.estimatedRawSeconds = -1;
+        this.estimatedCompressedSeconds = -1;
+    }
+
+    // Getter和Setter方法
+
+    public String getLocalFilePath() {
+        return localFilePath;
+    }
+
+    public void setLocalFilePath(String localFilePath) {
+        this.localFilePath = localFilePath;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public String getJdkDirName() {
+        return jdkDirName;
+    }
+
+    public void setJdkDirName(String jdkDirName) {
+        this.jdkDirName = jdkDirName;
+    }
+
+    public String getHadoopDirName() {
+        return hadoopDirName;
+    }
+
+    public void setHadoopDirName(String hadoopDirName) {
+        this.hadoopDirName = hadoopDirName;
+    }
+
+    public long getInstallTreeBytes() {
+        return installTreeBytes;
+    }
+
+    public void setInstallTreeBytes(long installTreeBytes) {
+        this.installTreeBytes = installTreeBytes;
+    }
+
+    public long getTransferBytes() {
+        return transferBytes;
+    }
+
+    public void setTransferBytes(long transferBytes) {
+        this.transferBytes = transferBytes;
+    }
+
+    public double getEstimatedRawSeconds() {
+        return estimatedRawSeconds;
+    }
+
+    public void setEstimatedRawSeconds(double estimatedRawSeconds) {
+        this.estimatedRawSeconds = estimatedRawSeconds;
+    }
+
+    public double getEstimatedCompressedSeconds() {
+        return estimatedCompressedSeconds;
+    }
+
+    public void setEstimatedCompressedSeconds(double estimatedCompressedSeconds) {
+        this.estimatedCompressedSeconds = estimatedCompressedSeconds;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 安装包信息的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "PrebuiltPackage{" +
+                "localFilePath='" + localFilePath + '\'' +
+                ", compressed=" + compressed +
+                ", jdkDirName='" + jdkDirName + '\'' +
+                ", hadoopDirName='" + hadoopDirName + '\'' +
+                ", installTreeBytes=" + installTreeBytes +
+                ", transferBytes=" + transferBytes +
+                ", estimatedRawSeconds=" + estimatedRawSeconds +
+                ", estimatedCompressedSeconds=" + estimatedCompressedSeconds +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package com.lyq.model;
+
+/**
+ * 预检项模型
+ * 封装单个节点上一项环境检查的结果
+ */
+public class PreflightItem {
+    /**
+     * 虚拟机编号
+     */
+    private int vmIndex;
+
+    /**
+     * 主机名
+     */
+    private String hostname;
+
+    /**
+     * 检查项名称（如 磁盘空间、端口占用）
+     */
+    private String name;
+
+    /**
+     * 结果级别
+     */
+    private PreflightLevel level;
+
+    /**
+     * 结果说明
+     */
+    private String message;
+
+    /**
+     * 默认构造函数
+     */
+    public PreflightItem() {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param vmIndex  虚拟机编号
+     * @param hostname 主机名
+     * @param name     检查项名称
+     * @param level    结果级别
+     * @param message  结果说明
+     */
+    public PreflightItem(int vmIndex, String hostname, String name, PreflightLevel level, String message) {
+        this.vmIndex = vmIndex;
+        this.hostname = hostname;
+        this.name = name;
+        this.level = level;
+        this.message = message;
+    }
+
+    // Getter和Setter方法
+
+    public int getVmIndex() {
+        return vmIndex;
+    }
+
+    public void setVmIndex(int vmIndex) {
+        this.vmIndex = vmIndex;
+    }
+
+    public String getHostname() {
+        return hostname;
+    }
+
+    public void setHostname(String hostname) {
+        this.hostname = hostname;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public PreflightLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(PreflightLevel level) {
+        this.level = level;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "PreflightItem{" +
+                "vmIndex=" + vmIndex +
+                ", hostname='" + hostname + '\'' +
+                ", name='" + name + '\'' +
+                ", level=" + level +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
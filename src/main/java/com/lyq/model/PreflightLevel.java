@@ -0,0 +1,43 @@
+package com.lyq.model;
+
+/**
+ * 预检结果级别枚举
+ * 失败项会阻止部署，警告项只提示
+ */
+public enum PreflightLevel {
+    /**
+     * 通过
+     */
+    PASS("通过"),
+    
+    /**
+     * 警告 - 不影响部署，但可能导致性能或运维问题
+     */
+    WARNING("警告"),
+    
+    /**
+     * 失败 - 部署必然失败，需要先修正
+     */
+    FAILURE("失败");
+    
+    /**
+     * 级别的中文描述
+     */
+    private final String description;
+    
+    /**
+     * 构造函数
+     * @param description 级别的中文描述
+     */
+    PreflightLevel(String description) {
+        this.description = description;
+    }
+    
+    /**
+     * 获取级别的中文描述
+     * @return 中文描述
+     */
+    public String getDescription() {
+        return description;
+    }
+}
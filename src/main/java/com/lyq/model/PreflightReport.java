@@ -0,0 +1,80 @@
+package com.lyq.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预检报告模型
+ * 汇总所有节点的环境检查结果
+ */
+public class PreflightReport {
+    /**
+     * 检查结果（按虚拟机编号排列）
+     */
+    private List<PreflightItem> items;
+
+    /**
+     * 预检耗时（毫秒）
+     */
+    private long durationMs;
+
+    /**
+     * 默认构造函数
+     */
+    public PreflightReport() {
+        this.items = new ArrayList<>();
+    }
+
+    /**
+     * 获取指定级别的检查结果
+     *
+     * @param level 结果级别
+     * @return 检查结果列表
+     */
+    public List<PreflightItem> getItems(PreflightLevel level) {
+        List<PreflightItem> result = new ArrayList<>();
+        for (PreflightItem item : items) {
+            if (item.getLevel() == level) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 是否存在阻止部署的失败项
+     *
+     * @return 存在失败项返回true
+     */
+    public boolean hasFailures() {
+        return !getItems(PreflightLevel.FAILURE).isEmpty();
+    }
+
+    // Getter和Setter方法
+
+    public List<PreflightItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PreflightItem> items) {
+        this.items = items;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return "PreflightReport{" +
+                "items=" + items.size() +
+                ", failures=" + getItems(PreflightLevel.FAILURE).size() +
+                ", warnings=" + getItems(PreflightLevel.WARNING).size() +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+}
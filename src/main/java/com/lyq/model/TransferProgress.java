@@ -0,0 +1,142 @@
+package com.lyq.model;
+
+/**
+ * 传输进度模型
+ * 批量上传时按固定频率生成的进度快照，可以是单个节点的进度，也可以是所有节点的汇总进度
+ */
+public class TransferProgress {
+    /**
+     * 虚拟机编号（汇总进度为0）
+     */
+    private int vmIndex;
+
+    /**
+     * 虚拟机IP地址（汇总进度为null）
+     */
+    private String vmIp;
+
+    /**
+     * 已发送字节数
+     */
+    private long bytesSent;
+
+    /**
+     * 总字节数
+     */
+    private long totalBytes;
+
+    /**
+     * 最近一个采样区间的速率（MB/s）
+     */
+    private double instantaneousMBps;
+
+    /**
+     * 指数加权平滑后的速率（MB/s）
+     */
+    private double smoothedMBps;
+
+    /**
+     * 按平滑速率估算的剩余时间（毫秒），无法估算时为-1
+     */
+    private long etaMillis;
+
+    /**
+     * 默认构造函数
+     */
+    public TransferProgress() {
+    }
+
+    /**
+     * 是否为所有节点的汇总进度
+     *
+     * @return 汇总进度返回true
+     */
+    public boolean isAggregate() {
+        return vmIp == null;
+    }
+
+    /**
+     * 完成百分比
+     *
+     * @return 0-100
+     */
+    public int getPercent() {
+        return totalBytes > 0 ? (int) (bytesSent * 100 / totalBytes) : 100;
+    }
+
+    // Getter和Setter方法
+
+    public int getVmIndex() {
+        return vmIndex;
+    }
+
+    public void setVmIndex(int vmIndex) {
+        this.vmIndex = vmIndex;
+    }
+
+    public String getVmIp() {
+        return vmIp;
+    }
+
+    public void setVmIp(String vmIp) {
+        this.vmIp = vmIp;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public void setBytesSent(long bytesSent) {
+        this.bytesSent = bytesSent;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public double getInstantaneousMBps() {
+        return instantaneousMBps;
+    }
+
+    public void setInstantaneousMBps(double instantaneousMBps) {
+        this.instantaneousMBps = instantaneousMBps;
+    }
+
+    public double getSmoothedMBps() {
+        return smoothedMBps;
+    }
+
+    public void setSmoothedMBps(double smoothedMBps) {
+        this.smoothedMBps = smoothedMBps;
+    }
+
+    public long getEtaMillis() {
+        return etaMillis;
+    }
+
+    public void setEtaMillis(long etaMillis) {
+        this.etaMillis = etaMillis;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 进度信息的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "TransferProgress{" +
+                "vmIndex=" + vmIndex +
+                ", vmIp='" + vmIp + '\'' +
+                ", bytesSent=" + bytesSent +
+                ", totalBytes=" + totalBytes +
+                ", instantaneousMBps=" + instantaneousMBps +
+                ", smoothedMBps=" + smoothedMBps +
+                ", etaMillis=" + etaMillis +
+                '}';
+    }
+}
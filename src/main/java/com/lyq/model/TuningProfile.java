@@ -0,0 +1,208 @@
+package com.lyq.model;
+
+/**
+ * 性能调优配置模型
+ * 根据节点硬件推导出的Hadoop调优参数，生成配置文件时覆盖默认值
+ */
+public class TuningProfile {
+    /**
+     * NodeManager可分配内存（MB）
+     */
+    private long nodeManagerMemoryMb;
+
+    /**
+     * NodeManager可分配虚拟核数
+     */
+    private int nodeManagerVcores;
+
+    /**
+     * 容器最小内存（MB）
+     */
+    private long containerMinMb;
+
+    /**
+     * 容器最大内存（MB）
+     */
+    private long containerMaxMb;
+
+    /**
+     * Map任务内存（MB）
+     */
+    private long mapMemoryMb;
+
+    /**
+     * Reduce任务内存（MB）
+     */
+    private long reduceMemoryMb;
+
+    /**
+     * MapReduce ApplicationMaster内存（MB）
+     */
+    private long appMasterMemoryMb;
+
+    /**
+     * Map端排序缓冲区（MB）
+     */
+    private int sortBufferMb;
+
+    /**
+     * 排序时一次合并的文件数
+     */
+    private int sortFactor;
+
+    /**
+     * Reduce端Shuffle并行拷贝数
+     */
+    private int shuffleParallelCopies;
+
+    /**
+     * NameNode RPC处理线程数
+     */
+    private int nameNodeHandlerCount;
+
+    /**
+     * DataNode RPC处理线程数
+     */
+    private int dataNodeHandlerCount;
+
+    /**
+     * 读写缓冲区大小（字节）
+     */
+    private int ioFileBufferSize;
+
+    /**
+     * 默认构造函数
+     */
+    public TuningProfile() {
+    }
+
+    // Getter和Setter方法
+
+    public long getNodeManagerMemoryMb() {
+        return nodeManagerMemoryMb;
+    }
+
+    public void setNodeManagerMemoryMb(long nodeManagerMemoryMb) {
+        this.nodeManagerMemoryMb = nodeManagerMemoryMb;
+    }
+
+    public int getNodeManagerVcores() {
+        return nodeManagerVcores;
+    }
+
+    public void setNodeManagerVcores(int nodeManagerVcores) {
+        this.nodeManagerVcores = nodeManagerVcores;
+    }
+
+    public long getContainerMinMb() {
+        return containerMinMb;
+    }
+
+    public void setContainerMinMb(long containerMinMb) {
+        this.containerMinMb = containerMinMb;
+    }
+
+    public long getContainerMaxMb() {
+        return containerMaxMb;
+    }
+
+    public void setContainerMaxMb(long containerMaxMb) {
+        this.containerMaxMb = containerMaxMb;
+    }
+
+    public long getMapMemoryMb() {
+        return mapMemoryMb;
+    }
+
+    public void setMapMemoryMb(long mapMemoryMb) {
+        this.mapMemoryMb = mapMemoryMb;
+    }
+
+    public long getReduceMemoryMb() {
+        return reduceMemoryMb;
+    }
+
+    public void setReduceMemoryMb(long reduceMemoryMb) {
+        this.reduceMemoryMb = reduceMemoryMb;
+    }
+
+    public long getAppMasterMemoryMb() {
+        return appMasterMemoryMb;
+    }
+
+    public void setAppMasterMemoryMb(long appMasterMemoryMb) {
+        this.appMasterMemoryMb = appMasterMemoryMb;
+    }
+
+    public int getSortBufferMb() {
+        return sortBufferMb;
+    }
+
+    public void setSortBufferMb(int sortBufferMb) {
+        this.sortBufferMb = sortBufferMb;
+    }
+
+    public int getSortFactor() {
+        return sortFactor;
+    }
+
+    public void setSortFactor(int sortFactor) {
+        this.sortFactor = sortFactor;
+    }
+
+    public int getShuffleParallelCopies() {
+        return shuffleParallelCopies;
+    }
+
+    public void setShuffleParallelCopies(int shuffleParallelCopies) {
+        this.shuffleParallelCopies = shuffleParallelCopies;
+    }
+
+    public int getNameNodeHandlerCount() {
+        return nameNodeHandlerCount;
+    }
+
+    public void setNameNodeHandlerCount(int nameNodeHandlerCount) {
+        this.nameNodeHandlerCount = nameNodeHandlerCount;
+    }
+
+    public int getDataNodeHandlerCount() {
+        return dataNodeHandlerCount;
+    }
+
+    public void setDataNodeHandlerCount(int dataNodeHandlerCount) {
+        this.dataNodeHandlerCount = dataNodeHandlerCount;
+    }
+
+    public int getIoFileBufferSize() {
+        return ioFileBufferSize;
+    }
+
+    public void setIoFileBufferSize(int ioFileBufferSize) {
+        this.ioFileBufferSize = ioFileBufferSize;
+    }
+
+    /**
+     * 重写toString方法
+     *
+     * @return 调优参数的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "TuningProfile{" +
+                "nodeManagerMemoryMb=" + nodeManagerMemoryMb +
+                ", nodeManagerVcores=" + nodeManagerVcores +
+                ", containerMinMb=" + containerMinMb +
+                ", containerMaxMb=" + containerMaxMb +
+                ", mapMemoryMb=" + mapMemoryMb +
+                ", reduceMemoryMb=" + reduceMemoryMb +
+                ", appMasterMemoryMb=" + appMasterMemoryMb +
+                ", sortBufferMb=" + sortBufferMb +
+                ", sortFactor=" + sortFactor +
+                ", shuffleParallelCopies=" + shuffleParallelCopies +
+                ", nameNodeHandlerCount=" + nameNodeHandlerCount +
+                ", dataNodeHandlerCount=" + dataNodeHandlerCount +
+                ", ioFileBufferSize=" + ioFileBufferSize +
+                '}';
+    }
+}
@@ -45,6 +45,21 @@ public class UploadResult {
      */
     private String errorMessage;
 
+    /**
+     * 传输过程中采样到的最高速率（MB/s）
+     */
+    private double peakThroughputMBps;
+
+    /**
+     * 传输过程中采样到的最低速率（MB/s），持续偏低说明节点链路或磁盘较慢
+     */
+    private double minThroughputMBps;
+
+    /**
+     * 开始上传时同时进行的上传数（批量上传时记录，用于比较不同批次）
+     */
+    private int concurrency;
+
     /**
      * 默认构造函数
      */
@@ -86,6 +101,15 @@ public class UploadResult {
                 null, 0, 0, errorMessage);
     }
 
+    /**
+     * 平均上传速率
+     *
+     * @return 速率（MB/s），失败时为0
+     */
+    public double getThroughputMBps() {
+        return fileSize / (1024.0 * 1024.0) / (Math.max(1, uploadTime) / 1000.0);
+    }
+
     // Getter和Setter方法
 
     public int getVmIndex() {
@@ -152,6 +176,30 @@ public class UploadResult {
         this.errorMessage = errorMessage;
     }
 
+    public double getPeakThroughputMBps() {
+        return peakThroughputMBps;
+    }
+
+    public void setPeakThroughputMBps(double peakThroughputMBps) {
+        this.peakThroughputMBps = peakThroughputMBps;
+    }
+
+    public double getMinThroughputMBps() {
+        return minThroughputMBps;
+    }
+
+    public void setMinThroughputMBps(double minThroughputMBps) {
+        this.minThroughputMBps = minThroughputMBps;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
     /**
      * 重写toString方法
      * 
@@ -168,6 +216,9 @@ public class UploadResult {
                 ", fileSize=" + fileSize +
                 ", uploadTime=" + uploadTime +
                 ", errorMessage='" + errorMessage + '\'' +
+                ", peakThroughputMBps=" + peakThroughputMBps +
+                ", minThroughputMBps=" + minThroughputMBps +
+                ", concurrency=" + concurrency +
                 '}';
     }
 }
@@ -0,0 +1,380 @@
+package com.lyq.service;
+
+import com.google.gson.JsonObject;
+import com.lyq.model.ClusterConfig;
+import com.lyq.model.ClusterStatus;
+import com.lyq.model.DaemonStatus;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.JmxUtil;
+import com.lyq.util.ParallelUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 集群监控服务类
+ * 定时并发轮询各守护进程的 /jmx 接口，缓存最近一次结果并在状态变化时通知监听器
+ */
+public class ClusterMonitorService {
+
+    private static final Logger logger = LogManager.getLogger(ClusterMonitorService.class);
+
+    private static final int MAX_PARALLEL_REQUESTS = 16;
+    private static final int JMX_TIMEOUT_MS = 2000;
+
+    /**
+     * 状态更新监听器
+     */
+    public interface StatusListener {
+        /**
+         * 集群状态发生变化（在轮询线程中回调）
+         *
+         * @param status 最新状态快照
+         */
+        void onStatusUpdate(ClusterStatus status);
+    }
+
+    /**
+     * 单个守护进程的轮询目标
+     */
+    private static class Endpoint {
+        final int vmIndex;
+        final String hostname;
+        final String ip;
+        final NodeRole role;
+        final int port;
+
+        /**
+         * 要读取的Bean及其属性
+         */
+        final Map<String, String[]> beans;
+
+        /**
+         * 上一次请求是否仍在进行
+         */
+        final AtomicBoolean polling = new AtomicBoolean();
+
+        Endpoint(int vmIndex, String hostname, String ip, NodeRole role, int port, Map<String, String[]> beans) {
+            this.vmIndex = vmIndex;
+            this.hostname = hostname;
+            this.ip = ip;
+            this.role = role;
+            this.port = port;
+            this.beans = beans;
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+    private final Map<Endpoint, DaemonStatus> cache = new ConcurrentHashMap<>();
+
+    private volatile ClusterStatus snapshot;
+    private volatile StatusListener listener;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService pollExecutor;
+
+    /**
+     * 构造函数
+     *
+     * @param config 部署配置（根据角色分配确定轮询目标）
+     */
+    public ClusterMonitorService(DeploymentConfig config) {
+        this.endpoints = buildEndpoints(config);
+        this.snapshot = buildSnapshot();
+    }
+
+    /**
+     * 开始定时轮询
+     *
+     * @param intervalMillis 轮询间隔（毫秒）
+     * @param listener       状态变化监听器，可为null
+     */
+    public synchronized void start(long intervalMillis, StatusListener listener) {
+        if (scheduler != null) {
+            return;
+        }
+        logger.info("开始监控{}个守护进程，轮询间隔{}ms", endpoints.size(), intervalMillis);
+
+        this.listener = listener;
+        this.pollExecutor = ParallelUtil.newExecutor(Math.max(1, Math.min(MAX_PARALLEL_REQUESTS, endpoints.size())));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hads-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollRound, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止轮询
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+        scheduler = null;
+        pollExecutor = null;
+        logger.info("集群监控已停止");
+    }
+
+    /**
+     * 获取缓存的状态快照（不发起请求）
+     *
+     * @return 最近一次生成的状态快照
+     */
+    public ClusterStatus getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 立即并发轮询所有守护进程
+     *
+     * @param timeoutMillis 整体超时时间（毫秒）
+     * @return 轮询后的状态快照
+     */
+    public ClusterStatus refresh(long timeoutMillis) {
+        List<DaemonStatus> results = ParallelUtil.runAll(endpoints, MAX_PARALLEL_REQUESTS, timeoutMillis,
+                ClusterMonitorService::poll, (endpoint, e) -> unreachable(endpoint, e.getMessage()));
+        for (int i = 0; i < endpoints.size(); i++) {
+            update(endpoints.get(i), results.get(i));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 一轮轮询：每个守护进程独立请求，返回后立即更新快照
+     * 上一轮请求尚未返回的守护进程本轮跳过，避免慢节点堆积请求
+     */
+    private void pollRound() {
+        ExecutorService executor = pollExecutor;
+        if (executor == null) {
+            return;
+        }
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.polling.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        update(endpoint, poll(endpoint));
+                    } finally {
+                        endpoint.polling.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 监控已停止
+                endpoint.polling.set(false);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 更新单个守护进程的缓存，状态或指标有变化时重新生成快照并通知监听器
+     */
+    private synchronized void update(Endpoint endpoint, DaemonStatus status) {
+        DaemonStatus previous = cache.put(endpoint, status);
+        if (previous != null && previous.isRunning() == status.isRunning()
+                && previous.getMetrics().equals(status.getMetrics())
+                && Objects.equals(previous.getErrorMessage(), status.getErrorMessage())) {
+            return;
+        }
+        if (previous == null || previous.isRunning() != status.isRunning()) {
+            logger.info("{} {}:{} {}", endpoint.role.getDisplayName(), endpoint.ip, endpoint.port,
+                    status.isRunning() ? "运行中" : "无法访问: " + status.getErrorMessage());
+        }
+
+        snapshot = buildSnapshot();
+        StatusListener current = listener;
+        if (current != null) {
+            current.onStatusUpdate(snapshot);
+        }
+    }
+
+    /**
+     * 读取单个守护进程的JMX指标
+     * 只请求需要的Bean，Web接口可访问即视为运行中
+     */
+    private static DaemonStatus poll(Endpoint endpoint) {
+        DaemonStatus status = newStatus(endpoint);
+        try {
+            for (Map.Entry<String, String[]> bean : endpoint.beans.entrySet()) {
+                JsonObject json = JmxUtil.getBean(endpoint.ip, endpoint.port, bean.getKey(), JMX_TIMEOUT_MS);
+                if (json == null) {
+                    continue;
+                }
+                for (String attribute : bean.getValue()) {
+                    if (json.has(attribute)) {
+                        status.getMetrics().put(attribute, JmxUtil.getDouble(json, attribute, 0));
+                    }
+                }
+            }
+            status.setRunning(true);
+        } catch (IOException e) {
+            return unreachable(endpoint, e.getMessage());
+        }
+        return status;
+    }
+
+    private static DaemonStatus unreachable(Endpoint endpoint, String message) {
+        DaemonStatus status = newStatus(endpoint);
+        status.setRunning(false);
+        status.setErrorMessage(message);
+        return status;
+    }
+
+    private static DaemonStatus newStatus(Endpoint endpoint) {
+        DaemonStatus status = new DaemonStatus();
+        status.setVmIndex(endpoint.vmIndex);
+        status.setHostname(endpoint.hostname);
+        status.setIp(endpoint.ip);
+        status.setRole(endpoint.role);
+        status.setUpdateTime(System.currentTimeMillis());
+        return status;
+    }
+
+    /**
+     * 由缓存生成状态快照，集群级指标取自NameNode和ResourceManager
+     */
+    private ClusterStatus buildSnapshot() {
+        ClusterStatus status = new ClusterStatus();
+        long runningContainers = 0;
+
+        for (Endpoint endpoint : endpoints) {
+            DaemonStatus daemon = cache.get(endpoint);
+            if (daemon == null) {
+                continue;
+            }
+            status.getDaemons().add(daemon);
+
+            switch (endpoint.role) {
+                case NAMENODE:
+                    status.setCapacityTotal((long) daemon.getMetric("CapacityTotal", 0));
+                    status.setCapacityUsed((long) daemon.getMetric("CapacityUsed", 0));
+                    status.setCapacityRemaining((long) daemon.getMetric("CapacityRemaining", 0));
+                    status.setLiveDataNodes((int) daemon.getMetric("NumLiveDataNodes", 0));
+                    status.setDeadDataNodes((int) daemon.getMetric("NumDeadDataNodes", 0));
+                    status.setUnderReplicatedBlocks((long) daemon.getMetric("UnderReplicatedBlocks", 0));
+                    status.setRpcQueueTimeAvgMs(daemon.getMetric("RpcQueueTimeAvgTime", 0));
+                    status.setNameNodeHeapUsedMb(daemon.getMetric("MemHeapUsedM", 0));
+                    status.setNameNodeHeapMaxMb(daemon.getMetric("MemHeapMaxM", 0));
+                    break;
+                case RESOURCEMANAGER:
+                    status.setActiveNodeManagers((int) daemon.getMetric("NumActiveNMs", 0));
+                    status.setLostNodeManagers((int) daemon.getMetric("NumLostNMs", 0));
+                    status.setAllocatedContainers((long) daemon.getMetric("AllocatedContainers", 0));
+                    status.setPendingContainers((long) daemon.getMetric("PendingContainers", 0));
+                    break;
+                case NODEMANAGER:
+                    runningContainers += (long) daemon.getMetric("ContainersRunning", 0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        status.setRunningContainers(runningContainers);
+        status.setUpdateTime(System.currentTimeMillis());
+        return status;
+    }
+
+    /**
+     * 根据角色分配生成轮询目标，按虚拟机顺序和守护进程启动顺序排列
+     * 工作站通常无法解析集群内部主机名，因此使用IP访问
+     */
+    private static List<Endpoint> buildEndpoints(DeploymentConfig config) {
+        ClusterConfig clusterConfig = config.getClusterConfig();
+        List<Endpoint> result = new ArrayList<>();
+
+        for (VMConnectionConfig vmConfig : config.getVmConfigs()) {
+            List<NodeRole> roles = config.getRoleAssignments().get(vmConfig.getIndex());
+            if (roles == null) {
+                continue;
+            }
+            for (NodeRole role : ClusterOperationService.START_ORDER) {
+                if (roles.contains(role)) {
+                    result.add(new Endpoint(vmConfig.getIndex(), config.getHostname(vmConfig.getIndex()),
+                            vmConfig.getIp(), role, webPort(clusterConfig, role), beansFor(clusterConfig, role)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int webPort(ClusterConfig clusterConfig, NodeRole role) {
+        switch (role) {
+            case NAMENODE:
+                return clusterConfig.getNameNodeHttpPort();
+            case SECONDARYNAMENODE:
+                return clusterConfig.getSecondaryNameNodeHttpPort();
+            case RESOURCEMANAGER:
+                return clusterConfig.getResourceManagerWebPort();
+            case DATANODE:
+                return clusterConfig.getDataNodeHttpPort();
+            case NODEMANAGER:
+                return clusterConfig.getNodeManagerWebPort();
+            default:
+                throw new IllegalArgumentException("未知角色: " + role);
+        }
+    }
+
+    /**
+     * 各角色需要读取的Bean和属性
+     */
+    private static Map<String, String[]> beansFor(ClusterConfig clusterConfig, NodeRole role) {
+        Map<String, String[]> beans = new LinkedHashMap<>();
+        String service;
+
+        switch (role) {
+            case NAMENODE:
+                service = "NameNode";
+                beans.put("Hadoop:service=NameNode,name=FSNamesystem", new String[] {
+                        "CapacityTotal", "CapacityUsed", "CapacityRemaining", "UnderReplicatedBlocks"});
+                beans.put("Hadoop:service=NameNode,name=FSNamesystemState", new String[] {
+                        "NumLiveDataNodes", "NumDeadDataNodes"});
+                beans.put("Hadoop:service=NameNode,name=RpcActivityForPort" + clusterConfig.getNameNodePort(),
+                        new String[] {"RpcQueueTimeAvgTime", "RpcProcessingTimeAvgTime"});
+                break;
+            case SECONDARYNAMENODE:
+                service = "SecondaryNameNode";
+                break;
+            case RESOURCEMANAGER:
+                service = "ResourceManager";
+                beans.put("Hadoop:service=ResourceManager,name=ClusterMetrics", new String[] {
+                        "NumActiveNMs", "NumLostNMs", "NumUnhealthyNMs"});
+                beans.put("Hadoop:service=ResourceManager,name=QueueMetrics,q0=root", new String[] {
+                        "AppsRunning", "AllocatedContainers", "PendingContainers"});
+                break;
+            case DATANODE:
+                service = "DataNode";
+                break;
+            case NODEMANAGER:
+                service = "NodeManager";
+                beans.put("Hadoop:service=NodeManager,name=NodeManagerMetrics", new String[] {
+                        "ContainersRunning", "AllocatedGB", "AvailableGB"});
+                break;
+            default:
+                throw new IllegalArgumentException("未知角色: " + role);
+        }
+
+        beans.put("Hadoop:service=" + service + ",name=JvmMetrics", new String[] {"MemHeapUsedM", "MemHeapMaxM"});
+        return beans;
+    }
+}
@@ -0,0 +1,744 @@
+package com.lyq.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.jcraft.jsch.Session;
+import com.lyq.exception.ConnectionException;
+import com.lyq.model.ClusterConfig;
+import com.lyq.model.CommandResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.JmxUtil;
+import com.lyq.util.ParallelUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 集群操作服务类
+ * 负责NameNode格式化、按依赖顺序分阶段并行启停守护进程、滚动重启，以及通过JMX接口判断服务是否就绪
+ */
+public class ClusterOperationService {
+
+    private static final Logger logger = LogManager.getLogger(ClusterOperationService.class);
+
+    /**
+     * 守护进程启动顺序：同一节点上主服务先于工作服务
+     */
+    public static final List<NodeRole> START_ORDER = Arrays.asList(
+            NodeRole.NAMENODE, NodeRole.SECONDARYNAMENODE, NodeRole.RESOURCEMANAGER,
+            NodeRole.DATANODE, NodeRole.NODEMANAGER);
+
+    /**
+     * 启动阶段：HDFS先于YARN，NameNode先于DataNode；同一阶段内所有节点并行执行
+     * 停止时按相反顺序执行
+     */
+    public static final List<List<NodeRole>> START_PHASES = Arrays.asList(
+            Collections.singletonList(NodeRole.NAMENODE),
+            Arrays.asList(NodeRole.SECONDARYNAMENODE, NodeRole.DATANODE),
+            Collections.singletonList(NodeRole.RESOURCEMANAGER),
+            Collections.singletonList(NodeRole.NODEMANAGER));
+
+    /**
+     * 主服务角色（滚动重启时逐个重启）
+     */
+    private static final List<NodeRole> MASTER_ROLES = Arrays.asList(
+            NodeRole.NAMENODE, NodeRole.SECONDARYNAMENODE, NodeRole.RESOURCEMANAGER);
+
+    /**
+     * 工作服务角色（滚动重启时分批重启）
+     */
+    private static final List<NodeRole> WORKER_ROLES = Arrays.asList(NodeRole.DATANODE, NodeRole.NODEMANAGER);
+
+    private static final int MAX_PARALLEL_NODES = 32;
+    private static final int DAEMON_TIMEOUT_SECONDS = 60; // 单个守护进程启停命令的远程超时
+    private static final long NODE_TIMEOUT_MS = 150000; // 单个节点一次操作的超时
+    private static final int ROLLING_BATCH_PERCENT = 20; // 滚动重启每批最多重启的工作节点比例
+    private static final long READY_TIMEOUT_MS = 180000;
+    private static final long RECOVERY_TIMEOUT_MS = 600000; // 单批重启后等待HDFS恢复的超时
+    private static final long TARGET_RECOVERY_MS = 30000; // 恢复快于此值时扩大批次，慢于两倍时缩小批次
+    private static final long POLL_INTERVAL_MS = 500;
+    private static final int JMX_TIMEOUT_MS = 2000;
+    private static final long MAX_LAST_CONTACT_SECONDS = 10; // 重新注册后NameNode记录的最近心跳不应早于此值
+
+    private static final String NAMENODE_STATUS_BEAN = "Hadoop:service=NameNode,name=NameNodeStatus";
+    private static final String FSNAMESYSTEM_STATE_BEAN = "Hadoop:service=NameNode,name=FSNamesystemState";
+    private static final String FSNAMESYSTEM_BEAN = "Hadoop:service=NameNode,name=FSNamesystem";
+    private static final String NAMENODE_INFO_BEAN = "Hadoop:service=NameNode,name=NameNodeInfo";
+    private static final String DATANODE_ACTIVITY_QUERY = "Hadoop:service=DataNode,name=DataNodeActivity*";
+    private static final String RUNTIME_BEAN = "java.lang:type=Runtime";
+    private static final String SECONDARY_NAMENODE_BEAN = "Hadoop:service=SecondaryNameNode,name=SecondaryNameNodeInfo";
+    private static final String RM_CLUSTER_METRICS_BEAN = "Hadoop:service=ResourceManager,name=ClusterMetrics";
+
+    private final SSHConnectionService sshService;
+
+    /**
+     * 就绪检查项
+     */
+    private interface ReadinessCheck {
+        boolean isReady() throws IOException;
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务（共享会话缓存）
+     */
+    public ClusterOperationService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+    }
+
+    /**
+     * 格式化NameNode
+     * 名称目录中已存在元数据时跳过，避免重复部署时清空HDFS
+     *
+     * @param config 部署配置
+     * @return 命令执行结果
+     * @throws ConnectionException 连接NameNode节点失败时抛出异常
+     */
+    public CommandResult formatNameNode(DeploymentConfig config) throws ConnectionException {
+        List<VMConnectionConfig> nameNodes = config.getVmConfigsWithRole(NodeRole.NAMENODE);
+        if (nameNodes.isEmpty()) {
+            throw new IllegalStateException("未分配NameNode角色");
+        }
+
+        String nameDir = config.getClusterConfig().getHdfsNameDir();
+        String command = "if [ -f " + nameDir + "/current/VERSION ]; then echo 'NameNode已格式化，跳过'; " +
+                "else " + hadoopBin(config, "hdfs") + " namenode -format -nonInteractive; fi";
+
+        logger.info("格式化NameNode: {}", nameNodes.get(0).getIp());
+        Session session = sshService.getSession(nameNodes.get(0));
+        return sshService.executeCommandWithLog(session, command, null);
+    }
+
+    /**
+     * 在所有节点上按依赖顺序启动守护进程
+     *
+     * @param config 部署配置
+     * @return 各节点的执行结果（与虚拟机配置顺序一致）
+     */
+    public List<CommandResult> startDaemons(DeploymentConfig config) {
+        return startCluster(config, null);
+    }
+
+    /**
+     * 启动集群：按 START_PHASES 分阶段执行，每个阶段内所有节点并行
+     *
+     * @param config   部署配置
+     * @param callback 进度回调，可为null
+     * @return 各节点的执行结果（与虚拟机配置顺序一致），任一阶段失败的节点返回该阶段的失败结果
+     */
+    public List<CommandResult> startCluster(DeploymentConfig config, LogCallback callback) {
+        return executePhases(config, START_PHASES, "start", callback);
+    }
+
+    /**
+     * 停止集群：按启动阶段的相反顺序执行（YARN先于HDFS，DataNode先于NameNode）
+     *
+     * @param config   部署配置
+     * @param callback 进度回调，可为null
+     * @return 各节点的执行结果（与虚拟机配置顺序一致）
+     */
+    public List<CommandResult> stopCluster(DeploymentConfig config, LogCallback callback) {
+        List<List<NodeRole>> phases = new ArrayList<>();
+        for (List<NodeRole> phase : START_PHASES) {
+            List<NodeRole> reversed = new ArrayList<>(phase);
+            Collections.reverse(reversed);
+            phases.add(0, reversed);
+        }
+        return executePhases(config, phases, "stop", callback);
+    }
+
+    /**
+     * 滚动重启集群
+     * 主服务按 MASTER_ROLES 依次原地重启，每个主服务重启后等待就绪，NameNode重启后还要等待退出安全模式、
+     * 所有DataNode重新汇报；随后工作节点按 rollingRestartWorkers 的方式分批重启，每批都经过HDFS恢复检查
+     * 任一检查超时即中止，尚未重启的节点不再重启
+     *
+     * @param config   部署配置
+     * @param callback 进度回调，可为null
+     * @return 各节点的执行结果（与虚拟机配置顺序一致），未执行的节点返回失败
+     */
+    public List<CommandResult> restartCluster(DeploymentConfig config, LogCallback callback) {
+        List<VMConnectionConfig> nodes = config.getVmConfigs();
+        List<CommandResult> results = initialResults(nodes);
+        List<VMConnectionConfig> workers = getWorkerNodes(config);
+        int expectedDataNodes = config.getVmConfigsWithRole(NodeRole.DATANODE).size();
+
+        if (firstIp(config, NodeRole.NAMENODE) == null) {
+            throw new IllegalStateException("未分配NameNode角色");
+        }
+
+        // 集群本身不健康时不开始重启
+        if (waitForHdfsRecovery(config, Collections.emptyMap(), expectedDataNodes, callback) < 0) {
+            markSkipped(nodes, results, nodes, "HDFS未恢复健康，重启未开始");
+            return results;
+        }
+
+        for (int i = 0; i < MASTER_ROLES.size(); i++) {
+            NodeRole role = MASTER_ROLES.get(i);
+            List<VMConnectionConfig> masters = config.getVmConfigsWithRole(role);
+            if (masters.isEmpty()) {
+                continue;
+            }
+            log(callback, "重启" + role.getDisplayName());
+            mergeResults(nodes, results, masters,
+                    executeDaemonAction(config, masters, Collections.singletonList(role), "restart"));
+
+            List<String> notReady = waitForReady(config, 0, 0, READY_TIMEOUT_MS, null);
+            boolean recovered = notReady.isEmpty() && (role != NodeRole.NAMENODE
+                    || waitForHdfsRecovery(config, Collections.emptyMap(), expectedDataNodes, callback) >= 0);
+            if (!recovered) {
+                if (!notReady.isEmpty() && callback != null) {
+                    callback.onError("主服务未就绪: " + String.join(", ", notReady));
+                }
+                List<VMConnectionConfig> remaining = new ArrayList<>(workers);
+                for (NodeRole later : MASTER_ROLES.subList(i + 1, MASTER_ROLES.size())) {
+                    remaining.addAll(config.getVmConfigsWithRole(later));
+                }
+                markSkipped(nodes, results, remaining, role.getDisplayName() + "重启后未恢复，重启已中止");
+                return results;
+            }
+        }
+
+        restartWorkersInBatches(config, nodes, results, workers, expectedDataNodes, callback);
+        return results;
+    }
+
+    /**
+     * 带HDFS安全检查的工作节点滚动重启
+     * 主服务不重启；集群当前不健康时不开始
+     *
+     * @param config   部署配置
+     * @param callback 进度回调，可为null
+     * @return 各节点的执行结果（与虚拟机配置顺序一致），未执行的节点返回失败
+     */
+    public List<CommandResult> rollingRestartWorkers(DeploymentConfig config, LogCallback callback) {
+        List<VMConnectionConfig> nodes = config.getVmConfigs();
+        List<CommandResult> results = initialResults(nodes);
+        List<VMConnectionConfig> workers = getWorkerNodes(config);
+        int expectedDataNodes = config.getVmConfigsWithRole(NodeRole.DATANODE).size();
+
+        if (firstIp(config, NodeRole.NAMENODE) == null) {
+            throw new IllegalStateException("未分配NameNode角色");
+        }
+
+        // 集群本身不健康时不开始重启
+        if (waitForHdfsRecovery(config, Collections.emptyMap(), expectedDataNodes, callback) < 0) {
+            markSkipped(nodes, results, workers, "HDFS未恢复健康，滚动重启未开始");
+            return results;
+        }
+
+        restartWorkersInBatches(config, nodes, results, workers, expectedDataNodes, callback);
+        return results;
+    }
+
+    /**
+     * 分批重启工作节点
+     * 每批重启后等待本批DataNode全部重新注册并完成块汇报、副本不足和丢失的块数归零，再进入下一批；
+     * 批次大小从1开始，恢复快时加倍、恢复慢时减半，不超过工作节点数的 ROLLING_BATCH_PERCENT
+     * 某一批在 RECOVERY_TIMEOUT_MS 内未恢复时中止，剩余节点不再重启
+     */
+    private void restartWorkersInBatches(DeploymentConfig config, List<VMConnectionConfig> nodes,
+                                         List<CommandResult> results, List<VMConnectionConfig> workers,
+                                         int expectedDataNodes, LogCallback callback) {
+        int maxBatchSize = Math.max(1, workers.size() * ROLLING_BATCH_PERCENT / 100);
+        int batchSize = 1;
+        int from = 0;
+        while (from < workers.size()) {
+            List<VMConnectionConfig> batch = workers.subList(from, Math.min(from + batchSize, workers.size()));
+            log(callback, "重启工作节点 " + (from + 1) + "-" + (from + batch.size()) + "/" + workers.size()
+                    + "（批次大小" + batch.size() + "）");
+            Map<VMConnectionConfig, Long> startTimes = captureDataNodeStartTimes(config, batch);
+            mergeResults(nodes, results, batch, executeDaemonAction(config, batch, WORKER_ROLES, "restart"));
+            from += batch.size();
+
+            long recoveryMillis = waitForHdfsRecovery(config, startTimes, expectedDataNodes, callback);
+            if (recoveryMillis < 0) {
+                markSkipped(nodes, results, workers.subList(from, workers.size()), "HDFS未恢复，滚动重启已中止");
+                return;
+            }
+
+            if (recoveryMillis < TARGET_RECOVERY_MS) {
+                batchSize = Math.min(maxBatchSize, batchSize * 2);
+            } else if (recoveryMillis > TARGET_RECOVERY_MS * 2) {
+                batchSize = Math.max(1, batchSize / 2);
+            }
+        }
+    }
+
+    /**
+     * 等待重启的DataNode重新注册，且HDFS恢复健康
+     * 只看NumLiveDataNodes不够：DataNode在心跳超时（约10.5分钟）内重启完成时，NameNode不会把它判为死亡，
+     * 存活数和副本不足的块数始终不变。因此先确认本批每个DataNode都已换成新进程、重新注册并发送了块汇报，
+     * 再要求NameNode退出安全模式、存活DataNode数达到预期，且没有副本不足和丢失的块
+     *
+     * @param config            部署配置
+     * @param restarted         本批重启的DataNode及其重启前的进程启动时间，只检查集群健康时为空
+     * @param expectedDataNodes 期望的存活DataNode数量
+     * @param callback          进度回调，可为null
+     * @return 恢复耗时（毫秒），超时返回-1
+     */
+    private long waitForHdfsRecovery(DeploymentConfig config, Map<VMConnectionConfig, Long> restarted,
+                                     int expectedDataNodes, LogCallback callback) {
+        String nameNodeIp = firstIp(config, NodeRole.NAMENODE);
+        int port = config.getClusterConfig().getNameNodeHttpPort();
+        int dataNodePort = config.getClusterConfig().getDataNodeHttpPort();
+        Set<VMConnectionConfig> pending = new LinkedHashSet<>(restarted.keySet());
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + RECOVERY_TIMEOUT_MS;
+        String lastReported = null;
+
+        while (true) {
+            try {
+                JsonObject nameNodeInfo = JmxUtil.getBean(nameNodeIp, port, NAMENODE_INFO_BEAN, JMX_TIMEOUT_MS);
+                String status;
+                if (!pending.isEmpty()) {
+                    JsonObject liveNodes = parseLiveNodes(nameNodeInfo);
+                    Iterator<VMConnectionConfig> iterator = pending.iterator();
+                    while (iterator.hasNext()) {
+                        VMConnectionConfig vmConfig = iterator.next();
+                        try {
+                            if (hasReRegistered(vmConfig, dataNodePort, restarted.get(vmConfig), liveNodes)) {
+                                iterator.remove();
+                                logger.info("DataNode已重新注册并完成块汇报: {}", vmConfig.getIp());
+                            }
+                        } catch (IOException e) {
+                            // 新进程尚未监听端口
+                            logger.debug("DataNode {}未就绪: {}", vmConfig.getIp(), e.getMessage());
+                        }
+                    }
+                }
+
+                if (pending.isEmpty()) {
+                    String safeMode = JmxUtil.getString(nameNodeInfo, "Safemode");
+                    boolean inSafeMode = nameNodeInfo == null || (safeMode != null && !safeMode.isEmpty());
+                    long liveDataNodes = JmxUtil.getLong(JmxUtil.getBean(nameNodeIp, port, FSNAMESYSTEM_STATE_BEAN,
+                            JMX_TIMEOUT_MS), "NumLiveDataNodes", 0);
+                    JsonObject fsNamesystem = JmxUtil.getBean(nameNodeIp, port, FSNAMESYSTEM_BEAN, JMX_TIMEOUT_MS);
+                    long underReplicated = JmxUtil.getLong(fsNamesystem, "UnderReplicatedBlocks", -1);
+                    long missing = JmxUtil.getLong(fsNamesystem, "MissingBlocks", -1);
+
+                    if (!inSafeMode && liveDataNodes >= expectedDataNodes && underReplicated == 0 && missing == 0) {
+                        long elapsed = System.currentTimeMillis() - startTime;
+                        logger.info("HDFS已恢复，耗时{}ms", elapsed);
+                        return elapsed;
+                    }
+                    status = "等待HDFS恢复：存活DataNode " + liveDataNodes + "/" + expectedDataNodes
+                            + "，副本不足的块 " + underReplicated + "，丢失的块 " + missing
+                            + (inSafeMode ? "，NameNode处于安全模式" : "");
+                } else {
+                    status = "等待DataNode重新注册并发送块汇报: " + ipList(pending);
+                }
+
+                if (!status.equals(lastReported)) {
+                    lastReported = status;
+                    log(callback, status);
+                }
+            } catch (IOException e) {
+                logger.debug("读取NameNode指标失败: {}", e.getMessage());
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                if (callback != null) {
+                    callback.onError("HDFS在" + RECOVERY_TIMEOUT_MS / 1000 + "秒内未恢复"
+                            + (pending.isEmpty() ? "" : "，未重新注册的DataNode: " + ipList(pending)));
+                }
+                return -1;
+            }
+
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 重启前读取批次内各DataNode进程的启动时间（DataNode自身时钟），重启后启动时间变化说明进程已被替换
+     * 读取失败（进程未运行）的节点记为0
+     */
+    private Map<VMConnectionConfig, Long> captureDataNodeStartTimes(DeploymentConfig config,
+                                                                  List<VMConnectionConfig> batch) {
+        List<VMConnectionConfig> dataNodes = new ArrayList<>();
+        for (VMConnectionConfig vmConfig : batch) {
+            List<NodeRole> roles = config.getRoleAssignments().get(vmConfig.getIndex());
+            if (roles != null && roles.contains(NodeRole.DATANODE)) {
+                dataNodes.add(vmConfig);
+            }
+        }
+
+        int port = config.getClusterConfig().getDataNodeHttpPort();
+        List<Long> startTimes = ParallelUtil.runAll(dataNodes, MAX_PARALLEL_NODES, JMX_TIMEOUT_MS * 2L,
+                vmConfig -> readStartTime(vmConfig.getIp(), port), (vmConfig, e) -> 0L);
+
+        Map<VMConnectionConfig, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < dataNodes.size(); i++) {
+            result.put(dataNodes.get(i), startTimes.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 判断重启的DataNode是否已重新注册：
+     * 进程启动时间与重启前不同，新进程已成功发送过块汇报，且NameNode的存活节点列表中有它的近期心跳
+     *
+     * @throws IOException DataNode的JMX接口无法访问时抛出异常
+     */
+    private static boolean hasReRegistered(VMConnectionConfig vmConfig, int dataNodePort, long previousStartTime,
+                                           JsonObject liveNodes) throws IOException {
+        long startTime = readStartTime(vmConfig.getIp(), dataNodePort);
+        if (startTime == 0 || startTime == previousStartTime) {
+            return false;
+        }
+
+        // 块汇报计数随进程重启清零，大于0说明新进程的块汇报已被NameNode接收
+        JsonArray activity = JmxUtil.queryBeans(vmConfig.getIp(), dataNodePort,
+                DATANODE_ACTIVITY_QUERY, JMX_TIMEOUT_MS);
+        if (activity.size() == 0
+                || JmxUtil.getLong(activity.get(0).getAsJsonObject(), "BlockReportsNumOps", 0) == 0) {
+            return false;
+        }
+
+        JsonObject liveNode = findLiveNode(liveNodes, vmConfig);
+        return liveNode != null && JmxUtil.getLong(liveNode, "lastContact", Long.MAX_VALUE) <= MAX_LAST_CONTACT_SECONDS;
+    }
+
+    private static long readStartTime(String ip, int port) throws IOException {
+        return JmxUtil.getLong(JmxUtil.getBean(ip, port, RUNTIME_BEAN, JMX_TIMEOUT_MS), "StartTime", 0);
+    }
+
+    /**
+     * 解析NameNodeInfo中的LiveNodes属性（JSON字符串，键为"主机名:端口"）
+     */
+    private static JsonObject parseLiveNodes(JsonObject nameNodeInfo) throws IOException {
+        String liveNodes = JmxUtil.getString(nameNodeInfo, "LiveNodes");
+        if (liveNodes == null) {
+            return new JsonObject();
+        }
+        try {
+            return JsonParser.parseString(liveNodes).getAsJsonObject();
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException("LiveNodes解析失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按数据传输地址的IP或主机名在存活节点列表中查找DataNode
+     */
+    private static JsonObject findLiveNode(JsonObject liveNodes, VMConnectionConfig vmConfig) {
+        for (Map.Entry<String, JsonElement> entry : liveNodes.entrySet()) {
+            if (!entry.getValue().isJsonObject()) {
+                continue;
+            }
+            JsonObject node = entry.getValue().getAsJsonObject();
+            String xferAddr = JmxUtil.getString(node, "xferaddr");
+            boolean ipMatches = xferAddr != null && xferAddr.startsWith(vmConfig.getIp() + ":");
+            boolean hostMatches = vmConfig.getHostname() != null
+                    && entry.getKey().startsWith(vmConfig.getHostname() + ":");
+            if (ipMatches || hostMatches) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static String ipList(Set<VMConnectionConfig> nodes) {
+        List<String> ips = new ArrayList<>();
+        for (VMConnectionConfig vmConfig : nodes) {
+            ips.add(vmConfig.getIp());
+        }
+        return String.join(", ", ips);
+    }
+
+    private static void markSkipped(List<VMConnectionConfig> nodes, List<CommandResult> results,
+                                    List<VMConnectionConfig> skipped, String reason) {
+        for (VMConnectionConfig vmConfig : skipped) {
+            int index = nodes.indexOf(vmConfig);
+            if (index >= 0) {
+                results.set(index, CommandResult.failure("restart", reason));
+            }
+        }
+    }
+
+    /**
+     * 按阶段执行守护进程操作，前一阶段所有节点完成后才开始下一阶段
+     */
+    private List<CommandResult> executePhases(DeploymentConfig config, List<List<NodeRole>> phases,
+                                              String action, LogCallback callback) {
+        List<VMConnectionConfig> nodes = config.getVmConfigs();
+        List<CommandResult> results = initialResults(nodes);
+
+        for (List<NodeRole> phase : phases) {
+            List<VMConnectionConfig> phaseNodes = new ArrayList<>();
+            for (NodeRole role : phase) {
+                for (VMConnectionConfig vmConfig : config.getVmConfigsWithRole(role)) {
+                    if (!phaseNodes.contains(vmConfig)) {
+                        phaseNodes.add(vmConfig);
+                    }
+                }
+            }
+            if (phaseNodes.isEmpty()) {
+                continue;
+            }
+
+            log(callback, action + " " + phase + "（" + phaseNodes.size() + "个节点）");
+            mergeResults(nodes, results, phaseNodes, executeDaemonAction(config, phaseNodes, phase, action));
+        }
+
+        return results;
+    }
+
+    /**
+     * 承担DataNode或NodeManager角色的节点
+     */
+    private static List<VMConnectionConfig> getWorkerNodes(DeploymentConfig config) {
+        List<VMConnectionConfig> workers = new ArrayList<>();
+        for (VMConnectionConfig vmConfig : config.getVmConfigs()) {
+            List<NodeRole> roles = config.getRoleAssignments().get(vmConfig.getIndex());
+            if (roles != null && !Collections.disjoint(roles, WORKER_ROLES)) {
+                workers.add(vmConfig);
+            }
+        }
+        return workers;
+    }
+
+    private static List<CommandResult> initialResults(List<VMConnectionConfig> nodes) {
+        List<CommandResult> results = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            results.add(CommandResult.success("", "", 0));
+        }
+        return results;
+    }
+
+    /**
+     * 将部分节点的执行结果合并到整体结果中，节点已有失败结果时保留第一次失败
+     */
+    private static void mergeResults(List<VMConnectionConfig> nodes, List<CommandResult> results,
+                                     List<VMConnectionConfig> subset, List<CommandResult> subsetResults) {
+        for (int i = 0; i < subset.size(); i++) {
+            int index = nodes.indexOf(subset.get(i));
+            if (index >= 0 && results.get(index).isSuccess()) {
+                results.set(index, subsetResults.get(i));
+            }
+        }
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+
+    /**
+     * 在指定节点上并行执行守护进程操作
+     * 每个节点执行一条组合命令，单个守护进程失败不影响同节点的其他守护进程
+     * 每个守护进程命令在远程受 DAEMON_TIMEOUT_SECONDS 限制，每个节点整体受 NODE_TIMEOUT_MS 限制
+     *
+     * @param config 部署配置
+     * @param nodes  目标节点
+     * @param roles  要操作的角色（按启动顺序）
+     * @param action 操作：start / stop / restart
+     * @return 各节点的执行结果（与nodes顺序一致），节点上没有对应角色时返回成功
+     */
+    public List<CommandResult> executeDaemonAction(DeploymentConfig config, List<VMConnectionConfig> nodes,
+                                                   List<NodeRole> roles, String action) {
+        logger.info("在{}个节点上执行守护进程操作: {} {}", nodes.size(), action, roles);
+
+        // 超过并发上限的节点分多轮执行，整体截止时间按轮数放宽
+        int rounds = (nodes.size() + MAX_PARALLEL_NODES - 1) / MAX_PARALLEL_NODES;
+        return ParallelUtil.runAll(nodes, MAX_PARALLEL_NODES, Math.max(1, rounds) * NODE_TIMEOUT_MS,
+                vmConfig -> {
+                    String command = buildDaemonCommand(config, vmConfig.getIndex(), roles, action);
+                    if (command == null) {
+                        return CommandResult.success("", "", 0);
+                    }
+                    return sshService.executeCommandWithLog(sshService.getSession(vmConfig), command, null);
+                },
+                (vmConfig, e) -> CommandResult.failure(action, e.getMessage()));
+    }
+
+    /**
+     * 构建单个节点的守护进程操作命令
+     * restart 先按相反顺序停止再按顺序启动，停止失败（进程本未运行）不计为失败
+     *
+     * @return 远程命令，节点上没有对应角色时返回null
+     */
+    private String buildDaemonCommand(DeploymentConfig config, int vmIndex, List<NodeRole> roles, String action) {
+        List<NodeRole> nodeRoles = config.getRoleAssignments().get(vmIndex);
+        if (nodeRoles == null) {
+            return null;
+        }
+
+        List<NodeRole> targets = new ArrayList<>();
+        for (NodeRole role : roles) {
+            if (nodeRoles.contains(role)) {
+                targets.add(role);
+            }
+        }
+        if (targets.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder command = new StringBuilder("rc=0; ");
+        if ("restart".equals(action)) {
+            for (int i = targets.size() - 1; i >= 0; i--) {
+                command.append(daemonCommand(config, targets.get(i), "stop")).append(" || true; ");
+            }
+            action = "start";
+        }
+        for (NodeRole role : targets) {
+            command.append(daemonCommand(config, role, action)).append(" || rc=1; ");
+        }
+        command.append("exit $rc");
+        return command.toString();
+    }
+
+    /**
+     * 单个守护进程的操作命令，如 timeout 60 hdfs --daemon start namenode
+     */
+    private static String daemonCommand(DeploymentConfig config, NodeRole role, String action) {
+        String prefix = "timeout " + DAEMON_TIMEOUT_SECONDS + " ";
+        switch (role) {
+            case NAMENODE:
+                return prefix + hadoopBin(config, "hdfs") + " --daemon " + action + " namenode";
+            case SECONDARYNAMENODE:
+                return prefix + hadoopBin(config, "hdfs") + " --daemon " + action + " secondarynamenode";
+            case DATANODE:
+                return prefix + hadoopBin(config, "hdfs") + " --daemon " + action + " datanode";
+            case RESOURCEMANAGER:
+                return prefix + hadoopBin(config, "yarn") + " --daemon " + action + " resourcemanager";
+            case NODEMANAGER:
+                return prefix + hadoopBin(config, "yarn") + " --daemon " + action + " nodemanager";
+            default:
+                throw new IllegalArgumentException("未知角色: " + role);
+        }
+    }
+
+    private static String hadoopBin(DeploymentConfig config, String script) {
+        return config.getHadoopConfig().getRemoteInstallDir() + "/bin/" + script;
+    }
+
+    /**
+     * 轮询JMX接口直到所有服务就绪或超时
+     * NameNode和ResourceManager以服务状态为准，DataNode和NodeManager以主节点上登记的存活数量为准
+     *
+     * @param config               部署配置
+     * @param expectedDataNodes    期望的存活DataNode数量
+     * @param expectedNodeManagers 期望的存活NodeManager数量
+     * @param timeoutMillis        超时时间（毫秒）
+     * @param callback             就绪进度回调，可为null
+     * @return 超时仍未就绪的服务列表，全部就绪时为空
+     */
+    public List<String> waitForReady(DeploymentConfig config, int expectedDataNodes, int expectedNodeManagers,
+                                     long timeoutMillis, LogCallback callback) {
+        Map<String, ReadinessCheck> pending = buildReadinessChecks(config, expectedDataNodes, expectedNodeManagers);
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + timeoutMillis;
+
+        while (!pending.isEmpty()) {
+            Iterator<Map.Entry<String, ReadinessCheck>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, ReadinessCheck> entry = iterator.next();
+                boolean ready;
+                try {
+                    ready = entry.getValue().isReady();
+                } catch (IOException e) {
+                    // 守护进程尚未监听端口
+                    logger.debug("{}未就绪: {}", entry.getKey(), e.getMessage());
+                    ready = false;
+                }
+
+                if (ready) {
+                    iterator.remove();
+                    long elapsed = System.currentTimeMillis() - startTime;
+                    logger.info("{}已就绪，耗时{}ms", entry.getKey(), elapsed);
+                    if (callback != null) {
+                        callback.onLog(entry.getKey() + " 已就绪（" + elapsed / 1000.0 + "s）");
+                    }
+                }
+            }
+
+            if (pending.isEmpty() || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (callback != null) {
+            callback.onComplete();
+        }
+        return new ArrayList<>(pending.keySet());
+    }
+
+    private Map<String, ReadinessCheck> buildReadinessChecks(DeploymentConfig config, int expectedDataNodes,
+                                                             int expectedNodeManagers) {
+        ClusterConfig clusterConfig = config.getClusterConfig();
+        Map<String, ReadinessCheck> checks = new LinkedHashMap<>();
+
+        String nameNodeIp = firstIp(config, NodeRole.NAMENODE);
+        if (nameNodeIp != null) {
+            int port = clusterConfig.getNameNodeHttpPort();
+            checks.put("NameNode", () -> "active".equals(JmxUtil.getString(
+                    JmxUtil.getBean(nameNodeIp, port, NAMENODE_STATUS_BEAN, JMX_TIMEOUT_MS), "State")));
+            if (expectedDataNodes > 0) {
+                checks.put("DataNode(" + expectedDataNodes + ")", () -> JmxUtil.getLong(
+                        JmxUtil.getBean(nameNodeIp, port, FSNAMESYSTEM_STATE_BEAN, JMX_TIMEOUT_MS),
+                        "NumLiveDataNodes", 0) >= expectedDataNodes);
+            }
+        }
+
+        String secondaryIp = firstIp(config, NodeRole.SECONDARYNAMENODE);
+        if (secondaryIp != null) {
+            int port = clusterConfig.getSecondaryNameNodeHttpPort();
+            checks.put("SecondaryNameNode", () ->
+                    JmxUtil.getBean(secondaryIp, port, SECONDARY_NAMENODE_BEAN, JMX_TIMEOUT_MS) != null);
+        }
+
+        String resourceManagerIp = firstIp(config, NodeRole.RESOURCEMANAGER);
+        if (resourceManagerIp != null) {
+            int port = clusterConfig.getResourceManagerWebPort();
+            checks.put("ResourceManager", () ->
+                    JmxUtil.getBean(resourceManagerIp, port, RM_CLUSTER_METRICS_BEAN, JMX_TIMEOUT_MS) != null);
+            if (expectedNodeManagers > 0) {
+                checks.put("NodeManager(" + expectedNodeManagers + ")", () -> JmxUtil.getLong(
+                        JmxUtil.getBean(resourceManagerIp, port, RM_CLUSTER_METRICS_BEAN, JMX_TIMEOUT_MS),
+                        "NumActiveNMs", 0) >= expectedNodeManagers);
+            }
+        }
+
+        return checks;
+    }
+
+    /**
+     * 承担指定角色的第一个节点的IP
+     * 工作站通常无法解析集群内部主机名，因此访问Web接口时使用IP
+     */
+    private static String firstIp(DeploymentConfig config, NodeRole role) {
+        List<VMConnectionConfig> nodes = config.getVmConfigsWithRole(role);
+        return nodes.isEmpty() ? null : nodes.get(0).getIp();
+    }
+}
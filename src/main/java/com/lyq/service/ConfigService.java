@@ -3,6 +3,7 @@ package com.lyq.service;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
+import com.lyq.model.BenchmarkReport;
 import com.lyq.model.VMConnectionConfig;
 import com.lyq.util.EncryptionUtil;
 import org.apache.logging.log4j.LogManager;
@@ -34,6 +35,8 @@ public class ConfigService {
     private static final String CONFIG_DIR = System.getProperty("user.home") + File.separator + ".hads";
     private static final String CONFIG_FILE = CONFIG_DIR + File.separator + "config.json";
     private static final String DEPLOY_MODE_CONFIG_FILE = CONFIG_DIR + File.separator + "deploy-mode-config.json";
+    private static final String DEPLOYED_ROLES_FILE = CONFIG_DIR + File.separator + "deployed-roles.json";
+    private static final String BENCHMARK_DIR = CONFIG_DIR + File.separator + "benchmarks";
 
     private static final String CONFIG_VERSION = "1.0";
 
@@ -207,15 +210,25 @@ public class ConfigService {
      * @return 默认的虚拟机连接配置列表（3台虚拟机，信息为空）
      */
     public List<VMConnectionConfig> createDefaultConfig() {
-        logger.info("创建默认配置");
+        return createDefaultConfig(3);
+    }
+
+    /**
+     * 创建指定节点数量的默认配置
+     * 
+     * @param count 节点数量
+     * @return 默认的虚拟机连接配置列表（信息为空，主机名依次为hadoop101、hadoop102...）
+     */
+    public List<VMConnectionConfig> createDefaultConfig(int count) {
+        logger.info("创建默认配置，节点数量: {}", count);
 
         List<VMConnectionConfig> configs = new ArrayList<>();
 
-        for (int i = 1; i <= 3; i++) {
+        for (int i = 1; i <= count; i++) {
             VMConnectionConfig config = new VMConnectionConfig();
             config.setIndex(i);
             config.setIp("");
-            config.setHostname("hadoop10" + i);
+            config.setHostname("hadoop" + (100 + i));
             config.setUsername("");
             config.setPassword("");
             config.setSshPort(22);
@@ -390,6 +403,9 @@ public class ConfigService {
                 }
 
                 config.setRoleAssignments(roleAssignments);
+                if (!roleAssignments.isEmpty()) {
+                    config.setNodeCount(roleAssignments.size());
+                }
             }
 
             logger.info("部署模式配置加载成功，模式: {}", config.getMode());
@@ -415,4 +431,104 @@ public class ConfigService {
         logger.debug("部署模式配置文件{}存在", exists ? "" : "不");
         return exists;
     }
+
+    /**
+     * 保存最近一次部署实际使用的角色分配
+     * 一键部署时角色按节点硬件自动放置，与部署模式配置中的默认分配不同；集群管理界面以此为准定位各守护进程
+     *
+     * @param roleAssignments 实际部署的角色分配
+     * @param vmConfigs       部署的虚拟机配置，用于加载时判断节点清单是否已变化
+     * @throws IOException 如果保存失败
+     */
+    public void saveDeployedRoles(Map<Integer, List<com.lyq.model.NodeRole>> roleAssignments,
+                                  List<VMConnectionConfig> vmConfigs) throws IOException {
+        logger.info("保存实际部署的角色分配到文件: {}", DEPLOYED_ROLES_FILE);
+        ensureConfigDirectoryExists();
+
+        Map<String, String> nodes = new HashMap<>();
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            nodes.put(String.valueOf(vmConfig.getIndex()), vmConfig.getIp());
+        }
+        Map<String, List<String>> roleAssignmentsData = new HashMap<>();
+        for (Map.Entry<Integer, List<com.lyq.model.NodeRole>> entry : roleAssignments.entrySet()) {
+            List<String> roleNames = new ArrayList<>();
+            for (com.lyq.model.NodeRole role : entry.getValue()) {
+                roleNames.add(role.name());
+            }
+            roleAssignmentsData.put(String.valueOf(entry.getKey()), roleNames);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", CONFIG_VERSION);
+        data.put("lastModified", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        data.put("nodes", nodes);
+        data.put("roleAssignments", roleAssignmentsData);
+        Files.write(Paths.get(DEPLOYED_ROLES_FILE), gson.toJson(data).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 加载最近一次部署实际使用的角色分配
+     *
+     * @param vmConfigs 当前的虚拟机配置
+     * @return 角色分配；没有部署记录、记录损坏或节点清单（编号和IP）已变化时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Integer, List<com.lyq.model.NodeRole>> loadDeployedRoles(List<VMConnectionConfig> vmConfigs) {
+        Path file = Paths.get(DEPLOYED_ROLES_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            Map<String, Object> data = gson.fromJson(
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Map.class);
+            if (data == null || !(data.get("nodes") instanceof Map) || !(data.get("roleAssignments") instanceof Map)) {
+                logger.warn("部署角色记录格式不正确，忽略");
+                return null;
+            }
+
+            Map<String, String> nodes = (Map<String, String>) data.get("nodes");
+            Map<String, String> current = new HashMap<>();
+            for (VMConnectionConfig vmConfig : vmConfigs) {
+                current.put(String.valueOf(vmConfig.getIndex()), vmConfig.getIp());
+            }
+            if (!nodes.equals(current)) {
+                logger.info("节点清单已变化，忽略部署角色记录");
+                return null;
+            }
+
+            Map<Integer, List<com.lyq.model.NodeRole>> roleAssignments = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry
+                    : ((Map<String, List<String>>) data.get("roleAssignments")).entrySet()) {
+                List<com.lyq.model.NodeRole> roles = new ArrayList<>();
+                for (String roleName : entry.getValue()) {
+                    roles.add(com.lyq.model.NodeRole.valueOf(roleName));
+                }
+                roleAssignments.put(Integer.parseInt(entry.getKey()), roles);
+            }
+            return roleAssignments;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("加载部署角色记录失败，忽略: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 保存基准测试报告，与部署配置一起存放在配置目录下的benchmarks目录中
+     *
+     * @param report 测试报告
+     * @return 报告文件路径
+     * @throws IOException 如果保存失败
+     */
+    public Path saveBenchmarkReport(BenchmarkReport report) throws IOException {
+        Path dir = Paths.get(BENCHMARK_DIR);
+        Files.createDirectories(dir);
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = dir.resolve(report.getType().toLowerCase() + "-" + timestamp + ".json");
+        Files.write(file, gson.toJson(report).getBytes(StandardCharsets.UTF_8));
+
+        logger.info("基准测试报告已保存: {}", file);
+        return file;
+    }
 }
@@ -0,0 +1,222 @@
+package com.lyq.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.lyq.model.CommandResult;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.BlockDelta;
+import com.lyq.util.ParallelUtil;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 安装包解压服务类
+ * 检测节点上的pigz和zstd，生成使用最快可用工具的解压命令：
+ * zstd格式用zstd解压（速度是gzip的数倍），gzip格式有pigz时用pigz解压（读写和校验在独立线程中进行），
+ * 否则使用tar自带的gzip。
+ * 所有节点都有zstd时，可以在工作站把tar.gz安装包转换为zstd格式，转换结果按安装包缓存
+ */
+public class DecompressionService {
+
+    private static final Logger logger = LogManager.getLogger(DecompressionService.class);
+
+    public static final String TOOL_PIGZ = "pigz";
+    public static final String TOOL_ZSTD = "zstd";
+
+    private static final String CACHE_DIR = System.getProperty("user.home") + File.separator + ".hads"
+            + File.separator + "zstd";
+    private static final String ZSTD_SUFFIX = ".tar.zst";
+    private static final int ZSTD_LEVEL = 10; // 压缩级别只影响工作站的转换时间和文件大小，不影响节点解压速度
+    private static final int MAX_PARALLEL_NODES = 32;
+    private static final long DETECT_TIMEOUT_MS = 30000;
+
+    /**
+     * 输出节点上可用的解压工具，每行一个
+     */
+    private static final String DETECT_COMMAND = "for t in " + TOOL_PIGZ + " " + TOOL_ZSTD
+            + "; do command -v $t > /dev/null && echo $t; done; true";
+
+    private final SSHConnectionService sshService;
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务
+     */
+    public DecompressionService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+    }
+
+    /**
+     * 并行检测各节点上可用的解压工具
+     *
+     * @param vmConfigs 虚拟机配置列表
+     * @return 虚拟机编号到可用工具的映射，检测失败的节点没有可用工具
+     */
+    public Map<Integer, Set<String>> detectTools(List<VMConnectionConfig> vmConfigs) {
+        List<CommandResult> results = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, DETECT_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig), DETECT_COMMAND, null),
+                (vmConfig, e) -> CommandResult.failure(DETECT_COMMAND, e.getMessage()));
+
+        Map<Integer, Set<String>> tools = new HashMap<>();
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            Set<String> found = new LinkedHashSet<>();
+            CommandResult result = results.get(i);
+            if (result.isSuccess()) {
+                for (String line : result.getOutput().split("\n")) {
+                    if (TOOL_PIGZ.equals(line.trim()) || TOOL_ZSTD.equals(line.trim())) {
+                        found.add(line.trim());
+                    }
+                }
+            } else {
+                logger.warn("检测虚拟机{}的解压工具失败: {}", vmConfigs.get(i).getIp(), result.getError());
+            }
+            tools.put(vmConfigs.get(i).getIndex(), found);
+        }
+        return tools;
+    }
+
+    /**
+     * 生成解压命令，不输出文件列表
+     * 通过tar的--use-compress-program调用外部解压程序，解压程序失败时tar同样返回非0退出码
+     *
+     * @param archive   远程安装包路径（.tar.zst或.tar.gz）
+     * @param targetDir 解压目标目录
+     * @param tools     节点上可用的解压工具
+     * @return 解压命令
+     */
+    public static String extractCommand(String archive, String targetDir, Set<String> tools) {
+        String decompress;
+        if (archive.endsWith(ZSTD_SUFFIX)) {
+            decompress = "--use-compress-program=" + TOOL_ZSTD + " ";
+        } else if (tools.contains(TOOL_PIGZ)) {
+            decompress = "--use-compress-program=" + TOOL_PIGZ + " ";
+        } else {
+            decompress = "-z ";
+        }
+        return "sudo tar " + decompress + "-xf " + archive + " -C " + targetDir;
+    }
+
+    /**
+     * 所有节点都有zstd时返回true
+     *
+     * @param tools 各节点可用的解压工具
+     * @return 是否可以使用zstd格式的安装包
+     */
+    public static boolean allSupportZstd(Map<Integer, Set<String>> tools) {
+        if (tools.isEmpty()) {
+            return false;
+        }
+        for (Set<String> found : tools.values()) {
+            if (!found.contains(TOOL_ZSTD)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把tar.gz安装包转换为tar.zst，已转换过且安装包未变化时直接返回缓存
+     * 转换使用工作站的所有CPU核
+     *
+     * @param tarGz    本地tar.gz安装包
+     * @param callback 日志回调
+     * @return 转换后的文件
+     * @throws IOException 如果读取或写入失败
+     */
+    public File toZstd(File tarGz, LogCallback callback) throws IOException {
+        File target = new File(new File(CACHE_DIR, cacheKey(tarGz)), baseName(tarGz.getName()) + ZSTD_SUFFIX);
+        if (target.isFile()) {
+            log(callback, "复用已转换的zstd安装包: " + target);
+            return target;
+        }
+
+        File dir = target.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir);
+        }
+        log(callback, "转换" + tarGz.getName() + "为zstd格式...");
+        long start = System.currentTimeMillis();
+        File temp = new File(dir, target.getName() + ".tmp");
+        try (InputStream in = new GzipCompressorInputStream(new BufferedInputStream(new FileInputStream(tarGz)));
+             OutputStream out = new ZstdOutputStream(
+                     new BufferedOutputStream(new FileOutputStream(temp), 1024 * 1024), ZSTD_LEVEL)
+                     .setChecksum(true)
+                     .setWorkers(Runtime.getRuntime().availableProcessors())) {
+            IOUtils.copy(in, out, 1024 * 1024);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        log(callback, String.format("已转换为zstd格式，%dMB -> %dMB，耗时%dms", tarGz.length() / (1024 * 1024),
+                target.length() / (1024 * 1024), System.currentTimeMillis() - start));
+        return target;
+    }
+
+    /**
+     * 统计各解压工具的节点数，用于日志
+     *
+     * @param tools 各节点可用的解压工具
+     * @return 如"pigz 3台，zstd 2台，无 1台"
+     */
+    public static String summarize(Map<Integer, Set<String>> tools) {
+        int pigz = 0;
+        int zstd = 0;
+        int none = 0;
+        for (Set<String> found : tools.values()) {
+            pigz += found.contains(TOOL_PIGZ) ? 1 : 0;
+            zstd += found.contains(TOOL_ZSTD) ? 1 : 0;
+            none += found.isEmpty() ? 1 : 0;
+        }
+        return TOOL_PIGZ + " " + pigz + "台，" + TOOL_ZSTD + " " + zstd + "台，无 " + none + "台";
+    }
+
+    /**
+     * 去掉.tar.gz或.tgz后缀
+     */
+    private static String baseName(String fileName) {
+        if (fileName.endsWith(".tar.gz")) {
+            return fileName.substring(0, fileName.length() - ".tar.gz".length());
+        }
+        if (fileName.endsWith(".tgz")) {
+            return fileName.substring(0, fileName.length() - ".tgz".length());
+        }
+        return fileName;
+    }
+
+    /**
+     * 缓存目录名：安装包路径、大小或修改时间变化时重新转换
+     */
+    private static String cacheKey(File file) {
+        byte[] key = (file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified())
+                .getBytes(StandardCharsets.UTF_8);
+        return BlockDelta.md5(key, 0, key.length);
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
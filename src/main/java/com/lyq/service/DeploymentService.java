@@ -1,11 +1,23 @@
 package com.lyq.service;
 
-import com.jcraft.jsch.Session;
+import com.lyq.exception.ConnectionException;
 import com.lyq.model.*;
+import com.lyq.util.ArchiveUtil;
+import com.lyq.util.ParallelUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 /**
  * 部署服务类
@@ -17,12 +29,39 @@ public class DeploymentService {
 
     private final SSHConnectionService sshService;
     private final FileTransferService fileTransferService;
+    private final HadoopConfigGenerator configGenerator;
+    private final HardwareProbeService hardwareProbeService;
+    private final PerformanceTuningService tuningService;
+    private final ClusterOperationService operationService;
+    private final PlacementService placementService;
+    private final PreflightService preflightService;
+    private final HdfsBenchmarkService hdfsBenchmarkService;
+    private final YarnBenchmarkService yarnBenchmarkService;
+    private final ConfigService configService;
+    private final PrebuiltPackageService prebuiltService;
+    private final DecompressionService decompressionService;
 
     // 部署常量
     private static final String REMOTE_SOFTWARE_DIR = "/opt/software"; // 软件上传目录
     private static final String REMOTE_MODULE_DIR = "/opt/module"; // 软件安装目录
     private static final String JDK_INSTALL_DIR = "/opt/module/jdk";
     private static final String HADOOP_INSTALL_DIR = "/opt/module/hadoop";
+    private static final int MAX_PARALLEL_NODES = 32; // 并行操作的最大节点数
+    private static final long DISTRIBUTE_TIMEOUT_MS = 120000; // 配置分发超时时间
+    private static final long INSTALL_TIMEOUT_MS = 600000; // 单个节点解压安装包的超时时间
+    private static final List<NodeRole> CRITICAL_PATH_ROLES = Arrays.asList(
+            NodeRole.NAMENODE, NodeRole.RESOURCEMANAGER, NodeRole.SECONDARYNAMENODE); // 优先上传安装包的角色
+    private static final long READY_TIMEOUT_MS = 180000; // 等待服务就绪的超时时间
+    private static final int VERIFY_FILES_PER_DATANODE = 2; // 部署验证时每个DataNode对应的测试文件数
+    private static final int VERIFY_FILE_SIZE_MB = 64; // 部署验证时单个测试文件大小
+    private static final int VERIFY_MAX_THREADS = 8; // 部署验证时的最大并发线程数
+    private static final int VERIFY_METADATA_THREADS = 16; // 部署验证时元数据测试的并发线程数
+    private static final int VERIFY_METADATA_OPS_PER_THREAD = 50; // 部署验证时每个线程每种元数据操作的次数
+    private static final int VERIFY_CONTAINERS_PER_NODEMANAGER = 2; // 部署验证时每个NodeManager对应的测试容器数
+    private static final long VERIFY_CONTAINER_TIMEOUT_MS = 120000; // 部署验证时等待测试容器完成的超时时间
+    private static final String HADOOP_ENV_COMMAND = "echo 'export HADOOP_HOME=" + HADOOP_INSTALL_DIR
+            + "' | sudo tee -a /etc/profile && "
+            + "echo 'export PATH=$PATH:$HADOOP_HOME/bin:$HADOOP_HOME/sbin' | sudo tee -a /etc/profile"; // Hadoop环境变量
 
     /**
      * 部署进度监听器接口
@@ -44,7 +83,18 @@ public class DeploymentService {
      */
     public DeploymentService() {
         this.sshService = new SSHConnectionService();
-        this.fileTransferService = new FileTransferService();
+        this.fileTransferService = new FileTransferService(sshService);
+        this.configGenerator = new HadoopConfigGenerator();
+        this.hardwareProbeService = new HardwareProbeService(sshService);
+        this.tuningService = new PerformanceTuningService();
+        this.operationService = new ClusterOperationService(sshService);
+        this.placementService = new PlacementService();
+        this.preflightService = new PreflightService(sshService);
+        this.hdfsBenchmarkService = new HdfsBenchmarkService();
+        this.yarnBenchmarkService = new YarnBenchmarkService();
+        this.configService = new ConfigService();
+        this.prebuiltService = new PrebuiltPackageService(sshService);
+        this.decompressionService = new DecompressionService(sshService);
         logger.info("DeploymentService 初始化");
     }
 
@@ -55,25 +105,44 @@ public class DeploymentService {
         logger.info("开始部署Hadoop集群");
 
         try {
+            // 预检：存在失败项时不开始部署
+            listener.onStepChange("环境预检");
+            listener.onProgressChange(0, 100);
+            runPreflight(config, listener);
+
             // 阶段1: 环境预处理 (0-20%)
             listener.onStepChange("环境预处理");
             listener.onProgressChange(0, 100);
             configureEnvironment(config, listener);
 
-            // 阶段2: 安装JDK (20-40%)
-            listener.onStepChange("安装JDK");
-            listener.onProgressChange(20, 100);
-            installJDK(config, listener);
-
-            // 阶段3: 安装Hadoop (40-60%)
-            listener.onStepChange("安装Hadoop");
-            listener.onProgressChange(40, 100);
-            installHadoop(config, listener);
+            // 先按硬件放置角色，安装包才能按放置后的角色优先发送到主节点
+            List<NodeHardwareInfo> hardware = probeHardware(config, listener);
+            placeRoles(config, hardware, listener);
+
+            if (usePrebuiltInstall(config, listener)) {
+                // 阶段2-3: 以预构建安装目录一次安装JDK和Hadoop (20-60%)
+                listener.onStepChange("安装JDK和Hadoop");
+                listener.onProgressChange(20, 100);
+                installPrebuilt(config, listener);
+            } else {
+                Map<Integer, Set<String>> tools = detectDecompressTools(config, listener);
+
+                // 阶段2: 安装JDK (20-40%)
+                listener.onStepChange("安装JDK");
+                listener.onProgressChange(20, 100);
+                installJDK(config, tools, listener);
+
+                // 阶段3: 安装Hadoop (40-60%)
+                listener.onStepChange("安装Hadoop");
+                listener.onProgressChange(40, 100);
+                installHadoop(config, tools, listener);
+            }
 
             // 阶段4: 配置文件生成与分发 (60-80%)
             listener.onStepChange("生成配置文件");
             listener.onProgressChange(60, 100);
-            distributeConfigs(config, listener);
+            distributeConfigs(config, hardware, listener);
+            saveDeployedRoles(config, listener);
 
             // 阶段5: 集群初始化与启动 (80-100%)
             listener.onStepChange("初始化集群");
@@ -81,6 +150,13 @@ public class DeploymentService {
             initializeHDFS(config, listener);
             startClusterServices(config, listener);
 
+            // 部署验证：测量HDFS读写、元数据操作和YARN容器启动性能，失败不影响部署结果
+            if (config.isVerifyPerformance()) {
+                listener.onStepChange("部署验证");
+                listener.onProgressChange(95, 100);
+                verifyPerformance(config, listener);
+            }
+
             listener.onProgressChange(100, 100);
             listener.onComplete();
             logger.info("Hadoop集群部署完成");
@@ -92,353 +168,700 @@ public class DeploymentService {
     }
 
     /**
-     * 配置环境
+     * 执行部署预检，输出警告和失败项
+     *
+     * @throws IllegalStateException 如果存在失败项
      */
-    private void configureEnvironment(DeploymentConfig config, DeploymentProgressListener listener) {
-        logger.info("开始配置环境");
-        listener.onLog("[INFO] 开始配置环境...");
-
-        for (int i = 0; i < config.getVmConfigs().size(); i++) {
-            VMConnectionConfig vmConfig = config.getVmConfigs().get(i);
-            String hostname = config.getHostnames()[i];
-
-            try {
-                Session session = sshService.getSession(vmConfig);
-
-                // 配置主机名
-                String setHostnameCmd = "sudo hostnamectl set-hostname " + hostname;
-                listener.onLog("[VM" + (i + 1) + "] 设置主机名: " + hostname);
-                sshService.executeCommandWithLog(session, setHostnameCmd, new LogCallback() {
-                    @Override
-                    public void onLog(String log) {
-                        listener.onLog(log);
-                    }
-
-                    @Override
-                    public void onError(String error) {
-                        listener.onError(error);
-                    }
+    private void runPreflight(DeploymentConfig config, DeploymentProgressListener listener) {
+        listener.onLog("[INFO] 检查节点环境...");
+        PreflightReport report = preflightService.check(config);
+
+        for (PreflightItem item : report.getItems()) {
+            if (item.getLevel() != PreflightLevel.PASS) {
+                listener.onLog("[" + (item.getLevel() == PreflightLevel.FAILURE ? "ERROR" : "WARN") + "] "
+                        + item.getHostname() + " " + item.getName() + ": " + item.getMessage());
+            }
+        }
 
-                    @Override
-                    public void onComplete() {
-                    }
-                });
+        int failures = report.getItems(PreflightLevel.FAILURE).size();
+        if (failures > 0) {
+            throw new IllegalStateException("环境预检未通过，共" + failures + "项失败");
+        }
+        listener.onLog("[INFO] 环境预检通过（" + report.getItems(PreflightLevel.WARNING).size() + "项警告，耗时"
+                + report.getDurationMs() + "ms）");
+    }
 
-                // 配置hosts文件
-                StringBuilder hostsContent = new StringBuilder();
-                for (int j = 0; j < config.getVmConfigs().size(); j++) {
-                    hostsContent.append(config.getVmConfigs().get(j).getIp())
-                            .append(" ")
-                            .append(config.getHostnames()[j])
-                            .append("\\n");
-                }
-                String updateHostsCmd = "echo '" + hostsContent + "' | sudo tee -a /etc/hosts";
-                listener.onLog("[VM" + (i + 1) + "] 更新hosts文件");
-                sshService.executeCommandWithLog(session, updateHostsCmd, new LogCallback() {
-                    @Override
-                    public void onLog(String log) {
-                        listener.onLog(log);
-                    }
+    /**
+     * 部署验证：执行小规模DFSIO、元数据操作和YARN容器启动测试，输出吞吐量和延迟并保存测试报告
+     * 集群已经启动，测试失败只记录警告
+     */
+    private void verifyPerformance(DeploymentConfig config, DeploymentProgressListener listener) {
+        int fileCount = Math.max(1, config.getVmConfigsWithRole(NodeRole.DATANODE).size())
+                * VERIFY_FILES_PER_DATANODE;
+        int containers = Math.max(1, config.getVmConfigsWithRole(NodeRole.NODEMANAGER).size())
+                * VERIFY_CONTAINERS_PER_NODEMANAGER;
+
+        runBenchmark("HDFS读写性能测试", "HDFS", listener, () -> hdfsBenchmarkService.runDfsIo(config, fileCount,
+                VERIFY_FILE_SIZE_MB, Math.min(fileCount, VERIFY_MAX_THREADS), null));
+        runBenchmark("NameNode元数据操作测试", "NameNode ", listener, () -> hdfsBenchmarkService.runNnBench(config,
+                VERIFY_METADATA_OPS_PER_THREAD, VERIFY_METADATA_THREADS, null));
+        runBenchmark("YARN容器启动测试", "YARN", listener, () -> yarnBenchmarkService.runContainerLaunch(config,
+                containers, VERIFY_CONTAINER_TIMEOUT_MS, null));
+    }
 
-                    @Override
-                    public void onError(String error) {
-                        listener.onError(error);
-                    }
+    /**
+     * 执行一项测试，输出结果和警告并保存测试报告
+     * 各项测试相互独立，失败只记录警告
+     */
+    private void runBenchmark(String name, String prefix, DeploymentProgressListener listener,
+                              Callable<BenchmarkReport> benchmark) {
+        listener.onLog("[INFO] 执行" + name + "...");
+        try {
+            BenchmarkReport report = benchmark.call();
+            for (BenchmarkResult result : report.getResults()) {
+                listener.onLog("[INFO] " + prefix + HdfsBenchmarkService.describe(result));
+            }
+            for (String warning : report.getWarnings()) {
+                listener.onLog("[WARN] " + warning);
+            }
+            listener.onLog("[INFO] 测试报告已保存: " + configService.saveBenchmarkReport(report));
+        } catch (Exception e) {
+            logger.warn("{}失败", name, e);
+            listener.onLog("[WARN] " + name + "失败: " + e.getMessage());
+        }
+    }
 
-                    @Override
-                    public void onComplete() {
-                    }
-                });
+    /**
+     * 配置环境
+     * 所有节点并行设置主机名并更新hosts文件，每个节点一次往返
+     */
+    private void configureEnvironment(DeploymentConfig config, DeploymentProgressListener listener) {
+        logger.info("开始配置环境");
+        listener.onLog("[INFO] 开始配置环境...");
 
-            } catch (Exception e) {
-                logger.error("配置虚拟机{}环境失败", vmConfig.getIp(), e);
-                listener.onError("[VM" + (i + 1) + "] 环境配置失败: " + e.getMessage());
+        List<VMConnectionConfig> vmConfigs = config.getVmConfigs();
+        StringBuilder hostsContent = new StringBuilder();
+        for (int j = 0; j < vmConfigs.size(); j++) {
+            hostsContent.append(vmConfigs.get(j).getIp())
+                    .append(" ")
+                    .append(config.getHostnames()[j])
+                    .append("\\n");
+        }
+        String updateHostsCmd = "echo '" + hostsContent + "' | sudo tee -a /etc/hosts > /dev/null";
+
+        List<CommandResult> results = runOnNodes(vmConfigs, DISTRIBUTE_TIMEOUT_MS, vmConfig ->
+                "sudo hostnamectl set-hostname " + config.getHostnames()[vmConfigs.indexOf(vmConfig)]
+                        + " && " + updateHostsCmd);
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            if (results.get(i).isSuccess()) {
+                listener.onLog("[VM" + (i + 1) + "] 设置主机名: " + config.getHostnames()[i] + "，已更新hosts文件");
+            } else {
+                logger.error("配置虚拟机{}环境失败: {}", vmConfigs.get(i).getIp(), results.get(i).getError());
+                listener.onError("[VM" + (i + 1) + "] 环境配置失败: " + results.get(i).getError());
             }
         }
 
         listener.onLog("[INFO] 环境配置完成");
     }
 
+    /**
+     * 在各节点上并行执行各自的命令，超过并发上限的节点分多轮执行，整体截止时间按轮数放宽
+     *
+     * @param nodes          目标节点
+     * @param nodeTimeoutMs  单个节点的超时时间
+     * @param commandForNode 生成节点命令，返回null的节点跳过并视为成功
+     * @return 各节点的执行结果（与nodes顺序一致）
+     */
+    private List<CommandResult> runOnNodes(List<VMConnectionConfig> nodes, long nodeTimeoutMs,
+                                           Function<VMConnectionConfig, String> commandForNode) {
+        int rounds = (nodes.size() + MAX_PARALLEL_NODES - 1) / MAX_PARALLEL_NODES;
+        return ParallelUtil.runAll(nodes, MAX_PARALLEL_NODES, Math.max(1, rounds) * nodeTimeoutMs,
+                vmConfig -> {
+                    String command = commandForNode.apply(vmConfig);
+                    if (command == null) {
+                        return CommandResult.success("", "", 0);
+                    }
+                    return sshService.executeCommandWithLog(sshService.getSession(vmConfig), command, null);
+                },
+                (vmConfig, e) -> CommandResult.failure(String.valueOf(commandForNode.apply(vmConfig)),
+                        e.getMessage()));
+    }
+
     /**
      * 安装JDK
+     *
+     * @param tools 各节点可用的解压工具
      */
-    private void installJDK(DeploymentConfig config, DeploymentProgressListener listener) {
+    private void installJDK(DeploymentConfig config, Map<Integer, Set<String>> tools,
+                            DeploymentProgressListener listener) {
         logger.info("开始安装JDK");
         listener.onLog("[INFO] 开始安装JDK...");
 
         JDKConfig jdkConfig = config.getJdkConfig();
+        Map<Integer, UploadResult> uploads = Collections.emptyMap();
+        String archiveName = null;
+        if (jdkConfig.getSourceType() == SourceType.LOCAL_FILE) {
+            String archivePath = packageToUpload(config, jdkConfig.getLocalFilePath(), tools, listener);
+            archiveName = new java.io.File(archivePath).getName();
+            uploads = uploadPackage(config, archivePath, "JDK", listener);
+        }
 
-        for (VMConnectionConfig vmConfig : config.getVmConfigs()) {
-            try {
-                Session session = sshService.getSession(vmConfig);
-                String fileName = "";
-
-                if (jdkConfig.getSourceType() == SourceType.LOCAL_FILE) {
-                    // 本地上传到/opt/software
-                    listener.onLog("[VM" + vmConfig.getIndex() + "] 上传JDK文件到/opt/software...");
-
-                    // 创建/opt/software目录
-                    sshService.executeCommandWithLog(session, "sudo mkdir -p " + REMOTE_SOFTWARE_DIR,
-                            new LogCallback() {
-                                @Override
-                                public void onLog(String log) {
-                                    listener.onLog(log);
-                                }
-
-                                @Override
-                                public void onError(String error) {
-                                    listener.onError(error);
-                                }
-
-                                @Override
-                                public void onComplete() {
-                                }
-                            });
-
-                    // 设置目录权限
-                    sshService.executeCommandWithLog(session,
-                            "sudo chown -R " + vmConfig.getUsername() + ":" + vmConfig.getUsername() + " "
-                                    + REMOTE_SOFTWARE_DIR,
-                            new LogCallback() {
-                                @Override
-                                public void onLog(String log) {
-                                    listener.onLog(log);
-                                }
-
-                                @Override
-                                public void onError(String error) {
-                                    listener.onError(error);
-                                }
-
-                                @Override
-                                public void onComplete() {
-                                }
-                            });
-
-                    // 上传文件
-                    boolean uploaded = fileTransferService.uploadFile(session,
-                            jdkConfig.getLocalFilePath(), REMOTE_SOFTWARE_DIR, null);
-
-                    if (uploaded) {
-                        fileName = new java.io.File(jdkConfig.getLocalFilePath()).getName();
-                        listener.onLog("[VM" + vmConfig.getIndex() + "] JDK文件上传成功: " + fileName);
-                    } else {
-                        listener.onError("[VM" + vmConfig.getIndex() + "] JDK文件上传失败");
-                        continue;
-                    }
-                } else {
-                    // 预设版本（这里可以添加从远程下载的逻辑）
-                    listener.onLog("[VM" + vmConfig.getIndex() + "] 使用预设JDK版本: " + jdkConfig.getPresetVersion());
-                    fileName = "jdk-8u212-linux-x64.tar.gz"; // 示例文件名
-                }
-
-                // 解压JDK到/opt/module
-                listener.onLog("[VM" + vmConfig.getIndex() + "] 解压JDK到/opt/module...");
-
-                // 创建/opt/module目录
-                sshService.executeCommandWithLog(session, "sudo mkdir -p " + REMOTE_MODULE_DIR,
-                        new LogCallback() {
-                            @Override
-                            public void onLog(String log) {
-                                listener.onLog(log);
-                            }
-
-                            @Override
-                            public void onError(String error) {
-                                listener.onError(error);
-                            }
-
-                            @Override
-                            public void onComplete() {
-                            }
-                        });
-
-                // 解压文件（-C指定目标目录）
-                String extractCmd = "sudo tar -zxvf " + REMOTE_SOFTWARE_DIR + "/" + fileName +
-                        " -C " + REMOTE_MODULE_DIR;
-                sshService.executeCommandWithLog(session, extractCmd,
-                        new LogCallback() {
-                            @Override
-                            public void onLog(String log) {
-                                listener.onLog(log);
-                            }
-
-                            @Override
-                            public void onError(String error) {
-                                listener.onError(error);
-                            }
-
-                            @Override
-                            public void onComplete() {
-                            }
-                        });
-
-                // 创建软链接（假设解压后的目录名）
-                String jdkDirName = fileName.replace(".tar.gz", "");
-                sshService.executeCommandWithLog(session,
-                        "sudo ln -sf " + REMOTE_MODULE_DIR + "/" + jdkDirName + " " + JDK_INSTALL_DIR,
-                        new LogCallback() {
-                            @Override
-                            public void onLog(String log) {
-                                listener.onLog(log);
-                            }
-
-                            @Override
-                            public void onError(String error) {
-                                listener.onError(error);
-                            }
-
-                            @Override
-                            public void onComplete() {
-                            }
-                        });
-
-                listener.onLog("[VM" + vmConfig.getIndex() + "] JDK安装完成");
-
-            } catch (Exception e) {
-                logger.error("安装JDK到虚拟机{}失败", vmConfig.getIp(), e);
-                listener.onError("[VM" + vmConfig.getIndex() + "] JDK安装失败: " + e.getMessage());
-            }
+        String fileName;
+        if (jdkConfig.getSourceType() == SourceType.LOCAL_FILE) {
+            // 安装包已统一上传到/opt/software
+            fileName = new java.io.File(jdkConfig.getLocalFilePath()).getName();
+        } else {
+            // 预设版本（这里可以添加从远程下载的逻辑）
+            listener.onLog("[INFO] 使用预设JDK版本: " + jdkConfig.getPresetVersion());
+            fileName = "jdk-8u212-linux-x64.tar.gz"; // 示例文件名
+            archiveName = fileName;
         }
+        String archive = REMOTE_SOFTWARE_DIR + "/" + archiveName;
+        // 创建软链接（假设解压后的目录名）
+        String jdkDirName = fileName.replace(".tar.gz", "");
+
+        // 所有节点并行解压，每个节点一次往返：创建/opt/module、按节点上的工具解压、创建软链接
+        listener.onLog("[INFO] 解压JDK到" + REMOTE_MODULE_DIR + "...");
+        List<VMConnectionConfig> targets = installTargets(config, jdkConfig.getSourceType(), uploads);
+        List<CommandResult> results = runOnNodes(targets, INSTALL_TIMEOUT_MS, vmConfig ->
+                "sudo mkdir -p " + REMOTE_MODULE_DIR
+                        + " && " + DecompressionService.extractCommand(archive, REMOTE_MODULE_DIR,
+                        tools.getOrDefault(vmConfig.getIndex(), Collections.emptySet()))
+                        + " && sudo ln -sf " + REMOTE_MODULE_DIR + "/" + jdkDirName + " " + JDK_INSTALL_DIR);
+        logInstallResults("JDK", targets, results, listener);
 
         listener.onLog("[INFO] 所有虚拟机JDK安装完成");
     }
 
     /**
      * 安装Hadoop
+     *
+     * @param tools 各节点可用的解压工具
      */
-    private void installHadoop(DeploymentConfig config, DeploymentProgressListener listener) {
+    private void installHadoop(DeploymentConfig config, Map<Integer, Set<String>> tools,
+                               DeploymentProgressListener listener) {
         logger.info("开始安装Hadoop");
         listener.onLog("[INFO] 开始安装Hadoop...");
 
         HadoopConfig hadoopConfig = config.getHadoopConfig();
+        Map<Integer, UploadResult> uploads = Collections.emptyMap();
+        String archiveName = null;
+        if (hadoopConfig.getSourceType() == SourceType.LOCAL_FILE) {
+            String archivePath = packageToUpload(config, hadoopConfig.getLocalFilePath(), tools, listener);
+            archiveName = new java.io.File(archivePath).getName();
+            uploads = uploadPackage(config, archivePath, "Hadoop", listener);
+        }
 
+        String fileName;
+        if (hadoopConfig.getSourceType() == SourceType.LOCAL_FILE) {
+            // 安装包已统一上传到/opt/software
+            fileName = new java.io.File(hadoopConfig.getLocalFilePath()).getName();
+        } else {
+            // 预设版本
+            listener.onLog("[INFO] 使用预设Hadoop版本: " + hadoopConfig.getPresetVersion());
+            fileName = "hadoop-3.1.3.tar.gz"; // 示例文件名
+            archiveName = fileName;
+        }
+        String archive = REMOTE_SOFTWARE_DIR + "/" + archiveName;
+        String hadoopDirName = fileName.replace(".tar.gz", "");
+
+        // 所有节点并行解压，每个节点一次往返：按节点上的工具解压、创建软链接、配置环境变量
+        listener.onLog("[INFO] 解压Hadoop到" + REMOTE_MODULE_DIR + "并配置环境变量...");
+        List<VMConnectionConfig> targets = installTargets(config, hadoopConfig.getSourceType(), uploads);
+        List<CommandResult> results = runOnNodes(targets, INSTALL_TIMEOUT_MS, vmConfig ->
+                DecompressionService.extractCommand(archive, REMOTE_MODULE_DIR,
+                        tools.getOrDefault(vmConfig.getIndex(), Collections.emptySet()))
+                        + " && sudo ln -sf " + REMOTE_MODULE_DIR + "/" + hadoopDirName + " " + HADOOP_INSTALL_DIR
+                        + " && " + HADOOP_ENV_COMMAND);
+        logInstallResults("Hadoop", targets, results, listener);
+
+        listener.onLog("[INFO] 所有虚拟机Hadoop安装完成");
+    }
+
+    /**
+     * 需要解压安装的节点：本地安装包只安装到上传成功的节点（上传失败已在上传时报告）
+     */
+    private static List<VMConnectionConfig> installTargets(DeploymentConfig config, SourceType sourceType,
+                                                           Map<Integer, UploadResult> uploads) {
+        List<VMConnectionConfig> targets = new ArrayList<>();
         for (VMConnectionConfig vmConfig : config.getVmConfigs()) {
-            try {
-                Session session = sshService.getSession(vmConfig);
-                String fileName = "";
-
-                if (hadoopConfig.getSourceType() == SourceType.LOCAL_FILE) {
-                    // 本地上传到/opt/software
-                    listener.onLog("[VM" + vmConfig.getIndex() + "] 上传Hadoop文件到/opt/software...");
-
-                    // 上传文件
-                    boolean uploaded = fileTransferService.uploadFile(session,
-                            hadoopConfig.getLocalFilePath(), REMOTE_SOFTWARE_DIR, null);
-
-                    if (uploaded) {
-                        fileName = new java.io.File(hadoopConfig.getLocalFilePath()).getName();
-                        listener.onLog("[VM" + vmConfig.getIndex() + "] Hadoop文件上传成功: " + fileName);
-                    } else {
-                        listener.onError("[VM" + vmConfig.getIndex() + "] Hadoop文件上传失败");
-                        continue;
-                    }
-                } else {
-                    // 预设版本
-                    listener.onLog("[VM" + vmConfig.getIndex() + "] 使用预设Hadoop版本: " + hadoopConfig.getPresetVersion());
-                    fileName = "hadoop-3.1.3.tar.gz"; // 示例文件名
-                }
+            UploadResult upload = uploads.get(vmConfig.getIndex());
+            if (sourceType != SourceType.LOCAL_FILE || (upload != null && upload.isSuccess())) {
+                targets.add(vmConfig);
+            }
+        }
+        return targets;
+    }
 
-                // 解压Hadoop到/opt/module
-                listener.onLog("[VM" + vmConfig.getIndex() + "] 解压Hadoop到/opt/module...");
-
-                // 解压文件
-                String extractCmd = "sudo tar -zxvf " + REMOTE_SOFTWARE_DIR + "/" + fileName +
-                        " -C " + REMOTE_MODULE_DIR;
-                sshService.executeCommandWithLog(session, extractCmd,
-                        new LogCallback() {
-                            @Override
-                            public void onLog(String log) {
-                                listener.onLog(log);
-                            }
-
-                            @Override
-                            public void onError(String error) {
-                                listener.onError(error);
-                            }
-
-                            @Override
-                            public void onComplete() {
-                            }
-                        });
-
-                // 创建软链接
-                String hadoopDirName = fileName.replace(".tar.gz", "");
-                sshService.executeCommandWithLog(session,
-                        "sudo ln -sf " + REMOTE_MODULE_DIR + "/" + hadoopDirName + " " + HADOOP_INSTALL_DIR,
-                        new LogCallback() {
-                            @Override
-                            public void onLog(String log) {
-                                listener.onLog(log);
-                            }
-
-                            @Override
-                            public void onError(String error) {
-                                listener.onError(error);
-                            }
-
-                            @Override
-                            public void onComplete() {
-                            }
-                        });
-
-                // 配置环境变量
-                listener.onLog("[VM" + vmConfig.getIndex() + "] 配置Hadoop环境变量...");
-                String envCmd = "echo 'export HADOOP_HOME=" + HADOOP_INSTALL_DIR + "' | sudo tee -a /etc/profile && " +
-                        "echo 'export PATH=$PATH:$HADOOP_HOME/bin:$HADOOP_HOME/sbin' | sudo tee -a /etc/profile";
-                sshService.executeCommandWithLog(session, envCmd,
-                        new LogCallback() {
-                            @Override
-                            public void onLog(String log) {
-                                listener.onLog(log);
-                            }
-
-                            @Override
-                            public void onError(String error) {
-                                listener.onError(error);
-                            }
-
-                            @Override
-                            public void onComplete() {
-                            }
-                        });
-
-                listener.onLog("[VM" + vmConfig.getIndex() + "] Hadoop安装完成");
-
-            } catch (Exception e) {
-                logger.error("安装Hadoop到虚拟机{}失败", vmConfig.getIp(), e);
-                listener.onError("[VM" + vmConfig.getIndex() + "] Hadoop安装失败: " + e.getMessage());
+    /**
+     * 按节点顺序输出安装结果
+     */
+    private void logInstallResults(String name, List<VMConnectionConfig> targets, List<CommandResult> results,
+                                   DeploymentProgressListener listener) {
+        for (int i = 0; i < targets.size(); i++) {
+            VMConnectionConfig vmConfig = targets.get(i);
+            if (results.get(i).isSuccess()) {
+                listener.onLog("[VM" + vmConfig.getIndex() + "] " + name + "安装完成");
+            } else {
+                logger.error("安装{}到虚拟机{}失败: {}", name, vmConfig.getIp(), results.get(i).getError());
+                listener.onError("[VM" + vmConfig.getIndex() + "] " + name + "安装失败: " + results.get(i).getError());
             }
         }
+    }
 
-        listener.onLog("[INFO] 所有虚拟机Hadoop安装完成");
+    /**
+     * 检测各节点上可用的解压工具（pigz/zstd），未启用并行解压时不检测，所有节点使用tar自带的gzip
+     *
+     * @return 虚拟机编号到可用工具的映射
+     */
+    private Map<Integer, Set<String>> detectDecompressTools(DeploymentConfig config,
+                                                           DeploymentProgressListener listener) {
+        if (!config.isParallelDecompression()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Set<String>> tools = decompressionService.detectTools(config.getVmConfigs());
+        listener.onLog("[INFO] 节点解压工具: " + DecompressionService.summarize(tools));
+        return tools;
+    }
+
+    /**
+     * 选择要上传的安装包：所有节点都有zstd且允许转换时上传转换后的zstd安装包，转换失败时上传原安装包
+     *
+     * @return 本地安装包路径
+     */
+    private String packageToUpload(DeploymentConfig config, String localFilePath, Map<Integer, Set<String>> tools,
+                                   DeploymentProgressListener listener) {
+        if (!config.isZstdRepackage() || !DecompressionService.allSupportZstd(tools)) {
+            return localFilePath;
+        }
+        try {
+            return decompressionService.toZstd(new java.io.File(localFilePath), infoLog(listener)).getAbsolutePath();
+        } catch (IOException e) {
+            logger.warn("转换zstd格式失败: {}", localFilePath, e);
+            listener.onLog("[WARN] 转换zstd格式失败，上传原安装包: " + e.getMessage());
+            return localFilePath;
+        }
+    }
+
+    /**
+     * 是否以预构建安装目录安装，只支持JDK和Hadoop都使用本地安装包
+     */
+    private boolean usePrebuiltInstall(DeploymentConfig config, DeploymentProgressListener listener) {
+        if (!config.isPrebuiltInstall()) {
+            return false;
+        }
+        if (config.getJdkConfig().getSourceType() != SourceType.LOCAL_FILE
+                || config.getHadoopConfig().getSourceType() != SourceType.LOCAL_FILE) {
+            listener.onLog("[WARN] 预构建安装目录只支持本地安装包，改为在各节点分别解压安装");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 以预构建安装目录安装JDK和Hadoop
+     * 工作站上把两个安装包解压合并为一个安装目录归档，按链路和节点解压速率选择未压缩或轻量压缩格式，
+     * 经标准输入直接管道给各节点的tar，节点不再保存安装包，也不再各自解压原始的tar.gz
+     */
+    private void installPrebuilt(DeploymentConfig config, DeploymentProgressListener listener) {
+        logger.info("开始以预构建安装目录安装JDK和Hadoop");
+        listener.onLog("[INFO] 开始以预构建安装目录安装JDK和Hadoop...");
+
+        List<VMConnectionConfig> vmConfigs = criticalPathOrder(config);
+        PrebuiltPackage pkg = prebuiltService.prepare(config, vmConfigs, infoLog(listener));
+
+        String extractCmd = "sudo mkdir -p " + REMOTE_MODULE_DIR +
+                " && sudo tar -x" + (pkg.isCompressed() ? "z" : "") + "f - -C " + REMOTE_MODULE_DIR +
+                " && sudo ln -sfn " + REMOTE_MODULE_DIR + "/" + pkg.getJdkDirName() + " " + JDK_INSTALL_DIR +
+                " && sudo ln -sfn " + REMOTE_MODULE_DIR + "/" + pkg.getHadoopDirName() + " " + HADOOP_INSTALL_DIR +
+                " && " + HADOOP_ENV_COMMAND;
+        listener.onLog(String.format("[INFO] 发送%s安装目录（%dMB）到%d台虚拟机并解压到%s...",
+                pkg.isCompressed() ? "压缩的" : "未压缩的", pkg.getTransferBytes() / (1024 * 1024),
+                vmConfigs.size(), REMOTE_MODULE_DIR));
+        fileTransferService.setRateLimit(config.getTransferRateLimitMbps() * 1000L * 1000L / 8);
+
+        Map<Integer, UploadResult> results = logUploads("安装目录", fileTransferService.streamToAllVMs(vmConfigs,
+                pkg.getLocalFilePath(), extractCmd, new UploadProgressLogger("安装目录", listener)), listener);
+        long successCount = results.values().stream().filter(UploadResult::isSuccess).count();
+        listener.onLog("[INFO] JDK和Hadoop安装完成，成功: " + successCount + "/" + vmConfigs.size());
+    }
+
+    /**
+     * 把服务输出的日志以[INFO]级别转发给部署进度监听器
+     */
+    private static LogCallback infoLog(DeploymentProgressListener listener) {
+        return new LogCallback() {
+            @Override
+            public void onLog(String log) {
+                listener.onLog("[INFO] " + log);
+            }
+
+            @Override
+            public void onError(String error) {
+                listener.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+    }
+
+    /**
+     * 把本地安装包上传到所有节点的/opt/software
+     * 先并行创建上传目录，再由传输调度器按关键路径顺序上传：
+     * NameNode、ResourceManager、SecondaryNameNode所在节点优先，并发数随工作站上行带宽自动调整
+     *
+     * @return 虚拟机编号到上传结果的映射
+     */
+    private Map<Integer, UploadResult> uploadPackage(DeploymentConfig config, String localFilePath, String name,
+                                                     DeploymentProgressListener listener) {
+        List<VMConnectionConfig> vmConfigs = criticalPathOrder(config);
+        listener.onLog("[INFO] 上传" + name + "安装包到" + vmConfigs.size() + "台虚拟机的" + REMOTE_SOFTWARE_DIR + "...");
+        fileTransferService.setRateLimit(config.getTransferRateLimitMbps() * 1000L * 1000L / 8);
+
+        List<CommandResult> prepared = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, DISTRIBUTE_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig),
+                        "sudo mkdir -p " + REMOTE_SOFTWARE_DIR + " && sudo chown -R " + vmConfig.getUsername()
+                                + ":" + vmConfig.getUsername() + " " + REMOTE_SOFTWARE_DIR, null),
+                (vmConfig, e) -> CommandResult.failure("mkdir " + REMOTE_SOFTWARE_DIR, e.getMessage()));
+
+        List<VMConnectionConfig> targets = new ArrayList<>();
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            if (prepared.get(i).isSuccess()) {
+                targets.add(vmConfigs.get(i));
+            } else {
+                listener.onError("[VM" + vmConfigs.get(i).getIndex() + "] 创建上传目录失败: " + prepared.get(i).getError());
+            }
+        }
+
+        return logUploads(name, fileTransferService.uploadToAllVMs(targets, localFilePath, REMOTE_SOFTWARE_DIR,
+                new UploadProgressLogger(name, listener)), listener);
+    }
+
+    /**
+     * 输出各节点的传输耗时和速率，以及速率最低的节点
+     *
+     * @return 虚拟机编号到传输结果的映射
+     */
+    private Map<Integer, UploadResult> logUploads(String name, List<UploadResult> results,
+                                                  DeploymentProgressListener listener) {
+        Map<Integer, UploadResult> uploads = new HashMap<>();
+        UploadResult slowest = null;
+        for (UploadResult result : results) {
+            uploads.put(result.getVmIndex(), result);
+            if (result.isSuccess()) {
+                listener.onLog(String.format("[VM%d] %s上传成功，耗时%dms，平均%.1f MB/s（%.1f-%.1f）",
+                        result.getVmIndex(), name, result.getUploadTime(), result.getThroughputMBps(),
+                        result.getMinThroughputMBps(), result.getPeakThroughputMBps()));
+                if (slowest == null || result.getThroughputMBps() < slowest.getThroughputMBps()) {
+                    slowest = result;
+                }
+            } else {
+                listener.onError("[VM" + result.getVmIndex() + "] " + name + "上传失败: " + result.getErrorMessage());
+            }
+        }
+        if (slowest != null && uploads.size() > 1) {
+            listener.onLog(String.format("[INFO] %s上传最慢的节点: VM%d（%s），%.1f MB/s", name,
+                    slowest.getVmIndex(), slowest.getVmIp(), slowest.getThroughputMBps()));
+        }
+        return uploads;
+    }
+
+    /**
+     * 按部署关键路径排序节点：主节点的安装包最先到达，其余节点保持原有顺序
+     * 没有角色分配时保持配置顺序
+     */
+    private List<VMConnectionConfig> criticalPathOrder(DeploymentConfig config) {
+        List<VMConnectionConfig> ordered = new ArrayList<>(config.getVmConfigs());
+        Map<Integer, List<NodeRole>> assignments = config.getRoleAssignments();
+        if (assignments == null || assignments.isEmpty()) {
+            return ordered;
+        }
+        ordered.sort(Comparator.comparingInt(vmConfig -> {
+            List<NodeRole> roles = assignments.getOrDefault(vmConfig.getIndex(), Collections.emptyList());
+            for (int i = 0; i < CRITICAL_PATH_ROLES.size(); i++) {
+                if (roles.contains(CRITICAL_PATH_ROLES.get(i))) {
+                    return i;
+                }
+            }
+            return CRITICAL_PATH_ROLES.size();
+        }));
+        return ordered;
     }
 
     /**
      * 分发配置文件
+     *
+     * @param hardware 各节点的硬件信息，用于推导调优参数和数据目录
+     * @throws IllegalStateException 如果有节点分发失败
      */
-    private void distributeConfigs(DeploymentConfig config, DeploymentProgressListener listener) {
+    private void distributeConfigs(DeploymentConfig config, List<NodeHardwareInfo> hardware,
+                                   DeploymentProgressListener listener) throws IOException {
         logger.info("开始分发配置文件");
         listener.onLog("[INFO] 生成并分发配置文件...");
-        listener.onLog("[INFO] 配置文件分发完成");
+
+        configGenerator.resolveTopology(config);
+        tuneForHardware(config, hardware, listener);
+
+        // 在本地渲染各节点配置并打包，内容相同的节点共用同一份归档
+        List<VMConnectionConfig> vmConfigs = config.getVmConfigs();
+        String confDir = config.getHadoopConfig().getRemoteInstallDir() + "/etc/hadoop";
+        Map<Map<String, String>, byte[]> archiveCache = new HashMap<>();
+        Map<Integer, byte[]> archives = new HashMap<>();
+        Map<Integer, String> commands = new HashMap<>();
+
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            String host = config.getHostname(vmConfig.getIndex());
+            Map<String, String> files = configGenerator.generate(config, host);
+            byte[] archive = archiveCache.get(files);
+            if (archive == null) {
+                archive = ArchiveUtil.createTarGz(files);
+                archiveCache.put(files, archive);
+            }
+            archives.put(vmConfig.getIndex(), archive);
+            commands.put(vmConfig.getIndex(), buildConfigCommand(confDir,
+                    configGenerator.getNodeDirectories(config, host), vmConfig.getUsername()));
+        }
+        listener.onLog("[INFO] 已生成配置文件: core-site.xml, hdfs-site.xml, yarn-site.xml, mapred-site.xml, workers（"
+                + archiveCache.size() + "种节点配置）");
+
+        // 每个节点一次往返：创建数据目录，归档经标准输入直接解压到配置目录，并写入JAVA_HOME
+        List<CommandResult> results = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, DISTRIBUTE_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithInput(sshService.getSession(vmConfig),
+                        commands.get(vmConfig.getIndex()), archives.get(vmConfig.getIndex()), DISTRIBUTE_TIMEOUT_MS),
+                (vmConfig, e) -> CommandResult.failure(commands.get(vmConfig.getIndex()), e.getMessage()));
+
+        int successCount = 0;
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            VMConnectionConfig vmConfig = vmConfigs.get(i);
+            CommandResult result = results.get(i);
+            if (result.isSuccess()) {
+                successCount++;
+                listener.onLog("[VM" + vmConfig.getIndex() + "] 配置文件分发完成");
+            } else {
+                logger.error("分发配置文件到虚拟机{}失败: {}", vmConfig.getIp(), result.getError());
+                listener.onError("[VM" + vmConfig.getIndex() + "] 配置文件分发失败: " + result.getError());
+            }
+        }
+
+        listener.onLog("[INFO] 配置文件分发完成，成功: " + successCount + "/" + vmConfigs.size());
+
+        // 缺少配置的节点无法格式化和启动，不继续部署
+        int failures = vmConfigs.size() - successCount;
+        if (failures > 0) {
+            throw new IllegalStateException("配置文件分发失败，共" + failures + "个节点");
+        }
+    }
+
+    /**
+     * 构建单个节点的配置分发命令（从标准输入读取配置归档）
+     *
+     * @param confDir  Hadoop配置目录
+     * @param dirs     需要创建并授权给部署用户的数据目录
+     * @param username 部署用户
+     * @return 远程命令
+     */
+    private String buildConfigCommand(String confDir, List<String> dirs, String username) {
+        String dirList = String.join(" ", dirs);
+        return "sudo mkdir -p " + confDir + " " + dirList +
+                " && sudo chown " + username + ":" + username + " " + dirList +
+                " && sudo tar -xzf - -C " + confDir +
+                " && sudo sed -i '/^export JAVA_HOME=/d' " + confDir + "/hadoop-env.sh" +
+                " && echo 'export JAVA_HOME=" + JDK_INSTALL_DIR + "' | sudo tee -a " + confDir + "/hadoop-env.sh > /dev/null";
+    }
+
+    /**
+     * 并行探测所有节点的硬件信息
+     */
+    private List<NodeHardwareInfo> probeHardware(DeploymentConfig config, DeploymentProgressListener listener) {
+        listener.onLog("[INFO] 探测节点硬件信息...");
+
+        List<NodeHardwareInfo> hardware = hardwareProbeService.probeAll(config);
+        for (NodeHardwareInfo info : hardware) {
+            if (info.isProbed()) {
+                listener.onLog("[VM" + info.getVmIndex() + "] " + info.getCpuCores() + "核, "
+                        + info.getMemoryMb() + "MB内存, " + info.getDiskCount() + "块磁盘, 网卡"
+                        + (info.getNicSpeedMbps() > 0 ? info.getNicSpeedMbps() + "Mbps" : "速率未知"));
+            } else {
+                listener.onLog("[VM" + info.getVmIndex() + "] 硬件探测失败: " + info.getErrorMessage());
+            }
+        }
+        return hardware;
+    }
+
+    /**
+     * 自定义部署模式保留用户的角色分配，其余情况根据硬件自动放置角色
+     */
+    private void placeRoles(DeploymentConfig config, List<NodeHardwareInfo> hardware,
+                            DeploymentProgressListener listener) {
+        if (config.getDeployMode() == DeployMode.CUSTOM
+                && config.getRoleAssignments() != null && !config.getRoleAssignments().isEmpty()) {
+            return;
+        }
+
+        config.setRoleAssignments(placementService.place(config.getVmConfigs(), hardware));
+        for (NodeRole role : Arrays.asList(NodeRole.NAMENODE, NodeRole.RESOURCEMANAGER, NodeRole.SECONDARYNAMENODE)) {
+            listener.onLog("[INFO] " + role.getDisplayName() + " 放置于: "
+                    + String.join(",", config.getHostnamesWithRole(role)));
+        }
+    }
+
+    /**
+     * 记录实际部署的角色分配，集群管理界面据此定位各守护进程
+     * 自动放置的结果只存在于本次部署的配置中，不记录时管理界面会按默认分配访问错误的节点
+     */
+    private void saveDeployedRoles(DeploymentConfig config, DeploymentProgressListener listener) {
+        try {
+            configService.saveDeployedRoles(config.getRoleAssignments(), config.getVmConfigs());
+        } catch (IOException e) {
+            logger.warn("保存部署角色记录失败", e);
+            listener.onLog("[WARN] 保存部署角色记录失败，集群管理界面将使用部署模式配置中的角色: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据硬件信息推导调优参数和多磁盘数据目录布局
+     * 探测失败时保留用户手动选择的配置
+     */
+    private void tuneForHardware(DeploymentConfig config, List<NodeHardwareInfo> hardware,
+                                 DeploymentProgressListener listener) {
+        tuningService.planDiskLayout(hardware, config);
+        for (Map.Entry<String, List<String>> entry : config.getClusterConfig().getDataDirsByHost().entrySet()) {
+            listener.onLog("[INFO] " + entry.getKey() + " DataNode数据目录: " + String.join(",", entry.getValue()));
+        }
+
+        TuningProfile profile = tuningService.deriveProfile(hardware, config);
+        config.setTuningProfile(profile);
+        if (profile != null) {
+            listener.onLog("[INFO] 已根据硬件生成调优参数: NodeManager " + profile.getNodeManagerMemoryMb()
+                    + "MB/" + profile.getNodeManagerVcores() + "核, 容器 " + profile.getContainerMinMb()
+                    + "-" + profile.getContainerMaxMb() + "MB");
+        } else {
+            listener.onLog("[INFO] 未获取到硬件信息，使用手动配置的参数");
+        }
     }
 
     /**
      * 初始化HDFS
      */
-    private void initializeHDFS(DeploymentConfig config, DeploymentProgressListener listener) {
+    private void initializeHDFS(DeploymentConfig config, DeploymentProgressListener listener)
+            throws ConnectionException {
         logger.info("开始初始化HDFS");
         listener.onLog("[INFO] 格式化NameNode...");
+
+        CommandResult result = operationService.formatNameNode(config);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("NameNode格式化失败: " + result.getError());
+        }
+
         listener.onLog("[INFO] HDFS初始化完成");
     }
 
     /**
      * 启动集群服务
+     * 所有节点并行启动守护进程，随后轮询JMX接口，全部就绪后立即结束
+     *
+     * @throws IllegalStateException 如果有节点启动失败或服务未在 READY_TIMEOUT_MS 内就绪
      */
     private void startClusterServices(DeploymentConfig config, DeploymentProgressListener listener) {
         logger.info("开始启动集群服务");
-        listener.onLog("[INFO] 启动HDFS服务...");
-        listener.onLog("[INFO] 启动YARN服务...");
+        listener.onLog("[INFO] 并行启动HDFS和YARN服务...");
+
+        List<VMConnectionConfig> vmConfigs = config.getVmConfigs();
+        List<CommandResult> results = operationService.startDaemons(config);
+
+        // 只等待启动命令成功的节点
+        int failures = 0;
+        int expectedDataNodes = 0;
+        int expectedNodeManagers = 0;
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            VMConnectionConfig vmConfig = vmConfigs.get(i);
+            CommandResult result = results.get(i);
+            List<NodeRole> roles = config.getRoleAssignments().get(vmConfig.getIndex());
+
+            if (!result.isSuccess()) {
+                logger.error("虚拟机{}守护进程启动失败: {}", vmConfig.getIp(), result.getError());
+                listener.onError("[VM" + vmConfig.getIndex() + "] 服务启动失败: " + result.getError());
+                failures++;
+                continue;
+            }
+            if (roles != null && roles.contains(NodeRole.DATANODE)) {
+                expectedDataNodes++;
+            }
+            if (roles != null && roles.contains(NodeRole.NODEMANAGER)) {
+                expectedNodeManagers++;
+            }
+        }
+
+        listener.onLog("[INFO] 等待服务就绪...");
+        List<String> notReady = operationService.waitForReady(config, expectedDataNodes, expectedNodeManagers,
+                READY_TIMEOUT_MS, new LogCallback() {
+                    @Override
+                    public void onLog(String log) {
+                        listener.onLog("[INFO] " + log);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        listener.onError(error);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+
+        // 集群不完整时不做部署验证，也不报告部署完成
+        if (failures > 0) {
+            throw new IllegalStateException("服务启动失败，共" + failures + "个节点");
+        }
+        if (!notReady.isEmpty()) {
+            throw new IllegalStateException("以下服务在" + READY_TIMEOUT_MS / 1000 + "秒内未就绪: "
+                    + String.join(", ", notReady));
+        }
         listener.onLog("[INFO] 集群服务启动完成");
     }
+
+    /**
+     * 把批量上传的汇总进度写入部署日志，每完成10%记录一次
+     */
+    private static final class UploadProgressLogger implements FileTransferService.ProgressCallback {
+        private final String name;
+        private final DeploymentProgressListener listener;
+        private int loggedPercent;
+
+        UploadProgressLogger(String name, DeploymentProgressListener listener) {
+            this.name = name;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onStart(String source, String dest, long totalSize) {
+        }
+
+        @Override
+        public void onProgress(long transferred, long total, int percent) {
+        }
+
+        @Override
+        public void onTransferProgress(TransferProgress progress) {
+            if (!progress.isAggregate() || progress.getPercent() < loggedPercent + 10) {
+                return;
+            }
+            loggedPercent = progress.getPercent() / 10 * 10;
+            listener.onLog(String.format("[INFO] %s上传 %d%%（%d/%dMB），%.1f MB/s，预计剩余%s", name,
+                    progress.getPercent(), progress.getBytesSent() / (1024 * 1024),
+                    progress.getTotalBytes() / (1024 * 1024), progress.getSmoothedMBps(),
+                    progress.getEtaMillis() >= 0 ? (progress.getEtaMillis() + 999) / 1000 + "秒" : "未知"));
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void onError(String errorMessage) {
+        }
+    }
 }
@@ -5,17 +5,36 @@ import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
 import com.jcraft.jsch.SftpProgressMonitor;
+import com.lyq.model.CommandResult;
+import com.lyq.model.TransferProgress;
 import com.lyq.model.UploadResult;
 import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.MappedFile;
+import com.lyq.util.ParallelUtil;
+import com.lyq.util.ThroughputMeter;
+import com.lyq.util.TokenBucket;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 /**
  * 文件传输服务类
@@ -25,6 +44,38 @@ public class FileTransferService {
 
     private static final Logger logger = LogManager.getLogger(FileTransferService.class);
 
+    /**
+     * 达到该大小的文件通过内存映射读取上传
+     */
+    private static final long MAPPED_UPLOAD_THRESHOLD = 1024 * 1024;
+
+    /**
+     * 批量上传的初始并发数
+     */
+    private static final int INITIAL_CONCURRENCY = 2;
+
+    /**
+     * 批量上传时总吞吐量的采样间隔（毫秒）
+     */
+    private static final long SAMPLE_INTERVAL_MS = 2000;
+
+    /**
+     * 增加一个并发后总吞吐量的最小提升比例，低于该值视为上行带宽已饱和
+     */
+    private static final double MIN_THROUGHPUT_GAIN = 0.10;
+
+    /**
+     * 批量上传时进度回调的间隔（毫秒）
+     */
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private final SSHConnectionService sshService;
+
+    /**
+     * 所有上传共享的全局限速器，为null时不限速
+     */
+    private volatile TokenBucket rateLimiter;
+
     /**
      * 进度回调接口
      */
@@ -36,23 +87,68 @@ public class FileTransferService {
         void onComplete();
 
         void onError(String errorMessage);
+
+        /**
+         * 批量上传时按固定频率回调的进度快照，依次为正在上传的各节点进度和汇总进度
+         *
+         * @param progress 进度快照
+         */
+        default void onTransferProgress(TransferProgress progress) {
+        }
+    }
+
+    /**
+     * 单个节点的传输任务，每发送一块数据回调一次字节数
+     */
+    private interface NodeTransfer {
+        UploadResult run(VMConnectionConfig config, LongConsumer meter);
     }
 
     /**
      * 构造函数
      */
     public FileTransferService() {
+        this(new SSHConnectionService());
+    }
+
+    /**
+     * 构造函数（批量上传复用调用方的SSH会话）
+     *
+     * @param sshService SSH连接服务
+     */
+    public FileTransferService(SSHConnectionService sshService) {
+        this.sshService = sshService;
         logger.info("FileTransferService 初始化");
     }
 
+    /**
+     * 设置所有上传共享的总速率上限，避免批量上传占满办公网络
+     *
+     * @param bytesPerSecond 每秒字节数，0或负数表示不限速
+     */
+    public void setRateLimit(long bytesPerSecond) {
+        rateLimiter = bytesPerSecond > 0 ? new TokenBucket(bytesPerSecond) : null;
+        logger.info("上传限速: {}", bytesPerSecond > 0 ? bytesPerSecond / 1024 + "KB/s" : "不限速");
+    }
+
     /**
      * 上传文件到单台虚拟机
      */
     public boolean uploadFile(Session session, String localFilePath, 
                              String remoteDir, ProgressCallback progressCallback) {
+        return uploadFile(session, localFilePath, remoteDir, progressCallback, null, null);
+    }
+
+    /**
+     * 上传文件到单台虚拟机，每读取一块数据回调一次已读取的字节数
+     * mapped为批量上传共享的映射，为null时大文件由本次上传自行映射并在结束时释放
+     */
+    private boolean uploadFile(Session session, String localFilePath, String remoteDir,
+                               ProgressCallback progressCallback, LongConsumer meter, MappedFile mapped) {
         logger.info("开始上传文件: {} -> {}", localFilePath, remoteDir);
         
         ChannelSftp sftpChannel = null;
+        MappedFile owned = null;
         long startTime = System.currentTimeMillis();
         
         try {
@@ -91,8 +187,9 @@ public class FileTransferService {
                     
                     @Override
                     public void init(int op, String src, String dest, long max) {
-                        progressCallback.onStart(src, dest, max);
-                        logger.debug("开始传输: {} -> {}, 大小: {} bytes", src, dest, max);
+                        // 从输入流上传时JSch不知道源文件和大小，使用本地文件信息
+                        progressCallback.onStart(localFilePath, dest, totalSize);
+                        logger.debug("开始传输: {} -> {}, 大小: {} bytes", localFilePath, dest, totalSize);
                     }
                     
                     @Override
@@ -111,7 +208,19 @@ public class FileTransferService {
                 };
             }
             
-            if (monitor != null) {
+            // 大文件从映射区直接读入SFTP写请求，避免FileInputStream每次读取的本地缓冲区复制；
+            // 需要计量或限速时小文件也通过输入流上传
+            TokenBucket limiter = rateLimiter;
+            if (localFile.length() >= MAPPED_UPLOAD_THRESHOLD || meter != null || limiter != null) {
+                if (mapped == null && localFile.length() >= MAPPED_UPLOAD_THRESHOLD) {
+                    owned = MappedFile.map(localFile);
+                    mapped = owned;
+                }
+                InputStream source = mapped != null ? mapped.openStream() : new FileInputStream(localFile);
+                try (InputStream in = new MeteredInputStream(source, meter, limiter)) {
+                    sftpChannel.put(in, remoteFilePath, monitor, ChannelSftp.OVERWRITE);
+                }
+            } else if (monitor != null) {
                 sftpChannel.put(localFilePath, remoteFilePath, monitor, ChannelSftp.OVERWRITE);
             } else {
                 sftpChannel.put(localFilePath, remoteFilePath, ChannelSftp.OVERWRITE);
@@ -138,7 +247,18 @@ public class FileTransferService {
             }
             return false;
             
+        } catch (IOException e) {
+            String error = "读取本地文件失败: " + e.getMessage();
+            logger.error(error, e);
+            if (progressCallback != null) {
+                progressCallback.onError(error);
+            }
+            return false;
+            
         } finally {
+            if (owned != null) {
+                owned.close();
+            }
             if (sftpChannel != null && sftpChannel.isConnected()) {
                 sftpChannel.disconnect();
                 logger.debug("SFTP通道已关闭");
@@ -146,8 +266,16 @@ public class FileTransferService {
         }
     }
 
-/**
+    /**
      * 批量上传文件到多台虚拟机
+     * 按列表顺序调度，调用方应把部署关键路径上的节点排在前面。
+     * 并发数从2开始，每个采样周期测量一次总吞吐量：
+     * 增加并发后吞吐量提升超过10%时继续增加，否则认为工作站上行带宽已饱和，
+     * 退回上一级并发并保持到结束，避免所有节点同时争抢带宽导致每个节点都很晚才完成。
+     * 进度回调的onStart/onProgress/onComplete对应所有节点的总字节数，
+     * 每秒最多回调一次，同时通过onTransferProgress给出各节点和汇总的速率与剩余时间
+     *
+     * @return 上传结果（与configs顺序一致）
      */
     public List<UploadResult> uploadToAllVMs(List<VMConnectionConfig> configs,
                                             String localFilePath,
@@ -155,68 +283,289 @@ public class FileTransferService {
                                             ProgressCallback progressCallback) {
         logger.info("开始批量上传文件到{}台虚拟机", configs.size());
         
-        List<UploadResult> results = new ArrayList<>();
         File localFile = new File(localFilePath);
         long fileSize = localFile.length();
+        String remoteFilePath = remoteDir + "/" + localFile.getName();
+        try (MappedFile mapped = mapForBatch(localFile)) {
+            return transferToAllVMs(configs, localFilePath, remoteDir, (config, meter) ->
+                    uploadToVM(config, localFilePath, remoteDir, remoteFilePath, fileSize, mapped, meter),
+                    progressCallback);
+        }
+    }
+    
+    /**
+     * 把本地文件作为标准输入批量发送给多台虚拟机上的远程命令，例如直接管道给 tar 解压
+     * 数据不落地为中间文件，传输和远程处理同时进行；调度、限速和进度回调与uploadToAllVMs相同
+     *
+     * @param remoteCommand 从标准输入读取数据的远程命令
+     * @return 传输结果（与configs顺序一致），远程命令退出码非0视为失败
+     */
+    public List<UploadResult> streamToAllVMs(List<VMConnectionConfig> configs,
+                                            String localFilePath,
+                                            String remoteCommand,
+                                            ProgressCallback progressCallback) {
+        logger.info("开始向{}台虚拟机发送数据流: {}", configs.size(), remoteCommand);
+        
+        File localFile = new File(localFilePath);
+        long fileSize = localFile.length();
+        try (MappedFile mapped = mapForBatch(localFile)) {
+            return transferToAllVMs(configs, localFilePath, remoteCommand, (config, meter) ->
+                    streamToVM(config, localFilePath, remoteCommand, fileSize, mapped, meter), progressCallback);
+        }
+    }
+    
+    /**
+     * 按吞吐量调整并发数的批量传输调度
+     */
+    private List<UploadResult> transferToAllVMs(List<VMConnectionConfig> configs, String localFilePath,
+                                                String dest, NodeTransfer transfer,
+                                                ProgressCallback progressCallback) {
+        int count = configs.size();
+        UploadResult[] results = new UploadResult[count];
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+        long fileSize = new File(localFilePath).length();
+        long totalBytes = fileSize * count;
+        if (progressCallback != null) {
+            progressCallback.onStart(localFilePath, dest, totalBytes);
+        }
         
-        ExecutorService executor = Executors.newFixedThreadPool(configs.size());
-        List<Future<UploadResult>> futures = new ArrayList<>();
+        // 小文件传输时间短，无法测量吞吐量，直接全部并发
+        int limit = fileSize < MAPPED_UPLOAD_THRESHOLD ? count : Math.min(INITIAL_CONCURRENCY, count);
+        boolean saturated = limit == count;
+        double bestRate = 0;
         
-        SSHConnectionService sshService = new SSHConnectionService();
+        AtomicLong transferred = new AtomicLong();
+        AtomicLong[] nodeBytes = new AtomicLong[count];
+        ThroughputMeter[] nodeMeters = new ThroughputMeter[count];
+        int[] startConcurrency = new int[count];
+        ThroughputMeter totalMeter = new ThroughputMeter();
+        ExecutorService executor = ParallelUtil.newExecutor(count);
+        CompletionService<UploadResult> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<UploadResult>, Integer> positions = new HashMap<>();
+        int next = 0;
+        int running = 0;
+        long sampleStart = System.currentTimeMillis();
+        long sampleBytes = 0;
+        long lastProgress = sampleStart;
         
-        for (VMConnectionConfig config : configs) {
-            Future<UploadResult> future = executor.submit(() -> {
-                long startTime = System.currentTimeMillis();
+        try {
+            while (next < count || running > 0) {
+                while (running < limit && next < count) {
+                    int position = next;
+                    VMConnectionConfig config = configs.get(position);
+                    nodeBytes[position] = new AtomicLong();
+                    nodeMeters[position] = new ThroughputMeter();
+                    startConcurrency[position] = running + 1;
+                    positions.put(completion.submit(() -> transfer.run(config, bytes -> {
+                        nodeBytes[position].addAndGet(bytes);
+                        transferred.addAndGet(bytes);
+                    })), position);
+                    next++;
+                    running++;
+                }
                 
-                try {
-                    Session session = sshService.getSession(config);
-                    boolean success = uploadFile(session, localFilePath, remoteDir, null);
-                    
-                    long uploadTime = System.currentTimeMillis() - startTime;
-                    String remoteFilePath = remoteDir + "/" + localFile.getName();
-                    
-                    if (success) {
-                        return UploadResult.success(config.getIndex(), config.getIp(),
-                                localFilePath, remoteFilePath, fileSize, uploadTime);
+                long wait = Math.min(sampleStart + SAMPLE_INTERVAL_MS, lastProgress + PROGRESS_INTERVAL_MS)
+                        - System.currentTimeMillis();
+                Future<UploadResult> future = completion.poll(Math.max(1, wait), TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    running--;
+                    int position = positions.get(future);
+                    UploadResult result = collect(future, configs.get(position), localFilePath);
+                    ThroughputMeter meter = nodeMeters[position];
+                    if (result.isSuccess()) {
+                        // 传输时间不足一个进度间隔时没有采样，以平均速率代替
+                        double average = result.getThroughputMBps();
+                        result.setPeakThroughputMBps(meter.getSamples() > 0
+                                ? Math.max(average, meter.getPeak() / (1024 * 1024)) : average);
+                        result.setMinThroughputMBps(meter.getSamples() > 0
+                                ? Math.min(average, meter.getMin() / (1024 * 1024)) : average);
+                    } else if (progressCallback != null) {
+                        progressCallback.onError("虚拟机" + result.getVmIp() + "上传失败: " + result.getErrorMessage());
+                    }
+                    result.setConcurrency(startConcurrency[position]);
+                    results[position] = result;
+                }
+                
+                long now = System.currentTimeMillis();
+                if (now - lastProgress >= PROGRESS_INTERVAL_MS) {
+                    reportProgress(configs, results, nodeBytes, nodeMeters, fileSize,
+                            transferred.get(), totalBytes, totalMeter, progressCallback);
+                    lastProgress = now;
+                }
+                if (now - sampleStart < SAMPLE_INTERVAL_MS) {
+                    continue;
+                }
+                long bytes = transferred.get();
+                double rate = (bytes - sampleBytes) / ((now - sampleStart) / 1000.0);
+                // 只有整个采样周期都以当前并发数运行时，测得的吞吐量才能用于调整并发
+                if (!saturated && running == limit && next < count) {
+                    if (rate > bestRate * (1 + MIN_THROUGHPUT_GAIN)) {
+                        bestRate = rate;
+                        limit++;
+                        logger.info("并发{}时总吞吐量 {} MB/s，增加并发到{}", limit - 1,
+                                String.format("%.1f", rate / (1024 * 1024)), limit);
                     } else {
-                        return UploadResult.failure(config.getIndex(), config.getIp(),
-                                localFilePath, "上传失败");
+                        saturated = true;
+                        limit = Math.max(1, limit - 1);
+                        logger.info("并发{}时总吞吐量 {} MB/s（单链路 {} MB/s），上行带宽已饱和，并发固定为{}",
+                                limit + 1, String.format("%.1f", rate / (1024 * 1024)),
+                                String.format("%.1f", rate / (limit + 1) / (1024 * 1024)), limit);
                     }
-                    
-                } catch (Exception e) {
-                    logger.error("上传到虚拟机{}失败", config.getIp(), e);
-                    return UploadResult.failure(config.getIndex(), config.getIp(),
-                            localFilePath, e.getMessage());
                 }
-            });
-            
-            futures.add(future);
+                sampleStart = now;
+                sampleBytes = bytes;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("批量上传被中断");
+        } finally {
+            executor.shutdownNow();
         }
         
-        for (Future<UploadResult> future : futures) {
-            try {
-                UploadResult result = future.get();
-                results.add(result);
-                
-                if (result.isSuccess()) {
-                    logger.info("虚拟机{}上传成功，耗时: {}ms", 
-                               result.getVmIp(), result.getUploadTime());
-                } else {
-                    logger.error("虚拟机{}上传失败: {}", 
-                                result.getVmIp(), result.getErrorMessage());
-                }
-                
-            } catch (Exception e) {
-                logger.error("获取上传结果失败", e);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = UploadResult.failure(configs.get(i).getIndex(), configs.get(i).getIp(),
+                        localFilePath, "上传被中断");
             }
         }
         
-        executor.shutdown();
+        long successCount = Arrays.stream(results).filter(UploadResult::isSuccess).count();
+        logger.info("批量上传完成，成功: {}/{}", successCount, count);
+        if (progressCallback != null) {
+            progressCallback.onComplete();
+        }
         
-        long successCount = results.stream().filter(UploadResult::isSuccess).count();
-        logger.info("批量上传完成，成功: {}/{}", successCount, configs.size());
+        return new ArrayList<>(Arrays.asList(results));
+    }
+    
+    /**
+     * 对正在上传的节点和汇总进度各采样一次并回调
+     */
+    private void reportProgress(List<VMConnectionConfig> configs, UploadResult[] results, AtomicLong[] nodeBytes,
+                                ThroughputMeter[] nodeMeters, long fileSize, long transferred, long totalBytes,
+                                ThroughputMeter totalMeter, ProgressCallback progressCallback) {
+        for (int i = 0; i < configs.size(); i++) {
+            if (nodeMeters[i] == null || results[i] != null) {
+                continue;
+            }
+            long bytes = nodeBytes[i].get();
+            nodeMeters[i].update(bytes);
+            if (progressCallback != null) {
+                progressCallback.onTransferProgress(toProgress(configs.get(i), bytes, fileSize, nodeMeters[i]));
+            }
+        }
         
-        return results;
+        totalMeter.update(transferred);
+        if (progressCallback != null) {
+            TransferProgress total = toProgress(null, transferred, totalBytes, totalMeter);
+            progressCallback.onTransferProgress(total);
+            progressCallback.onProgress(transferred, totalBytes, total.getPercent());
+        }
+    }
+    
+    /**
+     * 生成进度快照，config为null时表示汇总进度
+     */
+    private static TransferProgress toProgress(VMConnectionConfig config, long bytes, long total,
+                                               ThroughputMeter meter) {
+        TransferProgress progress = new TransferProgress();
+        if (config != null) {
+            progress.setVmIndex(config.getIndex());
+            progress.setVmIp(config.getIp());
+        }
+        progress.setBytesSent(bytes);
+        progress.setTotalBytes(total);
+        progress.setInstantaneousMBps(meter.getInstantaneous() / (1024 * 1024));
+        progress.setSmoothedMBps(meter.getSmoothed() / (1024 * 1024));
+        progress.setEtaMillis(meter.etaMillis(total - bytes));
+        return progress;
+    }
+    
+    /**
+     * 上传文件到单台虚拟机并生成上传结果
+     */
+    private UploadResult uploadToVM(VMConnectionConfig config, String localFilePath, String remoteDir,
+                                    String remoteFilePath, long fileSize, MappedFile mapped, LongConsumer meter) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            Session session = sshService.getSession(config);
+            boolean success = uploadFile(session, localFilePath, remoteDir, null, meter, mapped);
+            
+            long uploadTime = System.currentTimeMillis() - startTime;
+            
+            if (success) {
+                return UploadResult.success(config.getIndex(), config.getIp(),
+                        localFilePath, remoteFilePath, fileSize, uploadTime);
+            } else {
+                return UploadResult.failure(config.getIndex(), config.getIp(),
+                        localFilePath, "上传失败");
+            }
+            
+        } catch (Exception e) {
+            logger.error("上传到虚拟机{}失败", config.getIp(), e);
+            return UploadResult.failure(config.getIndex(), config.getIp(),
+                    localFilePath, e.getMessage());
+        }
+    }
+    
+    /**
+     * 把本地文件发送到单台虚拟机上远程命令的标准输入并生成传输结果
+     */
+    private UploadResult streamToVM(VMConnectionConfig config, String localFilePath, String remoteCommand,
+                                    long fileSize, MappedFile mapped, LongConsumer meter) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            Session session = sshService.getSession(config);
+            File localFile = new File(localFilePath);
+            InputStream source = mapped != null ? mapped.openStream() : new FileInputStream(localFile);
+            CommandResult result;
+            try (InputStream in = new MeteredInputStream(source, meter, rateLimiter)) {
+                result = sshService.executeCommandWithInput(session, remoteCommand, in, 0);
+            }
+            
+            long uploadTime = System.currentTimeMillis() - startTime;
+            
+            if (result.isSuccess()) {
+                return UploadResult.success(config.getIndex(), config.getIp(),
+                        localFilePath, null, fileSize, uploadTime);
+            } else {
+                return UploadResult.failure(config.getIndex(), config.getIp(), localFilePath, "远程命令失败（退出码"
+                        + result.getExitCode() + "）: " + String.valueOf(result.getError()).trim());
+            }
+            
+        } catch (Exception e) {
+            logger.error("发送数据流到虚拟机{}失败", config.getIp(), e);
+            return UploadResult.failure(config.getIndex(), config.getIp(),
+                    localFilePath, e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取已完成的上传结果并记录单链路速率
+     */
+    private UploadResult collect(Future<UploadResult> future, VMConnectionConfig config, String localFilePath)
+            throws InterruptedException {
+        UploadResult result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            logger.error("获取上传结果失败", e);
+            return UploadResult.failure(config.getIndex(), config.getIp(), localFilePath,
+                    String.valueOf(e.getCause()));
+        }
+        
+        if (result.isSuccess()) {
+            logger.info("虚拟机{}上传成功，耗时: {}ms，{} MB/s", result.getVmIp(), result.getUploadTime(),
+                    String.format("%.1f", result.getThroughputMBps()));
+        } else {
+            logger.error("虚拟机{}上传失败: {}", 
+                        result.getVmIp(), result.getErrorMessage());
+        }
+        return result;
     }
     
     /**
@@ -255,6 +604,24 @@ public class FileTransferService {
         }
     }
     
+    /**
+     * 为一批传输映射大文件，批次内所有节点共用，批次结束时由调用方关闭
+     * 小文件或映射失败时返回null，改为各节点分别通过FileInputStream读取
+     */
+    private MappedFile mapForBatch(File localFile) {
+        if (localFile.length() < MAPPED_UPLOAD_THRESHOLD) {
+            return null;
+        }
+        try {
+            MappedFile mapped = MappedFile.map(localFile);
+            logger.debug("映射本地文件: {}, 大小: {} bytes", localFile, mapped.length());
+            return mapped;
+        } catch (IOException e) {
+            logger.warn("映射本地文件失败，改为直接读取: {}", e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * 创建远程目录（支持递归创建）
      */
@@ -296,4 +663,50 @@ public class FileTransferService {
         
         logger.info("远程目录创建成功: {}", remoteDir);
     }
+    
+    /**
+     * 计量并限速的输入流，SFTP每读取一块数据就记录字节数并从令牌桶获取相应令牌
+     */
+    private static final class MeteredInputStream extends FilterInputStream {
+        private final LongConsumer meter;
+        private final TokenBucket limiter;
+
+        MeteredInputStream(InputStream in, LongConsumer meter, TokenBucket limiter) {
+            super(in);
+            this.meter = meter;
+            this.limiter = limiter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                consumed(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int len) throws IOException {
+            int n = super.read(buffer, offset, len);
+            if (n > 0) {
+                consumed(n);
+            }
+            return n;
+        }
+
+        private void consumed(int bytes) throws IOException {
+            if (limiter != null) {
+                try {
+                    limiter.acquire(bytes);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("上传被中断");
+                }
+            }
+            if (meter != null) {
+                meter.accept(bytes);
+            }
+        }
+    }
 }
@@ -0,0 +1,306 @@
+package com.lyq.service;
+
+import com.lyq.model.ClusterConfig;
+import com.lyq.model.DeployModeConfig;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.HadoopConfig;
+import com.lyq.model.NodeRole;
+import com.lyq.model.TuningProfile;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hadoop配置文件生成器
+ * 根据集群配置、Hadoop配置和角色分配在本地渲染
+ * core-site.xml、hdfs-site.xml、yarn-site.xml、mapred-site.xml 和 workers
+ * 除数据目录等节点相关配置外，各节点的配置内容相同
+ */
+public class HadoopConfigGenerator {
+
+    private static final Logger logger = LogManager.getLogger(HadoopConfigGenerator.class);
+
+    /**
+     * HDFS默认副本数上限
+     */
+    private static final int MAX_REPLICATION = 3;
+
+    /**
+     * 根据角色分配填充集群拓扑（NameNode、ResourceManager等主机）
+     * 未分配角色时按节点数量使用一键部署模式的默认分配
+     *
+     * @param config 部署配置
+     */
+    public void resolveTopology(DeploymentConfig config) {
+        if (config.getRoleAssignments() == null || config.getRoleAssignments().isEmpty()) {
+            logger.info("未指定角色分配，使用一键部署默认分配");
+            config.setRoleAssignments(new DeployModeConfig(config.getVmConfigs().size()).getRoleAssignments());
+        }
+
+        ClusterConfig clusterConfig = config.getClusterConfig();
+        clusterConfig.setNameNodeHost(firstHost(config, NodeRole.NAMENODE));
+        clusterConfig.setSecondaryNameNodeHost(firstHost(config, NodeRole.SECONDARYNAMENODE));
+        clusterConfig.setResourceManagerHost(firstHost(config, NodeRole.RESOURCEMANAGER));
+        clusterConfig.setDataNodeHosts(config.getHostnamesWithRole(NodeRole.DATANODE));
+        clusterConfig.setNodeManagerHosts(config.getHostnamesWithRole(NodeRole.NODEMANAGER));
+
+        logger.info("集群拓扑: NameNode={}, SecondaryNameNode={}, ResourceManager={}, DataNode={}, NodeManager={}",
+                clusterConfig.getNameNodeHost(), clusterConfig.getSecondaryNameNodeHost(),
+                clusterConfig.getResourceManagerHost(), clusterConfig.getDataNodeHosts(),
+                clusterConfig.getNodeManagerHosts());
+    }
+
+    /**
+     * 渲染指定节点的全部配置文件
+     * 调用前需先执行 {@link #resolveTopology(DeploymentConfig)}
+     *
+     * @param config 部署配置
+     * @param host   节点主机名
+     * @return 文件名 -> 文件内容（保持生成顺序）
+     */
+    public Map<String, String> generate(DeploymentConfig config, String host) {
+        ClusterConfig clusterConfig = config.getClusterConfig();
+        HadoopConfig hadoopConfig = config.getHadoopConfig();
+
+        if (clusterConfig.getNameNodeHost() == null || clusterConfig.getResourceManagerHost() == null) {
+            throw new IllegalStateException("未分配NameNode或ResourceManager角色");
+        }
+
+        TuningProfile profile = config.getTuningProfile();
+
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("core-site.xml", renderXml(coreSite(config, profile)));
+        files.put("hdfs-site.xml", renderXml(hdfsSite(clusterConfig, hadoopConfig, profile, host)));
+        files.put("yarn-site.xml", renderXml(yarnSite(clusterConfig, hadoopConfig, profile, host)));
+        files.put("mapred-site.xml", renderXml(mapredSite(hadoopConfig, profile)));
+        files.put("workers", renderWorkers(clusterConfig));
+
+        logger.debug("已为{}生成{}个配置文件", host, files.size());
+        return files;
+    }
+
+    /**
+     * 获取节点上需要预先创建并授权给部署用户的目录
+     *
+     * @param config 部署配置
+     * @param host   节点主机名
+     * @return 目录列表
+     */
+    public List<String> getNodeDirectories(DeploymentConfig config, String host) {
+        ClusterConfig clusterConfig = config.getClusterConfig();
+        List<String> dirs = new ArrayList<>();
+        // 守护进程以部署用户运行，需要能写入日志目录
+        dirs.add(config.getHadoopConfig().getRemoteInstallDir() + "/logs");
+        dirs.add(clusterConfig.getHdfsTempDir());
+        if (host.equals(clusterConfig.getNameNodeHost())) {
+            dirs.add(clusterConfig.getHdfsNameDir());
+        }
+        if (clusterConfig.getDataNodeHosts().contains(host)) {
+            dirs.addAll(clusterConfig.getDataDirs(host));
+        }
+        dirs.addAll(clusterConfig.getLocalDirs(host));
+        return dirs;
+    }
+
+    private Map<String, String> coreSite(DeploymentConfig config, TuningProfile profile) {
+        ClusterConfig clusterConfig = config.getClusterConfig();
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("fs.defaultFS", "hdfs://" + clusterConfig.getNameNodeHost() + ":" + clusterConfig.getNameNodePort());
+        properties.put("hadoop.tmp.dir", clusterConfig.getHdfsTempDir());
+        if (!config.getVmConfigs().isEmpty() && config.getVmConfigs().get(0).getUsername() != null) {
+            properties.put("hadoop.http.staticuser.user", config.getVmConfigs().get(0).getUsername());
+        }
+        if (profile != null) {
+            properties.put("io.file.buffer.size", String.valueOf(profile.getIoFileBufferSize()));
+        }
+        return properties;
+    }
+
+    private Map<String, String> hdfsSite(ClusterConfig clusterConfig, HadoopConfig hadoopConfig,
+                                         TuningProfile profile, String host) {
+        int replication = Math.max(1, Math.min(MAX_REPLICATION, clusterConfig.getDataNodeHosts().size()));
+        List<String> dataDirs = clusterConfig.getDataDirs(host);
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("dfs.namenode.name.dir", "file://" + clusterConfig.getHdfsNameDir());
+        properties.put("dfs.datanode.data.dir", joinUris(dataDirs));
+        properties.put("dfs.namenode.http-address",
+                clusterConfig.getNameNodeHost() + ":" + clusterConfig.getNameNodeHttpPort());
+        if (clusterConfig.getSecondaryNameNodeHost() != null) {
+            properties.put("dfs.namenode.secondary.http-address",
+                    clusterConfig.getSecondaryNameNodeHost() + ":" + clusterConfig.getSecondaryNameNodeHttpPort());
+        }
+        properties.put("dfs.datanode.http.address", "0.0.0.0:" + clusterConfig.getDataNodeHttpPort());
+        properties.put("dfs.replication", String.valueOf(replication));
+        properties.put("dfs.blocksize", String.valueOf(parseSizeMb(hadoopConfig.getHdfsBlockSize(), 128) * 1024L * 1024L));
+        if (profile != null) {
+            properties.put("dfs.namenode.handler.count", String.valueOf(profile.getNameNodeHandlerCount()));
+            properties.put("dfs.datanode.handler.count", String.valueOf(profile.getDataNodeHandlerCount()));
+        }
+        if (dataDirs.size() > 1) {
+            // 多块数据盘时按剩余空间选择卷，并允许盘数较多的节点坏一块盘后继续服务
+            properties.put("dfs.datanode.fsdataset.volume.choosing.policy",
+                    "org.apache.hadoop.hdfs.server.datanode.fsdataset.AvailableSpaceVolumeChoosingPolicy");
+            properties.put("dfs.datanode.failed.volumes.tolerated", dataDirs.size() >= 4 ? "1" : "0");
+        }
+        return properties;
+    }
+
+    private Map<String, String> yarnSite(ClusterConfig clusterConfig, HadoopConfig hadoopConfig,
+                                         TuningProfile profile, String host) {
+        long memoryMb = parseSizeMb(hadoopConfig.getYarnMemory(), 2048);
+        long minAllocationMb = Math.min(512, memoryMb);
+        long maxAllocationMb = memoryMb;
+        if (profile != null) {
+            memoryMb = profile.getNodeManagerMemoryMb();
+            minAllocationMb = profile.getContainerMinMb();
+            maxAllocationMb = profile.getContainerMaxMb();
+        }
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("yarn.resourcemanager.hostname", clusterConfig.getResourceManagerHost());
+        properties.put("yarn.resourcemanager.address",
+                clusterConfig.getResourceManagerHost() + ":" + clusterConfig.getResourceManagerPort());
+        properties.put("yarn.resourcemanager.webapp.address",
+                clusterConfig.getResourceManagerHost() + ":" + clusterConfig.getResourceManagerWebPort());
+        properties.put("yarn.nodemanager.webapp.address", "0.0.0.0:" + clusterConfig.getNodeManagerWebPort());
+        // 默认使用随机端口，固定后防火墙规则和工作站上的容器启动测试才能访问
+        properties.put("yarn.nodemanager.address", "${yarn.nodemanager.hostname}:" + clusterConfig.getNodeManagerPort());
+        properties.put("yarn.nodemanager.aux-services", "mapreduce_shuffle");
+        properties.put("yarn.nodemanager.env-whitelist",
+                "JAVA_HOME,HADOOP_COMMON_HOME,HADOOP_HDFS_HOME,HADOOP_CONF_DIR,CLASSPATH_PREPEND_DISTCACHE,"
+                        + "HADOOP_YARN_HOME,HADOOP_MAPRED_HOME");
+        properties.put("yarn.nodemanager.resource.memory-mb", String.valueOf(memoryMb));
+        properties.put("yarn.scheduler.minimum-allocation-mb", String.valueOf(minAllocationMb));
+        properties.put("yarn.scheduler.maximum-allocation-mb", String.valueOf(maxAllocationMb));
+        if (profile != null) {
+            properties.put("yarn.nodemanager.resource.cpu-vcores", String.valueOf(profile.getNodeManagerVcores()));
+            properties.put("yarn.scheduler.maximum-allocation-vcores", String.valueOf(profile.getNodeManagerVcores()));
+        }
+        List<String> localDirs = clusterConfig.getLocalDirs(host);
+        if (!localDirs.isEmpty()) {
+            properties.put("yarn.nodemanager.local-dirs", String.join(",", localDirs));
+        }
+        // 虚拟机内存较小，关闭虚拟内存检查避免容器被误杀
+        properties.put("yarn.nodemanager.vmem-check-enabled", "false");
+        return properties;
+    }
+
+    private Map<String, String> mapredSite(HadoopConfig hadoopConfig, TuningProfile profile) {
+        long memoryMb = parseSizeMb(hadoopConfig.getYarnMemory(), 2048);
+        String mapredHome = "HADOOP_MAPRED_HOME=" + hadoopConfig.getRemoteInstallDir();
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("mapreduce.framework.name", "yarn");
+        properties.put("yarn.app.mapreduce.am.env", mapredHome);
+        properties.put("mapreduce.map.env", mapredHome);
+        properties.put("mapreduce.reduce.env", mapredHome);
+        if (profile == null) {
+            properties.put("yarn.app.mapreduce.am.resource.mb", String.valueOf(Math.min(1024, memoryMb)));
+            return properties;
+        }
+
+        properties.put("yarn.app.mapreduce.am.resource.mb", String.valueOf(profile.getAppMasterMemoryMb()));
+        properties.put("yarn.app.mapreduce.am.command-opts", heapOpts(profile.getAppMasterMemoryMb()));
+        properties.put("mapreduce.map.memory.mb", String.valueOf(profile.getMapMemoryMb()));
+        properties.put("mapreduce.map.java.opts", heapOpts(profile.getMapMemoryMb()));
+        properties.put("mapreduce.reduce.memory.mb", String.valueOf(profile.getReduceMemoryMb()));
+        properties.put("mapreduce.reduce.java.opts", heapOpts(profile.getReduceMemoryMb()));
+        properties.put("mapreduce.task.io.sort.mb", String.valueOf(profile.getSortBufferMb()));
+        properties.put("mapreduce.task.io.sort.factor", String.valueOf(profile.getSortFactor()));
+        properties.put("mapreduce.reduce.shuffle.parallelcopies", String.valueOf(profile.getShuffleParallelCopies()));
+        return properties;
+    }
+
+    private static String heapOpts(long containerMb) {
+        return "-Xmx" + (long) (containerMb * PerformanceTuningService.HEAP_RATIO) + "m";
+    }
+
+    private String renderWorkers(ClusterConfig clusterConfig) {
+        StringBuilder workers = new StringBuilder();
+        for (String host : clusterConfig.getDataNodeHosts()) {
+            workers.append(host).append('\n');
+        }
+        return workers.toString();
+    }
+
+    /**
+     * 渲染Hadoop配置XML
+     *
+     * @param properties 配置项
+     * @return XML文本
+     */
+    private String renderXml(Map<String, String> properties) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<?xml-stylesheet type=\"text/xsl\" href=\"configuration.xsl\"?>\n");
+        xml.append("<!-- 由HADS自动生成，请勿手动修改 -->\n");
+        xml.append("<configuration>\n");
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            xml.append("    <property>\n");
+            xml.append("        <name>").append(escapeXml(property.getKey())).append("</name>\n");
+            xml.append("        <value>").append(escapeXml(property.getValue())).append("</value>\n");
+            xml.append("    </property>\n");
+        }
+        xml.append("</configuration>\n");
+        return xml.toString();
+    }
+
+    private static String joinUris(List<String> dirs) {
+        StringBuilder uris = new StringBuilder();
+        for (String dir : dirs) {
+            if (uris.length() > 0) {
+                uris.append(',');
+            }
+            uris.append("file://").append(dir);
+        }
+        return uris.toString();
+    }
+
+    private static String escapeXml(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+
+    private static String firstHost(DeploymentConfig config, NodeRole role) {
+        List<String> hosts = config.getHostnamesWithRole(role);
+        return hosts.isEmpty() ? null : hosts.get(0);
+    }
+
+    /**
+     * 将 "128MB"、"2GB" 形式的容量解析为MB
+     *
+     * @param size         容量字符串
+     * @param defaultValue 解析失败时的默认值（MB）
+     * @return 容量（MB）
+     */
+    static long parseSizeMb(String size, long defaultValue) {
+        if (size == null || size.trim().isEmpty()) {
+            return defaultValue;
+        }
+
+        String value = size.trim().toUpperCase(Locale.ROOT);
+        long multiplier = 1;
+        if (value.endsWith("GB") || value.endsWith("G")) {
+            multiplier = 1024;
+        }
+        value = value.replaceAll("[^0-9]", "");
+
+        try {
+            return Long.parseLong(value) * multiplier;
+        } catch (NumberFormatException e) {
+            logger.warn("无法解析容量配置: {}，使用默认值{}MB", size, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,722 @@
+package com.lyq.service;
+
+import com.lyq.model.CommandResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.UploadResult;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.BlockDelta;
+import com.lyq.util.ParallelUtil;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hadoop增量升级服务类
+ * 升级补丁版本时不再向每个节点上传并解压完整安装包：先读取节点上当前安装目录的文件MD5清单，
+ * 本地对比新安装包后只发送变化的文件，较大的变化文件按rsync算法只发送变化的数据块。
+ * 新版本目录由旧目录硬链接复制后打补丁生成，集群运行期间完成准备，
+ * 停止服务后迁移状态目录并原子切换安装目录的符号链接，旧版本目录保留用于回滚
+ */
+public class HadoopUpgradeService {
+
+    private static final Logger logger = LogManager.getLogger(HadoopUpgradeService.class);
+
+    private static final String REMOTE_SOFTWARE_DIR = "/opt/software"; // 差分包上传目录
+    private static final String CONF_DIR = "etc/hadoop"; // 升级时保留节点现有的配置目录
+    private static final String META_DIR = ".hads-delta"; // 差分包中的脚本和数据块目录
+    private static final String STAGING_SUFFIX = ".hads-tmp";
+    private static final int BLOCK_SIZE = 64 * 1024; // 块级差分的分块大小
+    private static final long BLOCK_DELTA_MIN_SIZE = 1024 * 1024; // 小于此大小的变化文件整体发送
+    private static final long BLOCK_DELTA_MAX_SIZE = 256L * 1024 * 1024; // 块级差分时整个文件读入内存
+    private static final double BLOCK_DELTA_MAX_RATIO = 0.8; // 需要发送的数据超过文件大小的该比例时整体发送
+    private static final int MAX_PARALLEL_NODES = 32;
+    private static final long NODE_TIMEOUT_MS = 600000; // 单个节点一次远程操作的超时
+    private static final int STOP_WAIT_SECONDS = 30; // 停止后等待守护进程退出的时间
+
+    /**
+     * 等待节点上所有Hadoop守护进程退出，超时仍在运行时以非0退出码结束
+     * 模式首字符写成字符组，避免匹配到执行该命令的shell本身
+     */
+    private static final String DAEMONS_STOPPED_COMMAND = "for i in $(seq 1 " + STOP_WAIT_SECONDS + "); do"
+            + " pgrep -f '[o]rg\\.apache\\.hadoop\\.(hdfs|yarn)\\.server\\.' > /dev/null || exit 0; sleep 1; done;"
+            + " echo 'Hadoop守护进程仍在运行:' >&2;"
+            + " pgrep -af '[o]rg\\.apache\\.hadoop\\.(hdfs|yarn)\\.server\\.' | awk '{print $NF}' >&2; exit 1";
+
+    private final SSHConnectionService sshService;
+    private final FileTransferService fileTransferService;
+    private final ClusterOperationService operationService;
+
+    /**
+     * 新安装包的文件索引（路径均相对于安装包根目录）
+     */
+    private static final class TarballIndex {
+        private String root;
+        private final Map<String, String> md5s = new HashMap<>();
+        private final Map<String, Long> sizes = new HashMap<>();
+        private final Set<String> otherEntries = new LinkedHashSet<>();
+        private final Set<String> topLevel = new LinkedHashSet<>();
+    }
+
+    /**
+     * 节点上当前安装目录的文件清单
+     */
+    private static final class Manifest {
+        private String oldDir;
+        private final Map<String, String> md5s = new HashMap<>();
+    }
+
+    /**
+     * 旧文件的块签名
+     */
+    private static final class Signature {
+        private long[] weak;
+        private String[] strong;
+        private long length;
+    }
+
+    /**
+     * 一组清单相同的节点共用的差分计划
+     */
+    private static final class DeltaPlan {
+        private final Set<String> full = new LinkedHashSet<>();
+        private final Map<String, String> moved = new LinkedHashMap<>();
+        private final Set<String> blocks = new LinkedHashSet<>();
+        private final List<String> removed = new ArrayList<>();
+        private int kept;
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务
+     */
+    public HadoopUpgradeService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+        this.fileTransferService = new FileTransferService(sshService);
+        this.operationService = new ClusterOperationService(sshService);
+    }
+
+    /**
+     * 把集群升级到新的Hadoop安装包
+     * 所有节点都准备好新版本目录后才停止集群并切换，任一节点准备失败时不切换任何节点；
+     * 任一节点的守护进程未能停止时不切换，重新启动旧版本
+     *
+     * @param config      部署配置
+     * @param tarballPath 新版本安装包（tar.gz）
+     * @param callback    日志回调
+     * @return 各节点的执行结果（与虚拟机配置顺序一致）
+     */
+    public List<CommandResult> upgrade(DeploymentConfig config, String tarballPath, LogCallback callback) {
+        File tarball = new File(tarballPath);
+        TarballIndex index;
+        try {
+            index = indexTarball(tarball);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取安装包失败: " + e.getMessage(), e);
+        }
+        List<String> stateDirs = stateDirs(config, index);
+        log(callback, "新版本 " + index.root + "，共" + index.md5s.size() + "个文件，保留的状态目录: "
+                + String.join(",", stateDirs));
+
+        List<VMConnectionConfig> vmConfigs = config.getVmConfigs();
+        if (vmConfigs.isEmpty()) {
+            log(callback, "没有节点，无需升级");
+            return new ArrayList<>();
+        }
+        List<CommandResult> results = new ArrayList<>(Collections.nCopies(vmConfigs.size(), (CommandResult) null));
+        String newDir = parentDir(config) + "/" + index.root;
+
+        // 读取各节点当前安装目录的清单，清单相同的节点共用一份差分包
+        log(callback, "读取各节点当前安装目录的文件清单...");
+        List<CommandResult> listings = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, NODE_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig),
+                        manifestCommand(config, stateDirs, vmConfig.getUsername()), null),
+                (vmConfig, e) -> CommandResult.failure("manifest", e.getMessage()));
+        Map<Map<String, String>, List<Integer>> groups = new LinkedHashMap<>();
+        Map<Integer, Manifest> manifests = new HashMap<>();
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            if (!listings.get(i).isSuccess()) {
+                results.set(i, CommandResult.failure("manifest", "读取安装目录失败: " + listings.get(i).getError()));
+                continue;
+            }
+            Manifest manifest = parseManifest(listings.get(i).getOutput());
+            if (manifest.oldDir == null || manifest.oldDir.equals(newDir)) {
+                results.set(i, CommandResult.failure("manifest", manifest.oldDir == null
+                        ? "未找到已安装的Hadoop目录" : "节点已安装 " + index.root));
+                continue;
+            }
+            manifests.put(i, manifest);
+            groups.computeIfAbsent(manifest.md5s, key -> new ArrayList<>()).add(i);
+        }
+
+        for (List<Integer> group : groups.values()) {
+            prepareGroup(config, index, tarball, stateDirs, manifests.get(group.get(0)), group, results, callback);
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                log(callback, "虚拟机" + vmConfigs.get(i).getIndex() + "准备失败: " + results.get(i).getError()
+                        + "，不切换任何节点，已准备的新版本目录保留在节点上");
+                for (int j = 0; j < results.size(); j++) {
+                    if (results.get(j) == null) {
+                        results.set(j, CommandResult.failure("prepare", "其他节点准备失败，未切换版本"));
+                    }
+                }
+                return results;
+            }
+        }
+
+        // 停止服务后迁移状态目录并切换符号链接，再按顺序启动
+        log(callback, "所有节点新版本已就绪，停止集群服务...");
+        if (!stopAll(config, results, callback)) {
+            // 仍在运行的守护进程正在使用状态目录，迁移会使其写入已移走的目录，保持旧版本并恢复服务
+            log(callback, "部分节点的守护进程未能停止，不切换版本，重新启动旧版本...");
+            operationService.startCluster(config, callback);
+            return results;
+        }
+        log(callback, "切换安装目录到 " + newDir + "...");
+        List<CommandResult> switched = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, NODE_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig),
+                        switchCommand(config, newDir, stateDirs), null),
+                (vmConfig, e) -> CommandResult.failure("switch", e.getMessage()));
+        log(callback, "启动集群服务...");
+        List<CommandResult> started = operationService.startCluster(config, callback);
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            CommandResult result = !switched.get(i).isSuccess() ? switched.get(i) : started.get(i);
+            results.set(i, result);
+            if (!switched.get(i).isSuccess()) {
+                logger.error("虚拟机{}切换版本失败: {}", vmConfigs.get(i).getIp(), switched.get(i).getError());
+            }
+        }
+        // 状态目录已移入新版本目录，只把符号链接指回旧目录无法回滚
+        log(callback, "升级完成，旧版本目录保留在各节点的 " + manifests.values().iterator().next().oldDir
+                + "。回滚时先停止集群，把 " + newDir + " 下的状态目录（" + String.join(",", stateDirs)
+                + "）移回旧版本目录，再把 " + installDir(config) + " 指回旧版本目录");
+        return results;
+    }
+
+    /**
+     * 停止集群并确认所有节点上的Hadoop守护进程都已退出
+     * 停止命令失败或进程未退出的节点写入失败结果，其余节点写入“未切换”
+     *
+     * @return 所有节点的守护进程都已退出时返回true
+     */
+    private boolean stopAll(DeploymentConfig config, List<CommandResult> results, LogCallback callback) {
+        List<VMConnectionConfig> vmConfigs = config.getVmConfigs();
+        List<CommandResult> stopped = operationService.stopCluster(config, callback);
+        List<CommandResult> checked = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, NODE_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig),
+                        DAEMONS_STOPPED_COMMAND, null),
+                (vmConfig, e) -> CommandResult.failure("check", e.getMessage()));
+
+        boolean allStopped = true;
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            CommandResult failure = !stopped.get(i).isSuccess() ? stopped.get(i)
+                    : !checked.get(i).isSuccess() ? checked.get(i) : null;
+            if (failure != null) {
+                allStopped = false;
+                results.set(i, CommandResult.failure("stop", "守护进程未能停止: "
+                        + String.valueOf(failure.getError()).trim()));
+                logger.error("虚拟机{}的守护进程未能停止: {}", vmConfigs.get(i).getIp(), failure.getError());
+            }
+        }
+        if (!allStopped) {
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) == null) {
+                    results.set(i, CommandResult.failure("stop", "其他节点的守护进程未能停止，未切换版本"));
+                }
+            }
+        }
+        return allStopped;
+    }
+
+    /**
+     * 为一组清单相同的节点生成差分包、上传并在节点上准备新版本目录
+     * 准备成功的节点结果保持为null，失败的节点写入失败结果
+     */
+    private void prepareGroup(DeploymentConfig config, TarballIndex index, File tarball, List<String> stateDirs,
+                              Manifest manifest, List<Integer> group, List<CommandResult> results,
+                              LogCallback callback) {
+        List<VMConnectionConfig> vmConfigs = new ArrayList<>();
+        for (int position : group) {
+            vmConfigs.add(config.getVmConfigs().get(position));
+        }
+
+        DeltaPlan plan = plan(index, manifest);
+        Map<String, Signature> signatures = fetchSignatures(config, vmConfigs.get(0), plan.blocks);
+        File delta = null;
+        try {
+            delta = Files.createTempFile(index.root + "-delta-", ".tar.gz").toFile();
+            long literalBytes = writeDelta(tarball, index, plan, signatures, delta);
+            log(callback, String.format("%d个节点: 复用%d个文件，移动%d个，块级差分%d个（发送%.1fMB），完整发送%d个，"
+                            + "删除%d个，差分包%.1fMB（完整安装包%.1fMB）", group.size(), plan.kept, plan.moved.size(),
+                    plan.blocks.size(), literalBytes / (1024.0 * 1024.0), plan.full.size(), plan.removed.size(),
+                    delta.length() / (1024.0 * 1024.0), tarball.length() / (1024.0 * 1024.0)));
+
+            List<UploadResult> uploads = fileTransferService.uploadToAllVMs(vmConfigs, delta.getAbsolutePath(),
+                    REMOTE_SOFTWARE_DIR, null);
+            List<VMConnectionConfig> uploaded = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < uploads.size(); i++) {
+                if (uploads.get(i).isSuccess()) {
+                    uploaded.add(vmConfigs.get(i));
+                    positions.add(group.get(i));
+                } else {
+                    results.set(group.get(i), CommandResult.failure("upload", "上传差分包失败: "
+                            + uploads.get(i).getErrorMessage()));
+                }
+            }
+
+            String newDir = parentDir(config) + "/" + index.root;
+            String command = prepareCommand(config, newDir, delta.getName(), stateDirs);
+            List<CommandResult> prepared = ParallelUtil.runAll(uploaded, MAX_PARALLEL_NODES, NODE_TIMEOUT_MS,
+                    vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig), command, null),
+                    (vmConfig, e) -> CommandResult.failure("prepare", e.getMessage()));
+            for (int i = 0; i < prepared.size(); i++) {
+                if (prepared.get(i).isSuccess()) {
+                    log(callback, "虚拟机" + uploaded.get(i).getIndex() + "新版本目录已就绪");
+                } else {
+                    results.set(positions.get(i), CommandResult.failure("prepare", "应用差分失败: "
+                            + prepared.get(i).getError()));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("生成差分包失败", e);
+            for (int position : group) {
+                results.set(position, CommandResult.failure("delta", "生成差分包失败: " + e.getMessage()));
+            }
+        } finally {
+            if (delta != null && !delta.delete()) {
+                delta.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * 读取安装包中所有条目，计算普通文件的MD5（配置目录除外）
+     */
+    private static TarballIndex indexTarball(File tarball) throws IOException {
+        TarballIndex index = new TarballIndex();
+        byte[] buffer = new byte[64 * 1024];
+        try (TarArchiveInputStream in = openTarball(tarball)) {
+            TarArchiveEntry entry;
+            while ((entry = in.getNextTarEntry()) != null) {
+                String name = entry.getName();
+                int slash = name.indexOf('/');
+                String root = slash < 0 ? name : name.substring(0, slash);
+                if (index.root == null) {
+                    index.root = root;
+                } else if (!index.root.equals(root)) {
+                    throw new IOException("安装包必须只包含一个顶层目录: " + name);
+                }
+                String relative = relativePath(index.root, name);
+                if (relative == null || isConfPath(relative)) {
+                    continue;
+                }
+                index.topLevel.add(relative.split("/")[0]);
+                if (!entry.isFile()) {
+                    index.otherEntries.add(relative);
+                    continue;
+                }
+                MessageDigest digest = md5();
+                DigestInputStream digestIn = new DigestInputStream(in, digest);
+                while (digestIn.read(buffer) != -1) {
+                    // 读取整个条目计算MD5
+                }
+                index.md5s.put(relative, BlockDelta.toHex(digest.digest()));
+                index.sizes.put(relative, entry.getSize());
+            }
+        }
+        if (index.root == null) {
+            throw new IOException("安装包为空: " + tarball);
+        }
+        return index;
+    }
+
+    /**
+     * 对比新安装包和节点清单，决定每个文件保留、移动、块级差分还是完整发送
+     */
+    private static DeltaPlan plan(TarballIndex index, Manifest manifest) {
+        DeltaPlan plan = new DeltaPlan();
+        Map<String, String> oldByMd5 = new HashMap<>();
+        for (Map.Entry<String, String> entry : manifest.md5s.entrySet()) {
+            oldByMd5.putIfAbsent(entry.getValue(), entry.getKey());
+        }
+
+        for (Map.Entry<String, String> entry : new TreeMap<>(index.md5s).entrySet()) {
+            String path = entry.getKey();
+            String oldMd5 = manifest.md5s.get(path);
+            long size = index.sizes.get(path);
+            if (entry.getValue().equals(oldMd5)) {
+                plan.kept++;
+            } else if (oldByMd5.containsKey(entry.getValue())) {
+                plan.moved.put(path, oldByMd5.get(entry.getValue()));
+            } else if (oldMd5 != null && size >= BLOCK_DELTA_MIN_SIZE && size <= BLOCK_DELTA_MAX_SIZE) {
+                plan.blocks.add(path);
+            } else {
+                plan.full.add(path);
+            }
+        }
+        for (String path : new TreeMap<>(manifest.md5s).keySet()) {
+            if (!index.md5s.containsKey(path) && !index.otherEntries.contains(path)) {
+                plan.removed.add(path);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * 在一个节点上计算需要块级差分的旧文件的块签名，失败时这些文件改为完整发送
+     */
+    private Map<String, Signature> fetchSignatures(DeploymentConfig config, VMConnectionConfig vmConfig,
+                                                   Set<String> paths) {
+        Map<String, Signature> signatures = new HashMap<>();
+        if (paths.isEmpty()) {
+            return signatures;
+        }
+        StringBuilder command = new StringBuilder("cd \"$(readlink -f " + installDir(config) + ")\" && for f in");
+        for (String path : paths) {
+            command.append(' ').append(quote(path));
+        }
+        command.append("; do echo \"== $f\"; split -b ").append(BLOCK_SIZE).append(" --filter=cksum \"$f\"; echo '--';")
+                .append(" split -b ").append(BLOCK_SIZE).append(" --filter=md5sum \"$f\"; done");
+        try {
+            CommandResult result = sshService.executeCommandWithLog(sshService.getSession(vmConfig),
+                    command.toString(), null);
+            if (!result.isSuccess()) {
+                logger.warn("计算块签名失败，变化的文件将完整发送: {}", result.getError());
+                return signatures;
+            }
+            parseSignatures(result.getOutput(), signatures);
+        } catch (Exception e) {
+            logger.warn("计算块签名失败，变化的文件将完整发送", e);
+        }
+        return signatures;
+    }
+
+    /**
+     * 解析块签名输出：每个文件以"== 路径"开头，先是每块的cksum行，"--"之后是每块的md5sum行
+     */
+    private static void parseSignatures(String output, Map<String, Signature> signatures) {
+        String path = null;
+        List<Long> weak = new ArrayList<>();
+        List<String> strong = new ArrayList<>();
+        long length = 0;
+        boolean strongPart = false;
+        for (String line : (output + "\n== ").split("\n")) {
+            if (line.startsWith("== ")) {
+                if (path != null && weak.size() == strong.size()) {
+                    Signature signature = new Signature();
+                    signature.weak = weak.stream().mapToLong(Long::longValue).toArray();
+                    signature.strong = strong.toArray(new String[0]);
+                    signature.length = length;
+                    signatures.put(path, signature);
+                }
+                path = line.substring(3);
+                weak.clear();
+                strong.clear();
+                length = 0;
+                strongPart = false;
+            } else if ("--".equals(line)) {
+                strongPart = true;
+            } else if (!line.trim().isEmpty()) {
+                String[] fields = line.trim().split("\\s+");
+                if (strongPart) {
+                    strong.add(fields[0]);
+                } else if (fields.length >= 2) {
+                    weak.add(Long.parseLong(fields[0]));
+                    length += Long.parseLong(fields[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 生成差分包：完整发送的文件、目录和链接按原路径写入，块级差分的新数据写入元数据目录，
+     * 附带在节点上执行的应用脚本和校验清单
+     *
+     * @return 块级差分需要发送的新数据字节数
+     */
+    private static long writeDelta(File tarball, TarballIndex index, DeltaPlan plan,
+                                   Map<String, Signature> signatures, File delta) throws IOException {
+        StringBuilder script = new StringBuilder("set -e\nO=\"$1\"\n");
+        StringBuilder verify = new StringBuilder();
+        long literalBytes = 0;
+        int literalCount = 0;
+
+        for (String path : plan.removed) {
+            script.append("rm -f -- ").append(quote(path)).append('\n');
+        }
+        for (Map.Entry<String, String> move : plan.moved.entrySet()) {
+            String path = move.getKey();
+            int slash = path.lastIndexOf('/');
+            if (slash > 0) {
+                script.append("mkdir -p -- ").append(quote(path.substring(0, slash))).append('\n');
+            }
+            script.append("ln -f -- \"$O\"/").append(quote(move.getValue())).append(' ').append(quote(path)).append('\n');
+            verify.append(index.md5s.get(path)).append("  ").append(path).append('\n');
+        }
+
+        try (TarArchiveInputStream in = openTarball(tarball);
+             TarArchiveOutputStream out = new TarArchiveOutputStream(new GzipCompressorOutputStream(
+                     new BufferedOutputStream(new FileOutputStream(delta))))) {
+            out.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            out.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            TarArchiveEntry entry;
+            while ((entry = in.getNextTarEntry()) != null) {
+                String relative = relativePath(index.root, entry.getName());
+                if (relative == null || isConfPath(relative)) {
+                    continue;
+                }
+                if (!entry.isFile()) {
+                    entry.setName(relative);
+                    if (entry.isLink() && relativePath(index.root, entry.getLinkName()) != null) {
+                        entry.setLinkName(relativePath(index.root, entry.getLinkName()));
+                    }
+                    out.putArchiveEntry(entry);
+                    out.closeArchiveEntry();
+                    continue;
+                }
+
+                Signature signature = plan.blocks.contains(relative) ? signatures.get(relative) : null;
+                if (signature == null && !plan.full.contains(relative) && !plan.blocks.contains(relative)) {
+                    continue;
+                }
+                if (signature == null) {
+                    entry.setName(relative);
+                    out.putArchiveEntry(entry);
+                    IOUtils.copy(in, out);
+                    out.closeArchiveEntry();
+                    continue;
+                }
+
+                byte[] data = IOUtils.toByteArray(in);
+                List<BlockDelta.Op> ops = BlockDelta.diff(data, BLOCK_SIZE, signature.weak, signature.strong,
+                        signature.length);
+                long literal = BlockDelta.literalBytes(ops);
+                if (literal > data.length * BLOCK_DELTA_MAX_RATIO) {
+                    entry.setName(relative);
+                    putEntry(out, entry, data);
+                    continue;
+                }
+
+                String literalFile = META_DIR + "/" + (literalCount++) + ".lit";
+                byte[] literalData = new byte[(int) literal];
+                script.append("{\n");
+                int position = 0;
+                for (BlockDelta.Op op : ops) {
+                    if (op.isCopy()) {
+                        script.append(ddCommand("\"$O\"/" + quote(relative), op.getOffset(), op.getLength()));
+                    } else {
+                        System.arraycopy(data, (int) op.getOffset(), literalData, position, op.getLength());
+                        script.append(ddCommand(literalFile, position, op.getLength()));
+                        position += op.getLength();
+                    }
+                }
+                String part = quote(relative + ".hads-part");
+                script.append("} > ").append(part).append('\n')
+                        .append("chmod ").append(Integer.toOctalString(entry.getMode() & 07777)).append(' ').append(part)
+                        .append(" && chown --reference=\"$O\"/").append(quote(relative)).append(' ').append(part)
+                        .append(" && mv -f -- ").append(part).append(' ').append(quote(relative)).append('\n');
+                verify.append(index.md5s.get(relative)).append("  ").append(relative).append('\n');
+                putEntry(out, new TarArchiveEntry(literalFile), literalData);
+                literalBytes += literal;
+            }
+
+            if (verify.length() > 0) {
+                script.append("md5sum -c --quiet ").append(META_DIR).append("/verify.md5\n");
+            }
+            putEntry(out, new TarArchiveEntry(META_DIR + "/apply.sh"), script.toString().getBytes(StandardCharsets.UTF_8));
+            putEntry(out, new TarArchiveEntry(META_DIR + "/verify.md5"), verify.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return literalBytes;
+    }
+
+    private static void putEntry(TarArchiveOutputStream out, TarArchiveEntry entry, byte[] data) throws IOException {
+        entry.setSize(data.length);
+        out.putArchiveEntry(entry);
+        out.write(data);
+        out.closeArchiveEntry();
+    }
+
+    /**
+     * 从文件中按字节偏移复制一段数据到标准输出
+     */
+    private static String ddCommand(String file, long offset, int length) {
+        return "dd if=" + file + " bs=" + BLOCK_SIZE + " iflag=skip_bytes,count_bytes skip=" + offset
+                + " count=" + length + " 2>/dev/null\n";
+    }
+
+    /**
+     * 读取当前安装目录清单的命令，同时确保上传目录存在
+     * 输出第一行为当前版本目录，其余为 md5sum 输出，配置目录和状态目录不计入清单
+     */
+    private static String manifestCommand(DeploymentConfig config, List<String> stateDirs, String username) {
+        StringBuilder prune = new StringBuilder("-path ./" + CONF_DIR);
+        for (String dir : stateDirs) {
+            prune.append(" -o -path ./").append(dir);
+        }
+        return "sudo mkdir -p " + REMOTE_SOFTWARE_DIR + " && sudo chown " + username + ":" + username + " "
+                + REMOTE_SOFTWARE_DIR + " && OLD=$(readlink -f " + installDir(config) + ") && test -d \"$OLD\""
+                + " && echo \"$OLD\" && cd \"$OLD\" && find . \\( " + prune + " \\) -prune -o -type f -exec md5sum {} +";
+    }
+
+    /**
+     * 在节点上准备新版本目录的命令
+     * 旧目录硬链接复制（状态目录除外，配置目录实际复制）后解开差分包并执行应用脚本，校验通过后改名为新版本目录
+     */
+    private static String prepareCommand(DeploymentConfig config, String newDir, String deltaName,
+                                         List<String> stateDirs) {
+        String staging = newDir + STAGING_SUFFIX;
+        String archive = REMOTE_SOFTWARE_DIR + "/" + deltaName;
+        return "set -e; OLD=$(readlink -f " + installDir(config) + "); NEW=" + quote(newDir) + "; TMP=" + quote(staging)
+                + "; [ \"$OLD\" != \"$NEW\" ]"
+                + "; sudo rm -rf \"$TMP\"; sudo mkdir -p \"$TMP\""
+                + "; for e in $(ls -A \"$OLD\"); do case \" " + String.join(" ", stateDirs) + " \" in"
+                + " *\" $e \"*) ;; *) sudo cp -al \"$OLD/$e\" \"$TMP/\";; esac; done"
+                + "; sudo rm -rf \"$TMP/" + CONF_DIR + "\"; if [ -d \"$OLD/" + CONF_DIR + "\" ]; then"
+                + " sudo mkdir -p \"$(dirname \"$TMP/" + CONF_DIR + "\")\"; sudo cp -a \"$OLD/" + CONF_DIR + "\" \"$TMP/"
+                + CONF_DIR + "\"; fi"
+                + "; sudo tar -xzf " + archive + " -C \"$TMP\""
+                + "; cd \"$TMP\"; sudo sh " + META_DIR + "/apply.sh \"$OLD\"; sudo rm -rf \"$TMP/" + META_DIR + "\""
+                + "; sudo rm -rf \"$NEW\"; sudo mv -T \"$TMP\" \"$NEW\"; rm -f " + archive;
+    }
+
+    /**
+     * 切换版本的命令：状态目录移动到新版本目录，再通过rename原子替换符号链接
+     */
+    private static String switchCommand(DeploymentConfig config, String newDir, List<String> stateDirs) {
+        String link = installDir(config);
+        return "set -e; OLD=$(readlink -f " + link + "); NEW=" + quote(newDir)
+                + "; for d in " + String.join(" ", stateDirs) + "; do"
+                + " if [ -e \"$OLD/$d\" ] && [ ! -e \"$NEW/$d\" ]; then sudo mv \"$OLD/$d\" \"$NEW/$d\"; fi; done"
+                + "; sudo ln -sfn \"$NEW\" " + link + STAGING_SUFFIX
+                + "; sudo mv -T " + link + STAGING_SUFFIX + " " + link;
+    }
+
+    /**
+     * 位于安装目录内的状态目录（日志、临时、NameNode、DataNode和NodeManager本地目录）的顶层名称，
+     * 升级时不复制、不比较，切换时整体移动到新版本目录。与安装包顶层条目重名的不视为状态目录
+     */
+    private static List<String> stateDirs(DeploymentConfig config, TarballIndex index) {
+        String prefix = installDir(config) + "/";
+        List<String> candidates = new ArrayList<>();
+        candidates.add(prefix + "logs");
+        candidates.add(config.getClusterConfig().getHdfsTempDir());
+        candidates.add(config.getClusterConfig().getHdfsNameDir());
+        for (VMConnectionConfig vmConfig : config.getVmConfigs()) {
+            String host = config.getHostname(vmConfig.getIndex());
+            if (host != null) {
+                candidates.addAll(config.getClusterConfig().getDataDirs(host));
+                candidates.addAll(config.getClusterConfig().getLocalDirs(host));
+            }
+        }
+
+        Set<String> dirs = new LinkedHashSet<>();
+        for (String candidate : candidates) {
+            if (candidate != null && candidate.startsWith(prefix)) {
+                String top = candidate.substring(prefix.length()).split("/")[0];
+                if (!top.isEmpty() && !index.topLevel.contains(top)) {
+                    dirs.add(top);
+                }
+            }
+        }
+        return new ArrayList<>(dirs);
+    }
+
+    private static Manifest parseManifest(String output) {
+        Manifest manifest = new Manifest();
+        for (String line : output.split("\n")) {
+            if (manifest.oldDir == null) {
+                manifest.oldDir = line.trim().isEmpty() ? null : line.trim();
+            } else if (line.length() > 36 && line.startsWith("./", 34)) {
+                // md5sum对含特殊字符的文件名会加反斜杠前缀，这类文件不计入清单，按新文件完整发送
+                manifest.md5s.put(line.substring(36), line.substring(0, 32));
+            }
+        }
+        return manifest;
+    }
+
+    private static TarArchiveInputStream openTarball(File tarball) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(tarball));
+        try {
+            return new TarArchiveInputStream(new GzipCompressorInputStream(in));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 条目相对于安装包根目录的路径，根目录本身返回null
+     */
+    private static String relativePath(String root, String name) {
+        String relative = name.startsWith(root + "/") ? name.substring(root.length() + 1) : null;
+        if (relative != null && relative.endsWith("/")) {
+            relative = relative.substring(0, relative.length() - 1);
+        }
+        return relative == null || relative.isEmpty() ? null : relative;
+    }
+
+    private static boolean isConfPath(String relative) {
+        return relative.equals(CONF_DIR) || relative.startsWith(CONF_DIR + "/");
+    }
+
+    private static String installDir(DeploymentConfig config) {
+        return config.getHadoopConfig().getRemoteInstallDir();
+    }
+
+    private static String parentDir(DeploymentConfig config) {
+        String installDir = installDir(config);
+        return installDir.substring(0, installDir.lastIndexOf('/'));
+    }
+
+    /**
+     * 单引号转义，用于远程shell命令中的路径
+     */
+    private static String quote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5不可用", e);
+        }
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.lyq.service;
+
+import com.jcraft.jsch.Session;
+import com.lyq.model.CommandResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.NodeHardwareInfo;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.ParallelUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 硬件探测服务类
+ * 通过一条批量SSH命令获取节点的CPU核数、内存、磁盘数量、网卡速率和数据盘挂载点
+ */
+public class HardwareProbeService {
+
+    private static final Logger logger = LogManager.getLogger(HardwareProbeService.class);
+
+    /**
+     * 探测脚本：每项输出一行 key=value，单项失败不影响其他项
+     */
+    private static final String PROBE_COMMAND =
+            "echo cores=$(nproc 2>/dev/null || grep -c ^processor /proc/cpuinfo); " +
+            "echo mem_kb=$(awk '/^MemTotal:/{print $2}' /proc/meminfo 2>/dev/null); " +
+            "echo disks=$(lsblk -dn -o TYPE 2>/dev/null | grep -c '^disk'); " +
+            "iface=$(ip -o route show default 2>/dev/null | awk '{print $5; exit}'); " +
+            "echo nic_mbps=$(cat /sys/class/net/${iface:-eth0}/speed 2>/dev/null); " +
+            "df -P -l -x tmpfs -x devtmpfs -x overlay -x squashfs -x vfat -x iso9660 2>/dev/null " +
+            "| awk 'NR>1{print \"mount=\" $1 \" \" $2 \" \" $6}'";
+
+    /**
+     * 不作为数据盘使用的系统挂载点
+     */
+    private static final Set<String> SYSTEM_MOUNTS = new HashSet<>(Arrays.asList(
+            "/", "/boot", "/boot/efi", "/home", "/var", "/usr", "/tmp", "/opt", "/srv"));
+
+    /**
+     * 数据盘最小容量（KB）
+     */
+    private static final long MIN_DATA_MOUNT_KB = 1024L * 1024L;
+
+    /**
+     * 分区设备名（/dev/sdb1、/dev/nvme0n1p1），用于归并同一物理盘上的多个分区
+     */
+    private static final Pattern PARTITION = Pattern.compile("(/dev/(?:[shv]d[a-z]+|xvd[a-z]+))\\d+|(/dev/nvme\\d+n\\d+)p\\d+");
+
+    private static final int MAX_PARALLEL_NODES = 32;
+    private static final long PROBE_TIMEOUT_MS = 60000;
+
+    private final SSHConnectionService sshService;
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务（共享会话缓存）
+     */
+    public HardwareProbeService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+    }
+
+    /**
+     * 并行探测所有节点的硬件信息
+     *
+     * @param config 部署配置
+     * @return 硬件信息列表（与虚拟机配置顺序一致，失败的节点probed为false）
+     */
+    public List<NodeHardwareInfo> probeAll(DeploymentConfig config) {
+        logger.info("开始探测{}台虚拟机硬件信息", config.getVmConfigs().size());
+
+        return ParallelUtil.runAll(config.getVmConfigs(), MAX_PARALLEL_NODES, PROBE_TIMEOUT_MS,
+                vmConfig -> probe(vmConfig, config.getHostname(vmConfig.getIndex())),
+                (vmConfig, e) -> NodeHardwareInfo.failure(vmConfig.getIndex(),
+                        config.getHostname(vmConfig.getIndex()), e.getMessage()));
+    }
+
+    /**
+     * 探测单个节点的硬件信息
+     *
+     * @param vmConfig 虚拟机连接配置
+     * @param hostname 主机名
+     * @return 硬件信息
+     * @throws Exception 建立会话失败时抛出异常
+     */
+    public NodeHardwareInfo probe(VMConnectionConfig vmConfig, String hostname) throws Exception {
+        Session session = sshService.getSession(vmConfig);
+        CommandResult result = sshService.executeCommandWithLog(session, PROBE_COMMAND, null);
+
+        if (!result.isSuccess()) {
+            return NodeHardwareInfo.failure(vmConfig.getIndex(), hostname, result.getError());
+        }
+
+        NodeHardwareInfo info = parseProbeOutput(result.getOutput());
+        info.setVmIndex(vmConfig.getIndex());
+        info.setHostname(hostname);
+        logger.info("虚拟机{}硬件信息: {}核, {}MB内存, {}块磁盘, 网卡{}Mbps, 数据盘{}", vmConfig.getIp(),
+                info.getCpuCores(), info.getMemoryMb(), info.getDiskCount(), info.getNicSpeedMbps(),
+                info.getDataMounts());
+        return info;
+    }
+
+    /**
+     * 解析探测脚本的输出
+     * 核数或内存缺失时视为探测失败
+     *
+     * @param output 探测脚本输出
+     * @return 硬件信息
+     */
+    static NodeHardwareInfo parseProbeOutput(String output) {
+        NodeHardwareInfo info = new NodeHardwareInfo();
+        Set<String> devices = new HashSet<>();
+
+        for (String line : output.split("\n")) {
+            int index = line.indexOf('=');
+            if (index < 0) {
+                continue;
+            }
+            String key = line.substring(0, index).trim();
+            if ("mount".equals(key)) {
+                addDataMount(info, devices, line.substring(index + 1));
+                continue;
+            }
+            long value = parseLong(line.substring(index + 1));
+
+            switch (key) {
+                case "cores":
+                    info.setCpuCores((int) value);
+                    break;
+                case "mem_kb":
+                    info.setMemoryMb(value / 1024);
+                    break;
+                case "disks":
+                    info.setDiskCount((int) value);
+                    break;
+                case "nic_mbps":
+                    // 虚拟网卡通常返回-1或无法读取
+                    info.setNicSpeedMbps((int) Math.max(0, value));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        info.setProbed(info.getCpuCores() > 0 && info.getMemoryMb() > 0);
+        if (!info.isProbed()) {
+            info.setErrorMessage("无法解析硬件信息");
+        }
+        return info;
+    }
+
+    /**
+     * 解析一行 "设备 容量KB 挂载点"，只保留独立块设备上的非系统挂载点
+     */
+    private static void addDataMount(NodeHardwareInfo info, Set<String> devices, String value) {
+        String[] parts = value.trim().split(" ", 3);
+        if (parts.length < 3) {
+            return;
+        }
+
+        String device = physicalDevice(parts[0]);
+        long sizeKb = parseLong(parts[1]);
+        String mountPoint = parts[2].trim();
+
+        if (!device.startsWith("/dev/") || SYSTEM_MOUNTS.contains(mountPoint)
+                || mountPoint.startsWith("/boot/") || sizeKb < MIN_DATA_MOUNT_KB) {
+            return;
+        }
+        // 同一物理盘的多个挂载点（分区或bind mount）只取第一个，避免同一磁盘被当作多块盘使用
+        if (devices.add(device)) {
+            info.getDataMounts().add(mountPoint);
+        }
+    }
+
+    private static String physicalDevice(String device) {
+        Matcher matcher = PARTITION.matcher(device);
+        if (!matcher.matches()) {
+            return device;
+        }
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.lyq.service;
+
+import com.lyq.model.BenchmarkReport;
+import com.lyq.model.BenchmarkResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.LatencyRecorder;
+import com.lyq.util.ParallelUtil;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * HDFS基准测试服务类
+ * 在工作站上通过hadoop-client直接访问部署好的HDFS：按TestDFSIO的方式测量集群吞吐量，
+ * 同时统计单个文件的读写延迟和各DataNode之间的数据分布倾斜；按NNBench的方式测量NameNode元数据操作的吞吐量和延迟
+ */
+public class HdfsBenchmarkService {
+
+    private static final Logger logger = LogManager.getLogger(HdfsBenchmarkService.class);
+
+    /**
+     * 测试文件所在的HDFS目录
+     */
+    static final String BENCHMARK_DIR = "/benchmarks/hads";
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 数据量最多的DataNode超过平均值的该倍数时视为分布倾斜
+     */
+    static final double SKEW_WARNING_RATIO = 1.5;
+
+    /**
+     * 元数据操作的99分位延迟超过该值（毫秒）时提示调整NameNode处理线程数或堆内存
+     */
+    static final double METADATA_P99_WARNING_MS = 50;
+
+    /**
+     * 执行TestDFSIO式的写入和读取测试
+     * 并发写入指定数量和大小的文件，统计各DataNode上的副本数据量，再并发读回，最后删除测试文件
+     *
+     * @param config     部署配置
+     * @param fileCount  文件数量
+     * @param fileSizeMb 单个文件大小（MB）
+     * @param threads    并发线程数
+     * @param callback   进度回调，可为null
+     * @return 测试报告，包含"写入"和"读取"两项结果
+     * @throws IOException 如果无法连接HDFS或测试目录操作失败
+     */
+    public BenchmarkReport runDfsIo(DeploymentConfig config, int fileCount, int fileSizeMb, int threads,
+                                    LogCallback callback) throws IOException {
+        BenchmarkReport report = new BenchmarkReport("DFSIO");
+        report.setStartTime(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        report.setTarget(nameNodeUri(config).toString());
+        report.getParameters().put("fileCount", String.valueOf(fileCount));
+        report.getParameters().put("fileSizeMb", String.valueOf(fileSizeMb));
+        report.getParameters().put("threads", String.valueOf(threads));
+
+        long startTime = System.currentTimeMillis();
+        long fileSize = (long) fileSizeMb * 1024 * 1024;
+        Path dir = new Path(BENCHMARK_DIR, "dfsio-" + startTime);
+
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            files.add(new Path(dir, "file_" + i));
+        }
+
+        try (FileSystem fs = openFileSystem(config)) {
+            fs.mkdirs(dir);
+            try {
+                log(callback, "写入" + fileCount + "个" + fileSizeMb + "MB文件（" + threads + "线程）...");
+                BenchmarkResult write = runPhase("写入", files, threads, file -> writeFile(fs, file, fileSize));
+                report.getResults().add(write);
+                log(callback, describe(write));
+
+                Map<String, Double> dataNodeMb = collectDataNodeUsage(fs, files, config);
+                for (Map.Entry<String, Double> entry : dataNodeMb.entrySet()) {
+                    write.getDetails().put("DataNode " + entry.getKey() + " (MB)", entry.getValue());
+                }
+                double skew = skew(dataNodeMb);
+                write.getDetails().put("DataNode倾斜度", skew);
+                if (skew > SKEW_WARNING_RATIO) {
+                    report.getWarnings().add(String.format("DataNode数据分布倾斜：最多的节点是平均值的%.2f倍", skew));
+                }
+
+                log(callback, "读取" + fileCount + "个文件...");
+                BenchmarkResult read = runPhase("读取", files, threads, file -> readFile(fs, file));
+                report.getResults().add(read);
+                log(callback, describe(read));
+
+                for (BenchmarkResult result : report.getResults()) {
+                    if (result.getFailures() > 0) {
+                        report.getWarnings().add(result.getOperation() + "失败" + result.getFailures() + "次");
+                    }
+                }
+            } finally {
+                if (!fs.delete(dir, true)) {
+                    logger.warn("删除测试目录失败: {}", dir);
+                }
+            }
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        logger.info("DFSIO测试完成: {}", report);
+        return report;
+    }
+
+    /**
+     * 执行NNBench式的元数据操作测试
+     * 按 mkdir、create、getFileInfo、rename、delete 的顺序，每种操作由线程池并发执行 线程数×每线程次数 次，
+     * 统计每秒操作数和延迟分布，最后删除测试目录
+     *
+     * @param config       部署配置
+     * @param opsPerThread 每个线程每种操作的执行次数
+     * @param threads      并发线程数
+     * @param callback     进度回调，可为null
+     * @return 测试报告，每种操作一项结果
+     * @throws IOException 如果无法连接HDFS或测试目录操作失败
+     */
+    public BenchmarkReport runNnBench(DeploymentConfig config, int opsPerThread, int threads, LogCallback callback)
+            throws IOException {
+        BenchmarkReport report = new BenchmarkReport("NNBENCH");
+        report.setStartTime(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        report.setTarget(nameNodeUri(config).toString());
+        report.getParameters().put("opsPerThread", String.valueOf(opsPerThread));
+        report.getParameters().put("threads", String.valueOf(threads));
+
+        long startTime = System.currentTimeMillis();
+        Path dir = new Path(BENCHMARK_DIR, "nnbench-" + startTime);
+
+        // 每个操作单元使用独立的子目录，mkdir 创建子目录，其余操作作用于子目录中的文件
+        List<Path> units = new ArrayList<>();
+        for (int i = 0; i < opsPerThread * threads; i++) {
+            units.add(new Path(dir, "d_" + i));
+        }
+
+        try (FileSystem fs = openFileSystem(config)) {
+            fs.mkdirs(dir);
+            try {
+                log(callback, "执行元数据操作测试（" + threads + "线程，每种操作" + units.size() + "次）...");
+                runMetadataPhase(report, "mkdir", units, threads, callback, unit -> check(fs.mkdirs(unit), unit));
+                runMetadataPhase(report, "create", units, threads, callback, unit -> {
+                    fs.create(new Path(unit, "f"), false).close();
+                    return 0L;
+                });
+                runMetadataPhase(report, "getFileInfo", units, threads, callback, unit -> {
+                    fs.getFileStatus(new Path(unit, "f"));
+                    return 0L;
+                });
+                runMetadataPhase(report, "rename", units, threads, callback,
+                        unit -> check(fs.rename(new Path(unit, "f"), new Path(unit, "r")), unit));
+                runMetadataPhase(report, "delete", units, threads, callback,
+                        unit -> check(fs.delete(new Path(unit, "r"), false), unit));
+            } finally {
+                if (!fs.delete(dir, true)) {
+                    logger.warn("删除测试目录失败: {}", dir);
+                }
+            }
+        }
+
+        String handlerCount = config.getTuningProfile() != null
+                ? "（当前" + config.getTuningProfile().getNameNodeHandlerCount() + "）" : "";
+        for (BenchmarkResult result : report.getResults()) {
+            if (result.getFailures() > 0) {
+                report.getWarnings().add(result.getOperation() + "失败" + result.getFailures() + "次");
+            }
+            if (result.getP99LatencyMs() > METADATA_P99_WARNING_MS) {
+                report.getWarnings().add(String.format("%s的p99延迟为%.1fms，可考虑增大dfs.namenode.handler.count%s"
+                        + "或NameNode堆内存", result.getOperation(), result.getP99LatencyMs(), handlerCount));
+            }
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        logger.info("NNBench测试完成: {}", report);
+        return report;
+    }
+
+    private void runMetadataPhase(BenchmarkReport report, String operation, List<Path> units, int threads,
+                                  LogCallback callback, ParallelUtil.Task<Path, Long> action) {
+        BenchmarkResult result = runPhase(operation, units, threads, action);
+        report.getResults().add(result);
+        log(callback, describe(result));
+    }
+
+    /**
+     * HDFS元数据操作以返回false表示失败，转换为异常以便计入失败次数
+     */
+    private static long check(boolean success, Path path) throws IOException {
+        if (!success) {
+            throw new IOException("操作返回失败: " + path);
+        }
+        return 0L;
+    }
+
+    /**
+     * 以NameNode所在节点的登录用户（即HDFS超级用户）连接HDFS
+     *
+     * @param config 部署配置
+     * @return 新的文件系统实例，调用方负责关闭
+     * @throws IOException 如果连接失败
+     */
+    FileSystem openFileSystem(DeploymentConfig config) throws IOException {
+        VMConnectionConfig nameNode = config.getVmConfigsWithRole(NodeRole.NAMENODE).get(0);
+        try {
+            return FileSystem.newInstance(nameNodeUri(config), clientConfiguration(config), nameNode.getUsername());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("连接HDFS被中断", e);
+        }
+    }
+
+    /**
+     * NameNode的RPC地址
+     * 工作站通常无法解析集群内部主机名，因此使用IP
+     *
+     * @param config 部署配置
+     * @return hdfs://IP:端口
+     * @throws IllegalStateException 如果未分配NameNode角色
+     */
+    static URI nameNodeUri(DeploymentConfig config) {
+        List<VMConnectionConfig> nameNodes = config.getVmConfigsWithRole(NodeRole.NAMENODE);
+        if (nameNodes.isEmpty()) {
+            throw new IllegalStateException("未分配NameNode角色");
+        }
+        return URI.create("hdfs://" + nameNodes.get(0).getIp() + ":" + config.getClusterConfig().getNameNodePort());
+    }
+
+    /**
+     * 工作站客户端配置：缩短连接重试，避免集群不可用时长时间阻塞
+     */
+    static Configuration clientConfiguration(DeploymentConfig config) {
+        Configuration conf = new Configuration();
+        conf.set("fs.defaultFS", nameNodeUri(config).toString());
+        conf.setInt("ipc.client.connect.max.retries", 3);
+        conf.setInt("ipc.client.connect.max.retries.on.timeouts", 3);
+        conf.setInt("ipc.client.connect.timeout", 5000);
+        conf.setInt("dfs.client.socket-timeout", 30000);
+        return conf;
+    }
+
+    /**
+     * 并发执行一轮文件操作并汇总结果，单个文件失败不影响其他文件
+     *
+     * @param operation 操作名称
+     * @param files     文件列表
+     * @param threads   并发线程数
+     * @param action    对单个文件的操作，返回读写的字节数
+     * @return 测试结果
+     */
+    private BenchmarkResult runPhase(String operation, List<Path> files, int threads,
+                                     ParallelUtil.Task<Path, Long> action) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long startTime = System.currentTimeMillis();
+
+        List<Long> results = ParallelUtil.runAll(files, Math.max(1, threads), 0, file -> {
+            long start = System.nanoTime();
+            long bytes = action.run(file);
+            recorder.record(System.nanoTime() - start);
+            return bytes;
+        }, (file, e) -> {
+            logger.warn("{}文件失败: {} - {}", operation, file, e.getMessage());
+            return -1L;
+        });
+
+        long bytes = 0;
+        long failures = 0;
+        for (Long result : results) {
+            if (result < 0) {
+                failures++;
+            } else {
+                bytes += result;
+            }
+        }
+        return summarize(operation, recorder, failures, bytes, System.currentTimeMillis() - startTime);
+    }
+
+    private static long writeFile(FileSystem fs, Path file, long size) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        new Random(file.hashCode()).nextBytes(buffer);
+
+        // close() 等待管道中所有DataNode确认，计入写入耗时
+        try (FSDataOutputStream out = fs.create(file, true)) {
+            long remaining = size;
+            while (remaining > 0) {
+                int len = (int) Math.min(buffer.length, remaining);
+                out.write(buffer, 0, len);
+                remaining -= len;
+            }
+        }
+        return size;
+    }
+
+    private static long readFile(FileSystem fs, Path file) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        try (FSDataInputStream in = fs.open(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 统计测试文件的所有块副本在各DataNode上的数据量
+     * 未收到任何副本的DataNode也计入，数据量为0
+     *
+     * @return DataNode主机名 -> 数据量（MB）
+     */
+    private Map<String, Double> collectDataNodeUsage(FileSystem fs, List<Path> files, DeploymentConfig config)
+            throws IOException {
+        Map<String, Double> usage = new LinkedHashMap<>();
+        for (Path file : files) {
+            if (!fs.exists(file)) {
+                continue;
+            }
+            FileStatus status = fs.getFileStatus(file);
+            for (BlockLocation block : fs.getFileBlockLocations(status, 0, status.getLen())) {
+                for (String host : block.getHosts()) {
+                    usage.merge(host, block.getLength() / (1024.0 * 1024.0), Double::sum);
+                }
+            }
+        }
+
+        for (VMConnectionConfig dataNode : config.getVmConfigsWithRole(NodeRole.DATANODE)) {
+            if (!usage.containsKey(dataNode.getHostname()) && !usage.containsKey(dataNode.getIp())) {
+                usage.put(dataNode.getHostname(), 0.0);
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * 数据分布倾斜度：数据量最多的节点与平均值之比，1表示完全均衡
+     *
+     * @param usage 各节点数据量
+     * @return 倾斜度，没有数据时返回1
+     */
+    static double skew(Map<String, Double> usage) {
+        double total = 0;
+        double max = 0;
+        for (double value : usage.values()) {
+            total += value;
+            max = Math.max(max, value);
+        }
+        return total > 0 ? max / (total / usage.size()) : 1.0;
+    }
+
+    /**
+     * 根据延迟记录生成测试结果
+     *
+     * @param operation  操作名称
+     * @param recorder   成功操作的延迟记录
+     * @param failures   失败次数
+     * @param bytes      读写的字节数
+     * @param durationMs 测试耗时（毫秒）
+     * @return 测试结果
+     */
+    static BenchmarkResult summarize(String operation, LatencyRecorder recorder, long failures, long bytes,
+                                     long durationMs) {
+        BenchmarkResult result = new BenchmarkResult(operation);
+        double seconds = Math.max(1, durationMs) / 1000.0;
+        result.setOperations(recorder.count());
+        result.setFailures(failures);
+        result.setBytes(bytes);
+        result.setDurationMs(durationMs);
+        result.setThroughputMBps(bytes / (1024.0 * 1024.0) / seconds);
+        result.setOpsPerSecond(recorder.count() / seconds);
+        result.setMeanLatencyMs(recorder.meanMs());
+        result.setP50LatencyMs(recorder.percentileMs(50));
+        result.setP99LatencyMs(recorder.percentileMs(99));
+        result.setMaxLatencyMs(recorder.maxMs());
+        result.setLatencyHistogram(recorder.histogram());
+        return result;
+    }
+
+    /**
+     * 单行描述测试结果，用于部署日志
+     *
+     * @param result 测试结果
+     * @return 描述文本
+     */
+    public static String describe(BenchmarkResult result) {
+        StringBuilder text = new StringBuilder(result.getOperation()).append(": ");
+        if (result.getBytes() > 0) {
+            text.append(String.format("%.1f MB/s, ", result.getThroughputMBps()));
+        }
+        text.append(String.format("%.1f ops/s, p50 %.1fms, p99 %.1fms", result.getOpsPerSecond(),
+                result.getP50LatencyMs(), result.getP99LatencyMs()));
+        if (result.getFailures() > 0) {
+            text.append("，失败").append(result.getFailures()).append("次");
+        }
+        return text.toString();
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
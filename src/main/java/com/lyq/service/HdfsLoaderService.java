@@ -0,0 +1,222 @@
+package com.lyq.service;
+
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.HdfsLoadResult;
+import com.lyq.model.NodeRole;
+import com.lyq.util.ParallelUtil;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileAlreadyExistsException;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * HDFS数据导入服务类
+ * 通过hadoop-client从工作站把本地文件或目录直接写入HDFS，多个线程并发写入不同文件，
+ * 替代逐个文件执行 hdfs dfs -put
+ */
+public class HdfsLoaderService {
+
+    private static final Logger logger = LogManager.getLogger(HdfsLoaderService.class);
+
+    /**
+     * 读写缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * 进度回调的最小间隔（毫秒）
+     */
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+
+    /**
+     * 写入中的临时文件后缀（与 hdfs dfs -put 相同）
+     */
+    private static final String COPYING_SUFFIX = "._COPYING_";
+
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    /**
+     * 把本地文件或目录导入HDFS
+     * 目录按相对路径导入到目标目录下，单个文件导入为 目标目录/文件名；
+     * 文件按大小降序分配给线程，大文件先开始，各线程负载更均衡。单个文件失败不影响其他文件
+     *
+     * @param config     部署配置
+     * @param localPath  本地文件或目录
+     * @param targetDir  HDFS目标目录
+     * @param threads    并发写入线程数
+     * @param overwrite  目标文件已存在时是否覆盖
+     * @param callback   进度回调，可为null
+     * @return 导入结果
+     * @throws IOException 如果读取本地目录、连接HDFS或创建目标目录失败
+     */
+    public HdfsLoadResult load(DeploymentConfig config, Path localPath, String targetDir, int threads,
+                               boolean overwrite, LogCallback callback) throws IOException {
+        HdfsLoadResult result = new HdfsLoadResult();
+        result.setLocalPath(localPath.toString());
+        result.setTargetPath(targetDir);
+        result.setThreads(threads);
+
+        Path source = localPath.toAbsolutePath();
+        List<Path> files = listFiles(source);
+        long totalBytes = 0;
+        for (Path file : files) {
+            totalBytes += Files.size(file);
+        }
+        Path base = Files.isDirectory(source) ? source : source.getParent();
+        log(callback, "导入" + files.size() + "个文件，共" + totalBytes / (1024 * 1024) + "MB（" + threads + "线程）...");
+
+        long startTime = System.currentTimeMillis();
+        AtomicLong written = new AtomicLong();
+        AtomicLong lastProgress = new AtomicLong(startTime);
+        long total = totalBytes;
+
+        try (FileSystem fs = openFileSystem(config)) {
+            // 先统一创建目录，避免每个文件写入时重复请求NameNode
+            Set<org.apache.hadoop.fs.Path> dirs = new LinkedHashSet<>();
+            for (Path file : files) {
+                dirs.add(toHdfsPath(base, file, targetDir).getParent());
+            }
+            for (org.apache.hadoop.fs.Path dir : dirs) {
+                fs.mkdirs(dir);
+            }
+
+            List<String> errors = ParallelUtil.runAll(files, Math.max(1, threads), 0, file -> {
+                copyFile(fs, file, toHdfsPath(base, file, targetDir), overwrite, bytes -> {
+                    long done = written.addAndGet(bytes);
+                    long now = System.currentTimeMillis();
+                    long last = lastProgress.get();
+                    if (now - last >= PROGRESS_INTERVAL_MS && lastProgress.compareAndSet(last, now)) {
+                        log(callback, String.format("已导入 %d/%dMB，%.1f MB/s", done / (1024 * 1024),
+                                total / (1024 * 1024), done / (1024.0 * 1024.0) / ((now - startTime) / 1000.0)));
+                    }
+                });
+                return null;
+            }, (file, e) -> {
+                logger.warn("导入文件失败: {} - {}", file, e.getMessage());
+                return file + ": " + e.getMessage();
+            });
+
+            for (int i = 0; i < files.size(); i++) {
+                if (errors.get(i) == null) {
+                    result.setFileCount(result.getFileCount() + 1);
+                    result.setBytes(result.getBytes() + Files.size(files.get(i)));
+                } else {
+                    result.getFailedFiles().add(errors.get(i));
+                }
+            }
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - startTime);
+        log(callback, String.format("导入完成: %d个文件，%.1f MB/s，失败%d个", result.getFileCount(),
+                result.getThroughputMBps(), result.getFailedFiles().size()));
+        logger.info("HDFS导入完成: {}", result);
+        return result;
+    }
+
+    /**
+     * 以NameNode所在节点的登录用户连接HDFS
+     */
+    private FileSystem openFileSystem(DeploymentConfig config) throws IOException {
+        URI uri = HdfsBenchmarkService.nameNodeUri(config);
+        String user = config.getVmConfigsWithRole(NodeRole.NAMENODE).get(0).getUsername();
+        try {
+            return FileSystem.newInstance(uri, HdfsBenchmarkService.clientConfiguration(config), user);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("连接HDFS被中断", e);
+        }
+    }
+
+    /**
+     * 列出要导入的普通文件，按大小降序排列
+     */
+    static List<Path> listFiles(Path localPath) throws IOException {
+        if (!Files.exists(localPath)) {
+            throw new IOException("本地路径不存在: " + localPath);
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(localPath)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toCollection(ArrayList::new));
+        }
+        files.sort(Comparator.comparingLong((Path file) -> file.toFile().length()).reversed());
+        return files;
+    }
+
+    /**
+     * 本地文件对应的HDFS路径：目标目录 + 相对于导入根目录的路径
+     */
+    static org.apache.hadoop.fs.Path toHdfsPath(Path base, Path file, String targetDir) {
+        String relative = base.relativize(file).toString().replace('\\', '/');
+        return new org.apache.hadoop.fs.Path(targetDir, relative);
+    }
+
+    /**
+     * 流式复制单个文件，每个线程复用自己的缓冲区
+     * 与 hdfs dfs -put 相同，先写入 ._COPYING_ 临时文件，写完后再重命名为目标文件；
+     * 写入失败时删除临时文件，HDFS中不会留下不完整的目标文件，重新导入时也不会因文件已存在而失败
+     */
+    private void copyFile(FileSystem fs, Path file, org.apache.hadoop.fs.Path target, boolean overwrite,
+                          LongConsumer progress) throws IOException {
+        if (!overwrite && fs.exists(target)) {
+            throw new FileAlreadyExistsException("目标文件已存在: " + target);
+        }
+        org.apache.hadoop.fs.Path temp = new org.apache.hadoop.fs.Path(target.getParent(),
+                target.getName() + COPYING_SUFFIX);
+
+        byte[] buffer = buffers.get();
+        boolean renamed = false;
+        try {
+            // 上次中断的导入可能留下同名临时文件，直接覆盖
+            try (InputStream in = Files.newInputStream(file);
+                 FSDataOutputStream out = fs.create(temp, true, BUFFER_SIZE)) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                    progress.accept(n);
+                }
+            }
+            if (overwrite && fs.exists(target)) {
+                fs.delete(target, false);
+            }
+            renamed = fs.rename(temp, target);
+            if (!renamed) {
+                throw new IOException("重命名临时文件失败: " + temp + " -> " + target);
+            }
+        } finally {
+            if (!renamed) {
+                deleteQuietly(fs, temp);
+            }
+        }
+    }
+
+    private static void deleteQuietly(FileSystem fs, org.apache.hadoop.fs.Path path) {
+        try {
+            fs.delete(path, false);
+        } catch (IOException e) {
+            logger.warn("删除临时文件失败: {} - {}", path, e.getMessage());
+        }
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.lyq.service;
+
+import com.lyq.exception.ValidationException;
+import com.lyq.model.NodeInventory;
+import com.lyq.util.NetworkUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 节点清单服务类
+ * 从hosts文件、CIDR网段或网段扫描结果批量导入节点，替代逐台手工填写连接信息
+ */
+public class InventoryService {
+
+    private static final Logger logger = LogManager.getLogger(InventoryService.class);
+
+    /**
+     * 单个CIDR网段允许展开的最大主机数（/20）
+     */
+    static final int MAX_CIDR_HOSTS = 4096;
+
+    /**
+     * 扫描网段时单个地址的连接超时时间（毫秒）
+     */
+    private static final int SCAN_TIMEOUT_MS = 1000;
+
+    /**
+     * 从hosts文件导入节点
+     * 每行格式为 "IP 主机名 [别名...]"，忽略注释、空行、回环地址、0.0.0.0和IPv6地址，
+     * 同一IP出现多次时只保留第一次
+     *
+     * @param hostsFile hosts文件路径
+     * @param username  节点统一用户名
+     * @param password  节点统一密码
+     * @return 节点清单
+     * @throws IOException         如果读取文件失败
+     * @throws ValidationException 如果文件中没有有效节点
+     */
+    public NodeInventory importHostsFile(Path hostsFile, String username, String password)
+            throws IOException, ValidationException {
+        logger.info("从hosts文件导入节点: {}", hostsFile);
+
+        NodeInventory inventory = new NodeInventory(username, password);
+        List<String> lines = Files.readAllLines(hostsFile, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            int comment = line.indexOf('#');
+            String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+
+            String[] fields = content.split("\\s+");
+            String ip = fields[0];
+            if (!NetworkUtil.isValidIpAddress(ip) || ip.startsWith("127.") || ip.equals("0.0.0.0")) {
+                logger.debug("跳过hosts条目: {}", content);
+                continue;
+            }
+            inventory.addNode(ip, fields.length > 1 ? fields[1] : null);
+        }
+
+        if (inventory.size() == 0) {
+            throw new ValidationException("hosts文件中没有有效的节点", "hostsFile", hostsFile.toString());
+        }
+
+        logger.info("从hosts文件导入{}个节点", inventory.size());
+        return inventory;
+    }
+
+    /**
+     * 从CIDR网段导入节点，主机名按清单前缀依次生成
+     *
+     * @param cidr     网段，如 192.168.1.0/24
+     * @param username 节点统一用户名
+     * @param password 节点统一密码
+     * @return 节点清单
+     * @throws ValidationException 如果网段格式无效或主机数超过上限
+     */
+    public NodeInventory importCidr(String cidr, String username, String password) throws ValidationException {
+        logger.info("从网段导入节点: {}", cidr);
+
+        NodeInventory inventory = new NodeInventory(username, password);
+        for (String ip : expandCidr(cidr)) {
+            inventory.addNode(ip, null);
+        }
+
+        logger.info("从网段{}导入{}个节点", cidr, inventory.size());
+        return inventory;
+    }
+
+    /**
+     * 扫描CIDR网段中SSH端口开放的主机，只导入扫描到的节点
+     *
+     * @param cidr     网段，如 192.168.1.0/24
+     * @param sshPort  SSH端口
+     * @param username 节点统一用户名
+     * @param password 节点统一密码
+     * @return 节点清单
+     * @throws ValidationException 如果网段格式无效、主机数超过上限或没有扫描到主机
+     */
+    public NodeInventory discoverCidr(String cidr, int sshPort, String username, String password)
+            throws ValidationException {
+        logger.info("扫描网段{}中SSH端口{}开放的主机", cidr, sshPort);
+
+        long startTime = System.currentTimeMillis();
+        List<String> liveIps = NetworkUtil.scanOpenPort(expandCidr(cidr), sshPort, SCAN_TIMEOUT_MS);
+        if (liveIps.isEmpty()) {
+            throw new ValidationException("网段" + cidr + "中没有SSH端口开放的主机", "cidr", cidr);
+        }
+
+        NodeInventory inventory = new NodeInventory(username, password);
+        inventory.setSshPort(sshPort);
+        for (String ip : liveIps) {
+            inventory.addNode(ip, null);
+        }
+
+        logger.info("网段{}扫描完成，发现{}个节点，耗时{}ms", cidr, inventory.size(),
+                System.currentTimeMillis() - startTime);
+        return inventory;
+    }
+
+    /**
+     * 展开CIDR网段中的主机地址
+     * 前缀长度小于31时不包含网络地址和广播地址；不带前缀时视为单个主机
+     *
+     * @param cidr 网段，如 192.168.1.0/24
+     * @return 主机IP列表（按地址升序）
+     * @throws ValidationException 如果网段格式无效或主机数超过上限
+     */
+    public static List<String> expandCidr(String cidr) throws ValidationException {
+        if (cidr == null || cidr.trim().isEmpty()) {
+            throw new ValidationException("网段不能为空", "cidr", cidr);
+        }
+
+        String[] parts = cidr.trim().split("/");
+        if (parts.length > 2 || !NetworkUtil.isValidIpAddress(parts[0])) {
+            throw new ValidationException("网段格式无效: " + cidr, "cidr", cidr);
+        }
+
+        int prefix = 32;
+        if (parts.length == 2) {
+            try {
+                prefix = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new ValidationException("网段前缀长度无效: " + cidr, e, "cidr", cidr);
+            }
+            if (prefix < 0 || prefix > 32) {
+                throw new ValidationException("网段前缀长度无效: " + cidr, "cidr", cidr);
+            }
+        }
+
+        long size = 1L << (32 - prefix);
+        long hostCount = prefix < 31 ? size - 2 : size;
+        if (hostCount > MAX_CIDR_HOSTS) {
+            throw new ValidationException("网段" + cidr + "包含" + hostCount + "个地址，超过上限"
+                    + MAX_CIDR_HOSTS, "cidr", cidr);
+        }
+
+        long network = toLong(parts[0].trim()) & (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+        long first = prefix < 31 ? network + 1 : network;
+        List<String> ips = new ArrayList<>((int) hostCount);
+        for (long i = 0; i < hostCount; i++) {
+            ips.add(toIp(first + i));
+        }
+        return ips;
+    }
+
+    private static long toLong(String ip) {
+        long value = 0;
+        for (String octet : ip.split("\\.")) {
+            value = (value << 8) | Integer.parseInt(octet);
+        }
+        return value;
+    }
+
+    private static String toIp(long value) {
+        return ((value >> 24) & 0xFF) + "." + ((value >> 16) & 0xFF) + "."
+                + ((value >> 8) & 0xFF) + "." + (value & 0xFF);
+    }
+}
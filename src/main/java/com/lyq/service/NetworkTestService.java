@@ -0,0 +1,341 @@
+package com.lyq.service;
+
+import com.lyq.model.CommandResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.LinkResult;
+import com.lyq.model.NetworkMatrix;
+import com.lyq.model.NodeHardwareInfo;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.NetProbe;
+import com.lyq.util.ParallelUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节点间网络测试服务类
+ * 将 {@link NetProbe} 上传到各节点，按循环赛方式两两配对测试吞吐量和往返延迟：
+ * 每一轮中每个节点只参与一对测试，避免多条链路争用同一块网卡导致结果失真
+ */
+public class NetworkTestService {
+
+    private static final Logger logger = LogManager.getLogger(NetworkTestService.class);
+
+    private static final String PROBE_DIR = "/tmp/hads-netprobe";
+    private static final String PROBE_CLASS = NetProbe.class.getName();
+    private static final String JAVA_BIN = "/opt/module/jdk/bin/java";
+
+    /**
+     * 测试使用的端口
+     */
+    private static final int PROBE_PORT = 5201;
+
+    /**
+     * 每个方向发送的数据量（字节）和延迟探测次数
+     */
+    private static final long TEST_BYTES = 128L * 1024 * 1024;
+    private static final int PING_COUNT = 20;
+
+    /**
+     * 吞吐量低于所有链路中位数的该比例时视为慢链路
+     */
+    private static final double SLOW_LINK_RATIO = 0.5;
+
+    /**
+     * 往返延迟超过中位数的该倍数（且超过1ms）时视为高延迟链路
+     */
+    private static final double HIGH_RTT_RATIO = 3.0;
+
+    /**
+     * 吞吐量低于两端网卡协商速率的该比例时提示链路异常
+     */
+    private static final double NIC_EFFICIENCY_RATIO = 0.3;
+
+    private static final int MAX_PARALLEL_NODES = 32;
+    private static final long INSTALL_TIMEOUT_MS = 60000;
+    private static final long PAIR_TIMEOUT_MS = 120000;
+
+    private final SSHConnectionService sshService;
+    private final HardwareProbeService hardwareProbeService;
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务（共享会话缓存）
+     */
+    public NetworkTestService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+        this.hardwareProbeService = new HardwareProbeService(sshService);
+    }
+
+    /**
+     * 测试所有节点两两之间的网络
+     *
+     * @param config   部署配置
+     * @param callback 进度回调，可为null
+     * @return 网络测试矩阵
+     * @throws IOException 如果读取测试程序失败
+     */
+    public NetworkMatrix runMatrix(DeploymentConfig config, LogCallback callback) throws IOException {
+        long startTime = System.currentTimeMillis();
+        List<VMConnectionConfig> vmConfigs = config.getVmConfigs();
+        NetworkMatrix matrix = new NetworkMatrix();
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            matrix.getNodes().put(vmConfig.getIndex(), config.getHostname(vmConfig.getIndex()));
+        }
+        if (vmConfigs.size() < 2) {
+            matrix.getWarnings().add("节点数少于2个，无需测试");
+            return matrix;
+        }
+
+        log(callback, "上传测试程序到" + vmConfigs.size() + "个节点");
+        List<VMConnectionConfig> ready = installProbe(vmConfigs, callback);
+
+        List<List<int[]>> rounds = roundRobin(ready.size());
+        for (int round = 0; round < rounds.size(); round++) {
+            log(callback, "第" + (round + 1) + "/" + rounds.size() + "轮测试，" + rounds.get(round).size() + "对节点");
+            List<List<LinkResult>> results = ParallelUtil.runAll(rounds.get(round), MAX_PARALLEL_NODES,
+                    PAIR_TIMEOUT_MS,
+                    pair -> Arrays.asList(testLink(ready.get(pair[0]), ready.get(pair[1])),
+                            testLink(ready.get(pair[1]), ready.get(pair[0]))),
+                    (pair, e) -> Arrays.asList(failedLink(ready.get(pair[0]), ready.get(pair[1]), e.getMessage()),
+                            failedLink(ready.get(pair[1]), ready.get(pair[0]), e.getMessage())));
+            for (List<LinkResult> links : results) {
+                matrix.getLinks().addAll(links);
+            }
+        }
+
+        ParallelUtil.runAll(ready, MAX_PARALLEL_NODES, INSTALL_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithLog(sshService.getSession(vmConfig),
+                        "rm -rf " + PROBE_DIR, null),
+                (vmConfig, e) -> CommandResult.failure("rm", e.getMessage()));
+
+        analyze(matrix, hardwareProbeService.probeAll(config));
+        matrix.setDurationMs(System.currentTimeMillis() - startTime);
+        logger.info("网络测试完成: {}", matrix);
+        return matrix;
+    }
+
+    /**
+     * 上传测试程序，返回上传成功的节点
+     */
+    private List<VMConnectionConfig> installProbe(List<VMConnectionConfig> vmConfigs, LogCallback callback)
+            throws IOException {
+        String classPath = PROBE_CLASS.replace('.', '/') + ".class";
+        byte[] classBytes = readClass(classPath);
+        String target = PROBE_DIR + "/" + classPath;
+        String command = "mkdir -p " + target.substring(0, target.lastIndexOf('/')) + " && cat > " + target;
+
+        List<CommandResult> results = ParallelUtil.runAll(vmConfigs, MAX_PARALLEL_NODES, INSTALL_TIMEOUT_MS,
+                vmConfig -> sshService.executeCommandWithInput(sshService.getSession(vmConfig), command, classBytes,
+                        INSTALL_TIMEOUT_MS),
+                (vmConfig, e) -> CommandResult.failure(command, e.getMessage()));
+
+        List<VMConnectionConfig> ready = new ArrayList<>();
+        for (int i = 0; i < vmConfigs.size(); i++) {
+            if (results.get(i).isSuccess()) {
+                ready.add(vmConfigs.get(i));
+            } else {
+                log(callback, "虚拟机" + vmConfigs.get(i).getIndex() + "上传测试程序失败: " + results.get(i).getError());
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * 测试一个方向的链路：先在目标节点后台启动接收端，再在源节点运行发送端
+     */
+    private LinkResult testLink(VMConnectionConfig source, VMConnectionConfig target) throws Exception {
+        String java = "JAVA=" + JAVA_BIN + "; [ -x $JAVA ] || JAVA=java; ";
+        String receiver = java + "nohup $JAVA -cp " + PROBE_DIR + " " + PROBE_CLASS + " recv " + PROBE_PORT
+                + " 60 >/dev/null 2>&1 &";
+        CommandResult started = sshService.executeCommandWithLog(sshService.getSession(target), receiver, null);
+        if (!started.isSuccess()) {
+            return failedLink(source, target, "接收端启动失败: " + started.getError());
+        }
+
+        String sender = java + "$JAVA -cp " + PROBE_DIR + " " + PROBE_CLASS + " send " + target.getIp() + " "
+                + PROBE_PORT + " " + TEST_BYTES + " " + PING_COUNT;
+        CommandResult result = sshService.executeCommandWithLog(sshService.getSession(source), sender, null);
+        if (!result.isSuccess()) {
+            return failedLink(source, target, result.getError());
+        }
+        return parseLink(source.getIndex(), target.getIndex(), result.getOutput());
+    }
+
+    /**
+     * 解析发送端输出
+     *
+     * @param sourceIndex 源虚拟机编号
+     * @param targetIndex 目标虚拟机编号
+     * @param output      发送端输出
+     * @return 链路结果
+     */
+    static LinkResult parseLink(int sourceIndex, int targetIndex, String output) {
+        Map<String, Long> values = new HashMap<>();
+        for (String line : output.split("\n")) {
+            int index = line.indexOf('=');
+            if (index > 0) {
+                try {
+                    values.put(line.substring(0, index).trim(), Long.parseLong(line.substring(index + 1).trim()));
+                } catch (NumberFormatException e) {
+                    // 忽略无法解析的行
+                }
+            }
+        }
+
+        LinkResult link = new LinkResult(sourceIndex, targetIndex);
+        Long bytes = values.get("bytes");
+        Long elapsedUs = values.get("elapsed_us");
+        if (bytes == null || elapsedUs == null || elapsedUs <= 0) {
+            link.setErrorMessage("无法解析测试结果");
+            return link;
+        }
+        link.setThroughputMbps(bytes * 8.0 / elapsedUs);
+        link.setRttMs(values.getOrDefault("rtt_us", 0L) / 1000.0);
+        link.setSuccess(true);
+        return link;
+    }
+
+    /**
+     * 按循环赛方式安排测试轮次
+     * n个节点共 n-1 轮（n为奇数时补一个轮空位，共n轮），每轮内各节点对互不重叠，所有节点两两恰好相遇一次
+     *
+     * @param count 节点数量
+     * @return 每一轮的节点对（节点在列表中的下标）
+     */
+    static List<List<int[]>> roundRobin(int count) {
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            slots.add(i);
+        }
+        if (count % 2 == 1) {
+            slots.add(-1);
+        }
+
+        List<List<int[]>> rounds = new ArrayList<>();
+        int size = slots.size();
+        for (int round = 0; round < size - 1; round++) {
+            List<int[]> pairs = new ArrayList<>();
+            for (int i = 0; i < size / 2; i++) {
+                int first = slots.get(i);
+                int second = slots.get(size - 1 - i);
+                if (first >= 0 && second >= 0) {
+                    pairs.add(new int[] {first, second});
+                }
+            }
+            rounds.add(pairs);
+            // 第一个位置固定，其余位置顺时针轮转
+            slots.add(1, slots.remove(size - 1));
+        }
+        return rounds;
+    }
+
+    /**
+     * 找出慢链路、高延迟链路和网卡协商速率异常的节点
+     *
+     * @param matrix   网络测试矩阵
+     * @param hardware 节点硬件信息（用于网卡协商速率）
+     */
+    static void analyze(NetworkMatrix matrix, List<NodeHardwareInfo> hardware) {
+        List<Double> throughputs = new ArrayList<>();
+        List<Double> rtts = new ArrayList<>();
+        for (LinkResult link : matrix.getLinks()) {
+            if (link.isSuccess()) {
+                throughputs.add(link.getThroughputMbps());
+                rtts.add(link.getRttMs());
+            } else {
+                matrix.getWarnings().add(linkName(matrix, link) + " 测试失败: " + link.getErrorMessage());
+            }
+        }
+
+        Map<Integer, Integer> nicSpeeds = new HashMap<>();
+        int maxNicSpeed = 0;
+        for (NodeHardwareInfo info : hardware) {
+            if (info.isProbed() && info.getNicSpeedMbps() > 0) {
+                nicSpeeds.put(info.getVmIndex(), info.getNicSpeedMbps());
+                maxNicSpeed = Math.max(maxNicSpeed, info.getNicSpeedMbps());
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : nicSpeeds.entrySet()) {
+            if (entry.getValue() < maxNicSpeed) {
+                matrix.getWarnings().add(matrix.getNodes().get(entry.getKey()) + " 网卡协商速率" + entry.getValue()
+                        + "Mbps，低于集群中的" + maxNicSpeed + "Mbps，请检查网线和交换机端口");
+            }
+        }
+
+        if (throughputs.isEmpty()) {
+            return;
+        }
+        double medianThroughput = median(throughputs);
+        double medianRtt = median(rtts);
+        for (LinkResult link : matrix.getLinks()) {
+            if (!link.isSuccess()) {
+                continue;
+            }
+            if (link.getThroughputMbps() < medianThroughput * SLOW_LINK_RATIO) {
+                matrix.getWarnings().add(String.format("%s 吞吐量%.0fMbps，低于中位数%.0fMbps的%.0f%%",
+                        linkName(matrix, link), link.getThroughputMbps(), medianThroughput, SLOW_LINK_RATIO * 100));
+            }
+            Integer sourceNic = nicSpeeds.get(link.getSourceIndex());
+            Integer targetNic = nicSpeeds.get(link.getTargetIndex());
+            if (sourceNic != null && targetNic != null
+                    && link.getThroughputMbps() < Math.min(sourceNic, targetNic) * NIC_EFFICIENCY_RATIO) {
+                matrix.getWarnings().add(String.format("%s 吞吐量%.0fMbps，不足网卡速率%dMbps的%.0f%%",
+                        linkName(matrix, link), link.getThroughputMbps(), Math.min(sourceNic, targetNic),
+                        NIC_EFFICIENCY_RATIO * 100));
+            }
+            if (link.getRttMs() > 1.0 && link.getRttMs() > medianRtt * HIGH_RTT_RATIO) {
+                matrix.getWarnings().add(String.format("%s 往返延迟%.2fms，是中位数%.2fms的%.1f倍",
+                        linkName(matrix, link), link.getRttMs(), medianRtt, link.getRttMs() / medianRtt));
+            }
+        }
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static String linkName(NetworkMatrix matrix, LinkResult link) {
+        return matrix.getNodes().get(link.getSourceIndex()) + " -> " + matrix.getNodes().get(link.getTargetIndex());
+    }
+
+    private static LinkResult failedLink(VMConnectionConfig source, VMConnectionConfig target, String error) {
+        LinkResult link = new LinkResult(source.getIndex(), target.getIndex());
+        link.setErrorMessage(error);
+        return link;
+    }
+
+    private static byte[] readClass(String classPath) throws IOException {
+        try (InputStream in = NetworkTestService.class.getClassLoader().getResourceAsStream(classPath)) {
+            if (in == null) {
+                throw new IOException("找不到测试程序: " + classPath);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
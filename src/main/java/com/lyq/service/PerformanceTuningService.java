@@ -0,0 +1,199 @@
+package com.lyq.service;
+
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.NodeHardwareInfo;
+import com.lyq.model.NodeRole;
+import com.lyq.model.TuningProfile;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 性能调优服务类
+ * 根据节点硬件信息推导YARN容器、MapReduce和HDFS线程池等调优参数，并规划多磁盘数据目录
+ *
+ * 容器规划参考常见的YARN内存规划方法：
+ * 先为操作系统和Hadoop守护进程预留内存，再按 min(2×核数, 1.8×磁盘数, 可用内存/最小容器) 计算容器数
+ */
+public class PerformanceTuningService {
+
+    private static final Logger logger = LogManager.getLogger(PerformanceTuningService.class);
+
+    /**
+     * Java堆占容器内存的比例
+     */
+    public static final double HEAP_RATIO = 0.8;
+
+    /**
+     * 数据盘上的DataNode数据目录和NodeManager本地目录
+     */
+    private static final String DATA_DIR_SUFFIX = "hadoop/dfs/data";
+    private static final String LOCAL_DIR_SUFFIX = "hadoop/yarn/local";
+
+    /**
+     * 根据硬件信息推导调优参数
+     * 所有节点使用同一份配置，因此以NodeManager节点中配置最低的为准
+     *
+     * @param hardware 各节点硬件信息
+     * @param config   部署配置（需已完成角色分配）
+     * @return 调优参数，没有可用的硬件信息时返回null
+     */
+    public TuningProfile deriveProfile(List<NodeHardwareInfo> hardware, DeploymentConfig config) {
+        List<NodeHardwareInfo> workers = new ArrayList<>();
+        for (NodeHardwareInfo info : hardware) {
+            List<NodeRole> roles = config.getRoleAssignments().get(info.getVmIndex());
+            if (info.isProbed() && roles != null && roles.contains(NodeRole.NODEMANAGER)) {
+                workers.add(info);
+            }
+        }
+
+        if (workers.isEmpty()) {
+            logger.warn("没有可用的NodeManager硬件信息，使用默认配置");
+            return null;
+        }
+
+        int cores = Integer.MAX_VALUE;
+        long memoryMb = Long.MAX_VALUE;
+        int disks = Integer.MAX_VALUE;
+        int nicSpeedMbps = Integer.MAX_VALUE;
+        for (NodeHardwareInfo info : workers) {
+            cores = Math.min(cores, info.getCpuCores());
+            memoryMb = Math.min(memoryMb, info.getMemoryMb());
+            // 有独立数据盘时按数据盘数量计算，否则按物理磁盘数量
+            int nodeDisks = info.getDataMounts().isEmpty() ? info.getDiskCount() : info.getDataMounts().size();
+            disks = Math.min(disks, Math.max(1, nodeDisks));
+            nicSpeedMbps = Math.min(nicSpeedMbps, info.getNicSpeedMbps());
+        }
+
+        int dataNodeCount = Math.max(1, config.getHostnamesWithRole(NodeRole.DATANODE).size());
+        TuningProfile profile = deriveProfile(cores, memoryMb, disks, nicSpeedMbps, dataNodeCount);
+        logger.info("已推导调优参数（{}核/{}MB/{}块磁盘/{}Mbps, {}个DataNode）: {}",
+                cores, memoryMb, disks, nicSpeedMbps, dataNodeCount, profile);
+        return profile;
+    }
+
+    /**
+     * 根据单节点硬件规格和集群规模推导调优参数
+     *
+     * @param cores         CPU核数
+     * @param memoryMb      物理内存（MB）
+     * @param disks         磁盘数量
+     * @param nicSpeedMbps  网卡速率（Mbit/s），0表示未知
+     * @param dataNodeCount DataNode数量
+     * @return 调优参数
+     */
+    TuningProfile deriveProfile(int cores, long memoryMb, int disks, int nicSpeedMbps, int dataNodeCount) {
+        TuningProfile profile = new TuningProfile();
+
+        // YARN容器规划
+        long availableMb = Math.max(512, memoryMb - reservedMemoryMb(memoryMb));
+        long minContainerMb = Math.min(minContainerMb(memoryMb), availableMb);
+        long containers = Math.max(1, Math.min(Math.min(2L * cores, (long) Math.ceil(1.8 * disks)),
+                availableMb / minContainerMb));
+        long containerMb = Math.max(minContainerMb, availableMb / containers / 128 * 128);
+
+        profile.setNodeManagerMemoryMb(containers * containerMb);
+        profile.setNodeManagerVcores(Math.max(1, cores));
+        profile.setContainerMinMb(containerMb);
+        profile.setContainerMaxMb(containers * containerMb);
+
+        // MapReduce：Map使用一个容器，Reduce和AM使用两个容器（不超过节点上限）
+        // 节点容器数较少时AM只占一个容器，避免单个作业占满整个节点
+        profile.setMapMemoryMb(containerMb);
+        profile.setReduceMemoryMb(Math.min(2 * containerMb, profile.getContainerMaxMb()));
+        profile.setAppMasterMemoryMb(containers >= 4 ? 2 * containerMb : containerMb);
+        profile.setSortBufferMb((int) Math.min(1024, Math.max(100, containerMb * HEAP_RATIO * 0.4)));
+        profile.setSortFactor(Math.max(10, Math.min(100, profile.getSortBufferMb() / 10)));
+
+        // 高速网卡上增加Shuffle并行拷贝数
+        profile.setShuffleParallelCopies(nicSpeedMbps >= 10000 ? 20 : nicSpeedMbps >= 1000 ? 10 : 5);
+
+        // NameNode线程数随集群规模按 20×ln(N) 增长，DataNode线程数随核数增长
+        profile.setNameNodeHandlerCount((int) Math.max(10, Math.min(200, Math.round(20 * Math.log(dataNodeCount)))));
+        profile.setDataNodeHandlerCount(Math.max(10, Math.min(64, 2 * cores)));
+
+        profile.setIoFileBufferSize(nicSpeedMbps >= 10000 ? 262144 : 131072);
+        return profile;
+    }
+
+    /**
+     * 根据各节点的数据盘规划DataNode数据目录和NodeManager本地目录（JBOD布局）
+     * 每块数据盘一个目录，没有独立数据盘的节点沿用ClusterConfig中的默认目录
+     *
+     * @param hardware 各节点硬件信息
+     * @param config   部署配置（需已完成角色分配）
+     */
+    public void planDiskLayout(List<NodeHardwareInfo> hardware, DeploymentConfig config) {
+        Map<String, List<String>> dataDirsByHost = new HashMap<>();
+        Map<String, List<String>> localDirsByHost = new HashMap<>();
+
+        for (NodeHardwareInfo info : hardware) {
+            List<NodeRole> roles = config.getRoleAssignments().get(info.getVmIndex());
+            if (!info.isProbed() || info.getDataMounts().isEmpty() || roles == null) {
+                continue;
+            }
+
+            List<String> dataDirs = new ArrayList<>();
+            List<String> localDirs = new ArrayList<>();
+            for (String mount : info.getDataMounts()) {
+                String base = mount.endsWith("/") ? mount : mount + "/";
+                dataDirs.add(base + DATA_DIR_SUFFIX);
+                localDirs.add(base + LOCAL_DIR_SUFFIX);
+            }
+
+            if (roles.contains(NodeRole.DATANODE)) {
+                dataDirsByHost.put(info.getHostname(), dataDirs);
+            }
+            if (roles.contains(NodeRole.NODEMANAGER)) {
+                localDirsByHost.put(info.getHostname(), localDirs);
+            }
+            logger.info("节点{}使用{}块数据盘: {}", info.getHostname(), dataDirs.size(), info.getDataMounts());
+        }
+
+        config.getClusterConfig().setDataDirsByHost(dataDirsByHost);
+        config.getClusterConfig().setLocalDirsByHost(localDirsByHost);
+    }
+
+    /**
+     * 为操作系统和Hadoop守护进程预留的内存（MB）
+     */
+    private static long reservedMemoryMb(long memoryMb) {
+        long gb = memoryMb / 1024;
+        if (gb <= 4) {
+            return 1024;
+        } else if (gb <= 16) {
+            return 2048;
+        } else if (gb <= 24) {
+            return 4096;
+        } else if (gb <= 48) {
+            return 6144;
+        } else if (gb <= 72) {
+            return 8192;
+        } else if (gb <= 96) {
+            return 12288;
+        } else if (gb <= 128) {
+            return 24576;
+        } else if (gb <= 256) {
+            return 32768;
+        }
+        return 65536;
+    }
+
+    /**
+     * 按物理内存大小确定的最小容器内存（MB）
+     */
+    private static long minContainerMb(long memoryMb) {
+        if (memoryMb < 4096) {
+            return 256;
+        } else if (memoryMb < 8192) {
+            return 512;
+        } else if (memoryMb < 24576) {
+            return 1024;
+        }
+        return 2048;
+    }
+}
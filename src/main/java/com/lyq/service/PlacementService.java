@@ -0,0 +1,154 @@
+package com.lyq.service;
+
+import com.lyq.model.NodeHardwareInfo;
+import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 角色放置服务类
+ * 根据节点硬件为任意规模的集群分配角色：
+ * NameNode、ResourceManager、SecondaryNameNode放在内存和CPU最强、负载最轻的节点上，
+ * 数据盘多的节点优先留给DataNode/NodeManager；集群规模较大时主服务节点不再承担工作角色
+ */
+public class PlacementService {
+
+    private static final Logger logger = LogManager.getLogger(PlacementService.class);
+
+    /**
+     * 主服务放置顺序
+     */
+    private static final List<NodeRole> MASTER_ROLES = Arrays.asList(
+            NodeRole.NAMENODE, NodeRole.RESOURCEMANAGER, NodeRole.SECONDARYNAMENODE);
+
+    /**
+     * 节点数达到该值时，主服务节点不再运行DataNode和NodeManager
+     */
+    static final int DEDICATED_MASTER_MIN_NODES = 10;
+
+    /**
+     * 评分权重：内存、CPU，以及数据盘数量的扣分
+     */
+    private static final double MEMORY_WEIGHT = 0.6;
+    private static final double CPU_WEIGHT = 0.4;
+    private static final double DISK_PENALTY = 0.3;
+
+    /**
+     * 节点上每多承担一个主服务的扣分，使主服务尽量分散
+     */
+    private static final double LOAD_PENALTY = 0.5;
+
+    /**
+     * 为节点分配角色
+     *
+     * @param vmConfigs 节点连接配置
+     * @param hardware  节点硬件信息，可为null或只包含部分节点；未探测成功的节点排在最后
+     * @return 角色分配（虚拟机编号 -> 角色列表）
+     */
+    public Map<Integer, List<NodeRole>> place(List<VMConnectionConfig> vmConfigs, List<NodeHardwareInfo> hardware) {
+        Map<Integer, List<NodeRole>> assignments = new LinkedHashMap<>();
+        if (vmConfigs == null || vmConfigs.isEmpty()) {
+            return assignments;
+        }
+
+        Map<Integer, Double> scores = scoreNodes(vmConfigs, hardware);
+        Map<Integer, Integer> masterLoad = new HashMap<>();
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            assignments.put(vmConfig.getIndex(), new ArrayList<>());
+            masterLoad.put(vmConfig.getIndex(), 0);
+        }
+
+        Integer nameNodeIndex = null;
+        for (NodeRole role : MASTER_ROLES) {
+            Integer best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (VMConnectionConfig vmConfig : vmConfigs) {
+                int index = vmConfig.getIndex();
+                // SecondaryNameNode与NameNode分开放置，保留一份独立的元数据检查点
+                if (role == NodeRole.SECONDARYNAMENODE && vmConfigs.size() > 1
+                        && nameNodeIndex != null && nameNodeIndex == index) {
+                    continue;
+                }
+                double score = scores.get(index) - LOAD_PENALTY * masterLoad.get(index);
+                // 分数相同时保留编号较小的节点
+                if (score > bestScore) {
+                    best = index;
+                    bestScore = score;
+                }
+            }
+
+            assignments.get(best).add(role);
+            masterLoad.put(best, masterLoad.get(best) + 1);
+            if (role == NodeRole.NAMENODE) {
+                nameNodeIndex = best;
+            }
+        }
+
+        boolean dedicatedMasters = vmConfigs.size() >= DEDICATED_MASTER_MIN_NODES;
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            List<NodeRole> roles = assignments.get(vmConfig.getIndex());
+            if (dedicatedMasters && !roles.isEmpty()) {
+                continue;
+            }
+            roles.add(NodeRole.DATANODE);
+            roles.add(NodeRole.NODEMANAGER);
+        }
+
+        logger.info("{}个节点角色分配完成（{}）: {}", vmConfigs.size(),
+                dedicatedMasters ? "主服务独占节点" : "主服务与工作角色混合部署", assignments);
+        return assignments;
+    }
+
+    /**
+     * 计算每个节点承担主服务的评分
+     * 内存和CPU按集群内最大值归一化，数据盘越多扣分越多；未探测成功的节点评分为-1
+     */
+    private static Map<Integer, Double> scoreNodes(List<VMConnectionConfig> vmConfigs, List<NodeHardwareInfo> hardware) {
+        Map<Integer, NodeHardwareInfo> probed = new HashMap<>();
+        Set<Integer> vmIndexes = new HashSet<>();
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            vmIndexes.add(vmConfig.getIndex());
+        }
+        long maxMemoryMb = 1;
+        int maxCores = 1;
+        int maxDisks = 1;
+        if (hardware != null) {
+            for (NodeHardwareInfo info : hardware) {
+                if (info.isProbed() && vmIndexes.contains(info.getVmIndex())) {
+                    probed.put(info.getVmIndex(), info);
+                    maxMemoryMb = Math.max(maxMemoryMb, info.getMemoryMb());
+                    maxCores = Math.max(maxCores, info.getCpuCores());
+                    maxDisks = Math.max(maxDisks, dataDisks(info));
+                }
+            }
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (VMConnectionConfig vmConfig : vmConfigs) {
+            NodeHardwareInfo info = probed.get(vmConfig.getIndex());
+            if (info == null) {
+                scores.put(vmConfig.getIndex(), -1.0);
+                continue;
+            }
+            double score = MEMORY_WEIGHT * info.getMemoryMb() / maxMemoryMb
+                    + CPU_WEIGHT * info.getCpuCores() / maxCores
+                    - DISK_PENALTY * dataDisks(info) / maxDisks;
+            scores.put(vmConfig.getIndex(), score);
+        }
+        return scores;
+    }
+
+    private static int dataDisks(NodeHardwareInfo info) {
+        return info.getDataMounts().isEmpty() ? Math.max(1, info.getDiskCount()) : info.getDataMounts().size();
+    }
+}
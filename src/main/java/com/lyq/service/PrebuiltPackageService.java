@@ -0,0 +1,345 @@
+package com.lyq.service;
+
+import com.jcraft.jsch.Session;
+import com.lyq.model.CommandResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.PrebuiltPackage;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.BlockDelta;
+import com.lyq.util.ParallelUtil;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预构建安装包服务类
+ * 在工作站上把JDK和Hadoop安装包解压合并为一个可直接运行的安装目录归档（写入JAVA_HOME），
+ * 按安装包缓存，只构建一次。发送前测量各节点的链路速率和gzip解压速率，
+ * 估算"未压缩传输"和"轻量压缩传输+节点解压"两种方式的耗时，选择较快的一种
+ */
+public class PrebuiltPackageService {
+
+    private static final Logger logger = LogManager.getLogger(PrebuiltPackageService.class);
+
+    private static final String CACHE_DIR = System.getProperty("user.home") + File.separator + ".hads"
+            + File.separator + "prebuilt";
+    private static final String TREE_FILE = "install-tree.tar";
+    private static final String COMPRESSED_FILE = "install-tree.tar.gz";
+    private static final int COMPRESSION_LEVEL = 1; // 轻量压缩：工作站压缩快，节点解压速度与默认级别基本相同
+    private static final int PROBE_BYTES = 8 * 1024 * 1024; // 测速样本大小
+    private static final int PROBE_CHUNKS = 8; // 样本从归档中均匀取的段数，使压缩率接近整个归档
+    private static final int MAX_PROBE_NODES = 8; // 同时测速的节点数上限
+    private static final long PROBE_TIMEOUT_MS = 60000;
+
+    /**
+     * 在节点上计时解压样本，输出微秒数（只计解压时间，不含接收样本的时间）
+     */
+    private static final String DECOMPRESS_PROBE_COMMAND = "f=$(mktemp) && cat > $f && s=$(date +%s%N)"
+            + " && gzip -dc $f > /dev/null && e=$(date +%s%N) && rm -f $f && echo $(( (e - s) / 1000 ))";
+
+    private final SSHConnectionService sshService;
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务
+     */
+    public PrebuiltPackageService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+    }
+
+    /**
+     * 构建（或复用缓存的）安装目录归档，并根据测量结果选择传输格式
+     *
+     * @param config    部署配置（JDK和Hadoop均为本地安装包）
+     * @param vmConfigs 要安装的节点，取前几个节点测速
+     * @param callback  日志回调
+     * @return 预构建安装包
+     * @throws IllegalStateException 如果读取或构建安装包失败
+     */
+    public PrebuiltPackage prepare(DeploymentConfig config, List<VMConnectionConfig> vmConfigs,
+                                   LogCallback callback) {
+        File jdk = new File(config.getJdkConfig().getLocalFilePath());
+        File hadoop = new File(config.getHadoopConfig().getLocalFilePath());
+        PrebuiltPackage pkg = new PrebuiltPackage();
+
+        try {
+            pkg.setJdkDirName(rootDir(jdk));
+            pkg.setHadoopDirName(rootDir(hadoop));
+            if (pkg.getJdkDirName().equals(pkg.getHadoopDirName())) {
+                throw new IOException("JDK和Hadoop安装包的顶层目录相同: " + pkg.getJdkDirName());
+            }
+
+            // 写入JAVA_HOME后Hadoop目录无需再修改即可运行，各节点的配置文件仍在配置分发阶段按硬件生成
+            Map<String, String> injections = new HashMap<>();
+            injections.put(pkg.getHadoopDirName() + "/etc/hadoop/hadoop-env.sh",
+                    "\nexport JAVA_HOME=" + config.getJdkConfig().getRemoteInstallDir() + "\n");
+
+            File dir = new File(CACHE_DIR, cacheKey(jdk, hadoop, injections));
+            File tree = new File(dir, TREE_FILE);
+            if (tree.isFile()) {
+                log(callback, "复用已构建的安装目录: " + tree);
+            } else {
+                log(callback, "在本地构建安装目录（" + pkg.getJdkDirName() + " + " + pkg.getHadoopDirName() + "）...");
+                long start = System.currentTimeMillis();
+                buildTree(Arrays.asList(jdk, hadoop), injections, tree);
+                log(callback, String.format("安装目录构建完成，%dMB，耗时%dms", tree.length() / (1024 * 1024),
+                        System.currentTimeMillis() - start));
+            }
+            pkg.setInstallTreeBytes(tree.length());
+
+            pkg.setCompressed(chooseCompressed(config, vmConfigs, tree, pkg, callback));
+            File transfer = tree;
+            if (pkg.isCompressed()) {
+                transfer = new File(dir, COMPRESSED_FILE);
+                if (!transfer.isFile()) {
+                    long start = System.currentTimeMillis();
+                    compress(tree, transfer);
+                    log(callback, String.format("已压缩安装目录，%dMB，耗时%dms", transfer.length() / (1024 * 1024),
+                            System.currentTimeMillis() - start));
+                }
+            }
+            pkg.setLocalFilePath(transfer.getAbsolutePath());
+            pkg.setTransferBytes(transfer.length());
+        } catch (IOException e) {
+            throw new IllegalStateException("构建安装目录失败: " + e.getMessage(), e);
+        }
+
+        logger.info("预构建安装包: {}", pkg);
+        return pkg;
+    }
+
+    /**
+     * 测量节点的链路速率和解压速率，估算两种传输方式的耗时
+     * 每个节点的耗时按"未压缩：归档大小/链路速率"和"压缩：max(压缩后大小/链路速率, 归档大小/解压速率)"估算，
+     * 边传输边解压时两者重叠，取较慢的一项；以最慢节点的耗时比较。测速全部失败时使用压缩格式
+     */
+    private boolean chooseCompressed(DeploymentConfig config, List<VMConnectionConfig> vmConfigs, File tree,
+                                     PrebuiltPackage pkg, LogCallback callback) throws IOException {
+        byte[] sample = readSample(tree);
+        byte[] compressedSample = compress(sample);
+        double ratio = (double) compressedSample.length / sample.length;
+
+        List<VMConnectionConfig> probes = vmConfigs.subList(0, Math.min(MAX_PROBE_NODES, vmConfigs.size()));
+        log(callback, "测量" + probes.size() + "个节点的链路速率和解压速率...");
+        List<double[]> rates = ParallelUtil.runAll(probes, MAX_PROBE_NODES, PROBE_TIMEOUT_MS,
+                vmConfig -> probe(vmConfig, sample, compressedSample),
+                (vmConfig, e) -> null);
+
+        // 测速绕过了上传限速，限速时每个节点最多分到限速值的相应份额
+        double limit = config.getTransferRateLimitMbps() > 0
+                ? config.getTransferRateLimitMbps() * 1000.0 * 1000.0 / 8 / probes.size() : Double.MAX_VALUE;
+        double rawBytes = pkg.getInstallTreeBytes();
+        double compressedBytes = rawBytes * ratio;
+        double rawSeconds = -1;
+        double compressedSeconds = -1;
+        for (int i = 0; i < probes.size(); i++) {
+            double[] rate = rates.get(i);
+            if (rate == null) {
+                log(callback, "虚拟机" + probes.get(i).getIndex() + "测速失败，忽略该节点");
+                continue;
+            }
+            double link = Math.min(rate[0], limit);
+            log(callback, String.format("虚拟机%d: 链路 %.1f MB/s，gzip解压 %.1f MB/s", probes.get(i).getIndex(),
+                    link / (1024 * 1024), rate[1] / (1024 * 1024)));
+            rawSeconds = Math.max(rawSeconds, rawBytes / link);
+            compressedSeconds = Math.max(compressedSeconds, Math.max(compressedBytes / link, rawBytes / rate[1]));
+        }
+
+        if (rawSeconds < 0) {
+            log(callback, "测速失败，使用压缩格式传输");
+            return true;
+        }
+        pkg.setEstimatedRawSeconds(rawSeconds);
+        pkg.setEstimatedCompressedSeconds(compressedSeconds);
+        boolean compressed = compressedSeconds < rawSeconds;
+        log(callback, String.format("压缩率 %.0f%%，预计未压缩传输 %.1f秒，压缩传输并解压 %.1f秒，使用%s格式",
+                ratio * 100, rawSeconds, compressedSeconds, compressed ? "压缩" : "未压缩"));
+        return compressed;
+    }
+
+    /**
+     * 测量单个节点：发送未压缩样本计时得到链路速率，再在节点上计时解压压缩样本得到解压速率
+     *
+     * @return {链路字节/秒, 解压输出字节/秒}，失败时返回null
+     */
+    private double[] probe(VMConnectionConfig vmConfig, byte[] sample, byte[] compressedSample) throws Exception {
+        Session session = sshService.getSession(vmConfig);
+
+        long start = System.nanoTime();
+        CommandResult sent = sshService.executeCommandWithInput(session, "cat > /dev/null", sample,
+                PROBE_TIMEOUT_MS);
+        long elapsed = System.nanoTime() - start;
+        if (!sent.isSuccess()) {
+            return null;
+        }
+
+        CommandResult decompressed = sshService.executeCommandWithInput(session, DECOMPRESS_PROBE_COMMAND,
+                compressedSample, PROBE_TIMEOUT_MS);
+        if (!decompressed.isSuccess()) {
+            return null;
+        }
+        long micros = Math.max(1, Long.parseLong(decompressed.getOutput().trim()));
+        return new double[]{sample.length * 1e9 / elapsed, sample.length * 1e6 / micros};
+    }
+
+    /**
+     * 把多个tar.gz安装包合并为一个未压缩的tar归档，并在指定文件末尾追加内容
+     * 先写入临时文件，完成后再改名，中断的构建不会被当作缓存复用
+     */
+    private static void buildTree(List<File> tarballs, Map<String, String> injections, File target)
+            throws IOException {
+        File dir = target.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir);
+        }
+        File temp = new File(dir, target.getName() + ".tmp");
+        Map<String, String> pending = new HashMap<>(injections);
+
+        try (TarArchiveOutputStream out = new TarArchiveOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp), 1024 * 1024))) {
+            out.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            out.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+            for (File tarball : tarballs) {
+                try (TarArchiveInputStream in = openTarball(tarball)) {
+                    TarArchiveEntry entry;
+                    while ((entry = in.getNextTarEntry()) != null) {
+                        String appended = entry.isFile() ? pending.remove(entry.getName()) : null;
+                        byte[] extra = appended == null ? new byte[0] : appended.getBytes(StandardCharsets.UTF_8);
+                        entry.setSize(entry.getSize() + extra.length);
+                        out.putArchiveEntry(entry);
+                        IOUtils.copy(in, out);
+                        out.write(extra);
+                        out.closeArchiveEntry();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+
+        if (!pending.isEmpty()) {
+            logger.warn("安装包中未找到以下文件，未写入: {}", pending.keySet());
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 以轻量压缩级别压缩安装目录归档
+     */
+    private static void compress(File source, File target) throws IOException {
+        File temp = new File(target.getParentFile(), target.getName() + ".tmp");
+        try (OutputStream out = new GzipCompressorOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp), 1024 * 1024), gzipParameters())) {
+            Files.copy(source.toPath(), out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GzipCompressorOutputStream(buffer, gzipParameters())) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static GzipParameters gzipParameters() {
+        GzipParameters parameters = new GzipParameters();
+        parameters.setCompressionLevel(COMPRESSION_LEVEL);
+        return parameters;
+    }
+
+    /**
+     * 从归档中均匀读取若干段数据作为测速样本
+     */
+    private static byte[] readSample(File tree) throws IOException {
+        byte[] sample = new byte[(int) Math.min(PROBE_BYTES, tree.length())];
+        int chunk = sample.length / PROBE_CHUNKS;
+        long stride = (tree.length() - chunk) / Math.max(1, PROBE_CHUNKS - 1);
+        try (RandomAccessFile file = new RandomAccessFile(tree, "r")) {
+            for (int i = 0; i < PROBE_CHUNKS; i++) {
+                int length = i == PROBE_CHUNKS - 1 ? sample.length - chunk * i : chunk;
+                file.seek(Math.min(stride * i, tree.length() - length));
+                file.readFully(sample, chunk * i, length);
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * 读取安装包的顶层目录名
+     */
+    private static String rootDir(File tarball) throws IOException {
+        try (TarArchiveInputStream in = openTarball(tarball)) {
+            TarArchiveEntry entry = in.getNextTarEntry();
+            if (entry == null) {
+                throw new IOException("安装包为空: " + tarball);
+            }
+            String name = entry.getName();
+            int slash = name.indexOf('/');
+            return slash < 0 ? name : name.substring(0, slash);
+        }
+    }
+
+    /**
+     * 缓存目录名：安装包路径、大小、修改时间和写入内容任一变化时重新构建
+     */
+    private static String cacheKey(File jdk, File hadoop, Map<String, String> injections) {
+        StringBuilder key = new StringBuilder();
+        for (File file : Arrays.asList(jdk, hadoop)) {
+            key.append(file.getAbsolutePath()).append('|').append(file.length()).append('|')
+                    .append(file.lastModified()).append('\n');
+        }
+        key.append(injections);
+        byte[] bytes = key.toString().getBytes(StandardCharsets.UTF_8);
+        return BlockDelta.md5(bytes, 0, bytes.length);
+    }
+
+    private static TarArchiveInputStream openTarball(File tarball) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(tarball));
+        try {
+            return new TarArchiveInputStream(new GzipCompressorInputStream(in));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
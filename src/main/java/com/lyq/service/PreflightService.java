@@ -0,0 +1,322 @@
+package com.lyq.service;
+
+import com.jcraft.jsch.Session;
+import com.lyq.model.ClusterConfig;
+import com.lyq.model.CommandResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.PreflightItem;
+import com.lyq.model.PreflightLevel;
+import com.lyq.model.PreflightReport;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.ParallelUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 部署预检服务类
+ * 部署开始前在所有节点上并行执行一条批量检查脚本，检查操作系统、磁盘空间、端口占用、
+ * 时钟偏差、sudo权限和防火墙等，失败项会阻止部署
+ */
+public class PreflightService {
+
+    private static final Logger logger = LogManager.getLogger(PreflightService.class);
+
+    /**
+     * 检查脚本：每项输出一行 key=value，单项失败不影响其他项
+     * 时间戳最先采集，尽量减小时钟偏差的测量误差
+     */
+    private static final String PREFLIGHT_COMMAND =
+            "now_ms=$(date +%s%3N 2>/dev/null); " +
+            "echo now_ms=$now_ms; " +
+            "echo kernel=$(uname -s) $(uname -r); " +
+            "echo arch=$(uname -m); " +
+            "echo os=$(. /etc/os-release 2>/dev/null && echo $ID $VERSION_ID); " +
+            "echo disk_kb=$( (df -Pk /opt 2>/dev/null || df -Pk /) | awk 'NR==2{print $4}'); " +
+            "echo mem_kb=$(awk '/^MemAvailable:/{print $2}' /proc/meminfo 2>/dev/null); " +
+            "echo sudo=$(sudo -n true 2>/dev/null && echo yes || echo no); " +
+            "echo tar=$(command -v tar >/dev/null 2>&1 && echo yes || echo no); " +
+            "echo listen=$( (ss -ltnH 2>/dev/null || netstat -ltn 2>/dev/null | awk 'NR>2') " +
+            "| awk '{print $4}' | sed 's/.*://' | sort -un | tr '\\n' ' '); " +
+            "echo firewall=$( (systemctl is-active --quiet firewalld 2>/dev/null && echo firewalld) " +
+            "|| (systemctl is-active --quiet ufw 2>/dev/null && echo ufw) || echo none); " +
+            "echo selinux=$(getenforce 2>/dev/null); " +
+            "echo ntp=$(timedatectl show -p NTPSynchronized --value 2>/dev/null)";
+
+    /**
+     * Hadoop使用但未在ClusterConfig中配置的默认端口：
+     * DataNode数据传输/IPC、ResourceManager调度/资源跟踪/管理、MapReduce Shuffle
+     */
+    private static final List<Integer> DEFAULT_HADOOP_PORTS = Arrays.asList(9866, 9867, 8030, 8031, 8033, 13562);
+
+    /**
+     * 已验证的发行版
+     */
+    private static final Set<String> SUPPORTED_OS = new HashSet<>(Arrays.asList(
+            "centos", "rhel", "rocky", "almalinux", "ol", "fedora", "ubuntu", "debian", "openEuler", "kylin"));
+
+    /**
+     * 安装目录所在分区的最小可用空间（KB），低于该值安装必然失败
+     */
+    private static final long MIN_DISK_KB = 5L * 1024 * 1024;
+
+    /**
+     * 安装目录所在分区建议的可用空间（KB）
+     */
+    private static final long RECOMMENDED_DISK_KB = 20L * 1024 * 1024;
+
+    /**
+     * 建议的最小可用内存（KB）
+     */
+    private static final long RECOMMENDED_MEM_KB = 1024L * 1024;
+
+    /**
+     * 时钟偏差告警阈值和失败阈值（毫秒，已扣除测量误差）
+     * 偏差过大时YARN容器令牌会被判定为过期
+     */
+    private static final long CLOCK_SKEW_WARN_MS = 1000;
+    private static final long CLOCK_SKEW_FAIL_MS = 300000;
+
+    private static final int MAX_PARALLEL_NODES = 32;
+    private static final long PREFLIGHT_TIMEOUT_MS = 30000;
+
+    private final SSHConnectionService sshService;
+
+    /**
+     * 构造函数
+     *
+     * @param sshService SSH连接服务（共享会话缓存）
+     */
+    public PreflightService(SSHConnectionService sshService) {
+        this.sshService = sshService;
+    }
+
+    /**
+     * 并行检查所有节点
+     *
+     * @param config 部署配置
+     * @return 预检报告，无法连接的节点记为失败项
+     */
+    public PreflightReport check(DeploymentConfig config) {
+        logger.info("开始预检{}台虚拟机环境", config.getVmConfigs().size());
+
+        long startTime = System.currentTimeMillis();
+        Set<Integer> ports = requiredPorts(config.getClusterConfig());
+        List<List<PreflightItem>> results = ParallelUtil.runAll(config.getVmConfigs(), MAX_PARALLEL_NODES,
+                PREFLIGHT_TIMEOUT_MS,
+                vmConfig -> checkNode(vmConfig, config.getHostname(vmConfig.getIndex()), ports),
+                (vmConfig, e) -> Collections.singletonList(new PreflightItem(vmConfig.getIndex(),
+                        config.getHostname(vmConfig.getIndex()), "SSH连接", PreflightLevel.FAILURE,
+                        "无法执行预检: " + e.getMessage())));
+
+        PreflightReport report = new PreflightReport();
+        for (List<PreflightItem> items : results) {
+            report.getItems().addAll(items);
+        }
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        logger.info("预检完成: {}", report);
+        return report;
+    }
+
+    /**
+     * 检查单个节点
+     *
+     * @param vmConfig 虚拟机连接配置
+     * @param hostname 主机名
+     * @param ports    需要空闲的端口
+     * @return 检查结果
+     * @throws Exception 建立会话失败时抛出异常
+     */
+    public List<PreflightItem> checkNode(VMConnectionConfig vmConfig, String hostname, Set<Integer> ports)
+            throws Exception {
+        Session session = sshService.getSession(vmConfig);
+        long localStart = System.currentTimeMillis();
+        CommandResult result = sshService.executeCommandWithLog(session, PREFLIGHT_COMMAND, null);
+        long localEnd = System.currentTimeMillis();
+
+        if (!result.isSuccess()) {
+            return Collections.singletonList(new PreflightItem(vmConfig.getIndex(), hostname, "SSH连接",
+                    PreflightLevel.FAILURE, "预检脚本执行失败: " + result.getError()));
+        }
+        return evaluate(vmConfig.getIndex(), hostname, parseOutput(result.getOutput()), localStart, localEnd, ports);
+    }
+
+    /**
+     * Hadoop守护进程需要监听的端口
+     *
+     * @param clusterConfig 集群配置
+     * @return 端口集合（升序）
+     */
+    static Set<Integer> requiredPorts(ClusterConfig clusterConfig) {
+        ClusterConfig ports = clusterConfig != null ? clusterConfig : new ClusterConfig();
+        Set<Integer> result = new TreeSet<>(DEFAULT_HADOOP_PORTS);
+        result.addAll(Arrays.asList(ports.getNameNodePort(), ports.getNameNodeHttpPort(),
+                ports.getSecondaryNameNodeHttpPort(), ports.getResourceManagerPort(),
+                ports.getResourceManagerWebPort(), ports.getDataNodeHttpPort(), ports.getNodeManagerWebPort(),
+                ports.getNodeManagerPort()));
+        return result;
+    }
+
+    /**
+     * 解析检查脚本的输出
+     *
+     * @param output 脚本输出
+     * @return 检查值（key -> value，空值不记录）
+     */
+    static Map<String, String> parseOutput(String output) {
+        Map<String, String> values = new HashMap<>();
+        for (String line : output.split("\n")) {
+            int index = line.indexOf('=');
+            if (index > 0 && !line.substring(index + 1).trim().isEmpty()) {
+                values.put(line.substring(0, index).trim(), line.substring(index + 1).trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 根据检查值判定各检查项
+     * 无法检测的项记为警告，只有确定会导致部署失败的项记为失败
+     *
+     * @param vmIndex    虚拟机编号
+     * @param hostname   主机名
+     * @param values     检查值
+     * @param localStart 本地发出命令的时间
+     * @param localEnd   本地收到结果的时间
+     * @param ports      需要空闲的端口
+     * @return 检查结果
+     */
+    static List<PreflightItem> evaluate(int vmIndex, String hostname, Map<String, String> values,
+                                        long localStart, long localEnd, Set<Integer> ports) {
+        List<PreflightItem> items = new ArrayList<>();
+
+        // 操作系统
+        String kernel = values.get("kernel");
+        String os = values.get("os");
+        if (kernel != null && !kernel.startsWith("Linux")) {
+            items.add(item(vmIndex, hostname, "操作系统", PreflightLevel.FAILURE, "不支持的系统: " + kernel));
+        } else if (os == null || !SUPPORTED_OS.contains(os.split(" ")[0])) {
+            items.add(item(vmIndex, hostname, "操作系统", PreflightLevel.WARNING,
+                    "未验证的发行版: " + (os != null ? os : "无法识别")));
+        } else {
+            items.add(item(vmIndex, hostname, "操作系统", PreflightLevel.PASS, os + "，" + kernel));
+        }
+
+        String arch = values.get("arch");
+        if (!"x86_64".equals(arch)) {
+            items.add(item(vmIndex, hostname, "CPU架构", PreflightLevel.WARNING,
+                    (arch != null ? arch : "无法识别") + "，预置安装包为x86_64版本"));
+        } else {
+            items.add(item(vmIndex, hostname, "CPU架构", PreflightLevel.PASS, arch));
+        }
+
+        // 磁盘和内存
+        long diskKb = parseLong(values.get("disk_kb"));
+        if (diskKb < 0) {
+            items.add(item(vmIndex, hostname, "磁盘空间", PreflightLevel.WARNING, "无法检测/opt可用空间"));
+        } else {
+            PreflightLevel level = diskKb < MIN_DISK_KB ? PreflightLevel.FAILURE
+                    : diskKb < RECOMMENDED_DISK_KB ? PreflightLevel.WARNING : PreflightLevel.PASS;
+            items.add(item(vmIndex, hostname, "磁盘空间", level, "/opt可用" + diskKb / 1024 / 1024 + "GB"
+                    + (level == PreflightLevel.PASS ? "" : "，至少需要" + MIN_DISK_KB / 1024 / 1024
+                    + "GB，建议" + RECOMMENDED_DISK_KB / 1024 / 1024 + "GB")));
+        }
+
+        long memKb = parseLong(values.get("mem_kb"));
+        if (memKb >= 0) {
+            items.add(item(vmIndex, hostname, "可用内存",
+                    memKb < RECOMMENDED_MEM_KB ? PreflightLevel.WARNING : PreflightLevel.PASS,
+                    "可用" + memKb / 1024 + "MB"));
+        }
+
+        // 权限和工具
+        items.add(yesNo(vmIndex, hostname, "sudo权限", values.get("sudo"),
+                "可免密执行sudo", "无法免密执行sudo，请在sudoers中为部署用户配置NOPASSWD"));
+        items.add(yesNo(vmIndex, hostname, "tar命令", values.get("tar"),
+                "已安装", "未安装tar，无法解压安装包"));
+
+        // 端口占用
+        String listen = values.get("listen");
+        if (listen == null) {
+            items.add(item(vmIndex, hostname, "端口占用", PreflightLevel.WARNING, "无法检测监听端口（缺少ss和netstat）"));
+        } else {
+            List<Integer> busy = new ArrayList<>();
+            for (String port : listen.split("\\s+")) {
+                long value = parseLong(port);
+                if (ports.contains((int) value)) {
+                    busy.add((int) value);
+                }
+            }
+            items.add(busy.isEmpty()
+                    ? item(vmIndex, hostname, "端口占用", PreflightLevel.PASS, "Hadoop端口均未被占用")
+                    : item(vmIndex, hostname, "端口占用", PreflightLevel.FAILURE,
+                    "端口已被占用: " + busy + "，请停止占用端口的进程（包括已运行的Hadoop）"));
+        }
+
+        // 时钟偏差：以本地往返的中点为参照，扣除一半往返时间作为测量误差
+        long remoteMs = parseLong(values.get("now_ms"));
+        if (remoteMs < 0) {
+            items.add(item(vmIndex, hostname, "时钟同步", PreflightLevel.WARNING, "无法读取节点时间"));
+        } else {
+            long skew = remoteMs - (localStart + localEnd) / 2;
+            long error = Math.abs(skew) - (localEnd - localStart) / 2;
+            PreflightLevel level = error > CLOCK_SKEW_FAIL_MS ? PreflightLevel.FAILURE
+                    : error > CLOCK_SKEW_WARN_MS ? PreflightLevel.WARNING : PreflightLevel.PASS;
+            String ntp = values.get("ntp");
+            if (level == PreflightLevel.PASS && "no".equals(ntp)) {
+                level = PreflightLevel.WARNING;
+            }
+            items.add(item(vmIndex, hostname, "时钟同步", level, "与本机偏差" + skew + "ms"
+                    + ("no".equals(ntp) ? "，未启用NTP同步" : "")));
+        }
+
+        // 防火墙和SELinux
+        String firewall = values.get("firewall");
+        if (firewall != null && !"none".equals(firewall)) {
+            items.add(item(vmIndex, hostname, "防火墙", PreflightLevel.WARNING,
+                    firewall + "已启用，请放行Hadoop端口" + ports + "或关闭防火墙"));
+        } else {
+            items.add(item(vmIndex, hostname, "防火墙", PreflightLevel.PASS, "未启用"));
+        }
+        if ("Enforcing".equals(values.get("selinux"))) {
+            items.add(item(vmIndex, hostname, "SELinux", PreflightLevel.WARNING, "处于Enforcing模式，可能拦截守护进程"));
+        }
+
+        return items;
+    }
+
+    private static PreflightItem yesNo(int vmIndex, String hostname, String name, String value,
+                                       String passMessage, String failMessage) {
+        if (value == null) {
+            return item(vmIndex, hostname, name, PreflightLevel.WARNING, "无法检测");
+        }
+        return "yes".equals(value)
+                ? item(vmIndex, hostname, name, PreflightLevel.PASS, passMessage)
+                : item(vmIndex, hostname, name, PreflightLevel.FAILURE, failMessage);
+    }
+
+    private static PreflightItem item(int vmIndex, String hostname, String name, PreflightLevel level,
+                                      String message) {
+        return new PreflightItem(vmIndex, hostname, name, level, message);
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
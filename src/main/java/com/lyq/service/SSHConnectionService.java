@@ -7,17 +7,27 @@ import com.lyq.model.ConnectionResult;
 import com.lyq.model.ConnectionStatus;
 import com.lyq.model.VMConnectionConfig;
 import com.lyq.util.NetworkUtil;
+import com.lyq.util.ParallelUtil;
 import com.lyq.util.SSHUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
 import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * SSH连接服务类
@@ -39,6 +49,36 @@ public class SSHConnectionService {
      */
     private static final int MAX_RECONNECT_ATTEMPTS = 3;
 
+    /**
+     * 批量测试连接时的最大并发数
+     */
+    private static final int MAX_PARALLEL_TESTS = 32;
+
+    /**
+     * 直接连接SSH端口的超时时间（毫秒）
+     */
+    private static final int SSH_CONNECT_TIMEOUT_MS = 3000;
+
+    /**
+     * SSH端口无响应时，并发诊断探测的整体截止时间（毫秒）
+     */
+    private static final int DIAGNOSE_TIMEOUT_MS = 2000;
+
+    /**
+     * 为带标准输入的命令执行截止时间，到期时关闭命令通道
+     */
+    private static final ScheduledExecutorService COMMAND_TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "hads-command-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * 诊断时探测的常见端口，任一端口有响应即说明主机在线
+     */
+    private static final List<Integer> DIAGNOSE_PORTS = Arrays.asList(80, 443, 9870, 8088);
+
     /**
      * 测试单个虚拟机连接
      * 
@@ -53,31 +93,15 @@ public class SSHConnectionService {
         int vmIndex = config.getIndex();
 
         try {
-            // 步骤1: 检查网络可达性
-            logger.debug("检查网络可达性: {}", vmIp);
-            if (!NetworkUtil.isReachable(vmIp, 5000)) {
-                logger.warn("虚拟机{}网络不可达", vmIp);
-                return ConnectionResult.failure(
-                        vmIndex,
-                        vmIp,
-                        ConnectionStatus.NETWORK_UNREACHABLE,
-                        "网络不通，请检查IP地址和网络配置",
-                        null);
-            }
-
-            // 步骤2: 检查SSH端口
+            // 步骤1: 直接连接SSH端口，失败时再诊断原因
             logger.debug("检查SSH端口: {}:{}", vmIp, config.getSshPort());
-            if (!NetworkUtil.isPortOpen(vmIp, config.getSshPort(), 5000)) {
-                logger.warn("虚拟机{}的SSH端口{}未开放", vmIp, config.getSshPort());
-                return ConnectionResult.failure(
-                        vmIndex,
-                        vmIp,
-                        ConnectionStatus.SSH_SERVICE_DOWN,
-                        "SSH服务未启动，请在虚拟机中启动sshd服务",
-                        null);
+            try {
+                NetworkUtil.connect(vmIp, config.getSshPort(), SSH_CONNECT_TIMEOUT_MS);
+            } catch (IOException e) {
+                return diagnoseConnectFailure(config, e);
             }
 
-            // 步骤3: 尝试SSH连接
+            // 步骤2: 尝试SSH连接
             logger.debug("尝试建立SSH连接: {}", vmIp);
             Session session = SSHUtil.createSession(
                     vmIp,
@@ -91,7 +115,7 @@ public class SSHConnectionService {
             // 连接
             session.connect();
 
-            // 步骤4: 执行测试命令验证连接
+            // 步骤3: 执行测试命令验证连接
             logger.debug("执行测试命令验证连接: {}", vmIp);
             String testResult = SSHUtil.executeCommand(session, "echo 'connection_test'");
 
@@ -106,7 +130,7 @@ public class SSHConnectionService {
                         "测试命令执行失败");
             }
 
-            // 步骤5: 缓存会话
+            // 步骤4: 缓存会话
             sessionCache.put(vmIp, session);
 
             long responseTime = System.currentTimeMillis() - startTime;
@@ -177,6 +201,60 @@ public class SSHConnectionService {
         }
     }
 
+    /**
+     * 诊断SSH端口连接失败的原因
+     * 端口拒绝连接说明主机在线但sshd未启动；无响应时在同一截止时间内并发执行
+     * ICMP探测和常见端口探测，区分防火墙拦截与网络不可达
+     *
+     * @param config 虚拟机连接配置
+     * @param error  连接SSH端口时的异常
+     * @return 连接测试结果
+     */
+    private ConnectionResult diagnoseConnectFailure(VMConnectionConfig config, IOException error) {
+        String vmIp = config.getIp();
+        int vmIndex = config.getIndex();
+
+        if (error instanceof ConnectException) {
+            logger.warn("虚拟机{}的SSH端口{}拒绝连接", vmIp, config.getSshPort());
+            return ConnectionResult.failure(
+                    vmIndex,
+                    vmIp,
+                    ConnectionStatus.SSH_SERVICE_DOWN,
+                    "SSH服务未启动，请在虚拟机中启动sshd服务",
+                    error.getMessage());
+        }
+
+        if (!(error instanceof NoRouteToHostException) && !(error instanceof UnknownHostException)) {
+            // -1表示ICMP探测，其余为TCP端口探测
+            List<Integer> probes = new ArrayList<>();
+            probes.add(-1);
+            probes.addAll(DIAGNOSE_PORTS);
+            List<Boolean> responses = ParallelUtil.runAll(probes, probes.size(), DIAGNOSE_TIMEOUT_MS,
+                    port -> port < 0
+                            ? NetworkUtil.isReachable(vmIp, DIAGNOSE_TIMEOUT_MS)
+                            : NetworkUtil.isHostResponding(vmIp, port, DIAGNOSE_TIMEOUT_MS),
+                    (port, e) -> false);
+
+            if (responses.contains(Boolean.TRUE)) {
+                logger.warn("虚拟机{}在线，但SSH端口{}无响应", vmIp, config.getSshPort());
+                return ConnectionResult.failure(
+                        vmIndex,
+                        vmIp,
+                        ConnectionStatus.TIMEOUT,
+                        "主机在线，但SSH端口" + config.getSshPort() + "无响应，请检查防火墙设置",
+                        error.getMessage());
+            }
+        }
+
+        logger.warn("虚拟机{}网络不可达: {}", vmIp, error.getMessage());
+        return ConnectionResult.failure(
+                vmIndex,
+                vmIp,
+                ConnectionStatus.NETWORK_UNREACHABLE,
+                "网络不通，请检查IP地址和网络配置",
+                error.getMessage());
+    }
+
     /**
      * 批量测试所有虚拟机连接
      * 
@@ -186,12 +264,17 @@ public class SSHConnectionService {
     public List<ConnectionResult> testAllConnections(List<VMConnectionConfig> configs) {
         logger.info("开始批量测试{}台虚拟机连接", configs.size());
 
-        List<ConnectionResult> results = new ArrayList<>();
-
+        // 节点较多时分多轮并发测试，整体截止时间按轮数和最长的连接超时放宽
+        long nodeTimeout = 0;
         for (VMConnectionConfig config : configs) {
-            ConnectionResult result = testConnection(config);
-            results.add(result);
+            nodeTimeout = Math.max(nodeTimeout, SSH_CONNECT_TIMEOUT_MS + DIAGNOSE_TIMEOUT_MS + 2L * config.getTimeout());
         }
+        int rounds = (configs.size() + MAX_PARALLEL_TESTS - 1) / MAX_PARALLEL_TESTS;
+        List<ConnectionResult> results = ParallelUtil.runAll(configs, MAX_PARALLEL_TESTS,
+                Math.max(1, rounds) * nodeTimeout,
+                this::testConnection,
+                (config, e) -> ConnectionResult.failure(config.getIndex(), config.getIp(),
+                        ConnectionStatus.TIMEOUT, "连接测试超时", e.getMessage()));
 
         // 统计结果
         long successCount = results.stream()
@@ -506,6 +589,135 @@ public class SSHConnectionService {
         }
     }
 
+    /**
+     * 执行命令并通过标准输入发送数据
+     * 用于一次往返完成"传输+处理"，例如将归档直接管道给远程 tar 解压，
+     * 避免先SFTP上传再执行命令的额外往返
+     *
+     * @param session       SSH会话
+     * @param command       要执行的命令（从标准输入读取数据）
+     * @param input         发送到标准输入的数据
+     * @param timeoutMillis 截止时间（毫秒），超时后关闭通道，小于等于0表示不限制
+     * @return 命令执行结果
+     */
+    public com.lyq.model.CommandResult executeCommandWithInput(Session session, String command, byte[] input,
+                                                               long timeoutMillis) {
+        logger.info("执行命令（标准输入{}字节）: {}", input.length, command);
+        return runWithInput(session, command, new java.io.ByteArrayInputStream(input), timeoutMillis);
+    }
+
+    /**
+     * 执行命令并把输入流的全部数据发送到标准输入
+     * 用于大文件边传输边处理，例如把安装目录归档直接管道给 tar，数据不在本地内存中缓存
+     *
+     * @param session       SSH会话
+     * @param command       要执行的命令（从标准输入读取数据）
+     * @param input         发送到标准输入的数据流（由调用方关闭）
+     * @param timeoutMillis 截止时间（毫秒），超时后关闭通道，小于等于0表示不限制
+     * @return 命令执行结果
+     */
+    public com.lyq.model.CommandResult executeCommandWithInput(Session session, String command,
+                                                               java.io.InputStream input, long timeoutMillis) {
+        logger.info("执行命令（标准输入为数据流）: {}", command);
+        return runWithInput(session, command, input, timeoutMillis);
+    }
+
+    /**
+     * 截止时间由定时任务关闭通道实现：远程命令不再读取标准输入时，JSch的写入会一直等待窗口且不响应中断，
+     * 只有关闭通道才能让写入失败返回
+     */
+    private com.lyq.model.CommandResult runWithInput(Session session, String command, java.io.InputStream input,
+                                                     long timeoutMillis) {
+        com.jcraft.jsch.ChannelExec execChannel = null;
+        ScheduledFuture<?> watchdog = null;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        long startTime = System.currentTimeMillis();
+
+        try {
+            execChannel = (com.jcraft.jsch.ChannelExec) session.openChannel("exec");
+            execChannel.setCommand(command);
+
+            // 输出直接写入内存缓冲，避免管道缓冲区写满阻塞会话线程
+            java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream();
+            java.io.ByteArrayOutputStream error = new java.io.ByteArrayOutputStream();
+            execChannel.setOutputStream(output);
+            execChannel.setErrStream(error);
+
+            java.io.OutputStream stdin = execChannel.getOutputStream();
+            execChannel.connect();
+            if (timeoutMillis > 0) {
+                com.jcraft.jsch.ChannelExec channel = execChannel;
+                watchdog = COMMAND_TIMEOUT_SCHEDULER.schedule(() -> {
+                    timedOut.set(true);
+                    channel.disconnect();
+                }, timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            // 远程命令提前退出时写入会失败，此时仍等待通道关闭以取得退出码和错误输出
+            java.io.IOException writeError = null;
+            try {
+                byte[] buffer = new byte[64 * 1024];
+                int n;
+                while ((n = input.read(buffer)) != -1) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    stdin.write(buffer, 0, n);
+                }
+                stdin.flush();
+            } catch (java.io.IOException e) {
+                writeError = e;
+            } finally {
+                // 关闭标准输入，远程命令收到EOF
+                try {
+                    stdin.close();
+                } catch (java.io.IOException e) {
+                    logger.debug("关闭标准输入失败: {}", e.getMessage());
+                }
+            }
+
+            while (!execChannel.isClosed()) {
+                Thread.sleep(10);
+            }
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            if (timedOut.get()) {
+                logger.error("命令执行超时（{}ms）: {}", timeoutMillis, command);
+                return com.lyq.model.CommandResult.failure(command, "命令执行超时（" + timeoutMillis + "ms）");
+            }
+
+            int exitCode = execChannel.getExitStatus();
+            logger.info("命令执行完成，退出码: {}, 耗时: {}ms", exitCode, executionTime);
+
+            if (writeError != null && exitCode == 0) {
+                return com.lyq.model.CommandResult.failure(command, "发送数据失败: " + writeError.getMessage());
+            }
+            return new com.lyq.model.CommandResult(
+                    command,
+                    exitCode,
+                    output.toString("UTF-8"),
+                    error.toString("UTF-8"),
+                    executionTime,
+                    exitCode == 0);
+
+        } catch (InterruptedException e) {
+            // 调用方取消（如并行任务超时），恢复中断标志，由finally关闭通道
+            Thread.currentThread().interrupt();
+            logger.warn("命令执行被中断: {}", command);
+            return com.lyq.model.CommandResult.failure(command, "命令执行被中断");
+        } catch (Exception e) {
+            logger.error("命令执行失败: {}", command, e);
+            return com.lyq.model.CommandResult.failure(command, e.getMessage());
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (execChannel != null && execChannel.isConnected()) {
+                execChannel.disconnect();
+            }
+        }
+    }
+
     /**
      * 批量执行命令
      * 
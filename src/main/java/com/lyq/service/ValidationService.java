@@ -164,7 +164,8 @@ public class ValidationService {
 
     /**
      * 验证角色配置
-     * 检查必需角色（NameNode、ResourceManager、SecondaryNameNode）是否已分配
+     * 检查必需角色（NameNode、ResourceManager、SecondaryNameNode）是否已分配，
+     * 以及除独占的主服务节点外每台虚拟机都承担DataNode
      * 
      * @param roleAssignments 角色分配映射（虚拟机编号 -> 角色列表）
      * @throws ValidationException 如果角色配置不合理
@@ -217,17 +218,32 @@ public class ValidationService {
                     "missing SecondaryNameNode");
         }
 
-        // 验证所有虚拟机都有DataNode角色
-        for (int i = 1; i <= 3; i++) {
-            java.util.List<com.lyq.model.NodeRole> roles = roleAssignments.get(i);
-            if (roles == null || !roles.contains(com.lyq.model.NodeRole.DATANODE)) {
+        // 验证所有虚拟机都有DataNode角色（只承担主服务的独占节点除外）
+        int dataNodeCount = 0;
+        for (java.util.Map.Entry<Integer, java.util.List<com.lyq.model.NodeRole>> entry : roleAssignments.entrySet()) {
+            java.util.List<com.lyq.model.NodeRole> roles = entry.getValue();
+            if (roles != null && roles.contains(com.lyq.model.NodeRole.DATANODE)) {
+                dataNodeCount++;
+                continue;
+            }
+            boolean dedicatedMaster = roles != null && (roles.contains(com.lyq.model.NodeRole.NAMENODE)
+                    || roles.contains(com.lyq.model.NodeRole.RESOURCEMANAGER)
+                    || roles.contains(com.lyq.model.NodeRole.SECONDARYNAMENODE));
+            if (!dedicatedMaster) {
                 throw new ValidationException(
-                        "虚拟机" + i + "必须包含DataNode角色",
+                        "虚拟机" + entry.getKey() + "必须包含DataNode角色",
                         "roleAssignments",
-                        "missing DataNode on VM" + i);
+                        "missing DataNode on VM" + entry.getKey());
             }
         }
 
+        if (dataNodeCount == 0) {
+            throw new ValidationException(
+                    "必须为至少一台虚拟机分配DataNode角色",
+                    "roleAssignments",
+                    "missing DataNode");
+        }
+
         logger.info("角色配置验证通过");
     }
 }
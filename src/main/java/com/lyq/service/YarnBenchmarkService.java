@@ -0,0 +1,388 @@
+package com.lyq.service;
+
+import com.lyq.model.BenchmarkReport;
+import com.lyq.model.BenchmarkResult;
+import com.lyq.model.DeploymentConfig;
+import com.lyq.model.NodeRole;
+import com.lyq.model.VMConnectionConfig;
+import com.lyq.util.LatencyRecorder;
+import com.lyq.util.NetworkUtil;
+import com.lyq.util.ParallelUtil;
+import org.apache.hadoop.net.NetUtils;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.security.token.Token;
+import org.apache.hadoop.yarn.api.records.ApplicationAttemptId;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationSubmissionContext;
+import org.apache.hadoop.yarn.api.records.Container;
+import org.apache.hadoop.yarn.api.records.ContainerId;
+import org.apache.hadoop.yarn.api.records.ContainerLaunchContext;
+import org.apache.hadoop.yarn.api.records.ContainerStatus;
+import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.api.records.NodeReport;
+import org.apache.hadoop.yarn.api.records.NodeState;
+import org.apache.hadoop.yarn.api.records.Priority;
+import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.api.records.YarnApplicationAttemptState;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.api.protocolrecords.AllocateResponse;
+import org.apache.hadoop.yarn.client.api.AMRMClient;
+import org.apache.hadoop.yarn.client.api.NMClient;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.apache.hadoop.yarn.security.AMRMTokenIdentifier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.security.PrivilegedExceptionAction;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * YARN基准测试服务类
+ * 工作站以非托管ApplicationMaster的身份向部署好的ResourceManager提交应用，
+ * 一次申请一批只执行 true 命令的容器，测量容器调度延迟、启动耗时和每秒完成的容器数，
+ * 用于评估yarnMemory、vcores和调度器配置是否合适
+ */
+public class YarnBenchmarkService {
+
+    private static final Logger logger = LogManager.getLogger(YarnBenchmarkService.class);
+
+    /**
+     * 申请的容器资源，ResourceManager会按最小分配量向上取整
+     */
+    private static final int CONTAINER_MEMORY_MB = 128;
+    private static final int CONTAINER_VCORES = 1;
+
+    /**
+     * ApplicationMaster心跳间隔（毫秒）
+     */
+    private static final long HEARTBEAT_INTERVAL_MS = 100;
+
+    /**
+     * 等待应用被接受的超时时间（毫秒）
+     */
+    private static final long SUBMIT_TIMEOUT_MS = 30000;
+
+    /**
+     * 并发启动容器的线程数
+     */
+    private static final int LAUNCH_THREADS = 8;
+
+    /**
+     * 容器调度的99分位延迟超过该值（毫秒）时提示检查调度器配置
+     */
+    static final double SCHEDULING_P99_WARNING_MS = 5000;
+
+    /**
+     * 测试前检查ResourceManager端口的连接超时时间（毫秒）
+     */
+    private static final int PROBE_TIMEOUT_MS = 3000;
+
+    /**
+     * 提交一批容器并测量调度和启动性能
+     *
+     * @param config         部署配置
+     * @param containerCount 容器数量
+     * @param timeoutMillis  等待所有容器完成的超时时间（毫秒）
+     * @param callback       进度回调，可为null
+     * @return 测试报告，包含"容器调度"、"容器启动"和"容器完成"三项结果
+     * @throws IOException 如果无法连接ResourceManager或应用提交失败
+     */
+    public BenchmarkReport runContainerLaunch(DeploymentConfig config, int containerCount, long timeoutMillis,
+                                              LogCallback callback) throws IOException {
+        List<VMConnectionConfig> resourceManagers = config.getVmConfigsWithRole(NodeRole.RESOURCEMANAGER);
+        if (resourceManagers.isEmpty()) {
+            throw new IllegalStateException("未分配ResourceManager角色");
+        }
+        VMConnectionConfig resourceManager = resourceManagers.get(0);
+        int port = config.getClusterConfig().getResourceManagerPort();
+
+        // YARN客户端在ResourceManager不可用时会反复重试数分钟，先确认端口可以连接
+        try {
+            NetworkUtil.connect(resourceManager.getIp(), port, PROBE_TIMEOUT_MS);
+        } catch (IOException e) {
+            throw new IOException("无法连接ResourceManager " + resourceManager.getIp() + ":" + port + ": "
+                    + e.getMessage(), e);
+        }
+
+        BenchmarkReport report = new BenchmarkReport("YARN");
+        report.setStartTime(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        report.setTarget(resourceManager.getIp() + ":" + port);
+        report.getParameters().put("containerCount", String.valueOf(containerCount));
+        report.getParameters().put("containerMemoryMb", String.valueOf(CONTAINER_MEMORY_MB));
+        report.getParameters().put("containerVcores", String.valueOf(CONTAINER_VCORES));
+
+        // 容器分配结果中的NodeManager地址是集群内部主机名，工作站上按配置的IP解析
+        for (VMConnectionConfig vmConfig : config.getVmConfigs()) {
+            NetUtils.addStaticResolution(config.getHostname(vmConfig.getIndex()), vmConfig.getIp());
+        }
+
+        YarnConfiguration conf = clientConfiguration(config, resourceManager.getIp());
+        UserGroupInformation user = UserGroupInformation.createRemoteUser(resourceManager.getUsername());
+        long startTime = System.currentTimeMillis();
+
+        try {
+            YarnClient yarnClient = user.doAs((PrivilegedExceptionAction<YarnClient>) () -> {
+                YarnClient client = YarnClient.createYarnClient();
+                client.init(conf);
+                client.start();
+                return client;
+            });
+            try {
+                ApplicationId appId = submitUnmanagedApplication(yarnClient);
+                long registerMillis = System.currentTimeMillis() - startTime;
+                log(callback, "应用" + appId + "已接受（" + registerMillis + "ms），申请" + containerCount + "个容器...");
+
+                Token<AMRMTokenIdentifier> token = yarnClient.getAMRMToken(appId);
+                user.addToken(token);
+                user.doAs((PrivilegedExceptionAction<Void>) () -> {
+                    runContainers(conf, containerCount, timeoutMillis, report, callback);
+                    return null;
+                });
+
+                BenchmarkResult completed = report.getResult("容器完成");
+                long memoryMb = completed.getDetails().get("单容器内存(MB)").longValue();
+                int vcores = completed.getDetails().get("单容器vcores").intValue();
+                int capacity = clusterCapacity(yarnClient, memoryMb, vcores);
+                completed.getDetails().put("AM注册耗时(ms)", (double) registerMillis);
+                completed.getDetails().put("集群容量(容器数)", (double) capacity);
+                if (capacity >= 0 && capacity < containerCount) {
+                    report.getWarnings().add("集群一次最多运行" + capacity + "个" + memoryMb + "MB容器，少于申请的"
+                            + containerCount + "个，可考虑增大yarnMemory或NodeManager vcores");
+                }
+            } finally {
+                yarnClient.stop();
+            }
+        } catch (YarnException e) {
+            throw new IOException("YARN测试失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("YARN测试被中断", e);
+        }
+
+        for (BenchmarkResult result : report.getResults()) {
+            if (result.getFailures() > 0) {
+                report.getWarnings().add(result.getOperation() + "失败" + result.getFailures() + "次");
+            }
+        }
+        BenchmarkResult scheduling = report.getResult("容器调度");
+        if (scheduling != null && scheduling.getP99LatencyMs() > SCHEDULING_P99_WARNING_MS) {
+            report.getWarnings().add(String.format("容器调度p99延迟为%.0fms，可检查调度器队列容量和NodeManager心跳间隔",
+                    scheduling.getP99LatencyMs()));
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        logger.info("YARN容器测试完成: {}", report);
+        return report;
+    }
+
+    /**
+     * 工作站客户端配置：直接使用ResourceManager的IP，并缩短连接重试
+     */
+    static YarnConfiguration clientConfiguration(DeploymentConfig config, String resourceManagerIp) {
+        YarnConfiguration conf = new YarnConfiguration();
+        conf.set(YarnConfiguration.RM_HOSTNAME, resourceManagerIp);
+        conf.set(YarnConfiguration.RM_ADDRESS, resourceManagerIp + ":"
+                + config.getClusterConfig().getResourceManagerPort());
+        conf.setLong(YarnConfiguration.RESOURCEMANAGER_CONNECT_MAX_WAIT_MS, 30000);
+        conf.setLong(YarnConfiguration.RESOURCEMANAGER_CONNECT_RETRY_INTERVAL_MS, 1000);
+        conf.setInt("ipc.client.connect.max.retries", 3);
+        conf.setInt("ipc.client.connect.timeout", 5000);
+        return conf;
+    }
+
+    /**
+     * 集群一次能同时运行的测试容器数，按各运行中NodeManager的内存和vcores估算
+     *
+     * @param memoryMb 单个容器实际分配的内存（MB）
+     * @param vcores   单个容器实际分配的vcores
+     * @return 容器数，无法获取节点信息时返回-1
+     */
+    private int clusterCapacity(YarnClient yarnClient, long memoryMb, int vcores) {
+        try {
+            int capacity = 0;
+            for (NodeReport node : yarnClient.getNodeReports(NodeState.RUNNING)) {
+                Resource resource = node.getCapability();
+                capacity += (int) Math.min(resource.getMemorySize() / Math.max(1, memoryMb),
+                        resource.getVirtualCores() / Math.max(1, vcores));
+            }
+            return capacity;
+        } catch (YarnException | IOException e) {
+            logger.warn("获取NodeManager资源失败: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 提交非托管应用并等待其尝试进入LAUNCHED状态，此后工作站即可作为ApplicationMaster注册
+     */
+    private ApplicationId submitUnmanagedApplication(YarnClient yarnClient)
+            throws IOException, YarnException, InterruptedException {
+        ApplicationSubmissionContext context = yarnClient.createApplication().getApplicationSubmissionContext();
+        context.setApplicationName("hads-container-benchmark");
+        context.setApplicationType("HADS-BENCHMARK");
+        context.setUnmanagedAM(true);
+        context.setAMContainerSpec(ContainerLaunchContext.newInstance(Collections.emptyMap(),
+                Collections.emptyMap(), null, null, null, null));
+        ApplicationId appId = yarnClient.submitApplication(context);
+
+        long deadline = System.currentTimeMillis() + SUBMIT_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            YarnApplicationState state = yarnClient.getApplicationReport(appId).getYarnApplicationState();
+            if (state == YarnApplicationState.FAILED || state == YarnApplicationState.KILLED) {
+                throw new IOException("应用" + appId + "提交失败: " + state);
+            }
+            ApplicationAttemptId attemptId = yarnClient.getApplicationReport(appId).getCurrentApplicationAttemptId();
+            if (attemptId != null && yarnClient.getApplicationAttemptReport(attemptId)
+                    .getYarnApplicationAttemptState() == YarnApplicationAttemptState.LAUNCHED) {
+                return appId;
+            }
+            Thread.sleep(HEARTBEAT_INTERVAL_MS);
+        }
+
+        yarnClient.killApplication(appId);
+        throw new IOException("应用" + appId + "在" + SUBMIT_TIMEOUT_MS / 1000 + "秒内未被接受");
+    }
+
+    /**
+     * 以ApplicationMaster身份申请、启动容器并等待全部完成
+     * 调度延迟从发出申请到分配成功，启动耗时为NodeManager接受启动请求的耗时，
+     * 完成耗时从分配成功到ResourceManager报告容器结束
+     */
+    private void runContainers(YarnConfiguration conf, int containerCount, long timeoutMillis,
+                               BenchmarkReport report, LogCallback callback) throws IOException, YarnException {
+        LatencyRecorder scheduling = new LatencyRecorder();
+        LatencyRecorder launching = new LatencyRecorder();
+        LatencyRecorder lifetime = new LatencyRecorder();
+        Map<ContainerId, Long> allocatedAt = new ConcurrentHashMap<>();
+        AtomicInteger launchFailures = new AtomicInteger();
+        int allocated = 0;
+        int finished = 0;
+        int failures = 0;
+        int peakRunning = 0;
+        Resource allocatedSize = Resource.newInstance(CONTAINER_MEMORY_MB, CONTAINER_VCORES);
+
+        AMRMClient<AMRMClient.ContainerRequest> amrmClient = AMRMClient.createAMRMClient();
+        amrmClient.init(conf);
+        amrmClient.start();
+        NMClient nmClient = NMClient.createNMClient();
+        nmClient.init(conf);
+        nmClient.start();
+        ExecutorService launcher = ParallelUtil.newExecutor(LAUNCH_THREADS);
+        FinalApplicationStatus finalStatus = FinalApplicationStatus.FAILED;
+
+        try {
+            amrmClient.registerApplicationMaster("", 0, "");
+
+            Deque<AMRMClient.ContainerRequest> pending = new ArrayDeque<>();
+            Resource capability = Resource.newInstance(CONTAINER_MEMORY_MB, CONTAINER_VCORES);
+            for (int i = 0; i < containerCount; i++) {
+                AMRMClient.ContainerRequest request = new AMRMClient.ContainerRequest(capability, null, null,
+                        Priority.newInstance(0));
+                amrmClient.addContainerRequest(request);
+                pending.add(request);
+            }
+            ContainerLaunchContext launchContext = ContainerLaunchContext.newInstance(Collections.emptyMap(),
+                    Collections.emptyMap(), Collections.singletonList("true"), null, null, null);
+
+            long requestStart = System.nanoTime();
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (finished + launchFailures.get() < containerCount && System.currentTimeMillis() < deadline) {
+                AllocateResponse response = amrmClient.allocate((float) finished / containerCount);
+
+                for (Container container : response.getAllocatedContainers()) {
+                    if (pending.isEmpty()) {
+                        amrmClient.releaseAssignedContainer(container.getId());
+                        continue;
+                    }
+                    amrmClient.removeContainerRequest(pending.poll());
+                    allocatedSize = container.getResource();
+                    long now = System.nanoTime();
+                    scheduling.record(now - requestStart);
+                    allocatedAt.put(container.getId(), now);
+                    allocated++;
+
+                    launcher.submit(() -> {
+                        long start = System.nanoTime();
+                        try {
+                            nmClient.startContainer(container, launchContext);
+                            launching.record(System.nanoTime() - start);
+                        } catch (Exception e) {
+                            logger.warn("启动容器失败: {} - {}", container.getId(), e.getMessage());
+                            allocatedAt.remove(container.getId());
+                            launchFailures.incrementAndGet();
+                        }
+                    });
+                }
+
+                for (ContainerStatus status : response.getCompletedContainersStatuses()) {
+                    Long start = allocatedAt.remove(status.getContainerId());
+                    if (start == null) {
+                        continue;
+                    }
+                    finished++;
+                    if (status.getExitStatus() == 0) {
+                        lifetime.record(System.nanoTime() - start);
+                    } else {
+                        failures++;
+                        logger.warn("容器异常退出: {} - {}", status.getContainerId(), status.getDiagnostics());
+                    }
+                }
+
+                peakRunning = Math.max(peakRunning, allocatedAt.size());
+                Thread.sleep(HEARTBEAT_INTERVAL_MS);
+            }
+            long durationMs = (System.nanoTime() - requestStart) / 1000000;
+
+            if (finished + launchFailures.get() < containerCount) {
+                log(callback, "等待超时，" + (containerCount - finished - launchFailures.get()) + "个容器未完成");
+            }
+            report.getResults().add(HdfsBenchmarkService.summarize("容器调度", scheduling,
+                    containerCount - allocated, 0, durationMs));
+            report.getResults().add(HdfsBenchmarkService.summarize("容器启动", launching,
+                    launchFailures.get(), 0, durationMs));
+            BenchmarkResult completed = HdfsBenchmarkService.summarize("容器完成", lifetime,
+                    containerCount - lifetime.count(), 0, durationMs);
+            completed.getDetails().put("峰值并发容器数", (double) peakRunning);
+            completed.getDetails().put("单容器内存(MB)", (double) allocatedSize.getMemorySize());
+            completed.getDetails().put("单容器vcores", (double) allocatedSize.getVirtualCores());
+            report.getResults().add(completed);
+            for (BenchmarkResult result : report.getResults()) {
+                log(callback, HdfsBenchmarkService.describe(result));
+            }
+
+            finalStatus = failures == 0 && lifetime.count() == containerCount
+                    ? FinalApplicationStatus.SUCCEEDED : FinalApplicationStatus.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("YARN测试被中断", e);
+        } finally {
+            launcher.shutdownNow();
+            try {
+                amrmClient.unregisterApplicationMaster(finalStatus, "", null);
+            } catch (Exception e) {
+                logger.warn("注销ApplicationMaster失败: {}", e.getMessage());
+            }
+            nmClient.stop();
+            amrmClient.stop();
+        }
+    }
+
+    private static void log(LogCallback callback, String message) {
+        logger.info(message);
+        if (callback != null) {
+            callback.onLog(message);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.lyq.util;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 归档工具类
+ * 提供在内存中生成tar.gz归档的功能，用于一次性向远程节点推送多个文件
+ */
+public class ArchiveUtil {
+    private static final Logger logger = LogManager.getLogger(ArchiveUtil.class);
+
+    /**
+     * 将文本文件打包为tar.gz
+     *
+     * @param files 文件名 -> 文件内容（UTF-8）
+     * @return tar.gz归档内容
+     * @throws IOException 打包失败时抛出异常
+     */
+    public static byte[] createTarGz(Map<String, String> files) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(buffer))) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                byte[] content = file.getValue().getBytes(StandardCharsets.UTF_8);
+
+                TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(content.length);
+                entry.setMode(0644);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        }
+
+        logger.debug("已生成tar.gz归档，共{}个文件，{}字节", files.size(), buffer.size());
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,249 @@
+package com.lyq.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * rsync式块级差分工具类
+ * 远程节点用coreutils按固定大小分块计算旧文件的签名（cksum为弱校验，md5sum为强校验），
+ * 本地在新文件的每个字节偏移上滚动计算同样的POSIX CRC，弱校验命中后再比对MD5，
+ * 得到"复制旧文件某段"和"发送新数据"组成的差分指令
+ */
+public final class BlockDelta {
+
+    /**
+     * POSIX cksum使用的CRC-32多项式（高位在前）
+     */
+    private static final int POLYNOMIAL = 0x04C11DB7;
+
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ POLYNOMIAL : crc << 1;
+            }
+            CRC_TABLE[i] = crc;
+        }
+    }
+
+    /**
+     * 差分指令：copy为true时复制旧文件[offset, offset+length)，否则发送新文件[offset, offset+length)
+     */
+    public static final class Op {
+        private final boolean copy;
+        private final long offset;
+        private final int length;
+
+        Op(boolean copy, long offset, int length) {
+            this.copy = copy;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public boolean isCopy() {
+            return copy;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    private BlockDelta() {
+    }
+
+    /**
+     * 计算与 cksum 命令相同的校验值
+     *
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 校验值（无符号32位）
+     */
+    public static long cksum(byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = update(crc, data[i]);
+        }
+        return finish(crc, length);
+    }
+
+    /**
+     * 计算新文件相对旧文件签名的差分指令
+     * 旧文件只有完整的块参与匹配，相邻的复制和发送指令会合并
+     *
+     * @param data      新文件内容
+     * @param blockSize 签名的分块大小
+     * @param weak      旧文件每个块的cksum值
+     * @param strong    旧文件每个块的MD5（十六进制）
+     * @param oldLength 旧文件大小
+     * @return 差分指令
+     */
+    public static List<Op> diff(byte[] data, int blockSize, long[] weak, String[] strong, long oldLength) {
+        Map<Long, List<Integer>> index = new HashMap<>();
+        long fullBlocks = oldLength / blockSize;
+        for (int i = 0; i < weak.length && i < fullBlocks; i++) {
+            index.computeIfAbsent(weak[i], key -> new ArrayList<>()).add(i);
+        }
+
+        List<Op> ops = new ArrayList<>();
+        int literalStart = 0;
+        int position = 0;
+        if (!index.isEmpty() && data.length >= blockSize) {
+            int[] outTable = outTable(blockSize);
+            int crc = rawCrc(data, 0, blockSize);
+            while (true) {
+                int block = match(index, strong, data, position, blockSize, finish(crc, blockSize));
+                if (block >= 0) {
+                    add(ops, false, literalStart, position - literalStart);
+                    add(ops, true, (long) block * blockSize, blockSize);
+                    position += blockSize;
+                    literalStart = position;
+                    if (position + blockSize > data.length) {
+                        break;
+                    }
+                    crc = rawCrc(data, position, blockSize);
+                } else {
+                    if (position + blockSize >= data.length) {
+                        break;
+                    }
+                    crc = update(crc, data[position + blockSize]) ^ outTable[data[position] & 0xFF];
+                    position++;
+                }
+            }
+        }
+        add(ops, false, literalStart, data.length - literalStart);
+        return ops;
+    }
+
+    /**
+     * 差分中需要发送的新数据字节数
+     *
+     * @param ops 差分指令
+     * @return 字节数
+     */
+    public static long literalBytes(List<Op> ops) {
+        long bytes = 0;
+        for (Op op : ops) {
+            if (!op.isCopy()) {
+                bytes += op.getLength();
+            }
+        }
+        return bytes;
+    }
+
+    private static int match(Map<Long, List<Integer>> index, String[] strong, byte[] data, int position,
+                             int blockSize, long checksum) {
+        List<Integer> candidates = index.get(checksum);
+        if (candidates == null) {
+            return -1;
+        }
+        String digest = md5(data, position, blockSize);
+        for (int candidate : candidates) {
+            if (digest.equals(strong[candidate])) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private static void add(List<Op> ops, boolean copy, long offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (!ops.isEmpty()) {
+            Op last = ops.get(ops.size() - 1);
+            if (last.copy == copy && last.offset + last.length == offset
+                    && (long) last.length + length <= Integer.MAX_VALUE) {
+                ops.set(ops.size() - 1, new Op(copy, last.offset, last.length + length));
+                return;
+            }
+        }
+        ops.add(new Op(copy, offset, length));
+    }
+
+    private static int update(int crc, byte b) {
+        return (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ b) & 0xFF];
+    }
+
+    /**
+     * 初值为0的原始CRC，不含长度和取反，对数据是线性的，可以滚动计算
+     */
+    private static int rawCrc(byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = update(crc, data[i]);
+        }
+        return crc;
+    }
+
+    /**
+     * 追加长度字节（低位在前）并取反，得到cksum的输出值
+     */
+    private static long finish(int crc, long length) {
+        for (long n = length; n != 0; n >>>= 8) {
+            crc = update(crc, (byte) n);
+        }
+        return ~crc & 0xFFFFFFFFL;
+    }
+
+    /**
+     * 窗口滑出字节b时需要抵消的CRC分量，即 b 后跟 blockSize 个0字节的原始CRC
+     */
+    private static int[] outTable(int blockSize) {
+        int[] bits = new int[8];
+        for (int bit = 0; bit < 8; bit++) {
+            int crc = update(0, (byte) (1 << bit));
+            for (int i = 0; i < blockSize; i++) {
+                crc = update(crc, (byte) 0);
+            }
+            bits[bit] = crc;
+        }
+        int[] table = new int[256];
+        for (int b = 1; b < 256; b++) {
+            int lowest = Integer.numberOfTrailingZeros(b);
+            table[b] = table[b & (b - 1)] ^ bits[lowest];
+        }
+        return table;
+    }
+
+    /**
+     * 计算数据段的MD5
+     *
+     * @return 十六进制字符串
+     */
+    public static String md5(byte[] data, int offset, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            digest.update(data, offset, length);
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5不可用", e);
+        }
+    }
+
+    /**
+     * 字节数组转十六进制字符串
+     *
+     * @param bytes 字节数组
+     * @return 小写十六进制字符串
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            hex[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,134 @@
+package com.lyq.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JMX工具类
+ * 通过Hadoop守护进程Web端口的 /jmx 接口读取JMX指标（JSON格式）
+ */
+public class JmxUtil {
+    private static final Logger logger = LogManager.getLogger(JmxUtil.class);
+
+    /**
+     * 查询匹配的JMX Bean
+     *
+     * @param host          主机地址
+     * @param port          守护进程Web端口
+     * @param query         Bean名称或通配查询（如 Hadoop:service=NameNode,name=*）
+     * @param timeoutMillis 连接和读取超时（毫秒）
+     * @return Bean列表
+     * @throws IOException 请求失败或响应格式错误时抛出异常
+     */
+    public static JsonArray queryBeans(String host, int port, String query, int timeoutMillis) throws IOException {
+        URL url = new URL("http://" + host + ":" + port + "/jmx?qry="
+                + URLEncoder.encode(query, StandardCharsets.UTF_8.name()));
+
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setRequestProperty("Accept", "application/json");
+
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("JMX请求失败，HTTP状态码: " + status);
+            }
+
+            try (Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+                JsonElement root = JsonParser.parseReader(reader);
+                if (!root.isJsonObject() || !root.getAsJsonObject().has("beans")) {
+                    throw new IOException("JMX响应格式错误");
+                }
+                return root.getAsJsonObject().getAsJsonArray("beans");
+            }
+        } catch (IllegalStateException | com.google.gson.JsonParseException e) {
+            throw new IOException("JMX响应解析失败: " + e.getMessage(), e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * 查询单个JMX Bean
+     *
+     * @param host          主机地址
+     * @param port          守护进程Web端口
+     * @param beanName      Bean名称
+     * @param timeoutMillis 连接和读取超时（毫秒）
+     * @return Bean内容，不存在时返回null
+     * @throws IOException 请求失败时抛出异常
+     */
+    public static JsonObject getBean(String host, int port, String beanName, int timeoutMillis) throws IOException {
+        JsonArray beans = queryBeans(host, port, beanName, timeoutMillis);
+        if (beans.size() == 0) {
+            logger.debug("JMX Bean不存在: {}:{} {}", host, port, beanName);
+            return null;
+        }
+        return beans.get(0).getAsJsonObject();
+    }
+
+    /**
+     * 读取Bean中的数值属性
+     *
+     * @param bean         JMX Bean
+     * @param attribute    属性名
+     * @param defaultValue 属性不存在时的默认值
+     * @return 属性值
+     */
+    public static long getLong(JsonObject bean, String attribute, long defaultValue) {
+        if (bean == null || !bean.has(attribute) || bean.get(attribute).isJsonNull()) {
+            return defaultValue;
+        }
+        try {
+            return bean.get(attribute).getAsLong();
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 读取Bean中的浮点属性
+     *
+     * @param bean         JMX Bean
+     * @param attribute    属性名
+     * @param defaultValue 属性不存在时的默认值
+     * @return 属性值
+     */
+    public static double getDouble(JsonObject bean, String attribute, double defaultValue) {
+        if (bean == null || !bean.has(attribute) || bean.get(attribute).isJsonNull()) {
+            return defaultValue;
+        }
+        try {
+            return bean.get(attribute).getAsDouble();
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 读取Bean中的字符串属性
+     *
+     * @param bean      JMX Bean
+     * @param attribute 属性名
+     * @return 属性值，不存在时返回null
+     */
+    public static String getString(JsonObject bean, String attribute) {
+        if (bean == null || !bean.has(attribute) || bean.get(attribute).isJsonNull()) {
+            return null;
+        }
+        return bean.get(attribute).getAsString();
+    }
+}
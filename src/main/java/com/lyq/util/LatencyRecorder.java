@@ -0,0 +1,112 @@
+package com.lyq.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 延迟记录工具类
+ * 线程安全地记录每次操作的耗时，用于计算分位数和延迟分布
+ */
+public class LatencyRecorder {
+
+    /**
+     * 延迟分布的桶上限（毫秒），超过最后一个上限的计入最后一个桶
+     */
+    private static final long[] BUCKET_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 5000};
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    /**
+     * 记录一次操作耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * 已记录的操作次数
+     *
+     * @return 操作次数
+     */
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * 计算分位数延迟
+     *
+     * @param percentile 分位数（0-100）
+     * @return 延迟（毫秒），没有记录时返回0
+     */
+    public synchronized double percentileMs(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.min(count, Math.max(1, rank)) - 1] / 1e6;
+    }
+
+    /**
+     * 平均延迟
+     *
+     * @return 延迟（毫秒），没有记录时返回0
+     */
+    public synchronized double meanMs() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / 1e6 / count;
+    }
+
+    /**
+     * 最大延迟
+     *
+     * @return 延迟（毫秒），没有记录时返回0
+     */
+    public synchronized double maxMs() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max / 1e6;
+    }
+
+    /**
+     * 延迟分布
+     *
+     * @return 桶名称（如 "≤5ms"、">5000ms"）到操作次数的映射，按延迟升序，省略空桶
+     */
+    public synchronized Map<String, Long> histogram() {
+        long[] buckets = new long[BUCKET_BOUNDS_MS.length + 1];
+        for (int i = 0; i < count; i++) {
+            double ms = samples[i] / 1e6;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && ms > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+        }
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                histogram.put(i < BUCKET_BOUNDS_MS.length ? "≤" + BUCKET_BOUNDS_MS[i] + "ms"
+                        : ">" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms", buckets[i]);
+            }
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,257 @@
+package com.lyq.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射文件工具类
+ * 按固定大小的窗口只读映射本地文件，每次打开的输入流都是映射区的独立视图：
+ * 读取时直接从页缓存复制到调用方的缓冲区，不经过FileInputStream的本地临时缓冲区，
+ * 同一文件同时上传到多个节点时也只映射一次。
+ * 映射只在一批传输内有效：调用方在批次结束时关闭，所有输入流关闭后立即解除映射，
+ * 不再长期占用地址空间，Windows上也不会一直锁住安装包文件
+ */
+public final class MappedFile implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(MappedFile.class);
+
+    /**
+     * 单个映射窗口的大小，使超过2GB的文件也能映射
+     */
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final File file;
+    private final long length;
+    private final MappedByteBuffer[] windows;
+
+    /**
+     * 尚未关闭的输入流数量，映射关闭后等到归零才解除映射，避免读取已解除的映射区导致进程崩溃
+     */
+    private int openStreams;
+    private boolean closed;
+
+    private MappedFile(File file, long length, MappedByteBuffer[] windows) {
+        this.file = file;
+        this.length = length;
+        this.windows = windows;
+    }
+
+    /**
+     * 映射整个文件
+     * 映射建立后即关闭文件通道，映射区在关闭且所有输入流关闭前保持有效
+     *
+     * @param file 本地文件
+     * @return 映射文件
+     * @throws IOException 如果文件无法打开或映射
+     */
+    public static MappedFile map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = (int) ((length + WINDOW_SIZE - 1) / WINDOW_SIZE);
+            MappedByteBuffer[] windows = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = i * WINDOW_SIZE;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW_SIZE, length - position));
+            }
+            return new MappedFile(file, length, windows);
+        }
+    }
+
+    /**
+     * 文件大小
+     *
+     * @return 字节数
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * 打开从头读取的输入流，多个流可以并发读取，读取完毕后必须关闭
+     *
+     * @return 输入流
+     * @throws IllegalStateException 如果映射已关闭
+     */
+    public synchronized InputStream openStream() {
+        if (closed) {
+            throw new IllegalStateException("映射已关闭: " + file);
+        }
+        openStreams++;
+        return new WindowInputStream();
+    }
+
+    /**
+     * 关闭映射，没有打开的输入流时立即解除映射，否则在最后一个输入流关闭时解除
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (openStreams == 0) {
+            unmapAll();
+        }
+    }
+
+    private synchronized void streamClosed() {
+        openStreams--;
+        if (closed && openStreams == 0) {
+            unmapAll();
+        }
+    }
+
+    private void unmapAll() {
+        for (int i = 0; i < windows.length; i++) {
+            if (!Unmapper.unmap(windows[i])) {
+                logger.debug("无法立即解除映射，等待垃圾回收: {}", file);
+                break;
+            }
+        }
+        logger.debug("已解除映射: {}", file);
+    }
+
+    /**
+     * 立即解除映射区：Java 9及以上通过Unsafe.invokeCleaner，Java 8通过缓冲区的Cleaner
+     * 两者都不可用时交给垃圾回收
+     */
+    private static final class Unmapper {
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                invokeCleaner = null;
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static boolean unmap(MappedByteBuffer buffer) {
+            try {
+                if (INVOKE_CLEANER != null) {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                    return true;
+                }
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+                return true;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 依次读取各映射窗口的输入流，每个流持有窗口的独立副本视图，互不影响读取位置
+     */
+    private final class WindowInputStream extends InputStream {
+        private int index = -1;
+        private ByteBuffer current = ByteBuffer.allocate(0);
+        private boolean released;
+
+        /**
+         * 当前窗口读完时切换到下一个窗口
+         *
+         * @return 还有数据返回true
+         */
+        private boolean advance() {
+            while (!current.hasRemaining()) {
+                if (index + 1 >= windows.length) {
+                    return false;
+                }
+                current = windows[++index].duplicate();
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return advance() ? current.get() & 0xFF : -1;
+            } catch (InternalError e) {
+                throw truncated(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                if (!advance()) {
+                    return -1;
+                }
+                int n = Math.min(len, current.remaining());
+                current.get(buffer, offset, n);
+                return n;
+            } catch (InternalError e) {
+                throw truncated(e);
+            }
+        }
+
+        /**
+         * 文件在映射期间被截断时，访问超出文件末尾的映射页会触发InternalError，转换为普通的读取失败
+         */
+        private IOException truncated(InternalError e) {
+            return new IOException("读取映射文件失败，文件可能在传输过程中被修改: " + file, e);
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && advance()) {
+                int step = (int) Math.min(n - skipped, current.remaining());
+                current.position(current.position() + step);
+                skipped += step;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            long remaining = current.remaining();
+            for (int i = index + 1; i < windows.length; i++) {
+                remaining += windows[i].capacity();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            // 关闭后不再读取映射区
+            index = windows.length;
+            current = ByteBuffer.allocate(0);
+            streamClosed();
+        }
+    }
+}
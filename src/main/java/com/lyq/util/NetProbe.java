@@ -0,0 +1,147 @@
+package com.lyq.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+
+/**
+ * 节点间网络测试程序
+ * 由NetworkTestService上传到各节点，使用节点上的JDK运行，只依赖JDK标准库：
+ * recv 端监听端口、回应延迟探测并接收数据；send 端先测往返延迟，再发送指定字节数测吞吐量。
+ * 结果以 key=value 形式输出到标准输出
+ *
+ * <pre>
+ * java com.lyq.util.NetProbe recv &lt;端口&gt; &lt;等待秒数&gt;
+ * java com.lyq.util.NetProbe send &lt;目标IP&gt; &lt;端口&gt; &lt;字节数&gt; &lt;探测次数&gt;
+ * </pre>
+ */
+public final class NetProbe {
+
+    private static final int PING = 'p';
+    private static final int DATA = 'd';
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 发送端等待接收端启动的最长时间（毫秒）
+     */
+    private static final long CONNECT_RETRY_MS = 15000;
+
+    private NetProbe() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && "recv".equals(args[0])) {
+            receive(Integer.parseInt(args[1]), Integer.parseInt(args[2]) * 1000);
+        } else if (args.length == 5 && "send".equals(args[0])) {
+            send(args[1], Integer.parseInt(args[2]), Long.parseLong(args[3]), Integer.parseInt(args[4]));
+        } else {
+            System.err.println("usage: NetProbe recv <port> <seconds> | send <host> <port> <bytes> <pings>");
+            System.exit(2);
+        }
+    }
+
+    /**
+     * 接收端：接受一个连接，回应延迟探测后接收数据，最后回传收到的字节数
+     */
+    private static void receive(int port, int timeoutMillis) throws IOException {
+        try (ServerSocket server = new ServerSocket()) {
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(port));
+            server.setSoTimeout(timeoutMillis);
+
+            try (Socket socket = server.accept()) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+
+                int marker;
+                while ((marker = in.read()) == PING) {
+                    out.write(PING);
+                    out.flush();
+                }
+                if (marker != DATA) {
+                    return;
+                }
+
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long total = 0;
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    total += n;
+                }
+                DataOutputStream dataOut = new DataOutputStream(out);
+                dataOut.writeLong(total);
+                dataOut.flush();
+                System.out.println("received=" + total);
+            }
+        }
+    }
+
+    /**
+     * 发送端：测量往返延迟中位数，再发送数据，以接收端确认收完为结束时间计算吞吐量
+     */
+    private static void send(String host, int port, long bytes, int pings) throws IOException, InterruptedException {
+        try (Socket socket = connect(host, port)) {
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            // 第一次探测包含连接建立后的预热，不计入结果
+            long[] rtts = new long[pings];
+            for (int i = -1; i < pings; i++) {
+                long start = System.nanoTime();
+                out.write(PING);
+                out.flush();
+                if (in.read() != PING) {
+                    throw new IOException("unexpected ping response");
+                }
+                if (i >= 0) {
+                    rtts[i] = System.nanoTime() - start;
+                }
+            }
+            Arrays.sort(rtts);
+
+            out.write(DATA);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long start = System.nanoTime();
+            long remaining = bytes;
+            while (remaining > 0) {
+                int len = (int) Math.min(buffer.length, remaining);
+                out.write(buffer, 0, len);
+                remaining -= len;
+            }
+            out.flush();
+            socket.shutdownOutput();
+            long received = new DataInputStream(in).readLong();
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println("rtt_us=" + (pings > 0 ? rtts[pings / 2] / 1000 : 0));
+            System.out.println("bytes=" + received);
+            System.out.println("elapsed_us=" + elapsed / 1000);
+        }
+    }
+
+    private static Socket connect(String host, int port) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + CONNECT_RETRY_MS;
+        while (true) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), 5000);
+                return socket;
+            } catch (IOException e) {
+                socket.close();
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(200);
+            }
+        }
+    }
+}
@@ -4,9 +4,16 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -22,6 +29,11 @@ public class NetworkUtil {
     
     private static final Pattern pattern = Pattern.compile(IP_PATTERN);
     
+    /**
+     * 端口扫描时同时进行中的连接数上限（受进程文件描述符数量限制）
+     */
+    private static final int MAX_SCAN_INFLIGHT = 1024;
+    
     /**
      * 检查IP地址是否可达
      * 
@@ -75,6 +87,124 @@ public class NetworkUtil {
         }
     }
     
+    /**
+     * 建立一次TCP连接后立即关闭，失败时抛出原始异常供调用方区分原因
+     * （ConnectException表示端口拒绝连接，SocketTimeoutException表示无响应）
+     * 
+     * @param ip IP地址
+     * @param port 端口号
+     * @param timeout 超时时间（毫秒）
+     * @throws IOException 如果连接失败
+     */
+    public static void connect(String ip, int port, int timeout) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(ip, port), timeout);
+        }
+    }
+    
+    /**
+     * 检查主机是否在指定端口上有响应
+     * 连接成功或被拒绝都说明主机在线，只有超时和路由错误才视为无响应
+     * 
+     * @param ip IP地址
+     * @param port 端口号
+     * @param timeout 超时时间（毫秒）
+     * @return 如果主机有响应返回true，否则返回false
+     */
+    public static boolean isHostResponding(String ip, int port, int timeout) {
+        try {
+            connect(ip, port, timeout);
+            return true;
+        } catch (ConnectException e) {
+            return true;
+        } catch (IOException e) {
+            logger.debug("IP {} 端口 {} 无响应: {}", ip, port, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 扫描一批地址上的指定端口
+     * 使用非阻塞SocketChannel和Selector同时发起大量连接，每个地址单独计算超时，
+     * 扫描/24网段通常只需一个超时周期
+     * 
+     * @param ips 要扫描的IP地址列表
+     * @param port 端口号
+     * @param timeout 单个地址的连接超时时间（毫秒）
+     * @return 端口开放的IP地址（与输入顺序一致）
+     */
+    public static List<String> scanOpenPort(List<String> ips, int port, int timeout) {
+        List<String> openIps = new ArrayList<>();
+        if (ips == null || ips.isEmpty()) {
+            return openIps;
+        }
+        
+        boolean[] open = new boolean[ips.size()];
+        try (Selector selector = Selector.open()) {
+            int next = 0;
+            int inflight = 0;
+            while (next < ips.size() || inflight > 0) {
+                // 补充新的连接，保持进行中的连接数不超过上限
+                while (next < ips.size() && inflight < MAX_SCAN_INFLIGHT) {
+                    int index = next++;
+                    SocketChannel channel = SocketChannel.open();
+                    try {
+                        channel.configureBlocking(false);
+                        if (channel.connect(new InetSocketAddress(ips.get(index), port))) {
+                            open[index] = true;
+                            channel.close();
+                        } else {
+                            channel.register(selector, SelectionKey.OP_CONNECT,
+                                    new long[] {index, System.currentTimeMillis() + timeout});
+                            inflight++;
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        logger.debug("IP {} 端口 {} 连接失败: {}", ips.get(index), port, e.getMessage());
+                        channel.close();
+                    }
+                }
+                
+                selector.select(Math.max(1, Math.min(timeout, 100)));
+                
+                // 处理已完成的连接
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    int index = (int) ((long[]) key.attachment())[0];
+                    try {
+                        open[index] = ((SocketChannel) key.channel()).finishConnect();
+                    } catch (IOException e) {
+                        logger.debug("IP {} 端口 {} 未开放: {}", ips.get(index), port, e.getMessage());
+                    }
+                    key.cancel();
+                    key.channel().close();
+                    inflight--;
+                }
+                
+                // 关闭超时的连接
+                long now = System.currentTimeMillis();
+                for (SelectionKey key : selector.keys()) {
+                    if (key.isValid() && ((long[]) key.attachment())[1] <= now) {
+                        key.cancel();
+                        key.channel().close();
+                        inflight--;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("端口扫描失败: {}", e.getMessage());
+        }
+        
+        for (int i = 0; i < open.length; i++) {
+            if (open[i]) {
+                openIps.add(ips.get(i));
+            }
+        }
+        logger.info("扫描{}个地址的端口{}，开放: {}", ips.size(), port, openIps.size());
+        return openIps;
+    }
+    
     /**
      * 验证IP地址格式是否正确
      * 
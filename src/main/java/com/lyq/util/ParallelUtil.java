@@ -0,0 +1,107 @@
+package com.lyq.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * 并行执行工具类
+ * 提供按节点并发执行任务的功能，所有节点共享同一个截止时间
+ */
+public class ParallelUtil {
+    private static final Logger logger = LogManager.getLogger(ParallelUtil.class);
+
+    /**
+     * 单个元素上执行的任务
+     *
+     * @param <T> 输入类型
+     * @param <R> 结果类型
+     */
+    public interface Task<T, R> {
+        R run(T item) throws Exception;
+    }
+
+    /**
+     * 对列表中每个元素并发执行任务，结果顺序与输入顺序一致
+     * 任务抛出异常或超时时，使用fallback生成该元素的结果，不影响其他元素
+     *
+     * @param items         输入列表
+     * @param maxThreads    最大并发线程数
+     * @param timeoutMillis 整体截止时间（毫秒），小于等于0表示不限制
+     * @param task          要执行的任务
+     * @param fallback      失败时生成结果的函数
+     * @param <T>           输入类型
+     * @param <R>           结果类型
+     * @return 结果列表
+     */
+    public static <T, R> List<R> runAll(List<T> items, int maxThreads, long timeoutMillis,
+                                        Task<T, R> task, BiFunction<T, Exception, R> fallback) {
+        List<R> results = new ArrayList<>();
+        if (items == null || items.isEmpty()) {
+            return results;
+        }
+
+        ExecutorService executor = newExecutor(Math.max(1, Math.min(maxThreads, items.size())));
+        List<Future<R>> futures = new ArrayList<>();
+
+        for (T item : items) {
+            futures.add(executor.submit(() -> task.run(item)));
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        for (int i = 0; i < futures.size(); i++) {
+            Future<R> future = futures.get(i);
+            T item = items.get(i);
+
+            try {
+                if (timeoutMillis > 0) {
+                    long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                    results.add(future.get(remaining, TimeUnit.MILLISECONDS));
+                } else {
+                    results.add(future.get());
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("任务执行超时: {}", item);
+                results.add(fallback.apply(item, e));
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                logger.debug("任务执行失败: {} - {}", item, cause.getMessage());
+                results.add(fallback.apply(item, cause));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                results.add(fallback.apply(item, e));
+            }
+        }
+
+        executor.shutdownNow();
+        return results;
+    }
+
+    /**
+     * 创建使用守护线程的固定大小线程池
+     *
+     * @param threads 线程数
+     * @return 线程池
+     */
+    public static ExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "hads-parallel-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
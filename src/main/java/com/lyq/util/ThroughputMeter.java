@@ -0,0 +1,116 @@
+package com.lyq.util;
+
+/**
+ * 吞吐量计量工具类
+ * 由调用方按固定间隔传入累计字节数，计算区间瞬时速率、指数加权平滑速率（EWMA）和剩余时间
+ */
+public class ThroughputMeter {
+
+    /**
+     * 默认平滑系数，越大越偏向最近一次采样
+     */
+    private static final double DEFAULT_ALPHA = 0.3;
+
+    private final double alpha;
+    private long lastBytes;
+    private long lastNanos;
+    private int samples;
+    private double instantaneous;
+    private double smoothed;
+    private double peak;
+    private double min;
+
+    /**
+     * 构造函数，从当前时刻开始计量
+     */
+    public ThroughputMeter() {
+        this(DEFAULT_ALPHA);
+    }
+
+    /**
+     * 构造函数，从当前时刻开始计量
+     *
+     * @param alpha 平滑系数（0-1]
+     */
+    public ThroughputMeter(double alpha) {
+        this.alpha = alpha;
+        this.lastNanos = System.nanoTime();
+    }
+
+    /**
+     * 采样一次
+     *
+     * @param totalBytes 开始计量以来的累计字节数
+     */
+    public synchronized void update(long totalBytes) {
+        long now = System.nanoTime();
+        if (now <= lastNanos) {
+            return;
+        }
+        instantaneous = (totalBytes - lastBytes) * 1e9 / (now - lastNanos);
+        smoothed = samples == 0 ? instantaneous : alpha * instantaneous + (1 - alpha) * smoothed;
+        peak = samples == 0 ? instantaneous : Math.max(peak, instantaneous);
+        min = samples == 0 ? instantaneous : Math.min(min, instantaneous);
+        samples++;
+        lastBytes = totalBytes;
+        lastNanos = now;
+    }
+
+    /**
+     * 预计剩余时间
+     *
+     * @param remainingBytes 剩余字节数
+     * @return 毫秒，平滑速率为0时返回-1
+     */
+    public synchronized long etaMillis(long remainingBytes) {
+        if (remainingBytes <= 0) {
+            return 0;
+        }
+        return smoothed > 0 ? (long) (remainingBytes * 1000 / smoothed) : -1;
+    }
+
+    /**
+     * 已采样次数
+     *
+     * @return 次数
+     */
+    public synchronized int getSamples() {
+        return samples;
+    }
+
+    /**
+     * 最近一个采样区间的速率
+     *
+     * @return 字节/秒
+     */
+    public synchronized double getInstantaneous() {
+        return instantaneous;
+    }
+
+    /**
+     * 平滑速率
+     *
+     * @return 字节/秒
+     */
+    public synchronized double getSmoothed() {
+        return smoothed;
+    }
+
+    /**
+     * 最高采样速率
+     *
+     * @return 字节/秒
+     */
+    public synchronized double getPeak() {
+        return peak;
+    }
+
+    /**
+     * 最低采样速率
+     *
+     * @return 字节/秒
+     */
+    public synchronized double getMin() {
+        return min;
+    }
+}
@@ -0,0 +1,68 @@
+package com.lyq.util;
+
+/**
+ * 令牌桶限速工具类
+ * 按固定速率生成令牌（字节），允许最多一秒的突发量，多个线程共享同一个桶即可限制总速率
+ */
+public class TokenBucket {
+
+    private final long ratePerSecond;
+    private final long capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * 构造函数
+     *
+     * @param ratePerSecond 每秒生成的令牌数，必须大于0
+     */
+    public TokenBucket(long ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("速率必须大于0: " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = ratePerSecond;
+        this.tokens = ratePerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取指定数量的令牌，令牌不足时阻塞等待
+     * 超过桶容量的请求分多次获取
+     *
+     * @param permits 令牌数
+     * @throws InterruptedException 如果等待时被中断
+     */
+    public void acquire(long permits) throws InterruptedException {
+        long remaining = permits;
+        while (remaining > 0) {
+            long request = Math.min(remaining, capacity);
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= request) {
+                    tokens -= request;
+                    remaining -= request;
+                    continue;
+                }
+                waitNanos = (long) ((request - tokens) * 1e9 / ratePerSecond);
+            }
+            Thread.sleep(Math.max(1, waitNanos / 1000000));
+        }
+    }
+
+    /**
+     * 每秒生成的令牌数
+     *
+     * @return 速率
+     */
+    public long getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * ratePerSecond / 1e9);
+        lastRefillNanos = now;
+    }
+}